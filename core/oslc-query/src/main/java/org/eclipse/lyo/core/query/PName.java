@@ -17,6 +17,20 @@ public class PName {
 	public String namespace;
 	public String prefix;
 	public String local;
+	
+	public PName() {
+	}
+	
+	/**
+	 * Copy constructor, used to hand out the prefixed names of cached
+	 * clauses without exposing them to changes
+	 */
+	public PName(PName other) {
+		this.namespace = other.namespace;
+		this.prefix = other.prefix;
+		this.local = other.local;
+	}
+	
 	public String toString(){
 		return prefix + ':' + local;
 	}
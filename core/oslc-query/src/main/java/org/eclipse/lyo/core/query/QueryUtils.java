@@ -13,21 +13,25 @@
  */
 package org.eclipse.lyo.core.query;
 
-import java.lang.reflect.Proxy;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.tree.CommonErrorNode;
 import org.antlr.runtime.tree.CommonTree;
 import org.antlr.runtime.tree.Tree;
-import org.eclipse.lyo.core.query.impl.CompoundTermInvocationHandler;
-import org.eclipse.lyo.core.query.impl.PropertiesInvocationHandler;
-import org.eclipse.lyo.core.query.impl.SortTermsInvocationHandler;
+import org.eclipse.lyo.core.query.impl.OrderByClauseImpl;
+import org.eclipse.lyo.core.query.impl.PropertiesClauseImpl;
+import org.eclipse.lyo.core.query.impl.PropertiesImpl;
+import org.eclipse.lyo.core.query.impl.SelectClauseImpl;
+import org.eclipse.lyo.core.query.impl.WhereClauseImpl;
 import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
 import org.eclipse.lyo.oslc4j.core.NestedWildcardProperties;
 import org.eclipse.lyo.oslc4j.core.SingletonWildcardProperties;
@@ -35,16 +39,39 @@ import org.eclipse.lyo.oslc4j.core.SingletonWildcardProperties;
 /**
  * Utility methods for parsing various OSLC HTTP query
  * parameter clauses; e.g. oslc.where
+ * 
+ * <p>Parsed clauses are immutable and kept in a bounded cache keyed
+ * by expression and prefix map, so parsing the same expression again
+ * returns the same instance. The prefixed names of cached clauses are
+ * handed out as copies.
  */
 public class QueryUtils
 {
 	/**
 	 * A property list that selects all properties
 	 */
-	static public final Properties WILDCARD_PROPERTY_LIST = (Properties)
-		Proxy.newProxyInstance(Properties.class.getClassLoader(), 
-				new Class<?>[] { Properties.class },
-				new PropertiesInvocationHandler());
+	static public final Properties WILDCARD_PROPERTY_LIST =
+		new PropertiesImpl();
+	
+	/**
+	 * Maximum number of parsed clauses kept in {@link #parseCache}
+	 */
+	static private final int PARSE_CACHE_SIZE = 256;
+	
+	/**
+	 * Parsed clauses; the least recently used one is evicted when full
+	 */
+	static private final Map<ClauseKey, Object> parseCache =
+		Collections.synchronizedMap(new LinkedHashMap<ClauseKey, Object>(16, 0.75f, true) {
+			@Override
+			protected boolean
+			removeEldestEntry(Map.Entry<ClauseKey, Object> eldest)
+			{
+				return size() > PARSE_CACHE_SIZE;
+			}
+			
+			private static final long serialVersionUID = -2237419564914528395L;
+		});
 	
 	/**
 	 * Parse a oslc.prefix clause into a map between prefixes
@@ -68,6 +95,14 @@ public class QueryUtils
 			return new HashMap<String, String>();
 		}
 		
+		ClauseKey key = new ClauseKey(PrefixMap.class, prefixExpression, null);
+		PrefixMap cached = (PrefixMap)parseCache.get(key);
+		
+		// the prefix map is mutable, so hand out a copy
+		if (cached != null) {
+			return new PrefixMap(cached);
+		}
+		
 		OslcPrefixParser parser = new OslcPrefixParser(prefixExpression);
 		
 		try {
@@ -95,6 +130,8 @@ public class QueryUtils
 				prefixMap.put(pn, uri);
 			}
 			
+			parseCache.put(key, new PrefixMap(prefixMap));
+			
 			return prefixMap;
 			
 		} catch (RecognitionException e) {
@@ -120,6 +157,13 @@ public class QueryUtils
 		Map<String, String> prefixMap
 	) throws ParseException
 	{
+		ClauseKey key = new ClauseKey(WhereClause.class, whereExpression, prefixMap);
+		WhereClause whereClause = (WhereClause)parseCache.get(key);
+		
+		if (whereClause != null) {
+			return whereClause;
+		}
+		
 		OslcWhereParser parser = new OslcWhereParser(whereExpression);
 		
 		try {
@@ -136,11 +180,11 @@ public class QueryUtils
 				throw ((CommonErrorNode)child).trappedException;
 			}
 			
-			return (WhereClause)
-				Proxy.newProxyInstance(CompoundTerm.class.getClassLoader(), 
-						new Class<?>[] { CompoundTerm.class, WhereClause.class },
-						new CompoundTermInvocationHandler(
-								rawTree, true, prefixMap));
+			whereClause = new WhereClauseImpl(rawTree, prefixMap);
+			
+			parseCache.put(key.snapshot(), whereClause);
+			
+			return whereClause;
 			
 		} catch (RecognitionException e) {
 			throw new ParseException(e);
@@ -165,6 +209,13 @@ public class QueryUtils
 		Map<String, String> prefixMap
 	) throws ParseException
 	{
+		ClauseKey key = new ClauseKey(SelectClause.class, selectExpression, prefixMap);
+		SelectClause selectClause = (SelectClause)parseCache.get(key);
+		
+		if (selectClause != null) {
+			return selectClause;
+		}
+		
 		OslcSelectParser parser = new OslcSelectParser(selectExpression);
 		
 		try {
@@ -180,12 +231,11 @@ public class QueryUtils
 				throw ((CommonErrorNode)rawTree).trappedException;
 			}			 
 			
-			return (SelectClause)
-				Proxy.newProxyInstance(SelectClause.class.getClassLoader(), 
-						new Class<?>[] { SelectClause.class, Properties.class },
-						new PropertiesInvocationHandler(
-								(CommonTree)resultTree.getTree(),
-								prefixMap));
+			selectClause = new SelectClauseImpl(rawTree, prefixMap);
+			
+			parseCache.put(key.snapshot(), selectClause);
+			
+			return selectClause;
 			
 		} catch (RecognitionException e) {
 			throw new ParseException(e);
@@ -210,6 +260,13 @@ public class QueryUtils
 		Map<String, String> prefixMap
 	) throws ParseException
 	{
+		ClauseKey key = new ClauseKey(PropertiesClause.class, propertiesExpression, prefixMap);
+		PropertiesClause propertiesClause = (PropertiesClause)parseCache.get(key);
+		
+		if (propertiesClause != null) {
+			return propertiesClause;
+		}
+		
 		OslcSelectParser parser = new OslcSelectParser(propertiesExpression);
 		
 		try {
@@ -225,12 +282,11 @@ public class QueryUtils
 				throw ((CommonErrorNode)rawTree).trappedException;
 			}
 			
-			return (PropertiesClause)
-				Proxy.newProxyInstance(PropertiesClause.class.getClassLoader(), 
-						new Class<?>[] { PropertiesClause.class, Properties.class },
-						new PropertiesInvocationHandler(
-								(CommonTree)resultTree.getTree(),
-								prefixMap));
+			propertiesClause = new PropertiesClauseImpl(rawTree, prefixMap);
+			
+			parseCache.put(key.snapshot(), propertiesClause);
+			
+			return propertiesClause;
 			
 		} catch (RecognitionException e) {
 			throw new ParseException(e);
@@ -255,6 +311,13 @@ public class QueryUtils
 		Map<String, String> prefixMap
 	) throws ParseException
 	{
+		ClauseKey key = new ClauseKey(OrderByClause.class, orderByExpression, prefixMap);
+		OrderByClause orderByClause = (OrderByClause)parseCache.get(key);
+		
+		if (orderByClause != null) {
+			return orderByClause;
+		}
+		
 		OslcOrderByParser parser = new OslcOrderByParser(orderByExpression);
 		
 		try {
@@ -271,10 +334,11 @@ public class QueryUtils
 				throw ((CommonErrorNode)child).trappedException;
 			}
 			
-			return (OrderByClause)
-					Proxy.newProxyInstance(OrderByClause.class.getClassLoader(), 
-							new Class<?>[] { OrderByClause.class, SortTerms.class },
-							new SortTermsInvocationHandler(rawTree, prefixMap));
+			orderByClause = new OrderByClauseImpl(rawTree, prefixMap);
+			
+			parseCache.put(key.snapshot(), orderByClause);
+			
+			return orderByClause;
 			
 		} catch (RecognitionException e) {
 			throw new ParseException(e);
@@ -420,6 +484,14 @@ public class QueryUtils
 		String searchTermsExpression
 	) throws ParseException
 	{
+		ClauseKey key = new ClauseKey(SearchTermsClause.class, searchTermsExpression, null);
+		StringList cached = (StringList)parseCache.get(key);
+		
+		// the string list is mutable, so hand out a copy
+		if (cached != null) {
+			return new StringList(cached);
+		}
+		
 		OslcSearchTermsParser parser = new OslcSearchTermsParser(searchTermsExpression);
 		
 		try {
@@ -447,6 +519,8 @@ public class QueryUtils
 				stringList.add(rawString.substring(1, rawString.length()-1));
 			}
 			
+			parseCache.put(key, new StringList(stringList));
+			
 			return stringList;
 			
 		} catch (RecognitionException e) {
@@ -466,6 +540,12 @@ public class QueryUtils
 			super(size);
 		}
 		
+		public
+		StringList(StringList stringList)
+		{
+			super(stringList);
+		}
+		
 		public String
 		toString()
 		{
@@ -502,6 +582,12 @@ public class QueryUtils
 			super(size);
 		}
 		
+		public
+		PrefixMap(PrefixMap prefixMap)
+		{
+			super(prefixMap);
+		}
+		
 		public String
 		toString()
 		{
@@ -531,6 +617,74 @@ public class QueryUtils
 		
 		private static final long serialVersionUID = 1943909246265711359L;
 	}
+	
+	/**
+	 * Key of {@link #parseCache}: the kind of clause, its expression and
+	 * the prefix map the expression was resolved against
+	 */
+	private static class ClauseKey
+	{
+		public
+		ClauseKey(
+			Class<?> kind,
+			String expression,
+			Map<String, String> prefixMap
+		)
+		{
+			this.kind = kind;
+			this.expression = expression;
+			this.prefixMap = prefixMap;
+			this.hashCode = Objects.hash(kind, expression, prefixMap);
+		}
+		
+		/**
+		 * @return a key that is not affected by later changes to the
+		 * caller's prefix map
+		 */
+		public ClauseKey
+		snapshot()
+		{
+			if (prefixMap == null) {
+				return this;
+			}
+			
+			return new ClauseKey(kind, expression,
+								 new HashMap<String, String>(prefixMap));
+		}
+		
+		@Override
+		public boolean
+		equals(Object obj)
+		{
+			if (this == obj) {
+				return true;
+			}
+			
+			if (! (obj instanceof ClauseKey)) {
+				return false;
+			}
+			
+			ClauseKey other = (ClauseKey)obj;
+			
+			return hashCode == other.hashCode &&
+				kind == other.kind &&
+				Objects.equals(expression, other.expression) &&
+				Objects.equals(prefixMap, other.prefixMap);
+		}
+		
+		@Override
+		public int
+		hashCode()
+		{
+			return hashCode;
+		}
+		
+		private final Class<?> kind;
+		private final String expression;
+		private final Map<String, String> prefixMap;
+		private final int hashCode;
+	}
+	
 	/**
 	 * Implementation of {@link SingletonWildcardProperties}
 	 */
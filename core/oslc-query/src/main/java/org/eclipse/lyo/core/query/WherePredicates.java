@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javax.xml.namespace.QName;
+
+import org.apache.jena.datatypes.DatatypeFormatException;
+import org.apache.jena.datatypes.RDFDatatype;
+import org.apache.jena.datatypes.TypeMapper;
+import org.apache.jena.datatypes.xsd.XSDDateTime;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.model.IExtendedResource;
+import org.eclipse.lyo.oslc4j.core.model.IReifiedResource;
+import org.eclipse.lyo.oslc4j.core.model.IResource;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.eclipse.lyo.oslc4j.core.model.ResourceClassMetadata;
+import org.eclipse.lyo.oslc4j.core.model.XMLLiteral;
+
+/**
+ * Evaluation of a parsed oslc.where clause against resources held in
+ * memory, for adapters that have no triplestore to push the query to.
+ * 
+ * <p>A clause is compiled once into a {@link Predicate}; operands are
+ * converted and property URIs resolved at that time, so testing a
+ * resource only reads its property values. The predicates keep no
+ * state and can be shared between threads, e.g. to filter a
+ * {@link Collection#parallelStream() parallel stream}.
+ * 
+ * <p>As in the SPARQL translation of a query, a term is satisfied when
+ * at least one value of the property satisfies it. Values and operands
+ * are compared when they are of the same kind: numbers, strings,
+ * booleans, date-times or URIs. URIs only support <code>=</code> and
+ * <code>!=</code>. Typed literals are converted using the Jena datatype
+ * of their type, and language tagged strings only match values in the
+ * same language, or values that carry no language.
+ */
+public class WherePredicates
+{
+	private
+	WherePredicates()
+	{
+	}
+	
+	/**
+	 * Compile a where clause into a predicate over OSLC4J beans.
+	 * 
+	 * <p>Property values are read from the getters annotated with
+	 * {@link org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition
+	 * OslcPropertyDefinition} or, for other properties, from
+	 * {@link IExtendedResource#getExtendedProperties()}. The values of
+	 * <code>rdf:type</code> also include {@link IExtendedResource#getTypes()}
+	 * and {@link OslcResourceShape#describes()}. Nested terms are
+	 * evaluated against nested beans only, not against links.
+	 * 
+	 * @param whereClause the parsed where clause
+	 * 
+	 * @return the predicate
+	 * 
+	 * @throws IllegalArgumentException if a prefix is not defined or a
+	 * typed literal is not valid for its datatype
+	 */
+	public static Predicate<IResource>
+	beanPredicate(WhereClause whereClause)
+	{
+		return compile(whereClause, BEANS);
+	}
+	
+	/**
+	 * Compile a where clause into a predicate over Jena resources.
+	 * 
+	 * <p>Property values are the objects of the statements of the
+	 * resource in its model. Nested terms are evaluated against the
+	 * resources those statements point to.
+	 * 
+	 * @param whereClause the parsed where clause
+	 * 
+	 * @return the predicate
+	 * 
+	 * @throws IllegalArgumentException if a prefix is not defined or a
+	 * typed literal is not valid for its datatype
+	 */
+	public static Predicate<Resource>
+	resourcePredicate(WhereClause whereClause)
+	{
+		return compile(whereClause, RESOURCES);
+	}
+	
+	/**
+	 * Access to the property values of one kind of resource
+	 */
+	private interface ValueAccess<N>
+	{
+		/**
+		 * @return function returning the values of the property of a
+		 * resource
+		 */
+		Function<N, Collection<?>> values(PName property);
+		
+		/**
+		 * @return comparable form of a property value, or
+		 * <code>null</code> if it cannot be compared
+		 */
+		Object key(Object value);
+		
+		/**
+		 * @return the resource a nested term applies to, or
+		 * <code>null</code> if the value is not one
+		 */
+		N nested(Object value);
+	}
+	
+	static private <N> Predicate<N>
+	compile(
+		CompoundTerm compoundTerm,
+		ValueAccess<N> access
+	)
+	{
+		List<Predicate<N>> predicates = new ArrayList<Predicate<N>>();
+		
+		for (SimpleTerm term : compoundTerm.children()) {
+			predicates.add(compileTerm(term, access));
+		}
+		
+		if (predicates.size() == 1) {
+			return predicates.get(0);
+		}
+		
+		@SuppressWarnings("unchecked")
+		Predicate<N>[] terms = predicates.toArray(new Predicate[predicates.size()]);
+		
+		return resource -> {
+			for (Predicate<N> term : terms) {
+				if (! term.test(resource)) {
+					return false;
+				}
+			}
+			return true;
+		};
+	}
+	
+	static private <N> Predicate<N>
+	compileTerm(
+		SimpleTerm term,
+		ValueAccess<N> access
+	)
+	{
+		Function<N, Collection<?>> values = access.values(term.property());
+		
+		switch (term.type()) {
+		case COMPARISON:
+			ComparisonTerm comparison = (ComparisonTerm)term;
+			Predicate<Object> test =
+				compileComparison(comparison.operator(),
+								  operandKey(comparison.operand()));
+			return resource -> {
+				for (Object value : values.apply(resource)) {
+					if (test.test(access.key(value))) {
+						return true;
+					}
+				}
+				return false;
+			};
+			
+		case IN_TERM:
+			List<Value> operands = ((InTerm)term).values();
+			Object[] keys = new Object[operands.size()];
+			for (int index = 0; index < keys.length; index++) {
+				keys[index] = operandKey(operands.get(index));
+			}
+			return resource -> {
+				for (Object value : values.apply(resource)) {
+					Object key = access.key(value);
+					for (Object operand : keys) {
+						Integer order = compare(key, operand);
+						if (order != null && order == 0) {
+							return true;
+						}
+					}
+				}
+				return false;
+			};
+			
+		case NESTED:
+			Predicate<N> nestedPredicate = compile((CompoundTerm)term, access);
+			return resource -> {
+				for (Object value : values.apply(resource)) {
+					N nested = access.nested(value);
+					if (nested != null && nestedPredicate.test(nested)) {
+						return true;
+					}
+				}
+				return false;
+			};
+			
+		default:
+			throw new IllegalStateException("unimplemented type of simple term: " + term.type());
+		}
+	}
+	
+	static private Predicate<Object>
+	compileComparison(
+		ComparisonTerm.Operator operator,
+		Object operand
+	)
+	{
+		boolean ordered = ! (operand instanceof URI);
+		
+		switch (operator) {
+		case EQUALS:
+			return key -> {
+				Integer order = compare(key, operand);
+				return order != null && order == 0;
+			};
+		case NOT_EQUALS:
+			return key -> {
+				Integer order = compare(key, operand);
+				return order != null && order != 0;
+			};
+		case LESS_THAN:
+			return key -> {
+				Integer order = ordered ? compare(key, operand) : null;
+				return order != null && order < 0;
+			};
+		case LESS_EQUALS:
+			return key -> {
+				Integer order = ordered ? compare(key, operand) : null;
+				return order != null && order <= 0;
+			};
+		case GREATER_THAN:
+			return key -> {
+				Integer order = ordered ? compare(key, operand) : null;
+				return order != null && order > 0;
+			};
+		default:
+		case GREATER_EQUALS:
+			return key -> {
+				Integer order = ordered ? compare(key, operand) : null;
+				return order != null && order >= 0;
+			};
+		}
+	}
+	
+	/**
+	 * Compare a property value with an operand
+	 * 
+	 * @return the order of the value relative to the operand, or
+	 * <code>null</code> if they are not of the same kind. URIs that
+	 * differ have an arbitrary non-zero order.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static private Integer
+	compare(
+		Object key,
+		Object operand
+	)
+	{
+		if (key == null) {
+			return null;
+		}
+		
+		if (operand instanceof LangString) {
+			LangString langOperand = (LangString)operand;
+			if (key instanceof String) {
+				return ((String)key).compareTo(langOperand.value);
+			}
+			if (key instanceof LangString &&
+				((LangString)key).langTag.equals(langOperand.langTag)) {
+				return ((LangString)key).value.compareTo(langOperand.value);
+			}
+			return null;
+		}
+		
+		if (key.getClass() != operand.getClass()) {
+			return null;
+		}
+		
+		if (key instanceof URI) {
+			return key.equals(operand) ? 0 : 1;
+		}
+		
+		return ((Comparable)key).compareTo(operand);
+	}
+	
+	static private String
+	propertyUri(PName property)
+	{
+		if (property.namespace == null) {
+			throw new IllegalArgumentException("undefined prefix: " + property);
+		}
+		
+		return property.namespace + property.local;
+	}
+	
+	/**
+	 * @return comparable form of an operand
+	 */
+	static private Object
+	operandKey(Value operand)
+	{
+		switch (operand.type()) {
+		case URI_REF:
+			return URI.create(((UriRefValue)operand).value());
+		case BOOLEAN:
+			return ((BooleanValue)operand).value();
+		case DECIMAL:
+			return new BigDecimal(((DecimalValue)operand).value()).stripTrailingZeros();
+		case STRING:
+			return ((StringValue)operand).value();
+		case LANGED_STRING:
+			LangedStringValue langedValue = (LangedStringValue)operand;
+			return new LangString(langedValue.value(), langedValue.langTag());
+		case TYPED_STRING:
+			TypedValue typedValue = (TypedValue)operand;
+			RDFDatatype datatype = TypeMapper.getInstance().getTypeByName(
+					propertyUri(typedValue.prefixedName()));
+			if (datatype == null) {
+				return typedValue.value();
+			}
+			try {
+				return javaKey(datatype.parse(typedValue.value()));
+			} catch (DatatypeFormatException e) {
+				throw new IllegalArgumentException("invalid typed value: " + typedValue, e);
+			}
+		default:
+			throw new IllegalStateException("unspported literal value type: " + operand);
+		}
+	}
+	
+	/**
+	 * @return comparable form of a Java value, or <code>null</code> if
+	 * it cannot be compared
+	 */
+	static private Object
+	javaKey(Object value)
+	{
+		if (value instanceof String || value instanceof Boolean ||
+			value instanceof URI) {
+			return value;
+		}
+		
+		if (value instanceof BigDecimal) {
+			return ((BigDecimal)value).stripTrailingZeros();
+		}
+		
+		if (value instanceof BigInteger) {
+			return new BigDecimal((BigInteger)value).stripTrailingZeros();
+		}
+		
+		if (value instanceof Double || value instanceof Float) {
+			double doubleValue = ((Number)value).doubleValue();
+			return Double.isNaN(doubleValue) || Double.isInfinite(doubleValue) ?
+				null :
+				BigDecimal.valueOf(doubleValue).stripTrailingZeros();
+		}
+		
+		if (value instanceof Number) {
+			return BigDecimal.valueOf(((Number)value).longValue()).stripTrailingZeros();
+		}
+		
+		if (value instanceof Date) {
+			return ((Date)value).toInstant();
+		}
+		
+		if (value instanceof Calendar) {
+			return ((Calendar)value).toInstant();
+		}
+		
+		if (value instanceof XSDDateTime) {
+			try {
+				return ((XSDDateTime)value).asCalendar().toInstant();
+			} catch (RuntimeException e) {
+				// partial date-times such as xsd:gYear
+				return value.toString();
+			}
+		}
+		
+		if (value instanceof Character || value instanceof XMLLiteral) {
+			return value.toString();
+		}
+		
+		if (value instanceof IReifiedResource) {
+			return javaKey(((IReifiedResource<?>)value).getValue());
+		}
+		
+		if (value instanceof IResource) {
+			return ((IResource)value).getAbout();
+		}
+		
+		return null;
+	}
+	
+	static private Collection<?>
+	asCollection(Object value)
+	{
+		if (value == null) {
+			return Collections.emptyList();
+		}
+		
+		if (value instanceof Collection) {
+			return (Collection<?>)value;
+		}
+		
+		if (value instanceof Object[]) {
+			return Arrays.asList((Object[])value);
+		}
+		
+		if (value.getClass().isArray()) {
+			List<Object> values = new ArrayList<Object>(Array.getLength(value));
+			for (int index = 0; index < Array.getLength(value); index++) {
+				values.add(Array.get(value, index));
+			}
+			return values;
+		}
+		
+		return Collections.singletonList(value);
+	}
+	
+	/**
+	 * Values of properties of OSLC4J beans
+	 */
+	static private final ValueAccess<IResource> BEANS = new ValueAccess<IResource>()
+	{
+		@Override
+		public Function<IResource, Collection<?>>
+		values(PName pname)
+		{
+			String propertyUri = propertyUri(pname);
+			QName qname = new QName(pname.namespace, pname.local);
+			boolean isType = propertyUri.equals(OslcConstants.RDF_NAMESPACE + "type");
+			
+			return resource -> {
+				ResourceClassMetadata.PropertyMetadata property =
+					ResourceClassMetadata.forClass(resource.getClass()).getProperty(propertyUri);
+				
+				if (property != null) {
+					try {
+						return asCollection(property.getGetter().invoke(resource));
+					} catch (IllegalAccessException | InvocationTargetException e) {
+						throw new IllegalStateException("could not read " + propertyUri +
+														" of " + resource.getAbout(), e);
+					}
+				}
+				
+				if (isType) {
+					return types(resource);
+				}
+				
+				if (resource instanceof IExtendedResource) {
+					return asCollection(((IExtendedResource)resource).getExtendedProperties().get(qname));
+				}
+				
+				return Collections.emptyList();
+			};
+		}
+		
+		private Collection<?>
+		types(IResource resource)
+		{
+			List<Object> types = new ArrayList<Object>();
+			OslcResourceShape shape = resource.getClass().getAnnotation(OslcResourceShape.class);
+			
+			if (shape != null) {
+				for (String describes : shape.describes()) {
+					types.add(URI.create(describes));
+				}
+			}
+			
+			if (resource instanceof IExtendedResource) {
+				types.addAll(((IExtendedResource)resource).getTypes());
+			}
+			
+			return types;
+		}
+		
+		@Override
+		public Object
+		key(Object value)
+		{
+			return javaKey(value);
+		}
+		
+		@Override
+		public IResource
+		nested(Object value)
+		{
+			return value instanceof IResource ? (IResource)value : null;
+		}
+	};
+	
+	/**
+	 * Values of properties of Jena resources
+	 */
+	static private final ValueAccess<Resource> RESOURCES = new ValueAccess<Resource>()
+	{
+		@Override
+		public Function<Resource, Collection<?>>
+		values(PName pname)
+		{
+			org.apache.jena.rdf.model.Property property =
+				ResourceFactory.createProperty(propertyUri(pname));
+			
+			return resource -> resource.listProperties(property)
+					.mapWith(Statement::getObject)
+					.toList();
+		}
+		
+		@Override
+		public Object
+		key(Object value)
+		{
+			RDFNode node = (RDFNode)value;
+			
+			if (node.isURIResource()) {
+				try {
+					return URI.create(node.asResource().getURI());
+				} catch (IllegalArgumentException e) {
+					return null;
+				}
+			}
+			
+			if (! node.isLiteral()) {
+				return null;
+			}
+			
+			Literal literal = node.asLiteral();
+			
+			if (! literal.getLanguage().isEmpty()) {
+				return new LangString(literal.getLexicalForm(), literal.getLanguage());
+			}
+			
+			try {
+				Object key = javaKey(literal.getValue());
+				return key == null ? literal.getLexicalForm() : key;
+			} catch (DatatypeFormatException e) {
+				return literal.getLexicalForm();
+			}
+		}
+		
+		@Override
+		public Resource
+		nested(Object value)
+		{
+			RDFNode node = (RDFNode)value;
+			return node.isResource() ? node.asResource() : null;
+		}
+	};
+	
+	/**
+	 * Language tagged string; tags are compared case-insensitively
+	 */
+	static private final class LangString
+	{
+		LangString(
+			String value,
+			String langTag
+		)
+		{
+			this.value = value;
+			this.langTag = langTag.toLowerCase(Locale.ROOT);
+		}
+		
+		@Override
+		public boolean
+		equals(Object obj)
+		{
+			return obj instanceof LangString &&
+				value.equals(((LangString)obj).value) &&
+				langTag.equals(((LangString)obj).langTag);
+		}
+		
+		@Override
+		public int
+		hashCode()
+		{
+			return Objects.hash(value, langTag);
+		}
+		
+		final String value;
+		final String langTag;
+	}
+}
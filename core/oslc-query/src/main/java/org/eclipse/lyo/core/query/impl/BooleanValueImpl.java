@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import org.eclipse.lyo.core.query.BooleanValue;
+
+/**
+ * Implementation of {@link BooleanValue} interface
+ */
+class BooleanValueImpl extends ValueImpl implements BooleanValue
+{
+	public
+	BooleanValueImpl(boolean value)
+	{
+		super(Type.BOOLEAN);
+		
+		this.value = value;
+	}
+	
+	@Override
+	public boolean
+	value()
+	{
+		return value;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		return String.valueOf(value);
+	}
+	
+	private final boolean value;
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.ComparisonTerm;
+import org.eclipse.lyo.core.query.OslcWhereParser;
+import org.eclipse.lyo.core.query.Value;
+
+/**
+ * Implementation of {@link ComparisonTerm} interface
+ */
+class ComparisonTermImpl extends SimpleTermImpl implements ComparisonTerm
+{
+	public
+	ComparisonTermImpl(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		super(tree, Type.COMPARISON, prefixMap);
+		
+		switch (tree.getChild(1).getType()) {
+		case OslcWhereParser.EQUAL:
+			operator = Operator.EQUALS;
+			break;
+		case OslcWhereParser.NOT_EQUAL:
+			operator = Operator.NOT_EQUALS;
+			break;
+		case OslcWhereParser.LESS:
+			operator = Operator.LESS_THAN;
+			break;
+		case OslcWhereParser.LESS_EQUAL:
+			operator = Operator.LESS_EQUALS;
+			break;
+		case OslcWhereParser.GREATER:
+			operator = Operator.GREATER_THAN;
+			break;
+		default:
+		case OslcWhereParser.GREATER_EQUAL:
+			operator = Operator.GREATER_EQUALS;
+			break;
+		}
+		
+		operand = ValueImpl.createValue(tree.getChild(2),
+										"unspported literal value type",
+										prefixMap);
+	}
+	
+	@Override
+	public Operator
+	operator()
+	{
+		return operator;
+	}
+	
+	@Override
+	public Value
+	operand()
+	{
+		return operand;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		return property().toString() + operator.toString() +
+			operand.toString();
+	}
+	
+	private final Operator operator;
+	private final Value operand;
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.CompoundTerm;
+import org.eclipse.lyo.core.query.OslcWhereParser;
+import org.eclipse.lyo.core.query.SimpleTerm;
+
+/**
+ * Implementation of {@link CompoundTerm} interface
+ */
+class CompoundTermImpl extends SimpleTermImpl implements CompoundTerm
+{
+	protected
+	CompoundTermImpl(
+		Tree tree,
+		boolean isTopLevel,
+		Map<String, String> prefixMap
+	)
+	{
+		super(isTopLevel ? null : tree,
+			  isTopLevel ? Type.TOP_LEVEL : Type.NESTED,
+			  prefixMap);
+		
+		Tree currentTree =
+			isTopLevel ?
+				tree :
+				tree.getChild(1);
+		
+		List<SimpleTerm> children =
+			new ArrayList<SimpleTerm>(currentTree.getChildCount());
+		
+		for (int index = 0; index < currentTree.getChildCount(); index++) {
+			
+			Tree child = currentTree.getChild(index);
+			
+			switch(child.getType()) {
+			case OslcWhereParser.SIMPLE_TERM:
+				children.add(new ComparisonTermImpl(child, prefixMap));
+				break;
+			case OslcWhereParser.IN_TERM:
+				children.add(new InTermImpl(child, prefixMap));
+				break;
+			case OslcWhereParser.COMPOUND_TERM:
+				children.add(new CompoundTermImpl(child, false, prefixMap));
+				break;
+			default:
+				throw new IllegalStateException("unimplemented type of simple term: " + child.getText());
+			}
+		}
+		
+		this.children = Collections.unmodifiableList(children);
+	}
+	
+	@Override
+	public List<SimpleTerm>
+	children()
+	{
+		return children;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		boolean isTopLevel = type() == Type.TOP_LEVEL;
+		StringBuffer buffer = new StringBuffer();
+		
+		if (! isTopLevel) {
+			buffer.append(property().toString());
+			buffer.append('{');
+		}
+		
+		boolean first = true;
+		
+		for (SimpleTerm term : children) {
+			
+			if (first) {
+				first = false;
+			} else {
+				buffer.append(" and ");
+			}
+			
+			buffer.append(term.toString());
+		}
+		
+		if (! isTopLevel) {
+			buffer.append('}');
+		}
+		
+		return buffer.toString();
+	}
+	
+	private final List<SimpleTerm> children;
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.InTerm;
+import org.eclipse.lyo.core.query.Value;
+
+/**
+ * Implementation of {@link InTerm} interface
+ */
+class InTermImpl extends SimpleTermImpl implements InTerm
+{
+	public
+	InTermImpl(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		super(tree, Type.IN_TERM, prefixMap);
+		
+		Tree currentTree = tree.getChild(1);
+		List<Value> values = new ArrayList<Value>(currentTree.getChildCount());
+		
+		for (int index = 0; index < currentTree.getChildCount(); index++) {
+			values.add(ValueImpl.createValue(currentTree.getChild(index),
+											 "unspported literal value type",
+											 prefixMap));
+		}
+		
+		this.values = Collections.unmodifiableList(values);
+	}
+	
+	@Override
+	public List<Value>
+	values()
+	{
+		return values;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		StringBuffer buffer = new StringBuffer();
+		
+		buffer.append(property().toString());
+		buffer.append(" in [");
+		
+		boolean first = true;
+		
+		for (Value value : values) {
+			
+			if (first) {
+				first = false;
+			} else {
+				buffer.append(',');
+			}
+			
+			buffer.append(value.toString());
+		}
+		
+		buffer.append(']');
+		
+		return buffer.toString();
+	}
+	
+	private final List<Value> values;
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.NestedProperty;
+import org.eclipse.lyo.core.query.OslcSelectParser;
+import org.eclipse.lyo.core.query.Property;
+
+/**
+ * Implementation of {@link NestedProperty} interface
+ */
+class NestedPropertyImpl extends PropertyImpl implements NestedProperty
+{
+	public
+	NestedPropertyImpl(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		super(Type.NESTED_PROPERTY,
+			  tree.getChild(0).getType() == OslcSelectParser.WILDCARD ?
+					  null :
+					  TreeUtils.createPName(tree.getChild(0).getChild(0).getText(),
+											prefixMap));
+		
+		this.children = PropertiesImpl.createChildren(tree.getChild(1),
+													  prefixMap);
+	}
+	
+	@Override
+	public List<Property>
+	children()
+	{
+		return children;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		StringBuffer buffer = new StringBuffer();
+		
+		buffer.append(super.toString());
+		buffer.append('{');
+		PropertiesImpl.childrenToString(buffer, children);
+		buffer.append('}');
+		
+		return buffer.toString();
+	}
+	
+	private final List<Property> children;
+}
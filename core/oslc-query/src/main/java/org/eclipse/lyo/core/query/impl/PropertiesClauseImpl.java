@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.PropertiesClause;
+
+/**
+ * Implementation of {@link PropertiesClause} interface
+ */
+public class PropertiesClauseImpl extends PropertiesImpl implements PropertiesClause
+{
+	/**
+	 * @param tree root of the oslc.properties parse tree
+	 * @param prefixMap map between XML namespace prefixes and
+	 * associated URLs
+	 */
+	public
+	PropertiesClauseImpl(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		super(tree, prefixMap);
+	}
+}
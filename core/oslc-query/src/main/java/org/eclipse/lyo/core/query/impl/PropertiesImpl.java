@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.OslcSelectParser;
+import org.eclipse.lyo.core.query.Properties;
+import org.eclipse.lyo.core.query.Property;
+
+/**
+ * Implementation of {@link Properties} interface
+ */
+public class PropertiesImpl implements Properties
+{
+	/**
+	 * @param tree parse tree node whose children are the properties
+	 * @param prefixMap map between XML namespace prefixes and
+	 * associated URLs
+	 */
+	public
+	PropertiesImpl(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		this.children = createChildren(tree, prefixMap);
+	}
+	
+	/**
+	 * Construct a {@link Properties} that has a single
+	 * {@link org.eclipse.lyo.core.query.Wildcard Wildcard} child
+	 */
+	public
+	PropertiesImpl()
+	{
+		this.children =
+			Collections.<Property>singletonList(new WildcardImpl());
+	}
+	
+	@Override
+	public List<Property>
+	children()
+	{
+		return children;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		return childrenToString(new StringBuffer(), children).toString();
+	}
+	
+	/**
+	 * Generate a list of property children from a parse tree node
+	 * 
+	 * @param tree
+	 * @param prefixMap
+	 * 
+	 * @return the resulting property list
+	 */
+	static List<Property>
+	createChildren(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		List<Property> children = new ArrayList<Property>(tree.getChildCount());
+		
+		for (int index = 0; index < tree.getChildCount(); index++) {
+			
+			Tree treeChild = tree.getChild(index);
+			
+			switch (treeChild.getType())
+			{
+			case OslcSelectParser.WILDCARD:
+				children.add(new WildcardImpl());
+				break;
+			case OslcSelectParser.PREFIXED_NAME:
+				children.add(new IdentifierImpl(
+						TreeUtils.createPName(treeChild.getChild(0).getText(),
+											  prefixMap)));
+				break;
+			default:
+			case OslcSelectParser.NESTED_PROPERTIES:
+				children.add(new NestedPropertyImpl(treeChild, prefixMap));
+				break;
+			}
+		}
+		
+		return Collections.unmodifiableList(children);
+	}
+	
+	/**
+	 * Generate string representation of a children property list
+	 * 
+	 * @param buffer
+	 * @param children
+	 * 
+	 * @return the buffer representation of the property list
+	 */
+	static StringBuffer
+	childrenToString(
+		StringBuffer buffer,
+		List<Property> children
+	)
+	{
+		boolean first = true;
+		
+		for (Property property : children) {
+			
+			if (first) {
+				first = false;
+			} else {
+				buffer.append(',');
+			}
+			
+			buffer.append(property.toString());
+		}
+		
+		return buffer;
+	}
+	
+	private final List<Property> children;
+}
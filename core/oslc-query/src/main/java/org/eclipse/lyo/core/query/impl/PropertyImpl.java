@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import org.eclipse.lyo.core.query.PName;
+import org.eclipse.lyo.core.query.Property;
+
+/**
+ * Implementation of {@link Property} interface
+ */
+abstract class PropertyImpl implements Property
+{
+	protected
+	PropertyImpl(
+		Type type,
+		PName identifier
+	)
+	{
+		this.type = type;
+		this.identifier = identifier;
+	}
+	
+	@Override
+	public Type
+	type()
+	{
+		return type;
+	}
+	
+	@Override
+	public boolean
+	isWildcard()
+	{
+		return identifier == null;
+	}
+	
+	@Override
+	public PName
+	identifier()
+	{
+		if (identifier == null) {
+			throw new IllegalStateException("wildcard has no identifier");
+		}
+		
+		return new PName(identifier);
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		return identifier == null ? "*" : identifier.toString();
+	}
+	
+	private final Type type;
+	private final PName identifier;
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.PName;
+import org.eclipse.lyo.core.query.SimpleTerm;
+
+/**
+ * Implementation of {@link SimpleTerm} interface
+ */
+abstract class SimpleTermImpl implements SimpleTerm
+{
+	/**
+	 * @param tree parse tree node of the term, whose first child is
+	 * the property; <code>null</code> for a top-level term
+	 * @param type type of term
+	 * @param prefixMap map between XML namespace prefixes and
+	 * associated URLs
+	 */
+	protected
+	SimpleTermImpl(
+		Tree tree,
+		Type type,
+		Map<String, String> prefixMap
+	)
+	{
+		this.type = type;
+		this.property = tree == null ?
+				null :
+				TreeUtils.createPName(tree.getChild(0).toString(), prefixMap);
+	}
+	
+	@Override
+	public Type
+	type()
+	{
+		return type;
+	}
+	
+	@Override
+	public PName
+	property()
+	{
+		return property == null ? null : new PName(property);
+	}
+	
+	private final Type type;
+	private final PName property;
+}
@@ -11,44 +11,45 @@
  *
  * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
  */
-
 package org.eclipse.lyo.core.query.impl;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Method;
+import java.util.Map;
 
 import org.antlr.runtime.tree.Tree;
-import org.eclipse.lyo.core.query.Value;
-import org.eclipse.lyo.core.query.Value.Type;
+import org.eclipse.lyo.core.query.PName;
+import org.eclipse.lyo.core.query.SortTerm;
 
 /**
- * Proxy implementation of {@link Value} interface
+ * Implementation of {@link SortTerm} interface
  */
-abstract class ValueInvocationHandler implements InvocationHandler
+abstract class SortTermImpl implements SortTerm
 {
 	protected
-	ValueInvocationHandler(
+	SortTermImpl(
+		Type type,
 		Tree tree,
-		Type type
+		Map<String, String> prefixMap
 	)
 	{
-		this.tree = tree;
 		this.type = type;
+		this.identifier = TreeUtils.createPName(tree.getChild(0).getText(),
+												prefixMap);
 	}
 	
-	/**
-	 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
-	 */
-	public Object
-	invoke(
-		Object proxy,
-		Method method,
-		Object[] args
-	) throws Throwable
+	@Override
+	public Type
+	type()
 	{
 		return type;
 	}
 	
-	protected final Tree tree;
+	@Override
+	public PName
+	identifier()
+	{
+		return new PName(identifier);
+	}
+	
 	private final Type type;
+	private final PName identifier;
 }
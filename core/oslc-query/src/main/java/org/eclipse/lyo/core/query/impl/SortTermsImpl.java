@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.OslcOrderByParser;
+import org.eclipse.lyo.core.query.SortTerm;
+import org.eclipse.lyo.core.query.SortTerms;
+
+/**
+ * Implementation of {@link SortTerms} interface
+ */
+public class SortTermsImpl implements SortTerms
+{
+	/**
+	 * @param tree parse tree node whose children are the sort terms
+	 * @param prefixMap map between XML namespace prefixes and
+	 * associated URLs
+	 */
+	public
+	SortTermsImpl(
+		Tree tree,
+		Map<String, String> prefixMap
+	)
+	{
+		List<SortTerm> children = new ArrayList<SortTerm>(tree.getChildCount());
+		
+		for (int index = 0; index < tree.getChildCount(); index++) {
+			
+			Tree child = tree.getChild(index);
+			
+			switch(child.getType()) {
+			case OslcOrderByParser.SIMPLE_TERM:
+				children.add(new SimpleSortTermImpl(child, prefixMap));
+				break;
+			case OslcOrderByParser.SCOPED_TERM:
+				children.add(new ScopedSortTermImpl(child, prefixMap));
+				break;
+			default:
+				throw new IllegalStateException("unimplemented type of sort term: " + child.getText());
+			}
+		}
+		
+		this.children = Collections.unmodifiableList(children);
+	}
+	
+	@Override
+	public List<SortTerm>
+	children()
+	{
+		return children;
+	}
+	
+	@Override
+	public String
+	toString()
+	{
+		StringBuffer buffer = new StringBuffer();
+		boolean first = true;
+		
+		for (SortTerm term : children) {
+			
+			if (first) {
+				first = false;
+			} else {
+				buffer.append(',');
+			}
+			
+			buffer.append(term.toString());
+		}
+		
+		return buffer.toString();
+	}
+	
+	private final List<SortTerm> children;
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.Map;
+
+import org.eclipse.lyo.core.query.PName;
+
+/**
+ * Helpers shared by the parse tree node implementations
+ */
+final class TreeUtils
+{
+	private
+	TreeUtils()
+	{
+	}
+	
+	/**
+	 * Resolve a raw prefixed name against a prefix map
+	 * 
+	 * @param rawPName prefixed name, as written in the expression
+	 * @param prefixMap map between XML namespace prefixes and
+	 * associated URLs
+	 * 
+	 * @return the prefixed name
+	 */
+	static PName
+	createPName(
+		String rawPName,
+		Map<String, String> prefixMap
+	)
+	{
+		PName pname = new PName();
+		int colon = rawPName.indexOf(':');
+		
+		if (colon < 0) {
+			pname.local = rawPName;
+		} else { 
+			if (colon > 0) {
+				pname.prefix = rawPName.substring(0, colon);
+				pname.namespace = prefixMap == null ?
+						null :
+						prefixMap.get(pname.prefix);
+			}
+			pname.local = rawPName.substring(colon + 1);
+		}
+		
+		return pname;
+	}
+	
+	/**
+	 * Strip the delimiters surrounding a literal; e.g. quotes or angle
+	 * brackets
+	 */
+	static String
+	stripDelimiters(String rawValue)
+	{
+		// XXX - determine if need to unescape
+		return rawValue.substring(1, rawValue.length() - 1);
+	}
+}
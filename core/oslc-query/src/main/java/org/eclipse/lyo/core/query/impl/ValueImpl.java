@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.impl;
+
+import java.util.Map;
+
+import org.antlr.runtime.tree.Tree;
+import org.eclipse.lyo.core.query.OslcWhereParser;
+import org.eclipse.lyo.core.query.Value;
+
+/**
+ * Implementation of {@link Value} interface
+ */
+abstract class ValueImpl implements Value
+{
+	protected
+	ValueImpl(Type type)
+	{
+		this.type = type;
+	}
+	
+	@Override
+	public Type
+	type()
+	{
+		return type;
+	}
+	
+	/**
+	 * Create the operand of a {@link org.eclipse.lyo.core.query.ComparisonTerm}
+	 * or {@link org.eclipse.lyo.core.query.InTerm} from its parse tree node
+	 */
+	static Value
+	createValue(
+		Tree treeOperand,
+		String errorPrefix,
+		Map<String, String> prefixMap
+	)
+	{
+		switch (treeOperand.getType()) {
+		case OslcWhereParser.IRI_REF:
+			return new UriRefValueImpl(
+					TreeUtils.stripDelimiters(treeOperand.getText()));
+		case OslcWhereParser.BOOLEAN:
+			return new BooleanValueImpl(
+					Boolean.parseBoolean(treeOperand.getText()));
+		case OslcWhereParser.DECIMAL:
+			return new DecimalValueImpl(treeOperand.getText());
+		case OslcWhereParser.STRING_LITERAL:
+			return new StringValueImpl(
+					TreeUtils.stripDelimiters(treeOperand.getText()));
+		case OslcWhereParser.TYPED_VALUE:
+			return new TypedValueImpl(
+					TreeUtils.stripDelimiters(treeOperand.getChild(0).getText()),
+					TreeUtils.createPName(treeOperand.getChild(1).getText(),
+										  prefixMap));
+		case OslcWhereParser.LANGED_VALUE:
+			return new LangedStringValueImpl(
+					TreeUtils.stripDelimiters(treeOperand.getChild(0).getText()),
+					treeOperand.getChild(1).getText().substring(1));
+		default:
+			throw new IllegalStateException(
+					errorPrefix + ": " +
+						treeOperand.getText());
+		}
+	}
+	
+	private final Type type;
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.lyo.core.query.OrderByClause;
+import org.eclipse.lyo.core.query.PName;
+import org.eclipse.lyo.core.query.ParseException;
+import org.eclipse.lyo.core.query.PropertiesClause;
+import org.eclipse.lyo.core.query.QueryUtils;
+import org.eclipse.lyo.core.query.SearchTermsClause;
+import org.eclipse.lyo.core.query.SelectClause;
+import org.eclipse.lyo.core.query.WhereClause;
+import org.junit.Test;
+
+/**
+ * Tests of the cache of parsed clauses
+ */
+public class ParseCacheTest
+{
+	final static String PREFIXES = "qm=<http://qm.example.com/ns>," +
+			"oslc=<http://open-services.net/ns/core#>";
+
+	@Test
+	public void testSameExpressionReturnsSameClause() throws ParseException
+	{
+		Map<String, String> prefixMap = QueryUtils.parsePrefixes(PREFIXES);
+
+		WhereClause where = QueryUtils.parseWhere("qm:state=\"Open\"", prefixMap);
+		assertSame(where, QueryUtils.parseWhere("qm:state=\"Open\"",
+				new HashMap<String, String>(prefixMap)));
+
+		SelectClause select = QueryUtils.parseSelect("qm:a,oslc:b{*}", prefixMap);
+		assertSame(select, QueryUtils.parseSelect("qm:a,oslc:b{*}", prefixMap));
+
+		PropertiesClause properties = QueryUtils.parseProperties("qm:a,oslc:b{*}", prefixMap);
+		assertSame(properties, QueryUtils.parseProperties("qm:a,oslc:b{*}", prefixMap));
+		assertNotSame(select, properties);
+
+		OrderByClause orderBy = QueryUtils.parseOrderBy("+qm:priority", prefixMap);
+		assertSame(orderBy, QueryUtils.parseOrderBy("+qm:priority", prefixMap));
+	}
+
+	@Test
+	public void testPrefixMapIsPartOfKey() throws ParseException
+	{
+		Map<String, String> prefixMap = QueryUtils.parsePrefixes(PREFIXES);
+
+		WhereClause where = QueryUtils.parseWhere("qm:priority=\"high\"", prefixMap);
+		assertEquals("http://qm.example.com/ns", where.children().get(0).property().namespace);
+
+		prefixMap.put("qm", "http://other.example.com/ns");
+		WhereClause other = QueryUtils.parseWhere("qm:priority=\"high\"", prefixMap);
+		assertEquals("http://other.example.com/ns", other.children().get(0).property().namespace);
+
+		prefixMap.remove("qm");
+		assertNull(QueryUtils.parseWhere("qm:priority=\"high\"", prefixMap)
+				.children().get(0).property().namespace);
+	}
+
+	@Test
+	public void testRecentlyUsedClausesAreKept() throws ParseException
+	{
+		Map<String, String> prefixMap = QueryUtils.parsePrefixes(PREFIXES);
+
+		WhereClause where = QueryUtils.parseWhere("qm:state=\"Open\"", prefixMap);
+		for (int i = 0; i < 1000; i++) {
+			QueryUtils.parseWhere("qm:priority=" + i, prefixMap);
+			assertSame(where, QueryUtils.parseWhere("qm:state=\"Open\"", prefixMap));
+		}
+	}
+
+	@Test
+	public void testMutableResultsAreCopies() throws ParseException
+	{
+		Map<String, String> prefixMap = QueryUtils.parsePrefixes(PREFIXES);
+		prefixMap.put("dcterms", "http://purl.org/dc/terms/");
+		assertEquals(2, QueryUtils.parsePrefixes(PREFIXES).size());
+
+		SearchTermsClause searchTerms = QueryUtils.parseSearchTerms("\"foo\",\"bar\"");
+		searchTerms.clear();
+		assertEquals(2, QueryUtils.parseSearchTerms("\"foo\",\"bar\"").size());
+	}
+
+	@Test
+	public void testPrefixedNamesAreCopies() throws ParseException
+	{
+		Map<String, String> prefixMap = QueryUtils.parsePrefixes(PREFIXES);
+
+		WhereClause where = QueryUtils.parseWhere("qm:state=\"Open\"", prefixMap);
+		PName property = where.children().get(0).property();
+		property.namespace = "http://other.example.com/ns";
+		property.local = "priority";
+
+		PName reparsed = QueryUtils.parseWhere("qm:state=\"Open\"", prefixMap)
+				.children().get(0).property();
+		assertEquals("http://qm.example.com/ns", reparsed.namespace);
+		assertEquals("state", reparsed.local);
+
+		SelectClause select = QueryUtils.parseSelect("qm:a", prefixMap);
+		select.children().get(0).identifier().local = "b";
+		assertEquals("a", QueryUtils.parseSelect("qm:a", prefixMap)
+				.children().get(0).identifier().local);
+
+		OrderByClause orderBy = QueryUtils.parseOrderBy("+qm:priority", prefixMap);
+		orderBy.children().get(0).identifier().local = "state";
+		assertEquals("priority", QueryUtils.parseOrderBy("+qm:priority", prefixMap)
+				.children().get(0).identifier().local);
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.core.query.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.xml.namespace.QName;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+import org.eclipse.lyo.core.query.ParseException;
+import org.eclipse.lyo.core.query.QueryUtils;
+import org.eclipse.lyo.core.query.WherePredicates;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.IResource;
+import org.junit.Test;
+
+/**
+ * Tests of the in-memory evaluation of oslc.where clauses
+ */
+public class WherePredicatesTest
+{
+	final static String NS = "http://qm.example.com/ns#";
+	final static String PREFIXES = "qm=<" + NS + ">," +
+			"rdf=<http://www.w3.org/1999/02/22-rdf-syntax-ns#>," +
+			"xsd=<http://www.w3.org/2001/XMLSchema#>";
+
+	@OslcResourceShape(describes = NS + "TestCase")
+	public static class TestCase extends AbstractResource
+	{
+		private String state;
+		private Integer duration;
+		private Date submitted;
+		private TestCase owner;
+
+		public TestCase(String about, String state, Integer duration, Date submitted)
+		{
+			super(URI.create(about));
+			this.state = state;
+			this.duration = duration;
+			this.submitted = submitted;
+		}
+
+		@OslcPropertyDefinition(NS + "state")
+		public String getState()
+		{
+			return state;
+		}
+
+		public void setState(String state)
+		{
+			this.state = state;
+		}
+
+		@OslcPropertyDefinition(NS + "duration")
+		public Integer getDuration()
+		{
+			return duration;
+		}
+
+		public void setDuration(Integer duration)
+		{
+			this.duration = duration;
+		}
+
+		@OslcPropertyDefinition(NS + "submitted")
+		public Date getSubmitted()
+		{
+			return submitted;
+		}
+
+		public void setSubmitted(Date submitted)
+		{
+			this.submitted = submitted;
+		}
+
+		@OslcPropertyDefinition(NS + "owner")
+		public TestCase getOwner()
+		{
+			return owner;
+		}
+
+		public void setOwner(TestCase owner)
+		{
+			this.owner = owner;
+		}
+	}
+
+	@Test
+	public void testBeans() throws ParseException
+	{
+		TestCase open = new TestCase("http://example.com/1", "Open", 10, new Date(1000000000000L));
+		TestCase done = new TestCase("http://example.com/2", "Done", 47, new Date(1400000000000L));
+		TestCase closed = new TestCase("http://example.com/3", "Closed", null, null);
+		done.setOwner(open);
+		closed.getExtendedProperties().put(new QName(NS, "label"), "Extra");
+		List<IResource> resources = Arrays.<IResource>asList(open, done, closed);
+
+		assertEquals(Arrays.asList(open), filterBeans(resources, "qm:state=\"Open\""));
+		assertEquals(Arrays.asList(open, done), filterBeans(resources, "qm:state in [\"Open\",\"Done\"]"));
+		assertEquals(Arrays.asList(open), filterBeans(resources, "qm:duration<=\"46\"^^xsd:int"));
+		assertEquals(Arrays.asList(done), filterBeans(resources, "qm:duration>=47.00"));
+		assertEquals(Arrays.asList(done), filterBeans(resources, "qm:duration!=10.0"));
+		assertEquals(Arrays.asList(done), filterBeans(resources,
+				"qm:submitted>\"2010-01-01T00:00:00Z\"^^xsd:dateTime"));
+		assertEquals(Arrays.asList(done), filterBeans(resources, "qm:owner{qm:state=\"Open\"}"));
+		assertEquals(Arrays.asList(done), filterBeans(resources,
+				"qm:owner=<http://example.com/1> and qm:state!=\"Open\""));
+		assertEquals(Arrays.asList(closed), filterBeans(resources, "qm:label=\"Extra\"@en"));
+
+		closed.addType(URI.create(NS + "Special"));
+		assertEquals(Arrays.asList(closed), filterBeans(resources, "rdf:type=<" + NS + "Special>"));
+		assertTrue(WherePredicates.beanPredicate(QueryUtils.parseWhere("rdf:type=<" + NS + "TestCase>",
+				QueryUtils.parsePrefixes(PREFIXES))).test(open));
+	}
+
+	@Test
+	public void testJenaResources() throws ParseException
+	{
+		Model model = ModelFactory.createDefaultModel();
+		Property state = model.createProperty(NS, "state");
+		Property duration = model.createProperty(NS, "duration");
+		Property owner = model.createProperty(NS, "owner");
+
+		Resource open = model.createResource("http://example.com/1")
+				.addProperty(RDF.type, model.createResource(NS + "TestCase"))
+				.addProperty(state, "Open", "en")
+				.addLiteral(duration, 10L);
+		Resource done = model.createResource("http://example.com/2")
+				.addProperty(state, "Done")
+				.addProperty(duration, "47.0", XSDDatatype.XSDdecimal)
+				.addProperty(owner, open);
+		List<Resource> resources = Arrays.asList(open, done);
+
+		assertEquals(Arrays.asList(open), filterResources(resources, "qm:state=\"Open\"@EN"));
+		assertEquals(Arrays.asList(), filterResources(resources, "qm:state=\"Open\""));
+		assertEquals(Arrays.asList(done), filterResources(resources, "qm:state in [\"Done\"]"));
+		assertEquals(Arrays.asList(done), filterResources(resources, "qm:duration=47"));
+		assertEquals(Arrays.asList(open), filterResources(resources, "qm:duration<=\"10\"^^xsd:int"));
+		assertEquals(Arrays.asList(done), filterResources(resources, "qm:owner{rdf:type=<" + NS + "TestCase>}"));
+		assertEquals(Arrays.asList(), filterResources(resources, "qm:owner<<http://example.com/1>"));
+	}
+
+	@Test
+	public void testParallel() throws ParseException
+	{
+		List<IResource> resources = new ArrayList<IResource>();
+		for (int index = 0; index < 10000; index++) {
+			resources.add(new TestCase("http://example.com/" + index, "Open", index, null));
+		}
+
+		Predicate<IResource> predicate = WherePredicates.beanPredicate(
+				QueryUtils.parseWhere("qm:duration>=5000", QueryUtils.parsePrefixes(PREFIXES)));
+
+		assertEquals(5000, resources.parallelStream().filter(predicate).count());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUndefinedPrefix() throws ParseException
+	{
+		WherePredicates.beanPredicate(QueryUtils.parseWhere("zz:state=\"Open\"",
+				QueryUtils.parsePrefixes(PREFIXES)));
+	}
+
+	private static List<IResource> filterBeans(List<IResource> resources, String where)
+			throws ParseException
+	{
+		Map<String, String> prefixMap = QueryUtils.parsePrefixes(PREFIXES);
+		Predicate<IResource> predicate = WherePredicates.beanPredicate(
+				QueryUtils.parseWhere(where, prefixMap));
+		assertFalse(predicate.test(new TestCase("http://example.com/0", null, null, null)));
+		return resources.stream().filter(predicate).collect(Collectors.toList());
+	}
+
+	private static List<Resource> filterResources(List<Resource> resources, String where)
+			throws ParseException
+	{
+		Predicate<Resource> predicate = WherePredicates.resourcePredicate(
+				QueryUtils.parseWhere(where, QueryUtils.parsePrefixes(PREFIXES)));
+		assertTrue(predicate.negate().test(ModelFactory.createDefaultModel().createResource()));
+		return resources.stream().filter(predicate).collect(Collectors.toList());
+	}
+}
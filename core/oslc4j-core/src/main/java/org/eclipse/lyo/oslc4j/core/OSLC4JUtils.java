@@ -22,8 +22,11 @@ import java.net.URL;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.UriBuilder;
 import javax.xml.datatype.DatatypeConfigurationException;
@@ -83,6 +86,12 @@ public class OSLC4JUtils {
 	 */
 	private static List<ResourceShape> shapes = new ArrayList<>();
 
+	/**
+	 * Index of {@link #shapes} used for the type inference lookups. It is built by
+	 * {@link #setShapes(List)} and rebuilt when the list is replaced or resized.
+	 */
+	private static volatile ShapeIndex shapeIndex = new ShapeIndex(shapes);
+
 	public static boolean useStrictDatatypes() {
 		return parseBooleanPropertyOrDefault(OSLC4JConstants.OSLC4J_STRICT_DATATYPES, true);
 	}
@@ -121,82 +130,19 @@ public class OSLC4JUtils {
 		if (null == rdfTypesList || rdfTypesList.isEmpty() || null == propertyQName || null == originalValue) {
 			return null;
 		}
-		try {
-			// get the pre-defined list of ResourceShapes
-			List<ResourceShape> shapes = OSLC4JUtils.getShapes();
-
-			if (null == shapes || shapes.isEmpty()) {
-				return null;
-			}
-
-			// try to find the attribute type in the list of
-			// resource shapes
-			String propertyName = propertyQName.getNamespaceURI() + propertyQName.getLocalPart();
-
-			TypeMapper typeMapper = TypeMapper.getInstance();
-
-			for (ResourceShape shape : shapes) {
 
-				// ensure that the current resource shape matches the resource rdf:type
-				if (!doesResourceShapeMatchRdfTypes(shape, rdfTypesList)) {
-					continue;
-				}
-
-				org.eclipse.lyo.oslc4j.core.model.Property[] props = shape.getProperties();
-
-				for (org.eclipse.lyo.oslc4j.core.model.Property prop : props) {
-					URI propDefinition = prop.getPropertyDefinition();
-
-					if (!propertyName.equals(propDefinition.toString())) {
-						continue;
-					}
-					URI propValueType = prop.getValueType();
-
-					if (null == propValueType) {
-						continue;
-					}
+		// try to find the attribute type in the index of resource shapes
+		String propertyName = propertyQName.getNamespaceURI() + propertyQName.getLocalPart();
 
-					RDFDatatype dataTypeFromShape = typeMapper.getTypeByName(propValueType.toString());
+		ShapeProperty shapeProperty = getShapeIndex().find(rdfTypesList, propertyName, true);
 
-					// this is a literal type
-					if (null == dataTypeFromShape) {
-						continue;
-					}
-					try {
-
-						// special treatment for XMLLiteral
-						if (isXmlLiteralProperty(propValueType)) {
-							return xmlLiteralPropertyFrom(originalValue);
-						}
-
-						// special treatment for Date
-						if (isDateProperty(dataTypeFromShape)) {
-							return datePropertyFrom(originalValue);
-						}
-
-						// special treatment for Boolean
-						if (isBooleanProperty(dataTypeFromShape)) {
-							return booleanPropertyFrom(originalValue);
-
-						}
-
-						// special treatment for double
-						if (isDoubleProperty(dataTypeFromShape)) {
-							return doublePropertyFrom(originalValue);
-						}
-
-						// special treatment for float
-						if (isFloatProperty(dataTypeFromShape)) {
-							return floatPropertyFrom(originalValue);
-						}
-						Constructor<?> cons = dataTypeFromShape.getJavaClass()
-															   .getConstructor(String.class);
-						return cons.newInstance(originalValue.toString());
-					} catch (IllegalArgumentException | InvocationTargetException | DatatypeFormatException e) {
-						throw new IllegalArgumentException(e);
-					}
-				}
-			}
+		if (null == shapeProperty) {
+			return null;
+		}
+		try {
+			return shapeProperty.convert(originalValue);
+		} catch (IllegalArgumentException | InvocationTargetException | DatatypeFormatException e) {
+			throw new IllegalArgumentException(e);
 		} catch (NoSuchMethodException | IllegalAccessException e) {
 			// if there is any error while creating the new object, return null,
 			// i.e use the original value and not the new one.
@@ -204,8 +150,6 @@ public class OSLC4JUtils {
 			log.warn("Could not create extended value <{}> based on shape", propertyQName, e);
 			return null;
 		}
-
-		return null;
 	}
 
 	/**
@@ -353,6 +297,21 @@ public class OSLC4JUtils {
 	 */
 	public static void setShapes(List<ResourceShape> shapes) {
 		OSLC4JUtils.shapes = shapes;
+		shapeIndex = new ShapeIndex(shapes);
+	}
+
+	/**
+	 * @return the index of the current Resource Shapes. Shapes modified in place after
+	 *		   {@link #setShapes(List)} are only picked up when the list is set again or resized.
+	 */
+	private static ShapeIndex getShapeIndex() {
+		final List<ResourceShape> currentShapes = shapes;
+		ShapeIndex index = shapeIndex;
+		if (!index.isFor(currentShapes)) {
+			index = new ShapeIndex(currentShapes);
+			shapeIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -556,37 +515,6 @@ public class OSLC4JUtils {
 		return value;
 	}
 
-	/**
-	 * This method returns true if the given Resource Shape describes array
-	 * matches the list of RDF types.
-	 *
-	 * @param shape
-	 *			  Resource Shape
-	 * @param rdfTypesList
-	 *			  List of rdf:types
-	 *
-	 * @return True if the ResourceShape type is in the list of rdf:types,
-	 *		   otherwise returns false.
-	 */
-	private static boolean doesResourceShapeMatchRdfTypes(final ResourceShape shape,
-			final HashSet<String> rdfTypesList)
-	{
-		if (null != shape)
-		{
-			final URI[] describes = shape.getDescribes();
-			for (URI describeUri : describes)
-			{
-				final String describeUriStr = describeUri.toASCIIString();
-				if (rdfTypesList.contains(describeUriStr))
-				{
-					return true;
-				}
-			}
-		}
-
-		return false;
-	}
-
 	/**
 	 * Parse a boolean more strictly than Java standard library.
 	 *
@@ -694,48 +622,158 @@ public class OSLC4JUtils {
 	{
 		if (null != rdfTypesList && !rdfTypesList.isEmpty() && null != property )
 		{
-			try {
-				// get the pre-defined list of ResourceShapes
-				List<ResourceShape> shapes = OSLC4JUtils.getShapes();
+			// try to find the attribute type in the index of resource shapes
+			ShapeProperty shapeProperty = getShapeIndex().find(rdfTypesList, property.getURI(), false);
 
-				if (null != shapes && !shapes.isEmpty()) {
+			if (null != shapeProperty) {
+				return shapeProperty.dataType;
+			}
+		}
+		return null;
+	}
 
-					// try to find the attribute type in the list of
-					// resource shapes
-					String propertyName = property.getURI();
+	/**
+	 * Resource Shape properties with a value type, keyed by the rdf:types their shape describes and
+	 * by their property definition.
+	 */
+	private static final class ShapeIndex {
+		private final List<ResourceShape> source;
+		private final int size;
+		private final Map<String, Map<String, List<ShapeProperty>>> propertiesByType = new HashMap<>();
 
-					TypeMapper typeMapper = TypeMapper.getInstance();
+		ShapeIndex(final List<ResourceShape> shapes) {
+			this.source = shapes;
+			this.size = null == shapes ? 0 : shapes.size();
 
-					for (ResourceShape shape : shapes) {
+			if (null == shapes) {
+				return;
+			}
 
-						// ensure that the current resource shape matches the resource rdf:type
-						if (doesResourceShapeMatchRdfTypes(shape, rdfTypesList)) {
+			TypeMapper typeMapper = TypeMapper.getInstance();
+			int order = 0;
 
-							org.eclipse.lyo.oslc4j.core.model.Property[] props = shape
-									.getProperties();
+			for (ResourceShape shape : shapes) {
+				if (null == shape) {
+					continue;
+				}
 
-							for (org.eclipse.lyo.oslc4j.core.model.Property prop : props) {
-								URI propDefinition = prop.getPropertyDefinition();
+				for (org.eclipse.lyo.oslc4j.core.model.Property prop : shape.getProperties()) {
+					order++;
+					URI propDefinition = prop.getPropertyDefinition();
+					URI propValueType = prop.getValueType();
+
+					if (null == propDefinition || null == propValueType) {
+						continue;
+					}
 
-								if (propertyName.equals(propDefinition.toString())) {
-									URI propValueType = prop.getValueType();
+					ShapeProperty shapeProperty = new ShapeProperty(order, propValueType,
+							typeMapper.getTypeByName(propValueType.toString()));
 
-									if (null == propValueType) {
-										continue;
-									}
-									return typeMapper.getTypeByName(propValueType.toString());
-								}
-							}
-						}
+					for (URI describeUri : shape.getDescribes()) {
+						propertiesByType.computeIfAbsent(describeUri.toASCIIString(), key -> new HashMap<>())
+										.computeIfAbsent(propDefinition.toString(), key -> new ArrayList<>(1))
+										.add(shapeProperty);
 					}
 				}
-			} catch (Exception e) {
-				// if there is any error, return null
-				// TODO Andrew@2017-07-18: Throw an exception instead of throwing null
-				log.warn("Could not find Data Type <{}> based on shape", property, e);
+			}
+		}
+
+		boolean isFor(final List<ResourceShape> shapes) {
+			return source == shapes && size == (null == shapes ? 0 : shapes.size());
+		}
+
+		/**
+		 * @param literalOnly only consider properties whose value type is a known datatype
+		 *
+		 * @return the first matching property in the order of the shapes, or null if none
+		 */
+		ShapeProperty find(final Set<String> rdfTypes, final String propertyName, final boolean literalOnly) {
+			ShapeProperty result = null;
+			for (String rdfType : rdfTypes) {
+				Map<String, List<ShapeProperty>> properties = propertiesByType.get(rdfType);
+				List<ShapeProperty> candidates = null == properties ? null : properties.get(propertyName);
+
+				if (null == candidates) {
+					continue;
+				}
+				for (ShapeProperty candidate : candidates) {
+					if (null != result && candidate.order >= result.order) {
+						break;
+					}
+					if (!literalOnly || null != candidate.dataType) {
+						result = candidate;
+						break;
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A Resource Shape property value type with the conversion of extended values resolved upfront.
+	 */
+	private static final class ShapeProperty {
+		private enum Conversion { XML_LITERAL, DATE, BOOLEAN, DOUBLE, FLOAT, CONSTRUCTOR, NONE }
+
+		private final int order;
+		private final RDFDatatype dataType;
+		private final Conversion conversion;
+		private final Constructor<?> constructor;
+		private final NoSuchMethodException missingConstructor;
+
+		ShapeProperty(final int order, final URI propValueType, final RDFDatatype dataType) {
+			this.order = order;
+			this.dataType = dataType;
+
+			Constructor<?> stringConstructor = null;
+			NoSuchMethodException exception = null;
+			if (isXmlLiteralProperty(propValueType)) {
+				conversion = Conversion.XML_LITERAL;
+			} else if (null == dataType || null == dataType.getJavaClass()) {
+				conversion = Conversion.NONE;
+			} else if (isDateProperty(dataType)) {
+				conversion = Conversion.DATE;
+			} else if (isBooleanProperty(dataType)) {
+				conversion = Conversion.BOOLEAN;
+			} else if (isDoubleProperty(dataType)) {
+				conversion = Conversion.DOUBLE;
+			} else if (isFloatProperty(dataType)) {
+				conversion = Conversion.FLOAT;
+			} else {
+				conversion = Conversion.CONSTRUCTOR;
+				try {
+					stringConstructor = dataType.getJavaClass().getConstructor(String.class);
+				} catch (NoSuchMethodException e) {
+					exception = e;
+				}
+			}
+			this.constructor = stringConstructor;
+			this.missingConstructor = exception;
+		}
+
+		Object convert(final Object originalValue)
+				throws DatatypeConfigurationException, InstantiationException, IllegalAccessException,
+				InvocationTargetException, NoSuchMethodException {
+			switch (conversion) {
+			case XML_LITERAL:
+				return xmlLiteralPropertyFrom(originalValue);
+			case DATE:
+				return datePropertyFrom(originalValue);
+			case BOOLEAN:
+				return booleanPropertyFrom(originalValue);
+			case DOUBLE:
+				return doublePropertyFrom(originalValue);
+			case FLOAT:
+				return floatPropertyFrom(originalValue);
+			case CONSTRUCTOR:
+				if (null != missingConstructor) {
+					throw missingConstructor;
+				}
+				return constructor.newInstance(originalValue.toString());
+			default:
 				return null;
 			}
 		}
-		return null;
 	}
 }
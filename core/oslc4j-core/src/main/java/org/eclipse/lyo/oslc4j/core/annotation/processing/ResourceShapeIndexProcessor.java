@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.annotation.processing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+
+/**
+ * Annotation processor that lists the concrete classes annotated with
+ * {@link OslcResourceShape} in the {@value #INDEX_RESOURCE} resource of the
+ * compiled module, so that they can be found at runtime without scanning the
+ * class path.
+ * <p>
+ * The processor is registered as a service of this module, so it runs when
+ * compiling any module that depends on it, unless annotation processing is
+ * disabled.
+ * <p>
+ * Incremental builds may only compile some of the sources of a module, so the
+ * index left by an earlier build is merged: its classes are kept unless they
+ * were compiled again or no longer exist.
+ *
+ * @since 4.1.0
+ */
+// All sources are processed, to drop the classes no longer annotated
+@SupportedAnnotationTypes("*")
+public class ResourceShapeIndexProcessor extends AbstractProcessor {
+
+	/**
+	 * Class path resource listing the binary names of the indexed classes, one
+	 * per line.
+	 */
+	public static final String INDEX_RESOURCE = "META-INF/org.eclipse.lyo.oslc4j.resourceShapes";
+
+	private final SortedSet<String> classNames = new TreeSet<String>();
+
+	/**
+	 * Qualified names of the top-level types compiled.
+	 */
+	private final Set<String> compiledTypes = new HashSet<String>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (Element element : roundEnv.getRootElements()) {
+			if (element instanceof TypeElement) {
+				compiledTypes.add(((TypeElement) element).getQualifiedName().toString());
+			}
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(OslcResourceShape.class)) {
+			if (element.getKind() == ElementKind.CLASS && !element.getModifiers().contains(Modifier.ABSTRACT)) {
+				classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+			}
+		}
+
+		if (roundEnv.processingOver()) {
+			// Nothing to write if there is neither an annotated class nor an earlier index
+			if (readIndex() || !classNames.isEmpty()) {
+				writeIndex();
+			}
+		}
+
+		// Other processors may handle the annotation too
+		return false;
+	}
+
+	/**
+	 * Adds the classes of the index written by an earlier build that were not
+	 * compiled again and still exist.
+	 *
+	 * @return true if there is an earlier index
+	 */
+	private boolean readIndex() {
+		List<String> indexedClassNames = new ArrayList<String>();
+		try {
+			FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_RESOURCE);
+			try (BufferedReader reader = new BufferedReader(
+					new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8))) {
+				String className;
+				while ((className = reader.readLine()) != null) {
+					className = className.trim();
+					if (!className.isEmpty()) {
+						indexedClassNames.add(className);
+					}
+				}
+			}
+		} catch (IOException e) {
+			// No earlier index
+			return false;
+		}
+
+		for (String className : indexedClassNames) {
+			if (!isCompiled(className) && exists(className)) {
+				classNames.add(className);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the class is nested in or is one of the compiled types,
+	 *         in which case it is indexed again if it is still annotated
+	 */
+	private boolean isCompiled(String className) {
+		int nested = className.indexOf('$');
+		return compiledTypes.contains(nested < 0 ? className : className.substring(0, nested));
+	}
+
+	private boolean exists(String className) {
+		return processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null;
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+					INDEX_RESOURCE);
+			try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+				for (String className : classNames) {
+					writer.write(className);
+					writer.write('\n');
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+					"Could not write " + INDEX_RESOURCE + ": " + e.getMessage());
+		}
+	}
+}
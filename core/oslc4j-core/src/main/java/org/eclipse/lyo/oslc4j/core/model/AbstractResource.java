@@ -14,17 +14,16 @@
 package org.eclipse.lyo.oslc4j.core.model;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
 
 public abstract class AbstractResource implements IExtendedResource {
 	private URI about;
-	private Collection<URI> types = new ArrayList<URI>();
-	private Map<QName, Object> extendedProperties = new HashMap<QName, Object>();
+	// Most resources have no extended types or properties, so allocate their storage on first use
+	private Collection<URI> types = new LazyList<URI>();
+	private Map<QName, Object> extendedProperties = new LazyMap<QName, Object>();
 
 	protected AbstractResource(final URI about) {
 		super();
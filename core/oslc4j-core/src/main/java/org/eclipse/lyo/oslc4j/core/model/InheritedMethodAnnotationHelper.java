@@ -15,16 +15,126 @@ package org.eclipse.lyo.oslc4j.core.model;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.eclipse.lyo.oslc4j.core.annotation.OslcAllowedValue;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcAllowedValues;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDefaultValue;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcDescription;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcHidden;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcMaxSize;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcMemberProperty;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcOccurs;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcRange;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcRdfCollectionType;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcReadOnly;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcRepresentation;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcValueShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcValueType;
+
+/**
+ * Looks up method annotations that may be declared on the method itself, on an overridden method
+ * of a superclass or on a method of an implemented interface.
+ * <p>
+ * Results, including the absence of an annotation, are memoized per method and annotation type,
+ * so repeated marshalling of the same classes does not walk the type hierarchy again.
+ */
 public final class InheritedMethodAnnotationHelper
 {
+	/**
+	 * OSLC annotations placed on resource getters, resolved by {@link #warmUp(Class[])}.
+	 */
+	public static final List<Class<? extends Annotation>> PROPERTY_ANNOTATIONS =
+		Collections.unmodifiableList(Arrays.asList(OslcAllowedValue.class,
+												   OslcAllowedValues.class,
+												   OslcDefaultValue.class,
+												   OslcDescription.class,
+												   OslcHidden.class,
+												   OslcMaxSize.class,
+												   OslcMemberProperty.class,
+												   OslcName.class,
+												   OslcOccurs.class,
+												   OslcPropertyDefinition.class,
+												   OslcRange.class,
+												   OslcRdfCollectionType.class,
+												   OslcReadOnly.class,
+												   OslcRepresentation.class,
+												   OslcTitle.class,
+												   OslcValueShape.class,
+												   OslcValueType.class));
+
+	private static final Map<Method, Map<Class<? extends Annotation>, Optional<Annotation>>> CACHE =
+		new ConcurrentHashMap<>();
+
 	private InheritedMethodAnnotationHelper()
 	{
 		super();
 	}
-	
+
+	@SuppressWarnings("unchecked")
 	public static <T extends Annotation> T getAnnotation(final Method	method,
 														 final Class<T> annotationClass)
+	{
+		final Map<Class<? extends Annotation>, Optional<Annotation>> methodAnnotations =
+			CACHE.computeIfAbsent(method, m -> new ConcurrentHashMap<>());
+
+		Optional<Annotation> annotation = methodAnnotations.get(annotationClass);
+
+		if (annotation == null)
+		{
+			annotation = Optional.ofNullable(resolveAnnotation(method, annotationClass));
+			methodAnnotations.putIfAbsent(annotationClass, annotation);
+		}
+
+		return (T) annotation.orElse(null);
+	}
+
+	/**
+	 * Resolves the {@link #PROPERTY_ANNOTATIONS} of all public methods of the given classes, so
+	 * that the first request marshalling them does not pay for the lookups.
+	 */
+	public static void warmUp(final Class<?>... classes)
+	{
+		warmUp(Arrays.asList(classes), PROPERTY_ANNOTATIONS);
+	}
+
+	/**
+	 * Resolves the given annotations of all public methods of the given classes.
+	 */
+	public static void warmUp(final Collection<Class<?>>                      classes,
+							  final Collection<Class<? extends Annotation>> annotationClasses)
+	{
+		for (final Class<?> clazz : classes)
+		{
+			for (final Method method : clazz.getMethods())
+			{
+				for (final Class<? extends Annotation> annotationClass : annotationClasses)
+				{
+					getAnnotation(method, annotationClass);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Forgets all memoized lookups, e.g. after classes have been redefined.
+	 */
+	public static void clearCache()
+	{
+		CACHE.clear();
+	}
+
+	private static <T extends Annotation> T resolveAnnotation(final Method	method,
+															  final Class<T> annotationClass)
 	{
 		// First, try method for annotation
 
@@ -43,11 +153,10 @@ public final class InheritedMethodAnnotationHelper
 
 		while (currentSuperClass != null)
 		{
-			try
-			{
-				final Method superClassMethod = currentSuperClass.getMethod(method.getName(),
-																			method.getParameterTypes());
+			final Method superClassMethod = findPublicMethod(currentSuperClass, method);
 
+			if (superClassMethod != null)
+			{
 				final T superClassMethodAnnotation = superClassMethod.getAnnotation(annotationClass);
 
 				if (superClassMethodAnnotation != null)
@@ -55,10 +164,6 @@ public final class InheritedMethodAnnotationHelper
 					return superClassMethodAnnotation;
 				}
 			}
-			catch (final Exception exception)
-			{
-				// Ignore and fall through to code below
-			}
 
 			currentSuperClass = currentSuperClass.getSuperclass();
 		}
@@ -94,11 +199,10 @@ public final class InheritedMethodAnnotationHelper
 																				  final Method	 method,
 																				  final Class<T> annotationClass)
 	{
-		try
-		{
-			final Method interfaceMethod = interfac.getMethod(method.getName(),
-															  method.getParameterTypes());
+		final Method interfaceMethod = findPublicMethod(interfac, method);
 
+		if (interfaceMethod != null)
+		{
 			final T interfaceMethodAnnotation = interfaceMethod.getAnnotation(annotationClass);
 
 			if (interfaceMethodAnnotation != null)
@@ -106,10 +210,6 @@ public final class InheritedMethodAnnotationHelper
 				return interfaceMethodAnnotation;
 			}
 		}
-		catch (final Exception exception)
-		{
-			// Ignore and fall through to code below
-		}
 
 		final Class<?>[] superInterfaces = interfac.getInterfaces();
 
@@ -127,4 +227,33 @@ public final class InheritedMethodAnnotationHelper
 
 		return null;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Equivalent of {@link Class#getMethod(String, Class[])} that returns null instead of throwing
+	 * {@link NoSuchMethodException}, which is the common outcome when walking a type hierarchy.
+	 */
+	private static Method findPublicMethod(final Class<?> clazz,
+										   final Method	method)
+	{
+		final String	 name			= method.getName();
+		final Class<?>[] parameterTypes = method.getParameterTypes();
+
+		Method found = null;
+
+		for (final Method candidate : clazz.getMethods())
+		{
+			if (candidate.getName().equals(name)
+				&& Arrays.equals(candidate.getParameterTypes(), parameterTypes))
+			{
+				// Class.getMethod() prefers the most specific return type among bridge methods
+				if (found == null
+					|| found.getReturnType().isAssignableFrom(candidate.getReturnType()))
+				{
+					found = candidate;
+				}
+			}
+		}
+
+		return found;
+	}
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A {@link List} that allocates its {@link ArrayList} on the first element added.
+ *
+ * @see LazySet
+ */
+public final class LazyList<E> extends AbstractList<E> implements RandomAccess, Serializable
+{
+	private static final long serialVersionUID = 2914420916408123154L;
+
+	private ArrayList<E> delegate;
+
+	public LazyList()
+	{
+		super();
+	}
+
+	public LazyList(final Collection<? extends E> values)
+	{
+		this();
+
+		addAll(values);
+	}
+
+	@Override
+	public E get(final int index)
+	{
+		if (delegate == null)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+		}
+
+		return delegate.get(index);
+	}
+
+	@Override
+	public int size()
+	{
+		return delegate == null ? 0 : delegate.size();
+	}
+
+	@Override
+	public E set(final int index, final E value)
+	{
+		if (delegate == null)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+		}
+
+		return delegate.set(index, value);
+	}
+
+	@Override
+	public void add(final int index, final E value)
+	{
+		if (delegate == null)
+		{
+			delegate = new ArrayList<E>();
+		}
+
+		delegate.add(index, value);
+		modCount++;
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends E> values)
+	{
+		if (values.isEmpty())
+		{
+			return false;
+		}
+
+		modCount++;
+
+		if (delegate == null)
+		{
+			delegate = new ArrayList<E>(values);
+
+			return true;
+		}
+
+		return delegate.addAll(values);
+	}
+
+	@Override
+	public E remove(final int index)
+	{
+		if (delegate == null)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+		}
+
+		modCount++;
+
+		return delegate.remove(index);
+	}
+
+	@Override
+	public void clear()
+	{
+		modCount++;
+		delegate = null;
+	}
+}
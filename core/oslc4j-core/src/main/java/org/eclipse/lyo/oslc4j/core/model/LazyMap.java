@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link Map} that allocates its {@link HashMap} on the first entry put.
+ *
+ * @see LazySet
+ */
+public final class LazyMap<K, V> extends AbstractMap<K, V> implements Serializable
+{
+	private static final long serialVersionUID = -6009436785311405871L;
+
+	private HashMap<K, V> delegate;
+
+	public LazyMap()
+	{
+		super();
+	}
+
+	public LazyMap(final Map<? extends K, ? extends V> entries)
+	{
+		this();
+
+		putAll(entries);
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet()
+	{
+		return new AbstractSet<Map.Entry<K, V>>()
+		{
+			@Override
+			public Iterator<Map.Entry<K, V>> iterator()
+			{
+				return delegate == null ? Collections.<Map.Entry<K, V>>emptyIterator() : delegate.entrySet().iterator();
+			}
+
+			@Override
+			public int size()
+			{
+				return LazyMap.this.size();
+			}
+
+			@Override
+			public void clear()
+			{
+				LazyMap.this.clear();
+			}
+		};
+	}
+
+	@Override
+	public int size()
+	{
+		return delegate == null ? 0 : delegate.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return delegate == null || delegate.isEmpty();
+	}
+
+	@Override
+	public boolean containsKey(final Object key)
+	{
+		return delegate != null && delegate.containsKey(key);
+	}
+
+	@Override
+	public V get(final Object key)
+	{
+		return delegate == null ? null : delegate.get(key);
+	}
+
+	@Override
+	public V put(final K key, final V value)
+	{
+		if (delegate == null)
+		{
+			delegate = new HashMap<K, V>();
+		}
+
+		return delegate.put(key, value);
+	}
+
+	@Override
+	public void putAll(final Map<? extends K, ? extends V> entries)
+	{
+		if (entries.isEmpty())
+		{
+			return;
+		}
+
+		if (delegate == null)
+		{
+			delegate = new HashMap<K, V>(entries);
+		}
+		else
+		{
+			delegate.putAll(entries);
+		}
+	}
+
+	@Override
+	public V remove(final Object key)
+	{
+		return delegate == null ? null : delegate.remove(key);
+	}
+
+	@Override
+	public void clear()
+	{
+		delegate = null;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A {@link Set} that allocates its {@link HashSet} on the first element added.
+ * <p>
+ * Resources have many multi-valued properties that are typically empty. Until a value is added,
+ * this set reads from a shared empty set, so an unused property costs a single small object.
+ */
+public final class LazySet<E> extends AbstractSet<E> implements Serializable
+{
+	private static final long serialVersionUID = -1424837211046362380L;
+
+	private HashSet<E> delegate;
+
+	public LazySet()
+	{
+		super();
+	}
+
+	public LazySet(final Collection<? extends E> values)
+	{
+		this();
+
+		addAll(values);
+	}
+
+	private Set<E> read()
+	{
+		return delegate == null ? Collections.<E>emptySet() : delegate;
+	}
+
+	@Override
+	public Iterator<E> iterator()
+	{
+		return read().iterator();
+	}
+
+	@Override
+	public int size()
+	{
+		return delegate == null ? 0 : delegate.size();
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return delegate == null || delegate.isEmpty();
+	}
+
+	@Override
+	public boolean contains(final Object value)
+	{
+		return delegate != null && delegate.contains(value);
+	}
+
+	@Override
+	public boolean add(final E value)
+	{
+		if (delegate == null)
+		{
+			delegate = new HashSet<E>();
+		}
+
+		return delegate.add(value);
+	}
+
+	@Override
+	public boolean addAll(final Collection<? extends E> values)
+	{
+		if (values.isEmpty())
+		{
+			return false;
+		}
+
+		if (delegate == null)
+		{
+			delegate = new HashSet<E>(values);
+
+			return true;
+		}
+
+		return delegate.addAll(values);
+	}
+
+	@Override
+	public boolean remove(final Object value)
+	{
+		return delegate != null && delegate.remove(value);
+	}
+
+	@Override
+	public void clear()
+	{
+		delegate = null;
+	}
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespaceDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcSchema;
+import org.eclipse.lyo.oslc4j.core.exception.OslcCoreMissingSetMethodException;
+
+/**
+ * Reflective metadata of a resource class, shared by the providers and by
+ * {@link ResourceShapeFactory}.
+ * <p>
+ * The metadata is computed on first use and kept for the lifetime of the class, so marshalling and
+ * unmarshalling the same classes over and over does not scan their methods and package
+ * annotations again.
+ */
+public final class ResourceClassMetadata
+{
+	private static final String METHOD_NAME_START_GET = "get";
+	private static final String METHOD_NAME_START_IS  = "is";
+	private static final String METHOD_NAME_START_SET = "set";
+
+	private static final int METHOD_NAME_START_GET_LENGTH = METHOD_NAME_START_GET.length();
+	private static final int METHOD_NAME_START_IS_LENGTH  = METHOD_NAME_START_IS.length();
+
+	private static final ClassValue<ResourceClassMetadata> METADATA = new ClassValue<ResourceClassMetadata>()
+	{
+		@Override
+		protected ResourceClassMetadata computeValue(final Class<?> resourceClass)
+		{
+			return new ResourceClassMetadata(resourceClass);
+		}
+	};
+
+	private final Class<?>				 resourceClass;
+	private final OslcResourceShape		 resourceShapeAnnotation;
+	private final List<PropertyMetadata> properties;
+
+	private volatile Map<String, List<PropertyMetadata>> propertiesByDefinition;
+	private volatile Map<String, Method>			 setMethods;
+	private volatile List<Map.Entry<String, String>> namespaceDeclarations;
+	private volatile Map<String, String>			 namespaceMappings;
+
+	private ResourceClassMetadata(final Class<?> resourceClass)
+	{
+		this.resourceClass			 = resourceClass;
+		this.resourceShapeAnnotation = resourceClass.getAnnotation(OslcResourceShape.class);
+		this.properties				 = Collections.unmodifiableList(collectProperties(resourceClass));
+	}
+
+	public static ResourceClassMetadata forClass(final Class<?> resourceClass)
+	{
+		return METADATA.get(resourceClass);
+	}
+
+	public Class<?> getResourceClass()
+	{
+		return resourceClass;
+	}
+
+	/**
+	 * @return the {@link OslcResourceShape} annotation of the class, or null if it has none
+	 */
+	public OslcResourceShape getResourceShapeAnnotation()
+	{
+		return resourceShapeAnnotation;
+	}
+
+	/**
+	 * @return the public getters annotated with {@link OslcPropertyDefinition}, in the order of
+	 *		   {@link Class#getMethods()}
+	 */
+	public List<PropertyMetadata> getProperties()
+	{
+		return properties;
+	}
+
+	/**
+	 * @return the property with the given property definition URI, or null if the class has none
+	 */
+	public PropertyMetadata getProperty(final String propertyDefinition)
+	{
+		final List<PropertyMetadata> result = getProperties(propertyDefinition);
+
+		return result.isEmpty() ? null : result.get(0);
+	}
+
+	/**
+	 * @return the properties with the given property definition URI, in the order of
+	 *		   {@link #getProperties()}
+	 */
+	public List<PropertyMetadata> getProperties(final String propertyDefinition)
+	{
+		Map<String, List<PropertyMetadata>> result = propertiesByDefinition;
+
+		if (result == null)
+		{
+			result = new HashMap<String, List<PropertyMetadata>>();
+
+			for (final PropertyMetadata property : properties)
+			{
+				result.computeIfAbsent(property.getPropertyDefinition(),
+									   key -> new ArrayList<PropertyMetadata>(1))
+					  .add(property);
+			}
+
+			result.replaceAll((key, value) -> Collections.unmodifiableList(value));
+			propertiesByDefinition = result;
+		}
+
+		final List<PropertyMetadata> definitionProperties = result.get(propertyDefinition);
+
+		return definitionProperties == null ? Collections.<PropertyMetadata>emptyList() : definitionProperties;
+	}
+
+	/**
+	 * @return the setters of the class keyed by property definition
+	 *
+	 * @throws OslcCoreMissingSetMethodException if a property has no setter taking the return type
+	 *											 of its getter
+	 */
+	public Map<String, Method> getSetMethods()
+		   throws OslcCoreMissingSetMethodException
+	{
+		Map<String, Method> result = setMethods;
+
+		if (result == null)
+		{
+			result = new HashMap<String, Method>();
+
+			for (final PropertyMetadata property : properties)
+			{
+				if (property.getSetter() == null)
+				{
+					throw new OslcCoreMissingSetMethodException(resourceClass,
+																property.getGetter(),
+																new NoSuchMethodException(property.getSetterName()));
+				}
+
+				result.put(property.getPropertyDefinition(),
+						   property.getSetter());
+			}
+
+			result = Collections.unmodifiableMap(result);
+			setMethods = result;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Namespace prefixes declared by the {@link OslcSchema} annotations of the packages of the
+	 * class, its superclasses and its interfaces, including the ones of custom namespace providers.
+	 * <p>
+	 * The declarations are listed in the order they apply, so a later declaration of the same
+	 * prefix overrides an earlier one.
+	 */
+	public List<Map.Entry<String, String>> getNamespaceDeclarations()
+	{
+		List<Map.Entry<String, String>> result = namespaceDeclarations;
+
+		if (result == null)
+		{
+			result = new ArrayList<Map.Entry<String, String>>();
+
+			recursivelyCollectNamespaceDeclarations(result,
+													resourceClass);
+
+			result = Collections.unmodifiableList(result);
+			namespaceDeclarations = result;
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the prefix to namespace mappings resulting from {@link #getNamespaceDeclarations()}
+	 */
+	public Map<String, String> getNamespaceMappings()
+	{
+		Map<String, String> result = namespaceMappings;
+
+		if (result == null)
+		{
+			result = new LinkedHashMap<String, String>();
+
+			for (final Map.Entry<String, String> namespaceDeclaration : getNamespaceDeclarations())
+			{
+				result.put(namespaceDeclaration.getKey(),
+						   namespaceDeclaration.getValue());
+			}
+
+			result = Collections.unmodifiableMap(result);
+			namespaceMappings = result;
+		}
+
+		return result;
+	}
+
+	private static List<PropertyMetadata> collectProperties(final Class<?> resourceClass)
+	{
+		final List<PropertyMetadata> result = new ArrayList<PropertyMetadata>();
+
+		for (final Method method : resourceClass.getMethods())
+		{
+			if (method.getParameterTypes().length == 0)
+			{
+				final String methodName = method.getName();
+
+				final String setMethodName;
+				if ((methodName.startsWith(METHOD_NAME_START_GET)) &&
+					(methodName.length() > METHOD_NAME_START_GET_LENGTH))
+				{
+					setMethodName = METHOD_NAME_START_SET +
+									methodName.substring(METHOD_NAME_START_GET_LENGTH);
+				}
+				else if ((methodName.startsWith(METHOD_NAME_START_IS)) &&
+						 (methodName.length() > METHOD_NAME_START_IS_LENGTH))
+				{
+					setMethodName = METHOD_NAME_START_SET +
+									methodName.substring(METHOD_NAME_START_IS_LENGTH);
+				}
+				else
+				{
+					continue;
+				}
+
+				final OslcPropertyDefinition propertyDefinitionAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method,
+																														  OslcPropertyDefinition.class);
+
+				if (propertyDefinitionAnnotation != null)
+				{
+					Method setMethod;
+					try
+					{
+						setMethod = resourceClass.getMethod(setMethodName,
+															method.getReturnType());
+					}
+					catch (final NoSuchMethodException exception)
+					{
+						setMethod = null;
+					}
+
+					final OslcName nameAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method,
+																								  OslcName.class);
+
+					result.add(new PropertyMetadata(method,
+													setMethodName,
+													setMethod,
+													propertyDefinitionAnnotation,
+													nameAnnotation != null ? nameAnnotation.value() : ResourceShapeFactory.getDefaultPropertyName(method)));
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static void recursivelyCollectNamespaceDeclarations(final List<Map.Entry<String, String>> declarations,
+																final Class<?>						  resourceClass)
+	{
+		final Package resourcePackage = resourceClass.getPackage();
+		final OslcSchema oslcSchemaAnnotation = resourcePackage == null ? null : resourcePackage.getAnnotation(OslcSchema.class);
+
+		if (oslcSchemaAnnotation != null)
+		{
+			for (final OslcNamespaceDefinition oslcNamespaceDefinitionAnnotation : oslcSchemaAnnotation.value())
+			{
+				declarations.add(new AbstractMap.SimpleImmutableEntry<String, String>(oslcNamespaceDefinitionAnnotation.prefix(),
+																					  oslcNamespaceDefinitionAnnotation.namespaceURI()));
+			}
+
+			//Adding custom prefixes obtained from an implementation, if there is an implementation.
+			final Class<? extends IOslcCustomNamespaceProvider> customNamespaceProvider = oslcSchemaAnnotation.customNamespaceProvider();
+			if (!customNamespaceProvider.isInterface())
+			{
+				try
+				{
+					final IOslcCustomNamespaceProvider customNamespaceProviderImpl = customNamespaceProvider.newInstance();
+					final Map<String, String> customNamespacePrefixes = customNamespaceProviderImpl.getCustomNamespacePrefixes();
+					if (null != customNamespacePrefixes)
+					{
+						for (final Map.Entry<String, String> namespaceEntry : customNamespacePrefixes.entrySet())
+						{
+							declarations.add(new AbstractMap.SimpleImmutableEntry<String, String>(namespaceEntry.getKey(),
+																								  namespaceEntry.getValue()));
+						}
+					}
+				}
+				catch (final IllegalAccessException e)
+				{
+					throw new RuntimeException("The custom namespace provider implementation: " +
+											   customNamespaceProvider.getName() +
+											   ", must have a public no args construtor", e);
+				}
+				catch (final InstantiationException e)
+				{
+					throw new RuntimeException("The custom namespace provider must not be a abstract, nor interface class and " +
+											   "must have a public no args constructor", e);
+				}
+			}
+		}
+
+		final Class<?> superClass = resourceClass.getSuperclass();
+		if (superClass != null)
+		{
+			recursivelyCollectNamespaceDeclarations(declarations,
+													superClass);
+		}
+
+		for (final Class<?> interfac : resourceClass.getInterfaces())
+		{
+			recursivelyCollectNamespaceDeclarations(declarations,
+													interfac);
+		}
+	}
+
+	/**
+	 * A getter annotated with {@link OslcPropertyDefinition} and its companion setter.
+	 */
+	public static final class PropertyMetadata
+	{
+		private final Method				 getter;
+		private final String				 setterName;
+		private final Method				 setter;
+		private final OslcPropertyDefinition propertyDefinitionAnnotation;
+		private final String				 name;
+
+		private PropertyMetadata(final Method				  getter,
+								 final String				  setterName,
+								 final Method				  setter,
+								 final OslcPropertyDefinition propertyDefinitionAnnotation,
+								 final String				  name)
+		{
+			this.getter						  = getter;
+			this.setterName					  = setterName;
+			this.setter						  = setter;
+			this.propertyDefinitionAnnotation = propertyDefinitionAnnotation;
+			this.name						  = name;
+		}
+
+		public Method getGetter()
+		{
+			return getter;
+		}
+
+		/**
+		 * @return the name a setter of this property must have
+		 */
+		public String getSetterName()
+		{
+			return setterName;
+		}
+
+		/**
+		 * @return the setter taking the return type of the getter, or null if there is none
+		 */
+		public Method getSetter()
+		{
+			return setter;
+		}
+
+		public OslcPropertyDefinition getPropertyDefinitionAnnotation()
+		{
+			return propertyDefinitionAnnotation;
+		}
+
+		public String getPropertyDefinition()
+		{
+			return propertyDefinitionAnnotation.value();
+		}
+
+		/**
+		 * @return the value of the {@link OslcName} annotation of the getter, or the name of the
+		 *		   getter without its get or is prefix
+		 */
+		public String getName()
+		{
+			return name;
+		}
+	}
+}
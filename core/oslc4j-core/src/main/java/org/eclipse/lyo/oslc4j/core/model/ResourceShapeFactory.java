@@ -96,7 +96,8 @@ public class ResourceShapeFactory {
 													final Class<?> resourceClass,
 													final Set<Class<?>> verifiedClasses)
 		   throws OslcCoreApplicationException, URISyntaxException {
-		final OslcResourceShape resourceShapeAnnotation = resourceClass.getAnnotation(OslcResourceShape.class);
+		final ResourceClassMetadata metadata = ResourceClassMetadata.forClass(resourceClass);
+		final OslcResourceShape resourceShapeAnnotation = metadata.getResourceShapeAnnotation();
 		if (resourceShapeAnnotation == null) {
 			throw new OslcCoreMissingAnnotationException(resourceClass, OslcResourceShape.class);
 		}
@@ -115,42 +116,30 @@ public class ResourceShapeFactory {
 
 		final Set<String> propertyDefinitions = new HashSet<String>();
 
-		for (final Method method : resourceClass.getMethods()) {
-			if (method.getParameterTypes().length == 0) {
-				final String methodName = method.getName();
-				final int methodNameLength = methodName.length();
-				if (((methodName.startsWith(METHOD_NAME_START_GET)) && (methodNameLength > METHOD_NAME_START_GET_LENGTH)) ||
-					((methodName.startsWith(METHOD_NAME_START_IS)) && (methodNameLength > METHOD_NAME_START_IS_LENGTH))) {
-					final OslcPropertyDefinition propertyDefinitionAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method, OslcPropertyDefinition.class);
-					if (propertyDefinitionAnnotation != null) {
-						final String propertyDefinition = propertyDefinitionAnnotation.value();
-						if (propertyDefinitions.contains(propertyDefinition)) {
-							throw new OslcCoreDuplicatePropertyDefinitionException(resourceClass, propertyDefinitionAnnotation);
-						}
-
-						propertyDefinitions.add(propertyDefinition);
-
-						final Property property = createProperty(baseURI, resourceClass, method, propertyDefinitionAnnotation, verifiedClasses);
-						resourceShape.addProperty(property);
-
-						validateSetMethodExists(resourceClass, method);
-					}
-				}
+		for (final ResourceClassMetadata.PropertyMetadata propertyMetadata : metadata.getProperties()) {
+			final Method method = propertyMetadata.getGetter();
+			final OslcPropertyDefinition propertyDefinitionAnnotation = propertyMetadata.getPropertyDefinitionAnnotation();
+			final String propertyDefinition = propertyDefinitionAnnotation.value();
+			if (propertyDefinitions.contains(propertyDefinition)) {
+				throw new OslcCoreDuplicatePropertyDefinitionException(resourceClass, propertyDefinitionAnnotation);
 			}
+
+			propertyDefinitions.add(propertyDefinition);
+
+			final Property property = createProperty(baseURI, resourceClass, propertyMetadata, verifiedClasses);
+			resourceShape.addProperty(property);
+
+			validateSetMethodExists(resourceClass, method);
 		}
 
 		return resourceShape;
 	}
 
 	@SuppressWarnings("rawtypes") // supress warning when casting Arrays.asList() to a Collection
-	private static Property createProperty(final String baseURI, final Class<?> resourceClass, final Method method, final OslcPropertyDefinition propertyDefinitionAnnotation, final Set<Class<?>> verifiedClasses) throws OslcCoreApplicationException, URISyntaxException {
-		final String name;
-		final OslcName nameAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method, OslcName.class);
-		if (nameAnnotation != null) {
-			name = nameAnnotation.value();
-		} else {
-			name = getDefaultPropertyName(method);
-		}
+	private static Property createProperty(final String baseURI, final Class<?> resourceClass, final ResourceClassMetadata.PropertyMetadata propertyMetadata, final Set<Class<?>> verifiedClasses) throws OslcCoreApplicationException, URISyntaxException {
+		final Method method = propertyMetadata.getGetter();
+		final OslcPropertyDefinition propertyDefinitionAnnotation = propertyMetadata.getPropertyDefinitionAnnotation();
+		final String name = propertyMetadata.getName();
 
 		final String propertyDefinition = propertyDefinitionAnnotation.value();
 
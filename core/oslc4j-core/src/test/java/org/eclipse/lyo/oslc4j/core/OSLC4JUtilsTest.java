@@ -13,8 +13,21 @@
  */
 package org.eclipse.lyo.oslc4j.core;
 
+import java.math.BigInteger;
 import java.net.MalformedURLException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
+import javax.xml.namespace.QName;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.eclipse.lyo.oslc4j.core.model.Occurs;
+import org.eclipse.lyo.oslc4j.core.model.Property;
+import org.eclipse.lyo.oslc4j.core.model.ResourceShape;
+import org.eclipse.lyo.oslc4j.core.model.ValueType;
 import static org.junit.Assert.*;
 import org.junit.Before;
 import org.junit.Test;
@@ -115,6 +128,41 @@ public class OSLC4JUtilsTest {
         assertEquals("https://hostname.example.com:12357/myapp/resources", fullUri);
     }
 
+    @Test
+    public void inferTypesFromShapes() throws Exception {
+        final String ns = "http://example.com/ns#";
+        final List<ResourceShape> shapes = new ArrayList<>();
+        shapes.add(shape(ns + "A", ns + "size", ValueType.Integer));
+        shapes.add(shape(ns + "B", ns + "size", ValueType.Boolean));
+        OSLC4JUtils.setShapes(shapes);
+        try {
+            final QName size = new QName(ns, "size");
+            final HashSet<String> typeB = new HashSet<>(Arrays.asList(ns + "B"));
+            final HashSet<String> typesAB = new HashSet<>(Arrays.asList(ns + "B", ns + "A"));
+
+            assertEquals(Boolean.TRUE, OSLC4JUtils.getValueBasedOnResourceShapeType(typeB, size, "1"));
+            assertEquals(BigInteger.ONE, OSLC4JUtils.getValueBasedOnResourceShapeType(typesAB, size, "1"));
+            assertNull(OSLC4JUtils.getValueBasedOnResourceShapeType(typeB, new QName(ns, "other"), "1"));
+            assertEquals(XSDDatatype.XSDboolean, OSLC4JUtils.getDataTypeBasedOnResourceShapeType(typeB,
+                    ResourceFactory.createProperty(ns, "size")));
+
+            // Shapes added to the list after it was set are picked up too
+            final HashSet<String> typeC = new HashSet<>(Arrays.asList(ns + "C"));
+            assertNull(OSLC4JUtils.getValueBasedOnResourceShapeType(typeC, size, "1.5"));
+            OSLC4JUtils.getShapes().add(shape(ns + "C", ns + "size", ValueType.Double));
+            assertEquals(Double.valueOf(1.5), OSLC4JUtils.getValueBasedOnResourceShapeType(typeC, size, "1.5"));
+        } finally {
+            OSLC4JUtils.setShapes(new ArrayList<>());
+        }
+    }
+
+    private ResourceShape shape(final String describes, final String propertyDefinition, final ValueType valueType) {
+        final ResourceShape shape = new ResourceShape();
+        shape.addDescribeItem(URI.create(describes));
+        shape.addProperty(new Property("size", Occurs.ZeroOrOne, URI.create(propertyDefinition), valueType));
+        return shape;
+    }
+
     private HttpServletRequest mockRequest() {
         HttpServletRequest mockedRequest = Mockito.mock(HttpServletRequest.class);
         when(mockedRequest.getScheme()).thenReturn("https");
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.annotation.processing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResourceShapeIndexProcessorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File sources;
+	private File classes;
+
+	@Before
+	public void setUp() throws IOException {
+		sources = folder.newFolder("sources");
+		classes = folder.newFolder("classes");
+	}
+
+	@Test
+	public void indexesAnnotatedClasses() throws Exception {
+		compile(source("Cat", true), source("Dog", true), source("Owner", false));
+
+		assertEquals(Arrays.asList("shapes.Cat", "shapes.Dog"), index());
+	}
+
+	@Test
+	public void partialRecompileKeepsTheOtherClasses() throws Exception {
+		File cat = source("Cat", true);
+		compile(cat, source("Dog", true));
+
+		compile(cat);
+
+		assertEquals(Arrays.asList("shapes.Cat", "shapes.Dog"), index());
+	}
+
+	@Test
+	public void partialRecompileDropsRemovedAndUnannotatedClasses() throws Exception {
+		compile(source("Cat", true), source("Dog", true), source("Fish", true));
+
+		assertTrue(new File(classes, "shapes/Fish.class").delete());
+		compile(source("Dog", false));
+
+		assertEquals(Arrays.asList("shapes.Cat"), index());
+	}
+
+	private File source(String name, boolean annotated) throws IOException {
+		File source = new File(sources, name + ".java");
+		String annotation = annotated ? "@" + OslcResourceShape.class.getName() + "(title = \"" + name + "\") " : "";
+		Files.write(source.toPath(),
+				("package shapes; " + annotation + "public class " + name + " {}").getBytes(StandardCharsets.UTF_8));
+		return source;
+	}
+
+	private void compile(File... sources) throws Exception {
+		String classPath = classes.getPath() + File.pathSeparator
+				+ new File(OslcResourceShape.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		List<String> arguments = new ArrayList<String>(Arrays.asList("-processor",
+				ResourceShapeIndexProcessor.class.getName(), "-processorpath", classPath, "-classpath", classPath,
+				"-d", classes.getPath()));
+		for (File source : sources) {
+			arguments.add(source.getPath());
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[0])));
+	}
+
+	private List<String> index() throws IOException {
+		return Files.readAllLines(new File(classes, ResourceShapeIndexProcessor.INDEX_RESOURCE).toPath(),
+				StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.lang.reflect.Method;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class InheritedMethodAnnotationHelperTest {
+
+    interface Titled {
+        @OslcPropertyDefinition("http://purl.org/dc/terms/title")
+        String getTitle();
+    }
+
+    static class Base implements Titled {
+        @Override
+        public String getTitle() {
+            return null;
+        }
+
+        @OslcName("base")
+        public String getName() {
+            return null;
+        }
+    }
+
+    static class Derived extends Base {
+        @Override
+        public String getTitle() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return null;
+        }
+    }
+
+    @Test
+    public void testAnnotationFromInterface() throws Exception {
+        Method getTitle = Derived.class.getMethod("getTitle");
+        OslcPropertyDefinition definition = InheritedMethodAnnotationHelper.getAnnotation(getTitle,
+                OslcPropertyDefinition.class);
+        assertNotNull(definition);
+        assertEquals("http://purl.org/dc/terms/title", definition.value());
+    }
+
+    @Test
+    public void testAnnotationFromSuperclass() throws Exception {
+        Method getName = Derived.class.getMethod("getName");
+        OslcName name = InheritedMethodAnnotationHelper.getAnnotation(getName, OslcName.class);
+        assertNotNull(name);
+        assertEquals("base", name.value());
+    }
+
+    @Test
+    public void testMissingAnnotationIsMemoized() throws Exception {
+        InheritedMethodAnnotationHelper.warmUp(Derived.class);
+        Method getName = Derived.class.getMethod("getName");
+        assertNull(InheritedMethodAnnotationHelper.getAnnotation(getName, OslcTitle.class));
+        assertNull(InheritedMethodAnnotationHelper.getAnnotation(getName, OslcTitle.class));
+        assertSame(InheritedMethodAnnotationHelper.getAnnotation(getName, OslcName.class),
+                InheritedMethodAnnotationHelper.getAnnotation(getName, OslcName.class));
+    }
+}
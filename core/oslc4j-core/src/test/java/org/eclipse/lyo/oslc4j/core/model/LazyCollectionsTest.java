@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.xml.namespace.QName;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class LazyCollectionsTest {
+
+    @Test
+    public void testSetBehavesLikeHashSet() {
+        Set<String> set = new LazySet<>();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains("a"));
+        assertFalse(set.remove("a"));
+        assertFalse(set.addAll(Collections.<String>emptySet()));
+
+        assertTrue(set.add("a"));
+        assertFalse(set.add("a"));
+        assertTrue(set.addAll(Arrays.asList("b", "c")));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), set);
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")).hashCode(), set.hashCode());
+
+        Iterator<String> iterator = set.iterator();
+        iterator.next();
+        iterator.remove();
+        assertEquals(2, set.size());
+
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertEquals(Collections.emptySet(), set);
+    }
+
+    @Test
+    public void testListBehavesLikeArrayList() {
+        List<String> list = new LazyList<>();
+        assertTrue(list.isEmpty());
+        assertFalse(list.iterator().hasNext());
+
+        list.add("a");
+        list.add("a");
+        list.add(0, "b");
+        assertEquals(Arrays.asList("b", "a", "a"), list);
+        assertEquals("b", list.set(0, "c"));
+        assertEquals("c", list.remove(0));
+        assertEquals(Arrays.asList("a", "a"), list);
+
+        list.clear();
+        assertEquals(Collections.emptyList(), list);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testEmptyListGet() {
+        new LazyList<String>().get(0);
+    }
+
+    @Test
+    public void testMapBehavesLikeHashMap() {
+        Map<String, Integer> map = new LazyMap<>();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("a"));
+        assertNull(map.remove("a"));
+        assertTrue(map.entrySet().isEmpty());
+
+        assertNull(map.put("a", 1));
+        assertEquals(Integer.valueOf(1), map.put("a", 2));
+        map.computeIfAbsent("b", key -> 3);
+        Map<String, Integer> expected = new HashMap<>();
+        expected.put("a", 2);
+        expected.put("b", 3);
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+
+        map.entrySet().removeIf(entry -> entry.getKey().equals("a"));
+        assertEquals(Collections.singletonMap("b", 3), map);
+
+        map.clear();
+        assertEquals(Collections.emptyMap(), map);
+    }
+
+    @Test
+    public void testResourceCollectionsAreWritable() {
+        AbstractResource resource = new AnyResource();
+        assertTrue(resource.getTypes().isEmpty());
+        assertTrue(resource.getExtendedProperties().isEmpty());
+
+        resource.addType(URI.create("urn:type"));
+        resource.getTypes().add(URI.create("urn:other"));
+        resource.getExtendedProperties().put(new QName("urn:", "name"), "value");
+
+        assertEquals(Arrays.asList(URI.create("urn:type"), URI.create("urn:other")), resource.getTypes());
+        assertEquals("value", resource.getExtendedProperties().get(new QName("urn:", "name")));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.model;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.exception.OslcCoreMissingSetMethodException;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class ResourceClassMetadataTest {
+
+    interface Titled {
+        @OslcPropertyDefinition("http://purl.org/dc/terms/title")
+        String getTitle();
+    }
+
+    public static class Writable implements Titled {
+        @Override
+        public String getTitle() {
+            return null;
+        }
+
+        public void setTitle(String title) {
+        }
+
+        public String getUnmapped() {
+            return null;
+        }
+    }
+
+    public static class ReadOnly {
+        @OslcPropertyDefinition("http://purl.org/dc/terms/identifier")
+        public String getIdentifier() {
+            return null;
+        }
+    }
+
+    @Test
+    public void testPropertiesIncludeInheritedDefinitions() throws Exception {
+        ResourceClassMetadata metadata = ResourceClassMetadata.forClass(Writable.class);
+        assertEquals(1, metadata.getProperties().size());
+
+        ResourceClassMetadata.PropertyMetadata property = metadata.getProperties().get(0);
+        assertEquals("http://purl.org/dc/terms/title", property.getPropertyDefinition());
+        assertEquals(Writable.class.getMethod("getTitle"), property.getGetter());
+        assertEquals(Writable.class.getMethod("setTitle", String.class), property.getSetter());
+
+        Map<String, java.lang.reflect.Method> setMethods = metadata.getSetMethods();
+        assertEquals(property.getSetter(), setMethods.get("http://purl.org/dc/terms/title"));
+    }
+
+    @Test
+    public void testShapeData() throws Exception {
+        assertNull(ResourceClassMetadata.forClass(Writable.class).getResourceShapeAnnotation());
+        assertEquals("title", ResourceClassMetadata.forClass(Writable.class).getProperties().get(0).getName());
+
+        ResourceClassMetadata metadata = ResourceClassMetadata.forClass(ServiceProvider.class);
+        assertEquals(OslcConstants.TYPE_SERVICE_PROVIDER, metadata.getResourceShapeAnnotation().describes()[0]);
+        // Named by @OslcName rather than by getServices()
+        assertEquals("service", metadata.getProperty(OslcConstants.OSLC_CORE_NAMESPACE + "service").getName());
+    }
+
+    @Test
+    public void testMetadataIsComputedOnce() {
+        assertSame(ResourceClassMetadata.forClass(Writable.class),
+                ResourceClassMetadata.forClass(Writable.class));
+    }
+
+    @Test(expected = OslcCoreMissingSetMethodException.class)
+    public void testMissingSetMethod() throws Exception {
+        ResourceClassMetadata metadata = ResourceClassMetadata.forClass(ReadOnly.class);
+        assertNull(metadata.getProperties().get(0).getSetter());
+        metadata.getSetMethods();
+    }
+
+    @Test
+    public void testNamespaceDeclarationsFromPackage() {
+        assertTrue(ResourceClassMetadata.forClass(ServiceProvider.class).getNamespaceDeclarations()
+                .contains(new AbstractMap.SimpleImmutableEntry<>(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX,
+                        OslcConstants.OSLC_CORE_NAMESPACE)));
+    }
+}
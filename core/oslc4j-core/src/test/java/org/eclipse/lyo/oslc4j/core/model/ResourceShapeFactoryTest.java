@@ -52,6 +52,21 @@ public class ResourceShapeFactoryTest {
         ResourceShapeFactory.validateSetMethodExists(Dummy.class, Dummy.class.getMethod("getValueDifferent"));
     }
 
+    @Test
+    public void createIndependentShapes() throws Exception {
+        final ResourceShape shape = ResourceShapeFactory.createResourceShape("http://example.com/",
+                OslcConstants.PATH_RESOURCE_SHAPES, "serviceProvider", ServiceProvider.class);
+        final int propertyCount = shape.getProperties().length;
+        shape.setTitle("Changed");
+        shape.setProperties(new Property[0]);
+
+        final ResourceShape other = ResourceShapeFactory.createResourceShape("http://example.com/",
+                OslcConstants.PATH_RESOURCE_SHAPES, "serviceProvider", ServiceProvider.class);
+        assertNotSame(shape, other);
+        assertEquals(propertyCount, other.getProperties().length);
+        assertEquals("http://example.com/resourceShapes/serviceProvider", other.getAbout().toString());
+    }
+
     interface Dummy {
         public ArrayList<BigDecimal> getValue();
 
@@ -65,14 +65,32 @@ public final class JenaModelHelper
     private static final String RDF_BAG	 = "Bag";
     private static final String RDF_SEQ	 = "Seq";
 
-    private static final String METHOD_NAME_START_GET = "get";
-    private static final String METHOD_NAME_START_IS  = "is";
-    private static final String METHOD_NAME_START_SET = "set";
+    private static final String GENERATED_PREFIX_START = "j.";
 
-    private static final int METHOD_NAME_START_GET_LENGTH = METHOD_NAME_START_GET.length();
-    private static final int METHOD_NAME_START_IS_LENGTH  = METHOD_NAME_START_IS.length();
+    /**
+     * Upper bound on the number of distinct combinations of resource classes whose namespace
+     * mappings are cached.
+     */
+    private static final int NAMESPACE_MAPPINGS_CACHE_SIZE = 256;
 
-    private static final String GENERATED_PREFIX_START = "j.";
+    /**
+     * Namespace mappings declared by the classes of a response, keyed by the distinct classes in
+     * the order of their last occurrence. The least recently used combination is evicted when
+     * the cache is full.
+     */
+    private static final Map<List<Class<?>>, Map<String, String>> classNamespaceMappings =
+            Collections.synchronizedMap(new LinkedHashMap<List<Class<?>>, Map<String, String>>(16,
+                    0.75f, true)
+            {
+                private static final long serialVersionUID = 4381940305174816792L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<List<Class<?>>, Map<String, String>> eldest)
+                {
+                    return size() > NAMESPACE_MAPPINGS_CACHE_SIZE;
+                }
+            });
 
     private static final Logger logger = LoggerFactory.getLogger(JenaModelHelper.class);
 
@@ -172,12 +190,14 @@ public final class JenaModelHelper
                 .getInstance()
                 .getPrefixDefinitionMap());
 
+        // Collect the namespace prefix -> namespace mappings
+        namespaceMappings.putAll(getClassNamespaceMappings(objects));
+
         for (final Object object : objects)
         {
             handleSingleResource(descriptionResource,
                     object,
                     model,
-                    namespaceMappings,
                     properties);
         }
 
@@ -203,19 +223,58 @@ public final class JenaModelHelper
         }
 
         // Set the namespace prefixes
-        for (final Map.Entry<String, String> namespaceMapping : namespaceMappings.entrySet())
+        model.setNsPrefixes(namespaceMappings);
+
+        return model;
+    }
+
+    /**
+     * Returns the namespace mappings declared by the classes of the given objects, as if they
+     * were collected object by object with later declarations of a prefix overriding earlier ones.
+     * The mappings are cached per combination of classes.
+     */
+    private static Map<String, String> getClassNamespaceMappings(final Object[] objects)
+    {
+        // Only the last occurrence of a class matters for which declarations win
+        final LinkedHashSet<Class<?>> classes = new LinkedHashSet<>();
+        Class<?> previousClass = null;
+        for (final Object object : objects)
         {
-            model.setNsPrefix(namespaceMapping.getKey(),
-                    namespaceMapping.getValue());
+            final Class<?> objectClass = object.getClass();
+            if (objectClass != previousClass)
+            {
+                classes.remove(objectClass);
+                classes.add(objectClass);
+                previousClass = objectClass;
+            }
         }
 
-        return model;
+        if (classes.size() == 1)
+        {
+            return ResourceClassMetadata.forClass(previousClass).getNamespaceMappings();
+        }
+
+        final List<Class<?>> key = new ArrayList<>(classes);
+        Map<String, String> mappings = classNamespaceMappings.get(key);
+
+        if (mappings == null)
+        {
+            mappings = new HashMap<>();
+            for (final Class<?> objectClass : key)
+            {
+                mappings.putAll(ResourceClassMetadata.forClass(objectClass).getNamespaceMappings());
+            }
+
+            mappings = Collections.unmodifiableMap(mappings);
+            classNamespaceMappings.put(key, mappings);
+        }
+
+        return mappings;
     }
 
     private static void handleSingleResource(final Resource			descriptionResource,
                                              final Object				object,
                                              final Model				model,
-                                             final Map<String, String> namespaceMappings,
                                              final Map<String, Object> properties)
             throws DatatypeConfigurationException,
             IllegalAccessException,
@@ -225,10 +284,6 @@ public final class JenaModelHelper
     {
         final Class<?> objectClass = object.getClass();
 
-        // Collect the namespace prefix -> namespace mappings
-        recursivelyCollectNamespaceMappings(namespaceMappings,
-                objectClass);
-
         final Resource mainResource;
 
         if (object instanceof URI)
@@ -259,7 +314,7 @@ public final class JenaModelHelper
                 mainResource = model.createResource();
             }
 
-            if (objectClass.getAnnotation(OslcResourceShape.class) != null)
+            if (ResourceClassMetadata.forClass(objectClass).getResourceShapeAnnotation() != null)
             {
                 String qualifiedName = TypeFactory.getQualifiedName(objectClass);
                 if (qualifiedName != null)
@@ -559,7 +614,7 @@ public final class JenaModelHelper
         Map<String, Method> setMethodMap = classPropertyDefinitionsToSetMethods.get(beanClass);
         if (setMethodMap == null)
         {
-            setMethodMap = createPropertyDefinitionToSetMethods(beanClass);
+            setMethodMap = ResourceClassMetadata.forClass(beanClass).getSetMethods();
 
             classPropertyDefinitionsToSetMethods.put(beanClass,
                     setMethodMap);
@@ -1230,70 +1285,9 @@ public final class JenaModelHelper
         }
     }
 
-    private static Map<String, Method> createPropertyDefinitionToSetMethods(final Class<?> beanClass)
-            throws OslcCoreApplicationException
-    {
-        final Map<String, Method> result = new HashMap<>();
-
-        final Method[] methods = beanClass.getMethods();
-
-        for (final Method method : methods)
-        {
-            if (method.getParameterTypes().length == 0)
-            {
-                final String getMethodName = method.getName();
-
-                if (((getMethodName.startsWith(METHOD_NAME_START_GET)) &&
-                        (getMethodName.length() > METHOD_NAME_START_GET_LENGTH)) ||
-                        ((getMethodName.startsWith(METHOD_NAME_START_IS)) &&
-                                (getMethodName.length() > METHOD_NAME_START_IS_LENGTH)))
-                {
-                    final OslcPropertyDefinition oslcPropertyDefinitionAnnotation =
-                            InheritedMethodAnnotationHelper.getAnnotation(method,
-                                    OslcPropertyDefinition.class);
-
-                    if (oslcPropertyDefinitionAnnotation != null)
-                    {
-                        // We need to find the set companion setMethod
-                        final String setMethodName;
-                        if (getMethodName.startsWith(METHOD_NAME_START_GET))
-                        {
-                            setMethodName = METHOD_NAME_START_SET +
-                                    getMethodName.substring(METHOD_NAME_START_GET_LENGTH);
-                        }
-                        else
-                        {
-                            setMethodName = METHOD_NAME_START_SET +
-                                    getMethodName.substring(METHOD_NAME_START_IS_LENGTH);
-                        }
-
-                        final Class<?> getMethodReturnType = method.getReturnType();
-
-                        try
-                        {
-                            final Method setMethod = beanClass.getMethod(setMethodName,
-                                    getMethodReturnType);
-
-                            result.put(oslcPropertyDefinitionAnnotation.value(),
-                                    setMethod);
-                        }
-                        catch (final NoSuchMethodException exception)
-                        {
-                            throw new OslcCoreMissingSetMethodException(beanClass,
-                                    method,
-                                    exception);
-                        }
-                    }
-                }
-            }
-        }
-
-        return result;
-    }
-
-    private static void buildResource(final Object	 object,
+    private static void buildResource(final Object object,
                                       final Class<?> resourceClass,
-                                      final Model	 model,
+                                      final Model model,
                                       final Resource mainResource,
                                       final Map<String, Object> properties)
             throws DatatypeConfigurationException,
@@ -1307,66 +1301,66 @@ public final class JenaModelHelper
             return;
         }
 
-        for (final Method method : resourceClass.getMethods())
+        final ResourceClassMetadata metadata = ResourceClassMetadata.forClass(resourceClass);
+
+        if (properties == null ||
+                properties instanceof SingletonWildcardProperties ||
+                properties instanceof NestedWildcardProperties)
         {
-            if (method.getParameterTypes().length == 0)
+            // Every property is selected, but the nested selection may differ per property
+            for (final ResourceClassMetadata.PropertyMetadata property : metadata.getProperties())
             {
-                final String methodName = method.getName();
+                Map<String, Object> nestedProperties = null;
+                boolean onlyNested = false;
 
-                if (((methodName.startsWith(METHOD_NAME_START_GET)) &&
-                        (methodName.length() > METHOD_NAME_START_GET_LENGTH)) ||
-                        ((methodName.startsWith(METHOD_NAME_START_IS)) &&
-                                (methodName.length() > METHOD_NAME_START_IS_LENGTH)))
+                if (properties != null)
                 {
-                    final OslcPropertyDefinition oslcPropertyDefinitionAnnotation =
-                            InheritedMethodAnnotationHelper.getAnnotation(method,
-                                    OslcPropertyDefinition.class);
+                    @SuppressWarnings("unchecked")
+                    final Map<String, Object> map = (Map<String, Object>)properties
+                            .get(property.getPropertyDefinition());
 
-                    if (oslcPropertyDefinitionAnnotation != null)
+                    if (map != null)
                     {
-                        final Object value = method.invoke(object);
-
-                        if (value != null)
-                        {
-                            Map<String, Object> nestedProperties = null;
-                            boolean onlyNested = false;
-
-                            if (properties != null)
-                            {
-                                @SuppressWarnings("unchecked")
-                                final Map<String, Object> map = (Map<String, Object>)properties
-                                        .get(oslcPropertyDefinitionAnnotation.value());
+                        nestedProperties = map;
+                    }
+                    else if (! (properties instanceof NestedWildcardProperties))
+                    {
+                        nestedProperties = OSLC4JConstants.OSL4J_PROPERTY_SINGLETON;
+                    }
+                    else
+                    {
+                        nestedProperties = ((NestedWildcardProperties)properties).commonNestedProperties();
+                        onlyNested = ! (properties instanceof SingletonWildcardProperties);
+                    }
+                }
 
-                                if (map != null)
-                                {
-                                    nestedProperties = map;
-                                }
-                                else if (properties instanceof SingletonWildcardProperties &&
-                                        ! (properties instanceof NestedWildcardProperties))
-                                {
-                                    nestedProperties = OSLC4JConstants.OSL4J_PROPERTY_SINGLETON;
-                                }
-                                else if (properties instanceof NestedWildcardProperties)
-                                {
-                                    nestedProperties = ((NestedWildcardProperties)properties).commonNestedProperties();
-                                    onlyNested = ! (properties instanceof SingletonWildcardProperties);
-                                }
-                                else
-                                {
-                                    continue;
-                                }
-                            }
+                buildSelectedProperty(object,
+                        resourceClass,
+                        property,
+                        model,
+                        mainResource,
+                        nestedProperties,
+                        onlyNested);
+            }
+        }
+        else
+        {
+            // Only invoke the getters of the selected properties
+            for (final Map.Entry<String, Object> selectedProperty : properties.entrySet())
+            {
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> nestedProperties = (Map<String, Object>)selectedProperty.getValue();
 
-                            buildAttributeResource(resourceClass,
-                                    method,
-                                    oslcPropertyDefinitionAnnotation,
-                                    model,
-                                    mainResource,
-                                    value,
-                                    nestedProperties,
-                                    onlyNested);
-                        }
-                    }
+                for (final ResourceClassMetadata.PropertyMetadata property :
+                        metadata.getProperties(selectedProperty.getKey()))
+                {
+                    buildSelectedProperty(object,
+                            resourceClass,
+                            property,
+                            model,
+                            mainResource,
+                            nestedProperties,
+                            false);
                 }
             }
         }
@@ -1385,6 +1379,34 @@ public final class JenaModelHelper
         }
     }
 
+    private static void buildSelectedProperty(final Object object,
+                                              final Class<?> resourceClass,
+                                              final ResourceClassMetadata.PropertyMetadata property,
+                                              final Model model,
+                                              final Resource mainResource,
+                                              final Map<String, Object> nestedProperties,
+                                              final boolean onlyNested)
+            throws DatatypeConfigurationException,
+            IllegalAccessException,
+            IllegalArgumentException,
+            InvocationTargetException,
+            OslcCoreApplicationException
+    {
+        final Method method = property.getGetter();
+        final Object value = method.invoke(object);
+
+        if (value != null)
+        {
+            buildAttributeResource(resourceClass,
+                    property,
+                    model,
+                    mainResource,
+                    value,
+                    nestedProperties,
+                    onlyNested);
+        }
+    }
+
     protected static void handleExtendedProperties(final Class<?> resourceClass,
                                                    final Model model,
                                                    final Resource mainResource,
@@ -1705,8 +1727,7 @@ public final class JenaModelHelper
     }
 
     private static void buildAttributeResource(final Class<?>				resourceClass,
-                                               final Method					method,
-                                               final OslcPropertyDefinition propertyDefinitionAnnotation,
+                                               final ResourceClassMetadata.PropertyMetadata property,
                                                final Model					model,
                                                Resource						resource,
                                                final Object					value,
@@ -1718,18 +1739,10 @@ public final class JenaModelHelper
             InvocationTargetException,
             OslcCoreApplicationException
     {
+        final Method method = property.getGetter();
+        final OslcPropertyDefinition propertyDefinitionAnnotation = property.getPropertyDefinitionAnnotation();
         final String propertyDefinition = propertyDefinitionAnnotation.value();
-
-        final OslcName nameAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method,
-                OslcName.class);
-
-        final String name;
-        if (nameAnnotation != null)
-        {
-            name = nameAnnotation.value();
-        } else {
-            name = getDefaultPropertyName(method);
-        }
+        final String name = property.getName();
 
         if (!propertyDefinition.endsWith(name)) {
             throw new OslcCoreInvalidPropertyDefinitionException(resourceClass,
@@ -2115,89 +2128,6 @@ public final class JenaModelHelper
         }
     }
 
-    private static String getDefaultPropertyName(final Method method)
-    {
-        final String methodName	   = method.getName();
-        final int	 startingIndex = methodName.startsWith(METHOD_NAME_START_GET)
-                ? METHOD_NAME_START_GET_LENGTH
-                : METHOD_NAME_START_IS_LENGTH;
-        final int	 endingIndex   = startingIndex + 1;
-
-        // We want the name to start with a lower-case letter
-        final String lowercasedFirstCharacter = methodName.substring(startingIndex,
-                endingIndex).toLowerCase(Locale.ENGLISH);
-
-        if (methodName.length() == endingIndex)
-        {
-            return lowercasedFirstCharacter;
-        }
-
-        return lowercasedFirstCharacter + methodName.substring(endingIndex);
-    }
-
-    private static void recursivelyCollectNamespaceMappings(final Map<String, String>	  namespaceMappings,
-                                                            final Class<?> resourceClass)
-    {
-        final OslcSchema oslcSchemaAnnotation = resourceClass.getPackage().getAnnotation(OslcSchema.class);
-
-        if (oslcSchemaAnnotation != null)
-        {
-            final OslcNamespaceDefinition[] oslcNamespaceDefinitionAnnotations = oslcSchemaAnnotation.value();
-
-            for (final OslcNamespaceDefinition oslcNamespaceDefinitionAnnotation :
-                    oslcNamespaceDefinitionAnnotations)
-            {
-                final String prefix		  = oslcNamespaceDefinitionAnnotation.prefix();
-                final String namespaceURI = oslcNamespaceDefinitionAnnotation.namespaceURI();
-
-                namespaceMappings.put(prefix,
-                        namespaceURI);
-            }
-            //Adding custom prefixes obtained from an implementation, if there is an implementation.
-            Class<? extends IOslcCustomNamespaceProvider> customNamespaceProvider =
-                    oslcSchemaAnnotation.customNamespaceProvider();
-            if(!customNamespaceProvider.isInterface())
-            {
-                try {
-                    IOslcCustomNamespaceProvider customNamespaceProviderImpl
-                            = customNamespaceProvider.newInstance();
-                    Map<String, String> customNamespacePrefixes = customNamespaceProviderImpl
-                            .getCustomNamespacePrefixes();
-                    if(null != customNamespacePrefixes)
-                    {
-                        namespaceMappings.putAll(customNamespacePrefixes);
-                    }
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException("The custom namespace provider implementation: "+
-                            customNamespaceProvider.getClass().getName() +
-                            ", must have a public no args construtor", e);
-                } catch (InstantiationException e) {
-                    throw new RuntimeException("The custom namespace provider must not be a abstract," +
-                            " nor interface class and must have a public no args constructor", e);
-                }
-            }
-        }
-
-        final Class<?> superClass = resourceClass.getSuperclass();
-
-        if (superClass != null)
-        {
-            recursivelyCollectNamespaceMappings(namespaceMappings,
-                    superClass);
-        }
-
-        final Class<?>[] interfaces = resourceClass.getInterfaces();
-
-        if (interfaces != null)
-        {
-            for (final Class<?> interfac : interfaces)
-            {
-                recursivelyCollectNamespaceMappings(namespaceMappings,
-                        interfac);
-            }
-        }
-    }
-
     private static void ensureNamespacePrefix(final String				prefix,
                                               final String				namespace,
                                               final Map<String, String> namespaceMappings)
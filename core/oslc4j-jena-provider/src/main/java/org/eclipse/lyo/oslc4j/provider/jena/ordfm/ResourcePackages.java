@@ -17,10 +17,20 @@ import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ClassInfo;
 import io.github.classgraph.ClassInfoList;
 import io.github.classgraph.ScanResult;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -30,10 +40,23 @@ import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.vocabulary.RDF;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.processing.ResourceShapeIndexProcessor;
 import org.eclipse.lyo.oslc4j.core.model.TypeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Maps {@link RDF#type}s to the classes annotated with {@link OslcResourceShape}.
+ * <p>
+ * The mappings are published as an immutable snapshot, which is replaced when
+ * a package is mapped, so resolving classes does not wait for packages being
+ * mapped. The class resolved for a set of {@link RDF#type}s is cached in the
+ * snapshot.
+ * <p>
+ * The classes of the class path elements compiled with the
+ * {@link ResourceShapeIndexProcessor} are read from the index it generates; the
+ * other class path elements are scanned.
+ */
 public class ResourcePackages {
 
     /**
@@ -42,14 +65,30 @@ public class ResourcePackages {
 	private static final Logger LOGGER = LoggerFactory.getLogger(ResourcePackages.class);
 
     /**
-     * The set of scanned packages.
+     * Upper bound of the cached class resolutions per snapshot; the least recently used one is
+     * evicted first.
      */
-    static final Set<String> SCANNED_PACKAGES = new HashSet<>();
+    private static final int RESOLVED_CLASSES_CACHE_SIZE = 1024;
 
     /**
-     * The RDFs-Classes types mapping.
+     * The current mappings.
      */
-    static final Map<String, List<Class<?>>> TYPES_MAPPINGS = new HashMap<>();
+    private static volatile Mappings mappings = new Mappings(Collections.<String>emptySet(),
+            Collections.<String, List<Class<?>>>emptyMap());
+
+    /**
+     * @return the set of scanned packages.
+     */
+    static Set<String> getScannedPackages() {
+        return mappings.scannedPackages;
+    }
+
+    /**
+     * @return the RDFs-Classes types mapping.
+     */
+    static Map<String, List<Class<?>>> getTypesMappings() {
+        return mappings.typesMappings;
+    }
 
     /**
      * Scans a package (recursively) searching for classes annotated with
@@ -57,41 +96,155 @@ public class ResourcePackages {
      * by the {@link TypeFactory#getQualifiedName(java.lang.Class)} method.
      * @param pkg the package to scan.
      */
-    public synchronized static void mapPackage(Package pkg) {
+    public static void mapPackage(Package pkg) {
         String packageName = pkg.getName();
-        if (SCANNED_PACKAGES.contains(packageName)) {
+        if (mappings.scannedPackages.contains(packageName)) {
             LOGGER.debug("> package {} already scanned", packageName);
-        } else {
+            return;
+        }
+        synchronized (ResourcePackages.class) {
+            Mappings current = mappings;
+            if (current.scannedPackages.contains(packageName)) {
+                LOGGER.debug("> package {} already scanned", packageName);
+                return;
+            }
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = ResourcePackages.class.getClassLoader();
+            }
+            List<String> classNames = findClassNames(packageName, classLoader);
+
+            Map<String, List<Class<?>>> typesMappings = new HashMap<>(current.typesMappings);
             int counter = 0;
-            LOGGER.debug("> scanning package {}", packageName);
-            ClassGraph classGraph = new ClassGraph().whitelistPackages(pkg.getName());
-            classGraph = classGraph.enableClassInfo().enableAnnotationInfo();
-            try (ScanResult scanResult = classGraph.scan()) {
-                ClassInfoList classInforList = scanResult.getClassesWithAnnotation(OslcResourceShape.class.getName());
-                for (ClassInfo classInfo : classInforList) {
-                    if (classInfo.isAbstract()) {
-                        LOGGER.trace("[-] Abstract class: " + classInfo.getName());
-                    } else {
-                        try {
-                            Class<?> rdfClass = Class.forName(classInfo.getName(), true, Thread.currentThread().getContextClassLoader());
-                            String rdfType = TypeFactory.getQualifiedName(rdfClass);
-                            List<Class<?>> types = TYPES_MAPPINGS.get(rdfType);
-                            if (types == null) {
-                                types = new ArrayList<>();
-                                TYPES_MAPPINGS.put(rdfType, types);
-                            }
-                            types.add(rdfClass);
-                            counter ++;
-                            LOGGER.trace("[+] {} -> {}", rdfType, rdfClass);
-                        } catch (ClassNotFoundException ex) {
-                            LOGGER.trace("[-] Unexpected missing class: " + classInfo.getName());
-                        }
+            for (String className : classNames) {
+                try {
+                    Class<?> rdfClass = Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+                    String rdfType = TypeFactory.getQualifiedName(rdfClass);
+                    List<Class<?>> types = typesMappings.get(rdfType);
+                    if (types == null || !types.contains(rdfClass)) {
+                        types = types == null ? new ArrayList<>() : new ArrayList<>(types);
+                        types.add(rdfClass);
+                        typesMappings.put(rdfType, Collections.unmodifiableList(types));
+                        counter ++;
+                        LOGGER.trace("[+] {} -> {}", rdfType, rdfClass);
                     }
+                } catch (ClassNotFoundException ex) {
+                    LOGGER.trace("[-] Unexpected missing class: " + className);
                 }
             }
             LOGGER.debug("< {} RDF classes found in package {}", counter, packageName);
-            SCANNED_PACKAGES.add(packageName);
+
+            Set<String> scannedPackages = new HashSet<>(current.scannedPackages);
+            scannedPackages.add(packageName);
+            mappings = new Mappings(scannedPackages, typesMappings);
+        }
+    }
+
+    /**
+     * Finds the concrete classes of a package (recursively) annotated with
+     * {@link OslcResourceShape}. The index of a class path element is only
+     * trusted for the classes of that element; the class path elements
+     * without an index are scanned.
+     * @param packageName the package to look up.
+     * @param classLoader the class loader to look up the package in.
+     * @return the names of the classes found.
+     */
+    static List<String> findClassNames(String packageName, ClassLoader classLoader) {
+        Map<String, List<String>> indexedClassNames = getIndexedClassNames(packageName, classLoader);
+        Set<String> classNames = new LinkedHashSet<>();
+        for (List<String> elementClassNames : indexedClassNames.values()) {
+            classNames.addAll(elementClassNames);
+        }
+        classNames.addAll(scanClassNames(packageName, classLoader, indexedClassNames.keySet()));
+        return new ArrayList<>(classNames);
+    }
+
+    /**
+     * Gets the classes of a package (recursively) listed in the indexes
+     * generated by the {@link ResourceShapeIndexProcessor}.
+     * @param packageName the package to look up.
+     * @param classLoader the class loader to read the indexes from.
+     * @return the names of the indexed classes, by the class path element
+     * holding the index.
+     */
+    private static Map<String, List<String>> getIndexedClassNames(String packageName, ClassLoader classLoader) {
+        String prefix = packageName + ".";
+        Map<String, List<String>> classNames = new LinkedHashMap<>();
+        Enumeration<URL> indexes;
+        try {
+            indexes = classLoader.getResources(ResourceShapeIndexProcessor.INDEX_RESOURCE);
+        } catch (IOException e) {
+            LOGGER.warn("Could not read the resource shape indexes, scanning package {}", packageName, e);
+            return classNames;
+        }
+        while (indexes.hasMoreElements()) {
+            URL index = indexes.nextElement();
+            List<String> elementClassNames = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                String className;
+                while ((className = reader.readLine()) != null) {
+                    className = className.trim();
+                    if (className.startsWith(prefix)) {
+                        elementClassNames.add(className);
+                    }
+                }
+            } catch (IOException e) {
+                // The class path element is scanned instead
+                LOGGER.warn("Could not read the resource shape index {}", index, e);
+                continue;
+            }
+            String indexURL = index.toString();
+            String element = indexURL.substring(0, indexURL.length() - ResourceShapeIndexProcessor.INDEX_RESOURCE.length());
+            classNames.put(getClasspathElement(element), elementClassNames);
+        }
+        LOGGER.debug("> {} resource shape indexes found for package {}", classNames.size(), packageName);
+        return classNames;
+    }
+
+    /**
+     * Scans a package (recursively) for the classes annotated with
+     * {@link OslcResourceShape}.
+     * @param packageName the package to scan.
+     * @param classLoader the class loader to scan.
+     * @param indexedElements the class path elements not to scan, as returned
+     * by {@link #getClasspathElement(String)}.
+     * @return the names of the concrete classes found.
+     */
+    private static List<String> scanClassNames(String packageName, ClassLoader classLoader,
+            Set<String> indexedElements) {
+        LOGGER.debug("> scanning package {}", packageName);
+        List<String> classNames = new ArrayList<>();
+        ClassGraph classGraph = new ClassGraph().whitelistPackages(packageName).overrideClassLoaders(classLoader);
+        classGraph = classGraph.filterClasspathElementsByURL(
+                url -> !indexedElements.contains(getClasspathElement(url.toString())));
+        classGraph = classGraph.enableClassInfo().enableAnnotationInfo();
+        try (ScanResult scanResult = classGraph.scan()) {
+            ClassInfoList classInforList = scanResult.getClassesWithAnnotation(OslcResourceShape.class.getName());
+            for (ClassInfo classInfo : classInforList) {
+                if (classInfo.isAbstract()) {
+                    LOGGER.trace("[-] Abstract class: " + classInfo.getName());
+                } else {
+                    classNames.add(classInfo.getName());
+                }
+            }
         }
+        return classNames;
+    }
+
+    /**
+     * Normalizes the URL of a class path element, so that a jar and a directory
+     * are named the same whether they are referred to by a {@code jar:} or
+     * {@code file:} URL, with or without a trailing separator.
+     * @param url the URL of the class path element.
+     * @return the normalized URL.
+     */
+    private static String getClasspathElement(String url) {
+        String element = url.startsWith("jar:") ? url.substring("jar:".length()) : url;
+        while (element.endsWith("/") || element.endsWith("!")) {
+            element = element.substring(0, element.length() - 1);
+        }
+        return element;
     }
 
     /**
@@ -143,45 +296,62 @@ public class ResourcePackages {
      */
     public static Optional<Class<?>> getClassOf(Resource resource, Class<?>... preferredTypes) {
         LOGGER.debug("> resolving class for resource {}", resource.getURI());
+        Set<String> typeURIs = new HashSet<>();
         StmtIterator rdfTypes = resource.listProperties(RDF.type);
+        while(rdfTypes.hasNext()) {
+            Statement statement = rdfTypes.nextStatement();
+            typeURIs.add(statement.getObject().asResource().getURI());
+        }
+
+        Mappings current = mappings;
+        ResolutionKey key = new ResolutionKey(typeURIs, preferredTypes);
+        Optional<Class<?>> mappedClass = current.resolvedClasses.get(key);
+        if (mappedClass == null) {
+            mappedClass = resolveClassOf(current.typesMappings, typeURIs, preferredTypes);
+            current.resolvedClasses.put(key, mappedClass);
+        }
+
+        if (mappedClass.isPresent()) {
+            LOGGER.debug("< Mapped class {} for resource {}", mappedClass.get().getName(), resource.getURI());
+        } else {
+            LOGGER.debug("< Unmapped class for resource {}", resource.getURI());
+        }
+        return mappedClass;
+    }
+
+    private static Optional<Class<?>> resolveClassOf(Map<String, List<Class<?>>> typesMappings,
+            Set<String> typeURIs, Class<?>... preferredTypes) {
         List<Class<?>> candidates = new ArrayList<>();
-        synchronized(ResourcePackages.class) {
-            while(rdfTypes.hasNext()) {
-                Statement statement = rdfTypes.nextStatement();
-                String typeURI = statement.getObject().asResource().getURI();
-                List<Class<?>> rdfClasses = TYPES_MAPPINGS.get(typeURI);
-                if (rdfClasses == null) {
-                    LOGGER.trace("[-] Unmapped class(es) for RDF:type {}", typeURI);
-                } else if (rdfClasses.size() == 1) {
-                    candidates.add(rdfClasses.get(0));
-                    LOGGER.trace("[+] Candidate class {} found for RDF:type {}", rdfClasses.get(0).getName(), typeURI);
-                } else if (preferredTypes.length == 0) {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append("'preferredTypes' argument is required when more than one class (");
-                    sb.append(rdfClasses.toString());
-                    sb.append(") are mapped to the same RDF:type (");
-                    sb.append(typeURI);
-                    sb.append(")");
-                    LOGGER.debug(sb.toString());
-                    throw new IllegalArgumentException(sb.toString());
-                } else {
-                    for(Class<?> preferredType : preferredTypes) {
-                        if (rdfClasses.contains(preferredType)) {
-                            candidates.add(preferredType);
-                            LOGGER.trace("[+] Preferred candidate class {} found for RDF:type {}", preferredType.getName(), typeURI);
-                            break;
-                        }
+        for (String typeURI : typeURIs) {
+            List<Class<?>> rdfClasses = typesMappings.get(typeURI);
+            if (rdfClasses == null) {
+                LOGGER.trace("[-] Unmapped class(es) for RDF:type {}", typeURI);
+            } else if (rdfClasses.size() == 1) {
+                candidates.add(rdfClasses.get(0));
+                LOGGER.trace("[+] Candidate class {} found for RDF:type {}", rdfClasses.get(0).getName(), typeURI);
+            } else if (preferredTypes.length == 0) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("'preferredTypes' argument is required when more than one class (");
+                sb.append(rdfClasses.toString());
+                sb.append(") are mapped to the same RDF:type (");
+                sb.append(typeURI);
+                sb.append(")");
+                LOGGER.debug(sb.toString());
+                throw new IllegalArgumentException(sb.toString());
+            } else {
+                for(Class<?> preferredType : preferredTypes) {
+                    if (rdfClasses.contains(preferredType)) {
+                        candidates.add(preferredType);
+                        LOGGER.trace("[+] Preferred candidate class {} found for RDF:type {}", preferredType.getName(), typeURI);
+                        break;
                     }
                 }
             }
         }
         if (candidates.isEmpty()) {
-            LOGGER.debug("< Unmapped class for resource {}", resource.getURI());
             return Optional.empty();
         } else {
-            Class<?> mappedClass = (candidates.size() == 1 ? candidates.get(0) : getMostConcreteClassOf(candidates));
-            LOGGER.debug("< Mapped class {} for resource {}", mappedClass.getName(), resource.getURI());
-            return Optional.of(mappedClass);
+            return Optional.of(candidates.size() == 1 ? candidates.get(0) : getMostConcreteClassOf(candidates));
         }
     }
 
@@ -190,8 +360,56 @@ public class ResourcePackages {
      *
      * @since 4.0.0.RC
      */
-    public static void reset() {
-        SCANNED_PACKAGES.clear();
-        TYPES_MAPPINGS.clear();
+    public static synchronized void reset() {
+        mappings = new Mappings(Collections.<String>emptySet(), Collections.<String, List<Class<?>>>emptyMap());
+    }
+
+    /**
+     * Immutable snapshot of the mappings, with the classes resolved from them.
+     */
+    private static final class Mappings {
+        private final Set<String> scannedPackages;
+        private final Map<String, List<Class<?>>> typesMappings;
+        private final Map<ResolutionKey, Optional<Class<?>>> resolvedClasses = Collections.synchronizedMap(
+                new LinkedHashMap<ResolutionKey, Optional<Class<?>>>(16, 0.75f, true) {
+                    private static final long serialVersionUID = -6101512254096787341L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<ResolutionKey, Optional<Class<?>>> eldest) {
+                        return size() > RESOLVED_CLASSES_CACHE_SIZE;
+                    }
+                });
+
+        Mappings(Set<String> scannedPackages, Map<String, List<Class<?>>> typesMappings) {
+            this.scannedPackages = Collections.unmodifiableSet(scannedPackages);
+            this.typesMappings = Collections.unmodifiableMap(typesMappings);
+        }
+    }
+
+    /**
+     * The arguments a class is resolved from.
+     */
+    private static final class ResolutionKey {
+        private final Set<String> typeURIs;
+        private final List<Class<?>> preferredTypes;
+
+        ResolutionKey(Set<String> typeURIs, Class<?>[] preferredTypes) {
+            this.typeURIs = typeURIs;
+            this.preferredTypes = Arrays.asList(preferredTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * typeURIs.hashCode() + preferredTypes.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ResolutionKey)) {
+                return false;
+            }
+            ResolutionKey other = (ResolutionKey) obj;
+            return typeURIs.equals(other.typeURIs) && preferredTypes.equals(other.preferredTypes);
+        }
     }
 }
@@ -18,12 +18,16 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Map;
 import javax.xml.datatype.DatatypeConfigurationException;
 import org.apache.jena.ext.com.google.common.collect.ImmutableList;
 import org.apache.jena.rdf.model.Model;
 import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
 import org.eclipse.lyo.oslc4j.core.exception.LyoModelException;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreApplicationException;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.provider.jena.helpers.RDFHelper;
 import org.eclipse.lyo.oslc4j.provider.jena.resources.Container;
 import org.eclipse.lyo.oslc4j.provider.jena.resources.Element;
@@ -87,4 +91,40 @@ public class JenaModelHelperTest {
         assertEquals(Dog.class, pet.getClass());
     }
 
+    @Test
+    public void testSelectedPropertiesOnly()
+            throws InvocationTargetException, DatatypeConfigurationException,
+            OslcCoreApplicationException, IllegalAccessException {
+        final ExpensiveResource resource = new ExpensiveResource();
+        resource.setAbout(URI.create("urn:expensive"));
+        final Map<String, Object> properties = Collections.<String, Object>singletonMap(
+                ExpensiveResource.NAME, OSLC4JConstants.OSL4J_PROPERTY_SINGLETON);
+
+        final Model model = JenaModelHelper.createJenaModel(null, null, null,
+                new Object[]{resource}, properties);
+
+        assertTrue(model.contains(model.getResource("urn:expensive"),
+                model.getProperty(ExpensiveResource.NAME), "cheap"));
+    }
+
+    public static class ExpensiveResource extends AbstractResource {
+        static final String NAME = "http://locahost:7001/vocabulary/name";
+
+        @OslcPropertyDefinition(NAME)
+        public String getName() {
+            return "cheap";
+        }
+
+        public void setName(final String name) {
+        }
+
+        @OslcPropertyDefinition("http://locahost:7001/vocabulary/expensive")
+        public String getExpensive() {
+            throw new IllegalStateException("An unselected property must not be read");
+        }
+
+        public void setExpensive(final String expensive) {
+        }
+    }
+
 }
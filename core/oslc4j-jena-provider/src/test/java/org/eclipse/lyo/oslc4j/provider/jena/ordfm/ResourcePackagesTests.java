@@ -1,17 +1,34 @@
 package org.eclipse.lyo.oslc4j.provider.jena.ordfm;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.vocabulary.RDF;
+import org.eclipse.lyo.oslc4j.core.annotation.processing.ResourceShapeIndexProcessor;
+import org.eclipse.lyo.oslc4j.core.model.ServiceProvider;
+import org.eclipse.lyo.oslc4j.core.model.TypeFactory;
+import org.eclipse.lyo.oslc4j.provider.jena.resources.Animal;
 import org.eclipse.lyo.oslc4j.provider.jena.resources.Cat;
+import org.eclipse.lyo.oslc4j.provider.jena.resources.Dog;
 import org.eclipse.lyo.oslc4j.provider.jena.resources.Pet;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -23,6 +40,9 @@ public class ResourcePackagesTests {
 
     private final Logger log = LoggerFactory.getLogger(ResourcePackagesTests.class);
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private Resource resource;
 
     @Before
@@ -39,12 +59,12 @@ public class ResourcePackagesTests {
     @Test
     public void testMapPackage() {
         ResourcePackages.mapPackage(Pet.class.getPackage());
-        for (String aPackage : ResourcePackages.SCANNED_PACKAGES) {
+        for (String aPackage : ResourcePackages.getScannedPackages()) {
             log.info("Scanned package: {}", aPackage);
         }
 
-        Assert.assertEquals(1, ResourcePackages.SCANNED_PACKAGES.size());
-        Assert.assertEquals(6, ResourcePackages.TYPES_MAPPINGS.keySet().size());
+        Assert.assertEquals(1, ResourcePackages.getScannedPackages().size());
+        Assert.assertEquals(6, ResourcePackages.getTypesMappings().keySet().size());
     }
 
     @Test
@@ -85,4 +105,58 @@ public class ResourcePackagesTests {
         Assert.assertEquals(Cat.class, mappedClass.get());
     }
 
+    @Test
+    public void testMapPackage_withoutIndex() {
+        // The core model is compiled without the resource shape index
+        ResourcePackages.mapPackage(ServiceProvider.class.getPackage());
+
+        Assert.assertEquals(ServiceProvider.class, ResourcePackages.getTypesMappings()
+                .get(TypeFactory.getQualifiedName(ServiceProvider.class)).get(0));
+    }
+
+    @Test
+    public void testGetClassOf_cachedPerTypes() {
+        ResourcePackages.mapPackage(Pet.class.getPackage());
+        resource.addProperty(RDF.type, ResourceFactory.createResource("http://locahost:7001/vocabulary/Animal"));
+        Assert.assertEquals(Animal.class, ResourcePackages.getClassOf(resource).get());
+        Assert.assertEquals(Animal.class, ResourcePackages.getClassOf(resource).get());
+
+        resource.addProperty(RDF.type, ResourceFactory.createResource("http://locahost:7001/vocabulary/Cat"));
+        Assert.assertEquals(Cat.class, ResourcePackages.getClassOf(resource).get());
+
+        // Mapping another package does not change the resolved classes
+        ResourcePackages.mapPackage(ServiceProvider.class.getPackage());
+        Assert.assertEquals(Cat.class, ResourcePackages.getClassOf(resource).get());
+    }
+
+    @Test
+    public void testFindClassNames_indexedAndScannedElements() throws IOException {
+        // Cat is in an indexed class path element, Dog of the same package is not
+        File indexed = folder.newFolder("indexed");
+        copyClass(Cat.class, indexed);
+        File index = new File(indexed, ResourceShapeIndexProcessor.INDEX_RESOURCE);
+        index.getParentFile().mkdirs();
+        Files.write(index.toPath(), (Cat.class.getName() + "\n").getBytes(StandardCharsets.UTF_8));
+        File scanned = folder.newFolder("scanned");
+        copyClass(Dog.class, scanned);
+
+        try (URLClassLoader classLoader = new URLClassLoader(
+                new URL[] { indexed.toURI().toURL(), scanned.toURI().toURL() }, null)) {
+            List<String> classNames = ResourcePackages.findClassNames(Pet.class.getPackage().getName(),
+                    classLoader);
+            Assert.assertEquals(2, classNames.size());
+            Assert.assertEquals(new HashSet<>(Arrays.asList(Cat.class.getName(), Dog.class.getName())),
+                    new HashSet<>(classNames));
+        }
+    }
+
+    private static void copyClass(Class<?> type, File directory) throws IOException {
+        String path = type.getName().replace('.', '/') + ".class";
+        File file = new File(directory, path);
+        file.getParentFile().mkdirs();
+        try (InputStream in = type.getClassLoader().getResourceAsStream(path)) {
+            Files.copy(in, file.toPath());
+        }
+    }
+
 }
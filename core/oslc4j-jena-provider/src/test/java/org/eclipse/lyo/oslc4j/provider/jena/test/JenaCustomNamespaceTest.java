@@ -20,6 +20,8 @@ import javax.xml.namespace.QName;
 import org.apache.jena.rdf.model.Model;
 import org.eclipse.lyo.oslc4j.core.OslcGlobalNamespaceProvider;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcSchema;
+import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.eclipse.lyo.oslc4j.core.model.ServiceProvider;
 import org.eclipse.lyo.oslc4j.core.test.customnamespace.CustomNamespaceResource;
 import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper;
 import org.junit.Test;
@@ -73,6 +75,23 @@ public class JenaCustomNamespaceTest {
 		assertCustomNamespaces(model, GLOBAL_PREFIX, GLOBAL_URL);
 	}
 	
+	/**
+	 * Checks that a response mixing resource classes gets the namespace mappings of every class,
+	 * in whichever order the classes appear.
+	 */
+	@Test
+	public void testJenaMixedResourceClasses() throws Exception {
+		ServiceProvider serviceProvider = new ServiceProvider();
+		serviceProvider.setAbout(URI.create("http://about.custom.oslc.namespace/sp"));
+		Object[] resources = new Object[]{createCustomNamespaceResource(), serviceProvider};
+		Object[] reversed = new Object[]{serviceProvider, createCustomNamespaceResource()};
+		for (Object[] objects : new Object[][]{resources, reversed, resources}) {
+			Model model = JenaModelHelper.createJenaModel(objects);
+			assertCustomNamespaces(model, CUSTOM_PREFIX, CUSTOM_URL);
+			assertCustomNamespaces(model, OslcConstants.DCTERMS_NAMESPACE_PREFIX, OslcConstants.DCTERMS_NAMESPACE);
+		}
+	}
+
 	/**
 	 * Creates a new instance adding some test values.
 	 *
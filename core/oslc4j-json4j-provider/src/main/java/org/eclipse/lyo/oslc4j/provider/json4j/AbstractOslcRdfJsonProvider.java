@@ -13,9 +13,14 @@
  */
 package org.eclipse.lyo.oslc4j.provider.json4j;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -32,7 +37,6 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.ext.Providers;
 
-import org.apache.wink.json4j.JSONObject;
 import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
 import org.eclipse.lyo.oslc4j.core.OSLC4JUtils;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
@@ -136,8 +140,6 @@ public abstract class AbstractOslcRdfJsonProvider
 
 		}
 
-		final JSONObject jsonObject;
-
 		@SuppressWarnings("unchecked")
 		final Map<String, Object> properties = isClientSide ?
 			null :
@@ -153,14 +155,12 @@ public abstract class AbstractOslcRdfJsonProvider
 
 		try
 		{
-			jsonObject = JsonHelper.createJSON(descriptionURI,
-											   responseInfoURI,
-											   responseInfo,
-											   objects,
-											   properties);
-
-			jsonObject.write(outputStream,
-							 true);
+			JsonHelper.writeJSON(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)),
+								 descriptionURI,
+								 responseInfoURI,
+								 responseInfo,
+								 objects,
+								 properties);
 		}
 		catch (final Exception exception)
 		{
@@ -179,17 +179,14 @@ public abstract class AbstractOslcRdfJsonProvider
 						   final ResponseInfo<?>					responseInfo)
 				throws WebApplicationException
 	{
-		final JSONObject jsonObject;
-
 		try
 		{
-			jsonObject = JsonHelper.createJSON(descriptionURI,
-											   responseInfoURI,
-											   responseInfo,
-											   objects,
-											   properties);
-
-			jsonObject.write(outputStream, true);
+			JsonHelper.writeJSON(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)),
+								 descriptionURI,
+								 responseInfoURI,
+								 responseInfo,
+								 objects,
+								 properties);
 		}
 		catch (final Exception exception)
 		{
@@ -214,9 +211,7 @@ public abstract class AbstractOslcRdfJsonProvider
 	{
 		try
 		{
-			final JSONObject jsonObject = new JSONObject(inputStream);
-
-			return JsonHelper.fromJSON(jsonObject,
+			return JsonHelper.fromJSON(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)),
 									   type);
 		}
 		catch (final Exception exception)
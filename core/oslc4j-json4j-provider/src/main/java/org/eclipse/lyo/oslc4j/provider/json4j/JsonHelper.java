@@ -13,6 +13,9 @@
  */
 package org.eclipse.lyo.oslc4j.provider.json4j;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -36,7 +39,6 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Queue;
@@ -53,32 +55,28 @@ import javax.xml.namespace.QName;
 import org.apache.wink.json4j.JSONArray;
 import org.apache.wink.json4j.JSONException;
 import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.JSONWriter;
 import org.eclipse.lyo.oslc4j.core.NestedWildcardProperties;
 import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
 import org.eclipse.lyo.oslc4j.core.OSLC4JUtils;
 import org.eclipse.lyo.oslc4j.core.OslcGlobalNamespaceProvider;
 import org.eclipse.lyo.oslc4j.core.SingletonWildcardProperties;
-import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
-import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespaceDefinition;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcRdfCollectionType;
-import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
-import org.eclipse.lyo.oslc4j.core.annotation.OslcSchema;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreApplicationException;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreInvalidPropertyDefinitionException;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreInvalidPropertyTypeException;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreMissingNamespaceDeclarationException;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreMissingNamespacePrefixException;
-import org.eclipse.lyo.oslc4j.core.exception.OslcCoreMissingSetMethodException;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreRelativeURIException;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.core.model.AnyResource;
 import org.eclipse.lyo.oslc4j.core.model.IExtendedResource;
-import org.eclipse.lyo.oslc4j.core.model.IOslcCustomNamespaceProvider;
 import org.eclipse.lyo.oslc4j.core.model.IReifiedResource;
 import org.eclipse.lyo.oslc4j.core.model.IResource;
 import org.eclipse.lyo.oslc4j.core.model.InheritedMethodAnnotationHelper;
 import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
+import org.eclipse.lyo.oslc4j.core.model.ResourceClassMetadata;
 import org.eclipse.lyo.oslc4j.core.model.ResponseInfo;
 import org.eclipse.lyo.oslc4j.core.model.TypeFactory;
 import org.eclipse.lyo.oslc4j.core.model.XMLLiteral;
@@ -117,7 +115,6 @@ public final class JsonHelper
 	private static final String METHOD_NAME_START_SET = "set";
 
 	private static final int METHOD_NAME_START_GET_LENGTH = METHOD_NAME_START_GET.length();
-	private static final int METHOD_NAME_START_IS_LENGTH  = METHOD_NAME_START_IS.length();
 
 	private static final String POSITIVE_INF = "INF";
 	private static final String NEGATIVE_INF = "-INF";
@@ -165,142 +162,316 @@ public final class JsonHelper
 		final Map<String, String> namespaceMappings		   = new TreeMap<String, String>();
 		final Map<String, String> reverseNamespaceMappings = new HashMap<String, String>();
 
-		// Add all global namespace mappings, since they have lower precedence
-		Map<String, String> globalPrefixDefinitionMap = OslcGlobalNamespaceProvider.getInstance().getPrefixDefinitionMap();
-		for(Map.Entry<String, String> prefixDefinitionEntry : globalPrefixDefinitionMap.entrySet()) {
-			namespaceMappings.put(prefixDefinitionEntry.getKey(), prefixDefinitionEntry.getValue());
-			reverseNamespaceMappings.put(prefixDefinitionEntry.getValue(), prefixDefinitionEntry.getKey());
-		}
+		addGlobalNamespaceMappings(namespaceMappings,
+								   reverseNamespaceMappings);
 
 		if (descriptionAbout != null)
 		{
+			final String memberProperty = addQueryResultProperties(namespaceMappings,
+																   reverseNamespaceMappings,
+																   resultJSONObject,
+																   descriptionAbout,
+																   responseInfo,
+																   properties);
+
 			final JSONArray jsonArray = new JSONArray();
 
 			for (final Object object : objects)
 			{
-				HashMap<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
-				final JSONObject jsonObject = handleSingleResource(object,
-																   new JSONObject(),
-																   namespaceMappings,
-																   reverseNamespaceMappings,
-																   properties,
-																   visitedObjects);
-
-				if (jsonObject != null)
-				{
-					jsonArray.add(jsonObject);
-				}
+				jsonArray.add(handleSingleResource(object,
+												   new JSONObject(),
+												   namespaceMappings,
+												   reverseNamespaceMappings,
+												   properties,
+												   new HashMap<Object, JSONObject>()));
 			}
 
-			// Ensure we have an rdf prefix
-			final String rdfPrefix = ensureNamespacePrefix(OslcConstants.RDF_NAMESPACE_PREFIX,
-														   OslcConstants.RDF_NAMESPACE,
-														   namespaceMappings,
-														   reverseNamespaceMappings);
+			resultJSONObject.put(memberProperty,
+								 jsonArray);
 
-			// Ensure we have an rdfs prefix
-			final String rdfsPrefix = ensureNamespacePrefix(OslcConstants.RDFS_NAMESPACE_PREFIX,
-															OslcConstants.RDFS_NAMESPACE,
-															namespaceMappings,
-															reverseNamespaceMappings);
+			addResponseInfo(namespaceMappings,
+							reverseNamespaceMappings,
+							resultJSONObject,
+							responseInfoAbout,
+							responseInfo,
+							objects.length,
+							properties);
+		}
+		else if (objects.length == 1)
+		{
+			HashMap<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
+			handleSingleResource(objects[0],
+								 resultJSONObject,
+								 namespaceMappings,
+								 reverseNamespaceMappings,
+								 properties,
+								 visitedObjects);
+		}
 
-			resultJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_ABOUT,
-								 descriptionAbout);
+		addPrefixes(resultJSONObject,
+					namespaceMappings);
 
-			/* Support for Container rdf:type */
-			if(OSLC4JUtils.isQueryResultListAsContainer()){
-				final JSONArray containerTypesJSONArray = new JSONArray();
+		return resultJSONObject;
+	}
 
-				final JSONObject containerTypeJSONObject = new JSONObject();
+	/**
+	 * Writes the same document as {@link #createJSON(String, String, ResponseInfo, Object[], Map)}
+	 * without building it as a whole first.
+	 * <p>
+	 * For query results, each member is converted and written before the next one is looked at,
+	 * so only one member is held as a JSON tree at any time. The namespace prefixes are written
+	 * first, so that {@link #fromJSON(Reader, Class)} can convert the members as they are read.
+	 * Since members may use namespaces that are not declared by their classes, e.g. in extended
+	 * properties, the selected properties of the members are walked beforehand to collect the
+	 * prefixes, without converting anything.
+	 *
+	 * @param writer receives the document; it is flushed but not closed
+	 */
+	public static void writeJSON(final Writer				writer,
+								 final String				descriptionAbout,
+								 final String				responseInfoAbout,
+								 final ResponseInfo<?>		responseInfo,
+								 final Object[]				objects,
+								 final Map<String, Object>	properties)
+		   throws DatatypeConfigurationException,
+				  IllegalAccessException,
+				  IllegalArgumentException,
+				  InvocationTargetException,
+				  IOException,
+				  JSONException,
+				  OslcCoreApplicationException
+	{
+		if (descriptionAbout == null)
+		{
+			// A single resource is built as one tree either way
+			createJSON(null,
+					   responseInfoAbout,
+					   responseInfo,
+					   objects,
+					   properties).write(writer);
 
+			writer.flush();
 
-				containerTypeJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESOURCE,
-						OslcConstants.TYPE_CONTAINER);
+			return;
+		}
 
+		final Map<String, String> namespaceMappings		   = new TreeMap<String, String>();
+		final Map<String, String> reverseNamespaceMappings = new HashMap<String, String>();
 
-				containerTypesJSONArray.add(containerTypeJSONObject);
+		addGlobalNamespaceMappings(namespaceMappings,
+								   reverseNamespaceMappings);
 
-				resultJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_TYPE,
-								 containerTypesJSONArray);
+		final JSONObject headerJSONObject = new JSONObject();
+		final String memberProperty = addQueryResultProperties(namespaceMappings,
+															   reverseNamespaceMappings,
+															   headerJSONObject,
+															   descriptionAbout,
+															   responseInfo,
+															   properties);
 
-				Map<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
-				addExtendedProperties(namespaceMappings,
-									  reverseNamespaceMappings,
-									  resultJSONObject,
-									  (IExtendedResource) responseInfo.getContainer(),
-									  properties,
-									  visitedObjects);
-			}
+		final JSONObject trailerJSONObject = new JSONObject();
+		addResponseInfo(namespaceMappings,
+						reverseNamespaceMappings,
+						trailerJSONObject,
+						responseInfoAbout,
+						responseInfo,
+						objects.length,
+						properties);
 
+		// Collect the prefixes used by the members without converting them
+		for (final Object object : objects)
+		{
+			collectNamespaceMappings(namespaceMappings,
+									 reverseNamespaceMappings,
+									 object,
+									 properties,
+									 new HashSet<Object>());
+		}
 
-			resultJSONObject.put(rdfsPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_MEMBER,
-								 jsonArray);
+		final JSONObject prefixesJSONObject = new JSONObject();
+		addPrefixes(prefixesJSONObject,
+					namespaceMappings);
 
-			if (responseInfoAbout != null)
-			{
-				// Ensure we have an oslc prefix
-				final String oslcPrefix = ensureNamespacePrefix(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX,
-																OslcConstants.OSLC_CORE_NAMESPACE,
-																namespaceMappings,
-																reverseNamespaceMappings);
+		final JSONWriter jsonWriter = new JSONWriter(writer);
 
-				final JSONObject responseInfoJSONObject = new JSONObject();
+		jsonWriter.object();
 
-				responseInfoJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_ABOUT,
-										   responseInfoAbout);
+		writeProperties(jsonWriter,
+						prefixesJSONObject);
+		writeProperties(jsonWriter,
+						headerJSONObject);
 
+		jsonWriter.key(memberProperty).array();
 
+		for (final Object object : objects)
+		{
+			jsonWriter.value(handleSingleResource(object,
+												  new JSONObject(),
+												  namespaceMappings,
+												  reverseNamespaceMappings,
+												  properties,
+												  new HashMap<Object, JSONObject>()));
+		}
 
-				if (responseInfo != null)
-				{
-					responseInfoJSONObject.put(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_TOTAL_COUNT,
-							responseInfo.totalCount() == null ? objects.length : responseInfo.totalCount());
+		jsonWriter.endArray();
 
-					if (responseInfo.nextPage() != null)
-					{
-						final JSONObject nextPageJSONObject = new JSONObject();
-						nextPageJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESOURCE,
-								responseInfo.nextPage());
-						responseInfoJSONObject.put(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_NEXT_PAGE,
-								nextPageJSONObject);
-					}
+		writeProperties(jsonWriter,
+						trailerJSONObject);
 
-					final JSONArray responseInfoTypesJSONArray = new JSONArray();
+		jsonWriter.endObject();
+		jsonWriter.flush();
+	}
 
-					final JSONObject responseInfoTypeJSONObject = new JSONObject();
+	private static void addGlobalNamespaceMappings(final Map<String, String> namespaceMappings,
+												   final Map<String, String> reverseNamespaceMappings)
+	{
+		// Add all global namespace mappings, since they have lower precedence
+		Map<String, String> globalPrefixDefinitionMap = OslcGlobalNamespaceProvider.getInstance().getPrefixDefinitionMap();
+		for(Map.Entry<String, String> prefixDefinitionEntry : globalPrefixDefinitionMap.entrySet()) {
+			namespaceMappings.put(prefixDefinitionEntry.getKey(), prefixDefinitionEntry.getValue());
+			reverseNamespaceMappings.put(prefixDefinitionEntry.getValue(), prefixDefinitionEntry.getKey());
+		}
+	}
 
-					responseInfoTypeJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESOURCE,
-												OslcConstants.TYPE_RESPONSE_INFO);
+	/**
+	 * Adds the properties of a query result that precede its members.
+	 *
+	 * @return the name of the property holding the members
+	 */
+	private static String addQueryResultProperties(final Map<String, String> namespaceMappings,
+												   final Map<String, String> reverseNamespaceMappings,
+												   final JSONObject			 resultJSONObject,
+												   final String				 descriptionAbout,
+												   final ResponseInfo<?>	 responseInfo,
+												   final Map<String, Object> properties)
+			throws DatatypeConfigurationException,
+				   IllegalAccessException,
+				   IllegalArgumentException,
+				   InvocationTargetException,
+				   JSONException,
+				   OslcCoreApplicationException
+	{
+		// Ensure we have an rdf prefix
+		final String rdfPrefix = ensureNamespacePrefix(OslcConstants.RDF_NAMESPACE_PREFIX,
+													   OslcConstants.RDF_NAMESPACE,
+													   namespaceMappings,
+													   reverseNamespaceMappings);
 
-					responseInfoTypesJSONArray.add(responseInfoTypeJSONObject);
+		// Ensure we have an rdfs prefix
+		final String rdfsPrefix = ensureNamespacePrefix(OslcConstants.RDFS_NAMESPACE_PREFIX,
+														OslcConstants.RDFS_NAMESPACE,
+														namespaceMappings,
+														reverseNamespaceMappings);
 
-					responseInfoJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_TYPE,
-											responseInfoTypesJSONArray);
+		resultJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_ABOUT,
+							 descriptionAbout);
 
-					resultJSONObject.put(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESPONSE_INFO,
-										responseInfoJSONObject);
+		/* Support for Container rdf:type */
+		if(OSLC4JUtils.isQueryResultListAsContainer()){
+			final JSONArray containerTypesJSONArray = new JSONArray();
 
-					Map<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
-					addExtendedProperties(namespaceMappings,
-										  reverseNamespaceMappings,
-										  responseInfoJSONObject,
-										  (IExtendedResource) responseInfo,
-										  properties,
-										  visitedObjects);
-				}
-			}
+			final JSONObject containerTypeJSONObject = new JSONObject();
+
+
+			containerTypeJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESOURCE,
+					OslcConstants.TYPE_CONTAINER);
+
+
+			containerTypesJSONArray.add(containerTypeJSONObject);
+
+			resultJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_TYPE,
+							 containerTypesJSONArray);
+
+			Map<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
+			addExtendedProperties(namespaceMappings,
+								  reverseNamespaceMappings,
+								  resultJSONObject,
+								  (IExtendedResource) responseInfo.getContainer(),
+								  properties,
+								  visitedObjects);
 		}
-		else if (objects.length == 1)
+
+		return rdfsPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_MEMBER;
+	}
+
+	private static void addResponseInfo(final Map<String, String> namespaceMappings,
+										final Map<String, String> reverseNamespaceMappings,
+										final JSONObject		  resultJSONObject,
+										final String			  responseInfoAbout,
+										final ResponseInfo<?>	  responseInfo,
+										final int				  memberCount,
+										final Map<String, Object> properties)
+			throws DatatypeConfigurationException,
+				   IllegalAccessException,
+				   IllegalArgumentException,
+				   InvocationTargetException,
+				   JSONException,
+				   OslcCoreApplicationException
+	{
+		if (responseInfoAbout != null)
 		{
-			HashMap<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
-			handleSingleResource(objects[0],
-								 resultJSONObject,
-								 namespaceMappings,
-								 reverseNamespaceMappings,
-								 properties,
-								 visitedObjects);
+			final String rdfPrefix = ensureNamespacePrefix(OslcConstants.RDF_NAMESPACE_PREFIX,
+														   OslcConstants.RDF_NAMESPACE,
+														   namespaceMappings,
+														   reverseNamespaceMappings);
+
+			// Ensure we have an oslc prefix
+			final String oslcPrefix = ensureNamespacePrefix(OslcConstants.OSLC_CORE_NAMESPACE_PREFIX,
+															OslcConstants.OSLC_CORE_NAMESPACE,
+															namespaceMappings,
+															reverseNamespaceMappings);
+
+			final JSONObject responseInfoJSONObject = new JSONObject();
+
+			responseInfoJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_ABOUT,
+									   responseInfoAbout);
+
+
+
+			if (responseInfo != null)
+			{
+				responseInfoJSONObject.put(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_TOTAL_COUNT,
+						responseInfo.totalCount() == null ? memberCount : responseInfo.totalCount());
+
+				if (responseInfo.nextPage() != null)
+				{
+					final JSONObject nextPageJSONObject = new JSONObject();
+					nextPageJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESOURCE,
+							responseInfo.nextPage());
+					responseInfoJSONObject.put(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_NEXT_PAGE,
+							nextPageJSONObject);
+				}
+
+				final JSONArray responseInfoTypesJSONArray = new JSONArray();
+
+				final JSONObject responseInfoTypeJSONObject = new JSONObject();
+
+				responseInfoTypeJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESOURCE,
+											OslcConstants.TYPE_RESPONSE_INFO);
+
+				responseInfoTypesJSONArray.add(responseInfoTypeJSONObject);
+
+				responseInfoJSONObject.put(rdfPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_TYPE,
+										responseInfoTypesJSONArray);
+
+				resultJSONObject.put(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESPONSE_INFO,
+									responseInfoJSONObject);
+
+				Map<Object,JSONObject> visitedObjects = new HashMap<Object,JSONObject>();
+				addExtendedProperties(namespaceMappings,
+									  reverseNamespaceMappings,
+									  responseInfoJSONObject,
+									  (IExtendedResource) responseInfo,
+									  properties,
+									  visitedObjects);
+			}
 		}
+	}
 
+	private static void addPrefixes(final JSONObject		  resultJSONObject,
+									final Map<String, String> namespaceMappings)
+			throws JSONException
+	{
 		// Set the namespace prefixes
 		final JSONObject namespaces = new JSONObject();
 		for (final Map.Entry<String, String> namespaceMapping : namespaceMappings.entrySet())
@@ -314,8 +485,19 @@ public final class JsonHelper
 			resultJSONObject.put(JSON_PROPERTY_PREFIXES,
 								 namespaces);
 		}
+	}
 
-		return resultJSONObject;
+	private static void writeProperties(final JSONWriter jsonWriter,
+										final JSONObject jsonObject)
+			throws IOException,
+				   JSONException
+	{
+		@SuppressWarnings({"unchecked", "cast"})
+		final Set<Map.Entry<String, Object>> entrySet = (Set<Map.Entry<String, Object>>) jsonObject.entrySet();
+		for (final Map.Entry<String, Object> entry : entrySet)
+		{
+			jsonWriter.key(entry.getKey()).value(entry.getValue());
+		}
 	}
 
 	public static Object[] fromJSON(final JSONObject jsonObject,
@@ -333,29 +515,9 @@ public final class JsonHelper
 		final Map<String, String> reverseNamespaceMappings = new HashMap<String, String>();
 
 		// First read the prefixes and set up maps so we can create full property definition values later
-		final Object prefixes = jsonObject.opt(JSON_PROPERTY_PREFIXES);
-
-		if (prefixes instanceof JSONObject)
-		{
-			final JSONObject prefixesJSONObject = (JSONObject) prefixes;
-
-			@SuppressWarnings({"unchecked", "cast"})
-			final Set<Map.Entry<String, Object>> prefixesEntrySet = (Set<Map.Entry<String, Object>>)  prefixesJSONObject.entrySet();
-			for (final Map.Entry<String, Object> prefixEntry : prefixesEntrySet)
-			{
-				final String prefix	   = prefixEntry.getKey();
-				final Object namespace = prefixEntry.getValue();
-
-				if (namespace instanceof String)
-				{
-					namespaceMappings.put(prefix,
-										  namespace.toString());
-
-					reverseNamespaceMappings.put(namespace.toString(),
-												 prefix.toString());
-				}
-			}
-		}
+		readPrefixes(jsonObject.opt(JSON_PROPERTY_PREFIXES),
+					 namespaceMappings,
+					 reverseNamespaceMappings);
 
 		// We have to know the reverse mapping for the rdf namespace
 		final String rdfPrefix = reverseNamespaceMappings.get(OslcConstants.RDF_NAMESPACE);
@@ -370,11 +532,11 @@ public final class JsonHelper
 		JSONArray jsonArray = null;
 
 		// Look for rdfs:member
-		final String rdfsPrefix = reverseNamespaceMappings.get(OslcConstants.RDFS_NAMESPACE);
+		final String rdfsMemberProperty = getMemberProperty(reverseNamespaceMappings);
 
-		if (rdfsPrefix != null)
+		if (rdfsMemberProperty != null)
 		{
-			final Object members = jsonObject.opt(rdfsPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_MEMBER);
+			final Object members = jsonObject.opt(rdfsMemberProperty);
 
 			if (members instanceof JSONArray)
 			{
@@ -385,11 +547,11 @@ public final class JsonHelper
 		if (jsonArray == null)
 		{
 			// Look for oslc:results.  Seen in ChangeManagement.
-			final String oslcPrefix = reverseNamespaceMappings.get(OslcConstants.OSLC_CORE_NAMESPACE);
+			final String oslcResultsProperty = getResultsProperty(reverseNamespaceMappings);
 
-			if (oslcPrefix != null)
+			if (oslcResultsProperty != null)
 			{
-				final Object results = jsonObject.opt(oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESULTS);
+				final Object results = jsonObject.opt(oslcResultsProperty);
 
 				if (results instanceof JSONArray)
 				{
@@ -404,29 +566,11 @@ public final class JsonHelper
 			{
 				if (object instanceof JSONObject)
 				{
-					final JSONObject resourceJSONObject = (JSONObject) object;
-
-					if (URI.class.equals(beanClass)) {
-						String uri = resourceJSONObject.optString(rdfPrefix + JSON_PROPERTY_DELIMITER
-								+ JSON_PROPERTY_SUFFIX_RESOURCE);
-
-						beans.add(URI.create(uri));
-					}
-					else
-					{
-						final Object bean = beanClass.newInstance();
-						HashSet<String> rdfTypes = new HashSet<String>();
-
-						fromJSON(rdfPrefix,
-								 namespaceMappings,
-								 classPropertyDefinitionsToSetMethods,
-								 resourceJSONObject,
-								 beanClass,
-								 bean,
-								 rdfTypes);
-
-						beans.add(bean);
-					}
+					beans.add(fromJSONMember(rdfPrefix,
+											 namespaceMappings,
+											 classPropertyDefinitionsToSetMethods,
+											 (JSONObject) object,
+											 beanClass));
 				}
 			}
 		}
@@ -450,15 +594,197 @@ public final class JsonHelper
 														  beans.size()));
 	}
 
-	private static void buildAttributeResource(final Map<String, String>	namespaceMappings,
-											   final Map<String, String>	reverseNamespaceMappings,
-											   final Class<?>				resourceClass,
-											   final Method					method,
-											   final OslcPropertyDefinition propertyDefinitionAnnotation,
-											   final JSONObject				jsonObject,
-											   final Object					value,
-											   final Map<String, Object>	nestedProperties,
-											   final boolean				onlyNested)
+	/**
+	 * Reads the same documents as {@link #fromJSON(JSONObject, Class)} without parsing them as a
+	 * whole first.
+	 * <p>
+	 * When the {@code prefixes} property precedes the {@code rdfs:member} or
+	 * {@code oslc:results} array, each member is parsed and converted to a bean before the next one
+	 * is read, so only one member is held as a JSON tree at any time. Otherwise the member array
+	 * has to be kept until the prefixes are known and the document is converted as a whole.
+	 */
+	public static Object[] fromJSON(final Reader   reader,
+									final Class<?> beanClass)
+		   throws DatatypeConfigurationException,
+				  IllegalAccessException,
+				  IllegalArgumentException,
+				  InstantiationException,
+				  InvocationTargetException,
+				  JSONException,
+				  OslcCoreApplicationException,
+				  URISyntaxException
+	{
+		final JsonTokenReader tokenReader = new JsonTokenReader(reader);
+
+		final JSONObject		  jsonObject			   = new JSONObject();
+		final Map<String, String> namespaceMappings		   = new HashMap<String, String>();
+		final Map<String, String> reverseNamespaceMappings = new HashMap<String, String>();
+
+		final Map<Class<?>, Map<String, Method>> classPropertyDefinitionsToSetMethods = new HashMap<Class<?>, Map<String, Method>>();
+
+		String		 rdfPrefix = null;
+		List<Object> members   = null;
+		List<Object> results   = null;
+
+		tokenReader.beginObject();
+
+		String key;
+		while ((key = tokenReader.nextKey()) != null)
+		{
+			final List<Object> beans;
+
+			if (rdfPrefix == null || !tokenReader.isArray())
+			{
+				beans = null;
+			}
+			else if (key.equals(getMemberProperty(reverseNamespaceMappings)))
+			{
+				beans = members = new ArrayList<Object>();
+			}
+			else if (key.equals(getResultsProperty(reverseNamespaceMappings)))
+			{
+				beans = results = new ArrayList<Object>();
+			}
+			else
+			{
+				beans = null;
+			}
+
+			if (beans == null)
+			{
+				final Object value = tokenReader.readValue();
+
+				jsonObject.put(key,
+							   value);
+
+				if (JSON_PROPERTY_PREFIXES.equals(key) && rdfPrefix == null)
+				{
+					readPrefixes(value,
+								 namespaceMappings,
+								 reverseNamespaceMappings);
+
+					rdfPrefix = reverseNamespaceMappings.get(OslcConstants.RDF_NAMESPACE);
+				}
+
+				continue;
+			}
+
+			tokenReader.beginArray();
+
+			while (tokenReader.nextElement())
+			{
+				final Object object = tokenReader.readValue();
+
+				if (object instanceof JSONObject)
+				{
+					beans.add(fromJSONMember(rdfPrefix,
+											 namespaceMappings,
+											 classPropertyDefinitionsToSetMethods,
+											 (JSONObject) object,
+											 beanClass));
+				}
+			}
+		}
+
+		final List<Object> beans			= members != null ? members : results;
+		final String	   memberProperty	= getMemberProperty(reverseNamespaceMappings);
+
+		// rdfs:member takes precedence over oslc:results, even when it came before the prefixes
+		if (beans == null ||
+			(members == null && memberProperty != null && jsonObject.opt(memberProperty) instanceof JSONArray))
+		{
+			// Either a single resource or the members came before the prefixes
+			return fromJSON(jsonObject,
+							beanClass);
+		}
+
+		return beans.toArray((Object[]) Array.newInstance(beanClass,
+														  beans.size()));
+	}
+
+	private static void readPrefixes(final Object			   prefixes,
+									 final Map<String, String> namespaceMappings,
+									 final Map<String, String> reverseNamespaceMappings)
+	{
+		if (prefixes instanceof JSONObject)
+		{
+			final JSONObject prefixesJSONObject = (JSONObject) prefixes;
+
+			@SuppressWarnings({"unchecked", "cast"})
+			final Set<Map.Entry<String, Object>> prefixesEntrySet = (Set<Map.Entry<String, Object>>)  prefixesJSONObject.entrySet();
+			for (final Map.Entry<String, Object> prefixEntry : prefixesEntrySet)
+			{
+				final String prefix	   = prefixEntry.getKey();
+				final Object namespace = prefixEntry.getValue();
+
+				if (namespace instanceof String)
+				{
+					namespaceMappings.put(prefix,
+										  namespace.toString());
+
+					reverseNamespaceMappings.put(namespace.toString(),
+												 prefix.toString());
+				}
+			}
+		}
+	}
+
+	private static String getMemberProperty(final Map<String, String> reverseNamespaceMappings)
+	{
+		final String rdfsPrefix = reverseNamespaceMappings.get(OslcConstants.RDFS_NAMESPACE);
+
+		return rdfsPrefix == null ? null : rdfsPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_MEMBER;
+	}
+
+	private static String getResultsProperty(final Map<String, String> reverseNamespaceMappings)
+	{
+		final String oslcPrefix = reverseNamespaceMappings.get(OslcConstants.OSLC_CORE_NAMESPACE);
+
+		return oslcPrefix == null ? null : oslcPrefix + JSON_PROPERTY_DELIMITER + JSON_PROPERTY_SUFFIX_RESULTS;
+	}
+
+	private static Object fromJSONMember(final String							  rdfPrefix,
+										 final Map<String, String>				  namespaceMappings,
+										 final Map<Class<?>, Map<String, Method>> classPropertyDefinitionsToSetMethods,
+										 final JSONObject						  resourceJSONObject,
+										 final Class<?>							  beanClass)
+			throws DatatypeConfigurationException,
+				   IllegalAccessException,
+				   IllegalArgumentException,
+				   InstantiationException,
+				   InvocationTargetException,
+				   OslcCoreApplicationException,
+				   URISyntaxException
+	{
+		if (URI.class.equals(beanClass)) {
+			String uri = resourceJSONObject.optString(rdfPrefix + JSON_PROPERTY_DELIMITER
+					+ JSON_PROPERTY_SUFFIX_RESOURCE);
+
+			return URI.create(uri);
+		}
+
+		final Object bean = beanClass.newInstance();
+		HashSet<String> rdfTypes = new HashSet<String>();
+
+		fromJSON(rdfPrefix,
+				 namespaceMappings,
+				 classPropertyDefinitionsToSetMethods,
+				 resourceJSONObject,
+				 beanClass,
+				 bean,
+				 rdfTypes);
+
+		return bean;
+	}
+
+	private static void buildAttributeResource(final Map<String, String>					 namespaceMappings,
+											   final Map<String, String>					 reverseNamespaceMappings,
+											   final Class<?>								 resourceClass,
+											   final ResourceClassMetadata.PropertyMetadata property,
+											   final JSONObject								 jsonObject,
+											   final Object									 value,
+											   final Map<String, Object>					 nestedProperties,
+											   final boolean								 onlyNested)
 			throws DatatypeConfigurationException,
 				   IllegalAccessException,
 				   IllegalArgumentException,
@@ -466,20 +792,10 @@ public final class JsonHelper
 				   JSONException,
 				   OslcCoreApplicationException
 	{
+		final Method method = property.getGetter();
+		final OslcPropertyDefinition propertyDefinitionAnnotation = property.getPropertyDefinitionAnnotation();
 		final String propertyDefinition = propertyDefinitionAnnotation.value();
-
-		String name;
-		final OslcName nameAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method,
-																					  OslcName.class);
-
-		if (nameAnnotation != null)
-		{
-			name = nameAnnotation.value();
-		}
-		else
-		{
-			name = getDefaultPropertyName(method);
-		}
+		final String name = property.getName();
 
 		if (!propertyDefinition.endsWith(name))
 		{
@@ -703,7 +1019,7 @@ public final class JsonHelper
 			final JSONArray rdfTypesJSONArray = new JSONArray();
 
 			final String qualifiedName;
-			if (objectClass.getAnnotation(OslcResourceShape.class) != null)
+			if (ResourceClassMetadata.forClass(objectClass).getResourceShapeAnnotation() != null)
 			{
 				qualifiedName = TypeFactory.getQualifiedName(objectClass);
 				if (qualifiedName != null)
@@ -767,65 +1083,52 @@ public final class JsonHelper
 			return;
 		}
 
-		for (final Method method : objectClass.getMethods())
+		for (final ResourceClassMetadata.PropertyMetadata property : ResourceClassMetadata.forClass(objectClass).getProperties())
 		{
-			if (method.getParameterTypes().length == 0)
-			{
-				final String methodName = method.getName();
-				if (((methodName.startsWith(METHOD_NAME_START_GET)) &&
-					 (methodName.length() > METHOD_NAME_START_GET_LENGTH)) ||
-					((methodName.startsWith(METHOD_NAME_START_IS)) &&
-					 (methodName.length() > METHOD_NAME_START_IS_LENGTH)))
-				{
-					final OslcPropertyDefinition oslcPropertyDefinitionAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method,
-																																  OslcPropertyDefinition.class);
+			final Method method = property.getGetter();
+			final OslcPropertyDefinition oslcPropertyDefinitionAnnotation = property.getPropertyDefinitionAnnotation();
 
-					if (oslcPropertyDefinitionAnnotation != null)
-					{
-						final Object value = method.invoke(object);
+			Map<String, Object> nestedProperties = null;
+			boolean onlyNested = false;
 
-						if (value != null)
-						{
-							Map<String, Object> nestedProperties = null;
-							boolean onlyNested = false;
+			// Check the selection first, so unselected getters are not invoked
+			if (properties != null)
+			{
+				@SuppressWarnings("unchecked")
+				final Map<String, Object> map = (Map<String, Object>)properties.get(oslcPropertyDefinitionAnnotation.value());
 
-							if (properties != null)
-							{
-								@SuppressWarnings("unchecked")
-								final Map<String, Object> map = (Map<String, Object>)properties.get(oslcPropertyDefinitionAnnotation.value());
+				if (map != null)
+				{
+					nestedProperties = map;
+				}
+				else if (properties instanceof SingletonWildcardProperties &&
+						 ! (properties instanceof NestedWildcardProperties))
+				{
+					nestedProperties = OSLC4JConstants.OSL4J_PROPERTY_SINGLETON;
+				}
+				else if (properties instanceof NestedWildcardProperties)
+				{
+					nestedProperties = ((NestedWildcardProperties)properties).commonNestedProperties();
+					onlyNested = ! (properties instanceof SingletonWildcardProperties);
+				}
+				else
+				{
+					continue;
+				}
+			}
 
-								if (map != null)
-								{
-									nestedProperties = map;
-								}
-								else if (properties instanceof SingletonWildcardProperties &&
-										 ! (properties instanceof NestedWildcardProperties))
-								{
-									nestedProperties = OSLC4JConstants.OSL4J_PROPERTY_SINGLETON;
-								}
-								else if (properties instanceof NestedWildcardProperties)
-								{
-									nestedProperties = ((NestedWildcardProperties)properties).commonNestedProperties();
-									onlyNested = ! (properties instanceof SingletonWildcardProperties);
-								}
-								else
-								{
-									continue;
-								}
-							}
+			final Object value = method.invoke(object);
 
-							buildAttributeResource(namespaceMappings,
-												   reverseNamespaceMappings,
-												   objectClass,
-												   method,
-												   oslcPropertyDefinitionAnnotation,
-												   jsonObject,
-												   value,
-												   nestedProperties,
-												   onlyNested);
-						}
-					}
-				}
+			if (value != null)
+			{
+				buildAttributeResource(namespaceMappings,
+									   reverseNamespaceMappings,
+									   objectClass,
+									   property,
+									   jsonObject,
+									   value,
+									   nestedProperties,
+									   onlyNested);
 			}
 		}
 
@@ -1058,25 +1361,6 @@ public final class JsonHelper
 		return null;
 	}
 
-	private static String getDefaultPropertyName(final Method method)
-	{
-		final String methodName	   = method.getName();
-		final int	 startingIndex = methodName.startsWith(METHOD_NAME_START_GET) ? METHOD_NAME_START_GET_LENGTH : METHOD_NAME_START_IS_LENGTH;
-		final int	 endingIndex   = startingIndex + 1;
-
-		// We want the name to start with a lower-case letter
-		final String lowercasedFirstCharacter = methodName.substring(startingIndex,
-																	 endingIndex).toLowerCase(Locale.ENGLISH);
-
-		if (methodName.length() == endingIndex)
-		{
-			return lowercasedFirstCharacter;
-		}
-
-		return lowercasedFirstCharacter +
-			   methodName.substring(endingIndex);
-	}
-
 	private static Object handleLocalResource(final Map<String, String> namespaceMappings,
 											  final Map<String, String> reverseNamespaceMappings,
 											  final Class<?>			resourceClass,
@@ -1311,9 +1595,14 @@ public final class JsonHelper
 		else {
 
 			// Collect the namespace prefix -> namespace mappings
-			recursivelyCollectNamespaceMappings(namespaceMappings,
-												reverseNamespaceMappings,
-												objectClass);
+			for (final Map.Entry<String, String> namespaceDeclaration : ResourceClassMetadata.forClass(objectClass).getNamespaceDeclarations())
+			{
+				namespaceMappings.put(namespaceDeclaration.getKey(),
+									  namespaceDeclaration.getValue());
+
+				reverseNamespaceMappings.put(namespaceDeclaration.getValue(),
+											 namespaceDeclaration.getKey());
+			}
 
 			if (object instanceof IResource)
 			{
@@ -1413,69 +1702,238 @@ public final class JsonHelper
 		}
 	}
 
-	private static void recursivelyCollectNamespaceMappings(final Map<String, String>	  namespaceMappings,
-															final Map<String, String>	  reverseNamespaceMappings,
-															final Class<? extends Object> objectClass)
+	/**
+	 * Adds the namespace prefixes that {@link #handleSingleResource} adds when converting the
+	 * object, visiting the same properties without building any JSON.
+	 */
+	private static void collectNamespaceMappings(final Map<String, String> namespaceMappings,
+												 final Map<String, String> reverseNamespaceMappings,
+												 final Object			   object,
+												 final Map<String, Object> properties,
+												 final Set<Object>		   visitedObjects)
+			throws IllegalAccessException,
+				   InvocationTargetException
 	{
-		final OslcSchema oslcSchemaAnnotation = objectClass.getPackage().getAnnotation(OslcSchema.class);
-		if (oslcSchemaAnnotation != null)
+		if (object instanceof URI ||
+			! visitedObjects.add(object))
+		{
+			return;
+		}
+
+		for (final Map.Entry<String, String> namespaceDeclaration : ResourceClassMetadata.forClass(object.getClass()).getNamespaceDeclarations())
 		{
-			final OslcNamespaceDefinition[] oslcNamespaceDefinitionAnnotations = oslcSchemaAnnotation.value();
-			for (final OslcNamespaceDefinition oslcNamespaceDefinitionAnnotation : oslcNamespaceDefinitionAnnotations)
+			namespaceMappings.put(namespaceDeclaration.getKey(),
+								  namespaceDeclaration.getValue());
+
+			reverseNamespaceMappings.put(namespaceDeclaration.getValue(),
+										 namespaceDeclaration.getKey());
+		}
+
+		ensureNamespacePrefix(OslcConstants.RDF_NAMESPACE_PREFIX,
+							  OslcConstants.RDF_NAMESPACE,
+							  namespaceMappings,
+							  reverseNamespaceMappings);
+
+		collectAttributeNamespaceMappings(namespaceMappings,
+										  reverseNamespaceMappings,
+										  object,
+										  properties,
+										  visitedObjects);
+	}
+
+	private static void collectAttributeNamespaceMappings(final Map<String, String> namespaceMappings,
+														  final Map<String, String> reverseNamespaceMappings,
+														  final Object				object,
+														  final Map<String, Object> properties,
+														  final Set<Object>			visitedObjects)
+			throws IllegalAccessException,
+				   InvocationTargetException
+	{
+		if (properties == OSLC4JConstants.OSL4J_PROPERTY_SINGLETON)
+		{
+			return;
+		}
+
+		for (final ResourceClassMetadata.PropertyMetadata property : ResourceClassMetadata.forClass(object.getClass()).getProperties())
+		{
+			if (! isSelected(properties, property.getPropertyDefinition()))
 			{
-				final String prefix		  = oslcNamespaceDefinitionAnnotation.prefix();
-				final String namespaceURI = oslcNamespaceDefinitionAnnotation.namespaceURI();
+				continue;
+			}
 
-				namespaceMappings.put(prefix,
-									  namespaceURI);
+			final Object value = property.getGetter().invoke(object);
 
-				reverseNamespaceMappings.put(namespaceURI,
-											 prefix);
+			if (value == null)
+			{
+				continue;
 			}
-			//Adding custom prefixes obtained from an implementation, if there is an implementation.
-			Class<? extends IOslcCustomNamespaceProvider> customNamespaceProvider = oslcSchemaAnnotation.customNamespaceProvider();
-			if(!customNamespaceProvider.isInterface())
+
+			final Map<String, Object> nestedProperties = getNestedProperties(properties,
+																			 property.getPropertyDefinition());
+
+			if (value.getClass().isArray())
 			{
-				try {
-					IOslcCustomNamespaceProvider customNamespaceProviderImpl = customNamespaceProvider.newInstance();
-					Map<String, String> customNamespacePrefixes = customNamespaceProviderImpl.getCustomNamespacePrefixes();
-					if(null != customNamespacePrefixes)
-					{
-						for(Map.Entry<String, String> namespaceEntry : customNamespacePrefixes.entrySet())
-						{
-							namespaceMappings.put(namespaceEntry.getKey(), namespaceEntry.getValue());
-							reverseNamespaceMappings.put(namespaceEntry.getValue(), namespaceEntry.getKey());
-						}
-					}
-				} catch (IllegalAccessException e) {
-					throw new RuntimeException("The custom namespace provider implementation: "+
-											   customNamespaceProvider.getClass().getName() +
-											   ", must have a public no args construtor", e);
-				} catch (InstantiationException e) {
-					throw new RuntimeException("The custom namespace provider must not be a abstract, nor interface class and " +
-											   "must have a public no args constructor", e);
+				final int length = Array.getLength(value);
+				for (int index = 0;
+					 index < length;
+					 index++)
+				{
+					collectLocalResourceNamespaceMappings(namespaceMappings,
+														  reverseNamespaceMappings,
+														  Array.get(value, index),
+														  nestedProperties);
 				}
 			}
+			else if (value instanceof Collection)
+			{
+				for (final Object element : (Collection<?>) value)
+				{
+					collectLocalResourceNamespaceMappings(namespaceMappings,
+														  reverseNamespaceMappings,
+														  element,
+														  nestedProperties);
+				}
+			}
+			else
+			{
+				collectLocalResourceNamespaceMappings(namespaceMappings,
+													  reverseNamespaceMappings,
+													  value,
+													  nestedProperties);
+			}
 		}
 
-		final Class<?> superClass = objectClass.getSuperclass();
-		if (superClass != null)
+		if (object instanceof IExtendedResource)
 		{
-			recursivelyCollectNamespaceMappings(namespaceMappings,
-												reverseNamespaceMappings,
-												superClass);
+			for (final Map.Entry<QName, Object> extendedProperty : ((IExtendedResource) object).getExtendedProperties().entrySet())
+			{
+				final QName name = extendedProperty.getKey();
+
+				if (! isSelected(properties, name.getNamespaceURI() + name.getLocalPart()))
+				{
+					continue;
+				}
+
+				collectExtendedValueNamespaceMappings(namespaceMappings,
+													  reverseNamespaceMappings,
+													  extendedProperty.getValue(),
+													  getNestedProperties(properties,
+																		  name.getNamespaceURI() + name.getLocalPart()),
+													  visitedObjects);
+
+				if (! reverseNamespaceMappings.containsKey(name.getNamespaceURI()))
+				{
+					namespaceMappings.put(name.getPrefix(),
+										  name.getNamespaceURI());
+					reverseNamespaceMappings.put(name.getNamespaceURI(),
+												 name.getPrefix());
+				}
+			}
 		}
+	}
 
-		final Class<?>[] interfaces = objectClass.getInterfaces();
-		if (interfaces != null)
+	private static void collectLocalResourceNamespaceMappings(final Map<String, String> namespaceMappings,
+															  final Map<String, String> reverseNamespaceMappings,
+															  final Object				object,
+															  final Map<String, Object> nestedProperties)
+			throws IllegalAccessException,
+				   InvocationTargetException
+	{
+		if (object == null ||
+			object instanceof String ||
+			object instanceof Boolean ||
+			object instanceof Number ||
+			object instanceof URI ||
+			object instanceof Date)
 		{
-			for (final Class<?> interfac : interfaces)
+			return;
+		}
+
+		if (object instanceof IReifiedResource)
+		{
+			// Only the reified statements are converted, the value is a reference
+			collectAttributeNamespaceMappings(namespaceMappings,
+											  reverseNamespaceMappings,
+											  object,
+											  nestedProperties,
+											  new HashSet<Object>());
+			return;
+		}
+
+		collectNamespaceMappings(namespaceMappings,
+								 reverseNamespaceMappings,
+								 object,
+								 nestedProperties,
+								 new HashSet<Object>());
+	}
+
+	private static void collectExtendedValueNamespaceMappings(final Map<String, String> namespaceMappings,
+															  final Map<String, String> reverseNamespaceMappings,
+															  final Object				object,
+															  final Map<String, Object> nestedProperties,
+															  final Set<Object>			visitedObjects)
+			throws IllegalAccessException,
+				   InvocationTargetException
+	{
+		if (object instanceof Collection)
+		{
+			for (final Object element : (Collection<?>) object)
 			{
-				recursivelyCollectNamespaceMappings(namespaceMappings,
-													reverseNamespaceMappings,
-													interfac);
+				collectExtendedValueNamespaceMappings(namespaceMappings,
+													  reverseNamespaceMappings,
+													  element,
+													  nestedProperties,
+													  visitedObjects);
 			}
 		}
+		else if (object instanceof IResource)
+		{
+			collectNamespaceMappings(namespaceMappings,
+									 reverseNamespaceMappings,
+									 object,
+									 nestedProperties,
+									 visitedObjects);
+		}
+	}
+
+	/**
+	 * @return whether the property is converted with the given selection of properties
+	 */
+	private static boolean isSelected(final Map<String, Object> properties,
+									  final String				propertyName)
+	{
+		return properties == null ||
+			   properties.get(propertyName) != null ||
+			   properties instanceof SingletonWildcardProperties ||
+			   properties instanceof NestedWildcardProperties;
+	}
+
+	/**
+	 * @return the selection of properties of a selected property's value
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> getNestedProperties(final Map<String, Object> properties,
+														   final String				 propertyName)
+	{
+		if (properties == null)
+		{
+			return null;
+		}
+
+		final Map<String, Object> map = (Map<String, Object>) properties.get(propertyName);
+
+		if (map != null)
+		{
+			return map;
+		}
+
+		if (properties instanceof SingletonWildcardProperties &&
+			! (properties instanceof NestedWildcardProperties))
+		{
+			return OSLC4JConstants.OSL4J_PROPERTY_SINGLETON;
+		}
+
+		return ((NestedWildcardProperties) properties).commonNestedProperties();
 	}
 
 	/**
@@ -1532,7 +1990,7 @@ public final class JsonHelper
 		Map<String, Method> setMethodMap = classPropertyDefinitionsToSetMethods.get(beanClass);
 		if (setMethodMap == null)
 		{
-			setMethodMap = createPropertyDefinitionToSetMethods(beanClass);
+			setMethodMap = ResourceClassMetadata.forClass(beanClass).getSetMethods();
 
 			classPropertyDefinitionsToSetMethods.put(beanClass,
 													 setMethodMap);
@@ -2284,60 +2742,4 @@ public final class JsonHelper
 		return "true".equals(System.getProperty(OSLC4J_WRITE_SPECIAL_NUMS, "true"));
 	}
 
-	private static Map<String, Method> createPropertyDefinitionToSetMethods(final Class<?> beanClass)
-			throws OslcCoreApplicationException
-	{
-		final Map<String, Method> result = new HashMap<String, Method>();
-		final Method[] methods = beanClass.getMethods();
-		for (final Method method : methods)
-		{
-			if (method.getParameterTypes().length == 0)
-			{
-				final String getMethodName = method.getName();
-				if (((getMethodName.startsWith(METHOD_NAME_START_GET)) &&
-					 (getMethodName.length() > METHOD_NAME_START_GET_LENGTH)) ||
-					((getMethodName.startsWith(METHOD_NAME_START_IS)) &&
-					 (getMethodName.length() > METHOD_NAME_START_IS_LENGTH)))
-				{
-					final OslcPropertyDefinition oslcPropertyDefinitionAnnotation = InheritedMethodAnnotationHelper.getAnnotation(method,
-																																  OslcPropertyDefinition.class);
-
-					if (oslcPropertyDefinitionAnnotation != null)
-					{
-						// We need to find the set companion setMethod
-						final String setMethodName;
-						if (getMethodName.startsWith(METHOD_NAME_START_GET))
-						{
-							setMethodName = METHOD_NAME_START_SET +
-											getMethodName.substring(METHOD_NAME_START_GET_LENGTH);
-						}
-						else
-						{
-							setMethodName = METHOD_NAME_START_SET +
-											getMethodName.substring(METHOD_NAME_START_IS_LENGTH);
-						}
-
-						final Class<?> getMethodReturnType = method.getReturnType();
-						try
-						{
-							final Method setMethod = beanClass.getMethod(setMethodName,
-																		 getMethodReturnType);
-
-							result.put(oslcPropertyDefinitionAnnotation.value(),
-									   setMethod);
-						}
-						catch (final NoSuchMethodException exception)
-						{
-							throw new OslcCoreMissingSetMethodException(beanClass,
-																		method,
-																		exception);
-						}
-					}
-				}
-			}
-		}
-
-		return result;
-	}
-
 }
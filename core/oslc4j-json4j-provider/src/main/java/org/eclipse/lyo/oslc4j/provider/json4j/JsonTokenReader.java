@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.provider.json4j;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.wink.json4j.JSONArray;
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
+import org.apache.wink.json4j.OrderedJSONObject;
+import org.apache.wink.json4j.internal.Token;
+import org.apache.wink.json4j.internal.Tokenizer;
+
+/**
+ * Pull reader over the JSON4J tokenizer.
+ * <p>
+ * The document is consumed token by token, so callers can walk the outer structure and only
+ * materialize the values they need as JSON4J trees, one at a time. The values produced are the
+ * same as the ones {@link JSONObject#JSONObject(java.io.InputStream)} builds for nested values.
+ */
+final class JsonTokenReader
+{
+	private final Tokenizer tokenizer;
+
+	private Token lastToken;
+
+	/**
+	 * Whether a value has just been consumed, so a separator or a closing token must follow.
+	 */
+	private boolean afterValue;
+
+	JsonTokenReader(final Reader reader)
+		   throws JSONException
+	{
+		try
+		{
+			tokenizer = new Tokenizer(reader, false);
+			lastToken = tokenizer.next();
+		}
+		catch (final IOException exception)
+		{
+			throw readError(exception);
+		}
+	}
+
+	/**
+	 * Consumes the opening brace of an object.
+	 */
+	void beginObject()
+		 throws JSONException
+	{
+		expect(Token.TokenBraceL, "'{'");
+	}
+
+	/**
+	 * Consumes the next key of the current object and the colon that follows it.
+	 *
+	 * @return the key or null when the closing brace of the object has been consumed
+	 */
+	String nextKey()
+		   throws JSONException
+	{
+		skipSeparator(Token.TokenBraceR);
+
+		if (lastToken == Token.TokenBraceR)
+		{
+			advance();
+			afterValue = true;
+			return null;
+		}
+
+		if (lastToken == Token.TokenEOF)
+		{
+			throw new JSONException("Unterminated object" + tokenizer.onLineCol());
+		}
+
+		if (!lastToken.isString())
+		{
+			throw new JSONException("Expecting string key" + tokenizer.onLineCol());
+		}
+
+		final String key = lastToken.getString();
+		advance();
+		expect(Token.TokenColon, "colon");
+
+		return key;
+	}
+
+	/**
+	 * @return true if the value following the current key is an array
+	 */
+	boolean isArray()
+	{
+		return lastToken == Token.TokenBrackL;
+	}
+
+	/**
+	 * Consumes the opening bracket of an array.
+	 */
+	void beginArray()
+		 throws JSONException
+	{
+		expect(Token.TokenBrackL, "'['");
+	}
+
+	/**
+	 * Moves to the next element of the current array.
+	 *
+	 * @return false when the closing bracket of the array has been consumed
+	 */
+	boolean nextElement()
+			throws JSONException
+	{
+		skipSeparator(Token.TokenBrackR);
+
+		if (lastToken == Token.TokenBrackR)
+		{
+			advance();
+			afterValue = true;
+			return false;
+		}
+
+		if (lastToken == Token.TokenEOF)
+		{
+			throw new JSONException("Unterminated array" + tokenizer.onLineCol());
+		}
+
+		return true;
+	}
+
+	/**
+	 * Reads the value at the current position, building an {@link OrderedJSONObject} or a
+	 * {@link JSONArray} for structured values.
+	 */
+	Object readValue()
+		   throws JSONException
+	{
+		final Token token = lastToken;
+
+		if (token == Token.TokenBraceL)
+		{
+			final JSONObject jsonObject = new OrderedJSONObject();
+
+			beginObject();
+
+			String key;
+			while ((key = nextKey()) != null)
+			{
+				jsonObject.put(key,
+							   readValue());
+			}
+
+			return jsonObject;
+		}
+
+		if (token == Token.TokenBrackL)
+		{
+			final JSONArray jsonArray = new JSONArray();
+
+			beginArray();
+
+			while (nextElement())
+			{
+				jsonArray.add(readValue());
+			}
+
+			return jsonArray;
+		}
+
+		if (token == Token.TokenEOF)
+		{
+			throw new JSONException("Expecting property value" + tokenizer.onLineCol());
+		}
+
+		advance();
+		afterValue = true;
+
+		if (token.isNumber())
+		{
+			return token.getNumber();
+		}
+
+		if (token.isString())
+		{
+			return token.getString();
+		}
+
+		if (token == Token.TokenTrue)
+		{
+			return Boolean.TRUE;
+		}
+
+		if (token == Token.TokenFalse)
+		{
+			return Boolean.FALSE;
+		}
+
+		if (token == Token.TokenNull)
+		{
+			return null;
+		}
+
+		throw new JSONException("Invalid token " + token + tokenizer.onLineCol());
+	}
+
+	/**
+	 * Consumes the comma following a value, if any. A value must be followed either by a comma or
+	 * by the given closing token.
+	 */
+	private void skipSeparator(final Token closingToken)
+			throws JSONException
+	{
+		if (!afterValue)
+		{
+			return;
+		}
+
+		afterValue = false;
+
+		if (lastToken == Token.TokenComma)
+		{
+			advance();
+		}
+		else if (lastToken != closingToken)
+		{
+			throw new JSONException("expecting either ',' or '" + closingToken + "'" + tokenizer.onLineCol());
+		}
+	}
+
+	private void expect(final Token token,
+						final String description)
+			throws JSONException
+	{
+		if (lastToken != token)
+		{
+			throw new JSONException("Expecting " + description + tokenizer.onLineCol() +
+									" instead, obtained token: '" + lastToken + "'");
+		}
+
+		advance();
+		afterValue = false;
+	}
+
+	private void advance()
+			throws JSONException
+	{
+		try
+		{
+			lastToken = tokenizer.next();
+		}
+		catch (final IOException exception)
+		{
+			throw readError(exception);
+		}
+	}
+
+	private static JSONException readError(final IOException exception)
+	{
+		final JSONException jsonException = new JSONException("Error occurred during input read.");
+		jsonException.initCause(exception);
+		return jsonException;
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.provider.json4j.test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+
+import javax.xml.namespace.QName;
+
+import org.apache.wink.json4j.JSONException;
+import org.apache.wink.json4j.JSONObject;
+import org.eclipse.lyo.oslc4j.core.model.AnyResource;
+import org.eclipse.lyo.oslc4j.core.model.ResponseInfoArray;
+import org.eclipse.lyo.oslc4j.provider.json4j.JsonHelper;
+import org.eclipse.lyo.oslc4j.provider.json4j.test.resources.TestResource;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the streaming reader and writer of {@link JsonHelper} against the tree based ones.
+ */
+@SuppressWarnings("deprecation")
+public class JsonStreamingTest {
+
+	private static final String QUERY_URI = "http://about.oslc.test/query";
+	private static final QName NAME = new QName("http://test1.oslc4j.com#", "name");
+
+	@Test
+	public void testWriteJSONMatchesCreateJSON() throws Exception {
+		final TestResource[] resources = createResources(3);
+		final ResponseInfoArray<TestResource> responseInfo = new ResponseInfoArray<TestResource>(resources, null, 10,
+				QUERY_URI + "?page=2");
+
+		final JSONObject expected = JsonHelper.createJSON(QUERY_URI, QUERY_URI, responseInfo, resources, null);
+
+		final StringWriter writer = new StringWriter();
+		JsonHelper.writeJSON(writer, QUERY_URI, QUERY_URI, responseInfo, resources, null);
+
+		Assert.assertEquals(expected, new JSONObject(writer.toString()));
+	}
+
+	@Test
+	public void testWriteJSONPrefixesOfNestedExtendedProperties() throws Exception {
+		final TestResource[] resources = createResources(2);
+		final AnyResource nested = new AnyResource();
+		nested.getExtendedProperties().put(new QName("http://other.oslc4j.com#", "value", "o"), "Value");
+		resources[1].getExtendedProperties().put(new QName("http://undeclared.oslc4j.com#", "nested", "u"), nested);
+		final ResponseInfoArray<TestResource> responseInfo = new ResponseInfoArray<TestResource>(resources, null, 2,
+				(String) null);
+
+		final JSONObject expected = JsonHelper.createJSON(QUERY_URI, QUERY_URI, responseInfo, resources, null);
+
+		final StringWriter writer = new StringWriter();
+		JsonHelper.writeJSON(writer, QUERY_URI, QUERY_URI, responseInfo, resources, null);
+
+		final JSONObject actual = new JSONObject(writer.toString());
+		Assert.assertEquals(expected, actual);
+		Assert.assertEquals("http://undeclared.oslc4j.com#", actual.getJSONObject("prefixes").get("u"));
+		Assert.assertEquals("http://other.oslc4j.com#", actual.getJSONObject("prefixes").get("o"));
+	}
+
+	@Test
+	public void testFromJSONReaderWriteJSONResult() throws Exception {
+		final TestResource[] resources = createResources(3);
+		final ResponseInfoArray<TestResource> responseInfo = new ResponseInfoArray<TestResource>(resources, null, 10,
+				QUERY_URI + "?page=2");
+		final StringWriter writer = new StringWriter();
+		JsonHelper.writeJSON(writer, QUERY_URI, QUERY_URI, responseInfo, resources, null);
+
+		// The members are only converted while they are read when the prefixes come first
+		Assert.assertTrue(writer.toString().startsWith("{\"prefixes\":"));
+
+		final Object[] beans = JsonHelper.fromJSON(new StringReader(writer.toString()), TestResource.class);
+
+		assertSameResources(resources, beans);
+	}
+
+	@Test
+	public void testFromJSONReaderMembersBeforePrefixes() throws Exception {
+		final String json = "{\"rdf:about\": \"" + QUERY_URI + "\","
+				+ " \"rdfs:member\": ["
+				+ "{\"rdf:about\": \"http://about.oslc.test/0\", \"t1:name\": \"Name 0\"},"
+				+ "{\"rdf:about\": \"http://about.oslc.test/1\", \"t1:name\": \"Name 1\"}],"
+				+ " \"prefixes\": {\"rdf\": \"http://www.w3.org/1999/02/22-rdf-syntax-ns#\","
+				+ " \"rdfs\": \"http://www.w3.org/2000/01/rdf-schema#\", \"t1\": \"http://test1.oslc4j.com#\"}}";
+
+		final Object[] beans = JsonHelper.fromJSON(new StringReader(json), TestResource.class);
+
+		assertSameResources(createResources(2), beans);
+	}
+
+	@Test
+	public void testFromJSONReaderPrefixesBeforeMembers() throws Exception {
+		final String json = "{\"prefixes\": {\"rdf\": \"http://www.w3.org/1999/02/22-rdf-syntax-ns#\","
+				+ " \"rdfs\": \"http://www.w3.org/2000/01/rdf-schema#\", \"t1\": \"http://test1.oslc4j.com#\"},"
+				+ " \"rdf:about\": \"" + QUERY_URI + "\","
+				+ " \"rdfs:member\": ["
+				+ "{\"rdf:about\": \"http://about.oslc.test/0\", \"t1:name\": \"Name 0\"},"
+				+ "{\"rdf:about\": \"http://about.oslc.test/1\", \"t1:name\": \"Name 1\"}]}";
+
+		final Object[] beans = JsonHelper.fromJSON(new StringReader(json), TestResource.class);
+
+		assertSameResources(createResources(2), beans);
+	}
+
+	@Test
+	public void testFromJSONReaderSingleResource() throws Exception {
+		final TestResource[] resources = createResources(1);
+		final StringWriter writer = new StringWriter();
+		JsonHelper.writeJSON(writer, null, null, null, resources, null);
+
+		final Object[] beans = JsonHelper.fromJSON(new StringReader(writer.toString()), TestResource.class);
+
+		assertSameResources(resources, beans);
+	}
+
+	@Test(expected = JSONException.class)
+	public void testFromJSONReaderMissingSeparator() throws Exception {
+		JsonHelper.fromJSON(new StringReader("{\"rdf:about\": \"a\" \"rdf:type\": []}"), TestResource.class);
+	}
+
+	private static TestResource[] createResources(int count) {
+		final TestResource[] resources = new TestResource[count];
+		for (int i = 0; i < count; i++) {
+			resources[i] = new TestResource();
+			resources[i].setAbout(URI.create("http://about.oslc.test/" + i));
+			resources[i].getExtendedProperties().put(NAME, "Name " + i);
+		}
+		return resources;
+	}
+
+	private static void assertSameResources(TestResource[] expected, Object[] actual) {
+		Assert.assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			final TestResource resource = (TestResource) actual[i];
+			Assert.assertEquals(expected[i].getAbout(), resource.getAbout());
+			Assert.assertEquals(expected[i].getExtendedProperties().get(NAME),
+					resource.getExtendedProperties().get(NAME));
+		}
+	}
+}
@@ -24,7 +24,6 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.text.SimpleDateFormat;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -47,6 +46,7 @@ import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcTitle;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcValueType;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.LazySet;
 import org.eclipse.lyo.oslc4j.core.model.Link;
 import org.eclipse.lyo.oslc4j.core.model.Occurs;
 import org.eclipse.lyo.oslc4j.core.model.OslcConstants;
@@ -81,13 +81,13 @@ public class Resource
 {
     // Start of user code attributeAnnotation:contributor
     // End of user code
-    private Set<Link> contributor = new HashSet<Link>();
+    private Set<Link> contributor = new LazySet<Link>();
     // Start of user code attributeAnnotation:created
     // End of user code
     private Date created;
     // Start of user code attributeAnnotation:creator
     // End of user code
-    private Set<Link> creator = new HashSet<Link>();
+    private Set<Link> creator = new LazySet<Link>();
     // Start of user code attributeAnnotation:description
     // End of user code
     private String description;
@@ -105,34 +105,34 @@ public class Resource
     private String title;
     // Start of user code attributeAnnotation:type
     // End of user code
-    private Set<String> type = new HashSet<String>();
+    private Set<String> type = new LazySet<String>();
     // Start of user code attributeAnnotation:instanceShape
     // End of user code
-    private Set<Link> instanceShape = new HashSet<Link>();
+    private Set<Link> instanceShape = new LazySet<Link>();
     // Start of user code attributeAnnotation:serviceProvider
     // End of user code
-    private Set<Link> serviceProvider = new HashSet<Link>();
+    private Set<Link> serviceProvider = new LazySet<Link>();
     // Start of user code attributeAnnotation:shortTitle
     // End of user code
     private String shortTitle;
     // Start of user code attributeAnnotation:external
     // End of user code
-    private Set<Link> external = new HashSet<Link>();
+    private Set<Link> external = new LazySet<Link>();
     // Start of user code attributeAnnotation:trace
     // End of user code
-    private Set<Link> trace = new HashSet<Link>();
+    private Set<Link> trace = new LazySet<Link>();
     // Start of user code attributeAnnotation:refine
     // End of user code
-    private Set<Link> refine = new HashSet<Link>();
+    private Set<Link> refine = new LazySet<Link>();
     // Start of user code attributeAnnotation:derives
     // End of user code
-    private Set<Link> derives = new HashSet<Link>();
+    private Set<Link> derives = new LazySet<Link>();
     // Start of user code attributeAnnotation:elaborates
     // End of user code
-    private Set<Link> elaborates = new HashSet<Link>();
+    private Set<Link> elaborates = new LazySet<Link>();
     // Start of user code attributeAnnotation:satisfy
     // End of user code
-    private Set<Link> satisfy = new HashSet<Link>();
+    private Set<Link> satisfy = new LazySet<Link>();
     
     // Start of user code classAttributes
     // End of user code
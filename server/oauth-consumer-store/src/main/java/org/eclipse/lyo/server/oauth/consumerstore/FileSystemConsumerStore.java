@@ -13,13 +13,25 @@
  */
 package org.eclipse.lyo.server.oauth.consumerstore;
 
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.sql.SQLException;
 import java.util.Base64;
 import java.util.Base64.Encoder;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.crypto.Cipher;
 import javax.crypto.SecretKey;
@@ -31,8 +43,11 @@ import org.eclipse.lyo.server.oauth.core.consumer.LyoOAuthConsumer;
 
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.ResIterator;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.shared.JenaException;
 import org.apache.jena.shared.PropertyNotFoundException;
 import org.apache.jena.util.FileManager;
@@ -43,6 +58,12 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A simple RDF consumer store backed by an XML file on the filesystem.
+ * <p>
+ * Consumers added or removed are appended to a journal file next to the XML
+ * file, so updates do not rewrite the whole store. The journal is replayed when
+ * the store is loaded, and is merged into the XML file when it grows larger
+ * than the store and when the store is closed. The XML file is replaced
+ * atomically, so a crash leaves either the old or the new version.
  * 
  * NOTE: The shared consumer secret is stored as Base64 and is only obfuscated, not encrypted (unless
  * the ctor with an encryption key is used).
@@ -64,18 +85,34 @@ public class FileSystemConsumerStore extends AbstractConsumerStore {
 	protected final static String PROVISIONAL = LYO_OAUTH_NAMESPACE
 			+ "provisional";
 	protected final static String TRUSTED = LYO_OAUTH_NAMESPACE + "trusted";
+	protected final static String JOURNAL_SUFFIX = ".journal";
 
 	private final static Logger log = LoggerFactory.getLogger(FileSystemConsumerStore.class);
 
+	private final static String JOURNAL_ADD = "+";
+	private final static String JOURNAL_REMOVE = "-";
+	private final static String JOURNAL_END = ".";
+	private final static String JOURNAL_SEPARATOR = "\t";
+	private final static String JOURNAL_LITERAL = "\"";
+	private final static String JOURNAL_RESOURCE = "<";
+	private final static String MERGING_JOURNAL_SUFFIX = JOURNAL_SUFFIX + ".merging";
+	private final static int MIN_MERGED_JOURNAL_RECORDS = 1000;
+
 	private Model model;
 	private String oauthStore;
 	private String encryptionKey;
 
+	private Writer journal;
+	private int journalRecords;
+	private final AtomicBoolean merging = new AtomicBoolean();
+	private final Object storeFileLock = new Object();
+
 	
 	public FileSystemConsumerStore(String oauthStoreRoot) throws SQLException, ConsumerStoreException,
 			ClassNotFoundException {
 		this.oauthStore = oauthStoreRoot;
 		createModel();
+		replayJournal();
 		loadConsumers();
 	}
 	/**
@@ -91,12 +128,14 @@ public class FileSystemConsumerStore extends AbstractConsumerStore {
 		this.oauthStore = oauthStoreRoot;
 		this.encryptionKey=encryptionKey;
 		createModel();
+		replayJournal();
 		loadConsumers();
 	}
 	
 	public FileSystemConsumerStore(Model model, String oauthStoreRoot) throws ConsumerStoreException {
 		this.oauthStore = oauthStoreRoot;
 		this.model = model;
+		replayJournal();
 		loadConsumers();
 	}
 
@@ -108,11 +147,188 @@ public class FileSystemConsumerStore extends AbstractConsumerStore {
 		}
 	}
 
-	protected void writeModel() throws FileNotFoundException {
-		Model writeModel = ModelFactory.createDefaultModel();
-		writeModel.add(this.model);
-		OutputStream os = new FileOutputStream(oauthStore);
-		writeModel.write(os, FileUtils.langXMLAbbrev);
+	/**
+	 * Writes the whole store to the XML file and discards the journal merged
+	 * into it. Consumers can be added and removed while the file is written.
+	 * 
+	 * @throws IOException
+	 *             on errors writing the file
+	 */
+	protected void writeModel() throws IOException {
+		Path storeFile = Paths.get(oauthStore).toAbsolutePath();
+		Path journalFile = Paths.get(oauthStore + JOURNAL_SUFFIX);
+		Path mergingJournalFile = Paths.get(oauthStore + MERGING_JOURNAL_SUFFIX);
+
+		synchronized (storeFileLock) {
+			// Copy the model and set the journal aside while updates are
+			// blocked, so the copy contains exactly the updates set aside.
+			Model writeModel = ModelFactory.createDefaultModel();
+			synchronized (this) {
+				writeModel.add(this.model);
+				closeJournal();
+				if (Files.exists(journalFile)) {
+					if (Files.exists(mergingJournalFile)) {
+						// A previous write failed; keep its journal too.
+						Files.write(mergingJournalFile, Files.readAllBytes(journalFile),
+								StandardOpenOption.APPEND);
+						Files.delete(journalFile);
+					} else {
+						Files.move(journalFile, mergingJournalFile);
+					}
+				}
+				journalRecords = 0;
+			}
+
+			Path tempFile = Files.createTempFile(storeFile.getParent(),
+					storeFile.getFileName().toString(), ".tmp");
+			try {
+				try (OutputStream os = Files.newOutputStream(tempFile)) {
+					writeModel.write(os, FileUtils.langXMLAbbrev);
+				}
+				try {
+					Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING,
+							StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(tempFile);
+			}
+			Files.deleteIfExists(mergingJournalFile);
+		}
+	}
+
+	/**
+	 * Applies the updates recorded in the journal to the model. A journal set
+	 * aside by an interrupted {@link #writeModel()} is replayed first.
+	 * 
+	 * @throws ConsumerStoreException
+	 *             on errors reading the journal
+	 */
+	protected synchronized void replayJournal() throws ConsumerStoreException {
+		try {
+			replayJournal(Paths.get(oauthStore + MERGING_JOURNAL_SUFFIX));
+			replayJournal(Paths.get(oauthStore + JOURNAL_SUFFIX));
+		} catch (IOException e) {
+			throw new ConsumerStoreException(e);
+		}
+	}
+
+	private void replayJournal(Path journalFile) throws IOException {
+		if (!Files.exists(journalFile)) {
+			return;
+		}
+
+		try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(JOURNAL_SEPARATOR);
+				// Skip records cut short by a crash while appending them
+				if (fields.length < 3 || !JOURNAL_END.equals(fields[fields.length - 1])) {
+					continue;
+				}
+
+				String consumerKey = decode(fields[1]);
+				removeProperties(consumerKey);
+				if (JOURNAL_ADD.equals(fields[0])) {
+					Resource resource = model.createResource();
+					resource.addProperty(RDF.type, model.createResource(CONSUMER_RESOURCE));
+					for (int i = 2; i + 1 < fields.length; i += 2) {
+						String object = decode(fields[i + 1]);
+						if (object.startsWith(JOURNAL_RESOURCE)) {
+							resource.addProperty(model.createProperty(decode(fields[i])),
+									model.createResource(object.substring(1)));
+						} else {
+							resource.addProperty(model.createProperty(decode(fields[i])),
+									object.substring(1));
+						}
+					}
+				}
+				journalRecords++;
+			}
+		}
+	}
+
+	private void appendToJournal(String record) throws IOException {
+		if (journal == null) {
+			Path journalFile = Paths.get(oauthStore + JOURNAL_SUFFIX);
+			boolean cutShort = endsWithinRecord(journalFile);
+			journal = Files.newBufferedWriter(journalFile,
+					StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+			if (cutShort) {
+				// Start on a new line, so the record is not read as part of the one cut short
+				journal.write('\n');
+			}
+		}
+		journal.write(record);
+		journal.write('\n');
+		journal.flush();
+		journalRecords++;
+	}
+
+	private static boolean endsWithinRecord(Path journalFile) throws IOException {
+		if (!Files.exists(journalFile) || Files.size(journalFile) == 0) {
+			return false;
+		}
+		try (RandomAccessFile file = new RandomAccessFile(journalFile.toFile(), "r")) {
+			file.seek(file.length() - 1);
+			return file.read() != '\n';
+		}
+	}
+
+	private void closeJournal() throws IOException {
+		if (journal != null) {
+			journal.close();
+			journal = null;
+		}
+	}
+
+	/**
+	 * Merges the journal into the XML file once it has more records than the
+	 * store has consumers. Only one thread merges at a time.
+	 */
+	private void mergeJournalIfNeeded() {
+		if (journalRecords > MIN_MERGED_JOURNAL_RECORDS && journalRecords > getAllConsumers().size()
+				&& merging.compareAndSet(false, true)) {
+			try {
+				writeModel();
+			} catch (IOException e) {
+				log.error("Could not merge the journal into " + oauthStore, e);
+			} finally {
+				merging.set(false);
+			}
+		}
+	}
+
+	private static String addRecord(String consumerKey, Resource resource) throws UnsupportedEncodingException {
+		StringBuilder record = new StringBuilder(JOURNAL_ADD).append(JOURNAL_SEPARATOR)
+				.append(encode(consumerKey));
+		StmtIterator i = resource.listProperties();
+		while (i.hasNext()) {
+			Statement statement = i.next();
+			if (RDF.type.equals(statement.getPredicate())) {
+				continue;
+			}
+			RDFNode object = statement.getObject();
+			String value = object.isLiteral()
+					? JOURNAL_LITERAL + object.asLiteral().getLexicalForm()
+					: JOURNAL_RESOURCE + object.asResource().getURI();
+			record.append(JOURNAL_SEPARATOR).append(encode(statement.getPredicate().getURI()))
+					.append(JOURNAL_SEPARATOR).append(encode(value));
+		}
+		return record.append(JOURNAL_SEPARATOR).append(JOURNAL_END).toString();
+	}
+
+	private static String removeRecord(String consumerKey) throws UnsupportedEncodingException {
+		return JOURNAL_REMOVE + JOURNAL_SEPARATOR + encode(consumerKey) + JOURNAL_SEPARATOR + JOURNAL_END;
+	}
+
+	private static String encode(String value) throws UnsupportedEncodingException {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+	}
+
+	private static String decode(String value) throws UnsupportedEncodingException {
+		return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
 	}
 	
 	protected synchronized void loadConsumers() throws ConsumerStoreException {
@@ -145,45 +361,45 @@ public class FileSystemConsumerStore extends AbstractConsumerStore {
 	}
 
 	@Override
-	public synchronized LyoOAuthConsumer addConsumer(final LyoOAuthConsumer consumer)
+	public LyoOAuthConsumer addConsumer(final LyoOAuthConsumer consumer)
 			throws ConsumerStoreException {
 		if (model == null) {
 			throw new ConsumerStoreException("Consumer store not initialized.");
 		}
+		LyoOAuthConsumer retConsumer;
 		try {
+			synchronized (this) {
+				removeProperties(consumer);
+				Resource resource = toResource(consumer);
 
-			removeProperties(consumer);
-			toResource(consumer);
-			
-			LyoOAuthConsumer retConsumer = add(consumer);			
-			writeModel();			
-			return retConsumer;
-			
-		} catch (UnsupportedEncodingException ue) {
-			throw new ConsumerStoreException(ue);	
-		} catch (FileNotFoundException fe) {
-			throw new ConsumerStoreException(fe);
-		} 
+				retConsumer = add(consumer);
+				appendToJournal(addRecord(consumer.consumerKey, resource));
+			}
+		} catch (IOException e) {
+			throw new ConsumerStoreException(e);
+		}
+		mergeJournalIfNeeded();
+		return retConsumer;
 	}
 
 	@Override
-	public synchronized LyoOAuthConsumer removeConsumer(final String consumerKey)
+	public LyoOAuthConsumer removeConsumer(final String consumerKey)
 			throws ConsumerStoreException {
 		if (model == null) {
 			throw new ConsumerStoreException("Consumer store not initialized.");
 		}
-		
+		LyoOAuthConsumer retConsumer;
 		try {
-			
-			removeProperties(consumerKey);
-			LyoOAuthConsumer retConsumer = remove(consumerKey);
-
-			writeModel();
-			return retConsumer;
-			
-		} catch (FileNotFoundException fe) {
-			throw new ConsumerStoreException(fe);
-		} 
+			synchronized (this) {
+				removeProperties(consumerKey);
+				retConsumer = remove(consumerKey);
+				appendToJournal(removeRecord(consumerKey));
+			}
+		} catch (IOException e) {
+			throw new ConsumerStoreException(e);
+		}
+		mergeJournalIfNeeded();
+		return retConsumer;
 	}
 
 	@Override
@@ -198,10 +414,17 @@ public class FileSystemConsumerStore extends AbstractConsumerStore {
 		try {
 			writeModel();
 		} catch (Exception e) {
-			log.error("Error finalizing model to disk");
+			log.error("Error finalizing model to disk", e);
 		}
 		
-		this.model.close();
+		synchronized (this) {
+			try {
+				closeJournal();
+			} catch (IOException e) {
+				log.error("Error closing the journal", e);
+			}
+			this.model.close();
+		}
 	}
 
 	/**
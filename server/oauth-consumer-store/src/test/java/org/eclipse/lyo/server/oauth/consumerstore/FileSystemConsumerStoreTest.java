@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.consumerstore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.eclipse.lyo.server.oauth.core.consumer.LyoOAuthConsumer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileSystemConsumerStoreTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void replaysJournalAndJournalLeftByMerge() throws Exception {
+		List<String> records = journalOf(consumer("a", "A"), consumer("b", "B"));
+		String store = storePath();
+		// A merge interrupted after setting the journal aside
+		Files.write(Paths.get(store + ".journal.merging"), (records.get(0) + "\n").getBytes(StandardCharsets.UTF_8));
+		Files.write(Paths.get(store + ".journal"), (records.get(1) + "\n").getBytes(StandardCharsets.UTF_8));
+
+		FileSystemConsumerStore reloaded = new FileSystemConsumerStore(store);
+
+		assertEquals(2, reloaded.getAllConsumers().size());
+		assertEquals("A", reloaded.getConsumer("a").getName());
+		assertEquals("secret-a", reloaded.getConsumer("a").consumerSecret);
+		assertEquals("B", reloaded.getConsumer("b").getName());
+	}
+
+	@Test
+	public void skipsTruncatedRecord() throws Exception {
+		List<String> records = journalOf(consumer("a", "A"), consumer("b", "B"));
+		String store = storePath();
+		// A crash while appending the second record, in the middle of its last value
+		String truncated = records.get(1).substring(0, records.get(1).length() - 3);
+		Files.write(Paths.get(store + ".journal"),
+				(records.get(0) + "\n" + truncated).getBytes(StandardCharsets.UTF_8));
+
+		FileSystemConsumerStore reloaded = new FileSystemConsumerStore(store);
+		assertEquals(1, reloaded.getAllConsumers().size());
+		assertEquals("A", reloaded.getConsumer("a").getName());
+		assertNull(reloaded.getConsumer("b"));
+
+		// Records appended after the truncated one are still read
+		reloaded.addConsumer(consumer("c", "C"));
+		FileSystemConsumerStore reloadedAgain = new FileSystemConsumerStore(store);
+		assertEquals(2, reloadedAgain.getAllConsumers().size());
+		assertEquals("C", reloadedAgain.getConsumer("c").getName());
+	}
+
+	@Test
+	public void addRemoveAndReload() throws Exception {
+		String store = storePath();
+		FileSystemConsumerStore consumerStore = new FileSystemConsumerStore(store);
+		consumerStore.addConsumer(consumer("a", "A"));
+		consumerStore.addConsumer(consumer("b", "B"));
+		consumerStore.updateConsumer(consumer("b", "B2"));
+		consumerStore.removeConsumer("a");
+
+		// From the journal only
+		assertFalse(Files.exists(Paths.get(store)));
+		FileSystemConsumerStore reloaded = new FileSystemConsumerStore(store);
+		assertEquals(1, reloaded.getAllConsumers().size());
+		assertNull(reloaded.getConsumer("a"));
+		assertEquals("B2", reloaded.getConsumer("b").getName());
+
+		// From the XML file the journal is merged into on close
+		consumerStore.closeConsumerStore();
+		assertTrue(Files.exists(Paths.get(store)));
+		assertFalse(Files.exists(Paths.get(store + ".journal")));
+		reloaded = new FileSystemConsumerStore(store);
+		assertEquals(1, reloaded.getAllConsumers().size());
+		assertNull(reloaded.getConsumer("a"));
+		assertEquals("B2", reloaded.getConsumer("b").getName());
+	}
+
+	@Test
+	public void mergesLongJournal() throws Exception {
+		String store = storePath();
+		Path journal = Paths.get(store + ".journal");
+		FileSystemConsumerStore consumerStore = new FileSystemConsumerStore(store);
+		for (int i = 0; i < 1000; i++) {
+			consumerStore.updateConsumer(consumer("a", "A" + i));
+		}
+		assertFalse(Files.exists(Paths.get(store)));
+		assertEquals(1000, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+
+		// One record more than MIN_MERGED_JOURNAL_RECORDS
+		consumerStore.updateConsumer(consumer("a", "A1000"));
+		assertTrue(Files.exists(Paths.get(store)));
+		assertFalse(Files.exists(journal));
+		assertFalse(Files.exists(Paths.get(store + ".journal.merging")));
+
+		// Updates after the merge start a new journal
+		consumerStore.addConsumer(consumer("b", "B"));
+		assertEquals(1, Files.readAllLines(journal, StandardCharsets.UTF_8).size());
+
+		FileSystemConsumerStore reloaded = new FileSystemConsumerStore(store);
+		assertEquals(2, reloaded.getAllConsumers().size());
+		assertEquals("A1000", reloaded.getConsumer("a").getName());
+		assertNotNull(reloaded.getConsumer("b"));
+	}
+
+	private String storePath() {
+		return new File(folder.getRoot(), "oauthStore.xml").getPath();
+	}
+
+	/**
+	 * @return the journal records of adding the consumers to an empty store
+	 */
+	private List<String> journalOf(LyoOAuthConsumer... consumers) throws Exception {
+		String store = new File(folder.newFolder(), "oauthStore.xml").getPath();
+		FileSystemConsumerStore consumerStore = new FileSystemConsumerStore(store);
+		for (LyoOAuthConsumer consumer : consumers) {
+			consumerStore.addConsumer(consumer);
+		}
+		return Files.readAllLines(Paths.get(store + ".journal"), StandardCharsets.UTF_8);
+	}
+
+	private static LyoOAuthConsumer consumer(String key, String name) {
+		LyoOAuthConsumer consumer = new LyoOAuthConsumer(key, "secret-" + key);
+		consumer.setName(name);
+		return consumer;
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.oauth.OAuth;
+import net.oauth.OAuthAccessor;
+import net.oauth.OAuthConsumer;
+import net.oauth.OAuthException;
+import net.oauth.OAuthMessage;
+import net.oauth.OAuthProblemException;
+import net.oauth.SimpleOAuthValidator;
+import net.oauth.signature.OAuthSignatureMethod;
+
+import org.eclipse.lyo.server.oauth.core.token.TokenCache;
+
+/**
+ * Validates OAuth messages like {@link SimpleOAuthValidator}, but is meant for
+ * many concurrent requests from the same consumers.
+ * <ul>
+ * <li>Used nonces are kept in a concurrent map instead of a synchronized set,
+ * and old nonces are released by one thread at a time without blocking the
+ * others.</li>
+ * <li>The signature methods are reused for the same consumer, token secret and
+ * signature method, so HMAC keys and RSA public keys are only prepared
+ * once.</li>
+ * <li>The number of validations, failures and the time spent validating are
+ * counted for monitoring.</li>
+ * </ul>
+ * A signature method is only reused for the same {@link OAuthConsumer}
+ * instance, so a consumer replaced in the consumer store takes effect
+ * immediately.
+ */
+public class CachingOAuthValidator extends SimpleOAuthValidator {
+	public static final int DEFAULT_SIGNER_CACHE_SIZE = 1000;
+	public static final long DEFAULT_SIGNER_TIME_TO_IDLE_MINUTES = 60;
+
+	/**
+	 * How often old nonces are released, in milliseconds.
+	 */
+	private static final long NONCE_RELEASE_INTERVAL_MSEC = 1000;
+
+	private final ConcurrentHashMap<String, Long> usedNonces = new ConcurrentHashMap<String, Long>();
+	private final AtomicBoolean releasingNonces = new AtomicBoolean();
+	private volatile long nextNonceRelease;
+
+	private final TokenCache<SignerKey, OAuthSignatureMethod> signers;
+
+	private final LongAdder validations = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder validationNanos = new LongAdder();
+	private final LongAccumulator maxValidationNanos = new LongAccumulator(Math::max, 0);
+
+	public CachingOAuthValidator() {
+		this(DEFAULT_MAX_TIMESTAMP_AGE, Double.parseDouble(OAuth.VERSION_1_0), DEFAULT_SIGNER_CACHE_SIZE,
+				DEFAULT_SIGNER_TIME_TO_IDLE_MINUTES, TimeUnit.MINUTES);
+	}
+
+	/**
+	 * @param maxTimestampAgeMsec
+	 *            the range of valid timestamps, in milliseconds into the past
+	 *            or future. So the total range of valid timestamps is twice
+	 *            this value, rounded to the nearest second.
+	 * @param maxVersion
+	 *            the maximum valid oauth_version
+	 * @param signerCacheSize
+	 *            the maximum number of signature methods kept for reuse
+	 * @param signerTimeToIdle
+	 *            how long an unused signature method is kept
+	 * @param unit
+	 *            the unit of <code>signerTimeToIdle</code>
+	 */
+	public CachingOAuthValidator(long maxTimestampAgeMsec, double maxVersion, int signerCacheSize,
+			long signerTimeToIdle, TimeUnit unit) {
+		super(maxTimestampAgeMsec, maxVersion);
+		this.signers = new TokenCache<SignerKey, OAuthSignatureMethod>(signerCacheSize, signerTimeToIdle,
+				unit, null);
+	}
+
+	@Override
+	public void validateMessage(OAuthMessage message, OAuthAccessor accessor)
+			throws OAuthException, IOException, URISyntaxException {
+		long start = System.nanoTime();
+		boolean valid = false;
+		try {
+			super.validateMessage(message, accessor);
+			valid = true;
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			validations.increment();
+			validationNanos.add(elapsed);
+			maxValidationNanos.accumulate(elapsed);
+			if (!valid) {
+				failures.increment();
+			}
+		}
+	}
+
+	@Override
+	protected Date validateNonce(OAuthMessage message, long timestamp, long currentTimeMsec)
+			throws IOException, OAuthProblemException {
+		String nonce = timestamp + " " + message.getParameter(OAuth.OAUTH_NONCE) + " "
+				+ message.getConsumerKey() + " " + message.getToken();
+		if (usedNonces.putIfAbsent(nonce, timestamp) != null) {
+			throw new OAuthProblemException(OAuth.Problems.NONCE_USED);
+		}
+
+		if (currentTimeMsec >= nextNonceRelease) {
+			releaseNonces(currentTimeMsec);
+		}
+		return new Date(nextNonceRelease);
+	}
+
+	@Override
+	public Date releaseGarbage() {
+		releaseNonces(currentTimeMsec());
+		return usedNonces.isEmpty() ? null : new Date(nextNonceRelease);
+	}
+
+	/**
+	 * Removes the nonces whose timestamps are too old to pass validation
+	 * again. Only one thread releases nonces at a time; the others skip it.
+	 */
+	private void releaseNonces(long currentTimeMsec) {
+		if (!releasingNonces.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			// Timestamps are in seconds; keep the nonces that are still valid.
+			long minTimestamp = (currentTimeMsec - maxTimestampAgeMsec - 500) / 1000;
+			for (Iterator<Map.Entry<String, Long>> i = usedNonces.entrySet().iterator(); i.hasNext();) {
+				if (i.next().getValue() < minTimestamp) {
+					i.remove();
+				}
+			}
+			nextNonceRelease = currentTimeMsec + NONCE_RELEASE_INTERVAL_MSEC;
+		} finally {
+			releasingNonces.set(false);
+		}
+	}
+
+	@Override
+	protected void validateSignature(OAuthMessage message, OAuthAccessor accessor)
+			throws OAuthException, IOException, URISyntaxException {
+		message.requireParameters(OAuth.OAUTH_CONSUMER_KEY, OAuth.OAUTH_SIGNATURE_METHOD, OAuth.OAUTH_SIGNATURE);
+		getSigner(message.getSignatureMethod(), accessor).validate(message);
+	}
+
+	/**
+	 * Gets a signature method for the accessor, reusing the one created for an
+	 * earlier message if possible. Signature methods only hold the keys they
+	 * are initialized with, and can be used by several threads.
+	 */
+	private OAuthSignatureMethod getSigner(String signatureMethod, OAuthAccessor accessor)
+			throws OAuthException {
+		if (signatureMethod.endsWith(OAuthSignatureMethod._ACCESSOR)) {
+			// The secret is a property of the accessor, which is not reused.
+			return newSigner(signatureMethod, accessor);
+		}
+
+		SignerKey key = new SignerKey(signatureMethod, accessor.consumer, accessor.tokenSecret);
+		OAuthSignatureMethod signer = signers.get(key);
+		if (signer == null) {
+			signer = newSigner(signatureMethod, accessor);
+			signers.put(key, signer);
+		}
+		return signer;
+	}
+
+	private static OAuthSignatureMethod newSigner(String signatureMethod, OAuthAccessor accessor)
+			throws OAuthException {
+		OAuthSignatureMethod signer = OAuthSignatureMethod.newMethod(signatureMethod, accessor);
+		signer.setTokenSecret(accessor.tokenSecret);
+		return signer;
+	}
+
+	/**
+	 * @return the number of validated messages, valid or not
+	 */
+	public long getValidationCount() {
+		return validations.sum();
+	}
+
+	/**
+	 * @return the number of messages that failed validation
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * @param unit
+	 *            the unit of the result
+	 * @return the time spent validating messages
+	 */
+	public long getTotalValidationTime(TimeUnit unit) {
+		return unit.convert(validationNanos.sum(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @param unit
+	 *            the unit of the result
+	 * @return the longest time spent validating a message
+	 */
+	public long getMaxValidationTime(TimeUnit unit) {
+		return unit.convert(maxValidationNanos.get(), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the number of nonces kept to detect replayed messages
+	 */
+	public int getUsedNonceCount() {
+		return usedNonces.size();
+	}
+
+	/**
+	 * @return the cache of signature methods, for monitoring
+	 */
+	protected TokenCache<SignerKey, OAuthSignatureMethod> getSignerCache() {
+		return signers;
+	}
+
+	/**
+	 * Identifies a signature method by the consumer instance it was created
+	 * for, so that a changed consumer gets a new one.
+	 */
+	protected static final class SignerKey {
+		private final String signatureMethod;
+		private final OAuthConsumer consumer;
+		private final String tokenSecret;
+
+		SignerKey(String signatureMethod, OAuthConsumer consumer, String tokenSecret) {
+			this.signatureMethod = signatureMethod;
+			this.consumer = consumer;
+			this.tokenSecret = tokenSecret;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode(consumer);
+			hash = 31 * hash + (signatureMethod == null ? 0 : signatureMethod.hashCode());
+			return 31 * hash + (tokenSecret == null ? 0 : tokenSecret.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof SignerKey)) {
+				return false;
+			}
+			SignerKey other = (SignerKey) obj;
+			return consumer == other.consumer && equal(signatureMethod, other.signatureMethod)
+					&& equal(tokenSecret, other.tokenSecret);
+		}
+
+		private static boolean equal(String a, String b) {
+			return a == null ? b == null : a.equals(b);
+		}
+	}
+}
@@ -17,7 +17,6 @@ import javax.servlet.http.HttpServletResponse;
 
 import net.oauth.OAuthProblemException;
 import net.oauth.OAuthValidator;
-import net.oauth.SimpleOAuthValidator;
 import net.oauth.http.HttpMessage;
 
 import org.eclipse.lyo.server.oauth.core.consumer.ConsumerStore;
@@ -45,7 +44,7 @@ public class OAuthConfiguration {
 	}
 
 	private OAuthConfiguration() {
-		validator = new SimpleOAuthValidator();
+		validator = new CachingOAuthValidator();
 		tokenStrategy = new SimpleTokenStrategy();
 	}
 
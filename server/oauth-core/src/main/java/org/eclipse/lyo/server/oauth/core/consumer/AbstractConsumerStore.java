@@ -13,15 +13,27 @@
  */
 package org.eclipse.lyo.server.oauth.core.consumer;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.spec.X509EncodedKeySpec;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.oauth.OAuth;
 import net.oauth.OAuthException;
 import net.oauth.OAuthMessage;
+import net.oauth.signature.OAuthSignatureMethod;
+import net.oauth.signature.RSA_SHA1;
+import net.oauth.signature.pem.PEMReader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Manages the list of OAuth consumers.
@@ -29,14 +41,16 @@ import net.oauth.OAuthMessage;
  * @author Samuel Padgett
  */
 public abstract class AbstractConsumerStore implements ConsumerStore {
-	private Map<String, LyoOAuthConsumer> consumerMap = Collections
-			.synchronizedMap(new HashMap<String, LyoOAuthConsumer>());
+	private static final Logger log = LoggerFactory.getLogger(AbstractConsumerStore.class);
+
+	// Concurrent, so that looking up consumers does not wait for updates.
+	private Map<String, LyoOAuthConsumer> consumerMap = new ConcurrentHashMap<String, LyoOAuthConsumer>();
 	
 	public AbstractConsumerStore() {}
 	
 	public void addAll(Collection<LyoOAuthConsumer> consumers) {
 		for (LyoOAuthConsumer consumer : consumers) {
-			consumerMap.put(consumer.consumerKey, consumer);
+			add(consumer);
 		}
 	}
 	
@@ -57,10 +71,63 @@ public abstract class AbstractConsumerStore implements ConsumerStore {
 	public abstract void closeConsumerStore();
 	
 	protected LyoOAuthConsumer add(LyoOAuthConsumer consumer) {
+		parseKeys(consumer);
 		return consumerMap.put(consumer.consumerKey, consumer);
 	}
 	
 	protected LyoOAuthConsumer remove(String consumerKey) {
 		return consumerMap.remove(consumerKey);
 	}
+
+	/**
+	 * Replaces the encoded RSA public key or certificate of a consumer with
+	 * the parsed key or certificate, so that they are not parsed again for
+	 * every RSA-SHA1 signed request. Key material that cannot be parsed is
+	 * left as is, and rejected when a request is validated.
+	 * 
+	 * @param consumer
+	 *            the consumer
+	 */
+	protected void parseKeys(LyoOAuthConsumer consumer) {
+		try {
+			Object publicKey = consumer.getProperty(RSA_SHA1.PUBLIC_KEY);
+			if (publicKey instanceof String || publicKey instanceof byte[]) {
+				consumer.setProperty(RSA_SHA1.PUBLIC_KEY, parsePublicKey(publicKey));
+			}
+			Object certificate = consumer.getProperty(RSA_SHA1.X509_CERTIFICATE);
+			if (certificate instanceof String || certificate instanceof byte[]) {
+				consumer.setProperty(RSA_SHA1.X509_CERTIFICATE, parseCertificate(certificate));
+			}
+		} catch (IOException | GeneralSecurityException e) {
+			log.warn("Could not parse the RSA key of consumer " + consumer.consumerKey, e);
+		}
+	}
+
+	private static PublicKey parsePublicKey(Object key) throws IOException, GeneralSecurityException {
+		byte[] der = toDer(key, PEMReader.PUBLIC_X509_MARKER);
+		return KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(der));
+	}
+
+	private static Object parseCertificate(Object certificate) throws IOException, GeneralSecurityException {
+		byte[] der = toDer(certificate, PEMReader.CERTIFICATE_X509_MARKER);
+		return CertificateFactory.getInstance("X.509").generateCertificate(new ByteArrayInputStream(der));
+	}
+
+	/**
+	 * Decodes a PEM or base64 string, the way {@link RSA_SHA1} does.
+	 */
+	private static byte[] toDer(Object value, String pemMarker) throws IOException, GeneralSecurityException {
+		if (value instanceof byte[]) {
+			return (byte[]) value;
+		}
+		String encoded = (String) value;
+		if (encoded.startsWith("-----BEGIN ")) {
+			PEMReader reader = new PEMReader(encoded.getBytes(StandardCharsets.UTF_8));
+			if (!pemMarker.equals(reader.getBeginMarker())) {
+				throw new GeneralSecurityException("Unexpected PEM block " + reader.getBeginMarker());
+			}
+			return reader.getDerBytes();
+		}
+		return OAuthSignatureMethod.decodeBase64(encoded);
+	}
 }
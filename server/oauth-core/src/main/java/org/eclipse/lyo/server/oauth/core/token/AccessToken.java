@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core.token;
+
+/**
+ * An access token issued to a consumer, with its token secret.
+ */
+public final class AccessToken {
+	private final String token;
+	private final String consumerKey;
+	private final String tokenSecret;
+
+	public AccessToken(String token, String consumerKey, String tokenSecret) {
+		this.token = token;
+		this.consumerKey = consumerKey;
+		this.tokenSecret = tokenSecret;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public String getConsumerKey() {
+		return consumerKey;
+	}
+
+	public String getTokenSecret() {
+		return tokenSecret;
+	}
+}
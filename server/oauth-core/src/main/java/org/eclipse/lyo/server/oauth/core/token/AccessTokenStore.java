@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core.token;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Persists the access tokens of a {@link SimpleTokenStrategy}, so that
+ * consumers do not have to be authorized again when the server restarts.
+ * {@link FileAccessTokenStore} is a basic implementation.
+ */
+public interface AccessTokenStore {
+	/**
+	 * Loads the access tokens saved earlier.
+	 * 
+	 * @return the access tokens
+	 * @throws IOException
+	 *             on I/O errors
+	 */
+	public Collection<AccessToken> load() throws IOException;
+
+	/**
+	 * Saves a new access token.
+	 * 
+	 * @param accessToken
+	 *            the access token
+	 * @throws IOException
+	 *             on I/O errors
+	 */
+	public void save(AccessToken accessToken) throws IOException;
+
+	/**
+	 * Removes an access token that has expired or was evicted.
+	 * 
+	 * @param token
+	 *            the access token string
+	 * @throws IOException
+	 *             on I/O errors
+	 */
+	public void remove(String token) throws IOException;
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core.token;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores access tokens in a journal file. Each new or removed token appends a
+ * line to the file, and the file is rewritten with only the live tokens when it
+ * is loaded and when removed tokens make up most of it.
+ * <p>
+ * NOTE: Token secrets are stored in clear text. The file is only readable by
+ * its owner on file systems that support POSIX permissions.
+ */
+public class FileAccessTokenStore implements AccessTokenStore, Closeable {
+	private static final String SAVED = "+";
+	private static final String REMOVED = "-";
+	private static final String SEPARATOR = "\t";
+	private static final int MIN_COMPACTION_RECORDS = 1000;
+
+	private final Path file;
+	private final Map<String, AccessToken> tokens = new LinkedHashMap<String, AccessToken>();
+	private Writer journal;
+	private int records;
+
+	/**
+	 * @param file
+	 *            the journal file, created if it does not exist
+	 */
+	public FileAccessTokenStore(Path file) {
+		this.file = file;
+	}
+
+	@Override
+	public synchronized Collection<AccessToken> load() throws IOException {
+		tokens.clear();
+		if (Files.exists(file)) {
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					replay(line);
+				}
+			}
+		}
+		compact();
+
+		return new ArrayList<AccessToken>(tokens.values());
+	}
+
+	@Override
+	public synchronized void save(AccessToken accessToken) throws IOException {
+		tokens.put(accessToken.getToken(), accessToken);
+		append(savedRecord(accessToken));
+	}
+
+	@Override
+	public synchronized void remove(String token) throws IOException {
+		if (tokens.remove(token) != null) {
+			append(REMOVED + SEPARATOR + encode(token));
+			if (records > MIN_COMPACTION_RECORDS && records > 2 * tokens.size()) {
+				compact();
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (journal != null) {
+			journal.close();
+			journal = null;
+		}
+	}
+
+	private void replay(String line) throws UnsupportedEncodingException {
+		String[] fields = line.split(SEPARATOR);
+		if (SAVED.equals(fields[0]) && fields.length == 4) {
+			String token = decode(fields[1]);
+			tokens.put(token, new AccessToken(token, decode(fields[2]), decode(fields[3])));
+		} else if (REMOVED.equals(fields[0]) && fields.length == 2) {
+			tokens.remove(decode(fields[1]));
+		}
+		// Otherwise, the line was cut short by a crash while appending it.
+	}
+
+	private void append(String record) throws IOException {
+		if (journal == null) {
+			journal = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}
+		journal.write(record);
+		journal.write('\n');
+		journal.flush();
+		records++;
+	}
+
+	/**
+	 * Rewrites the journal with the live tokens. The new journal replaces the
+	 * old one atomically, so a crash leaves either of them intact.
+	 */
+	private void compact() throws IOException {
+		close();
+
+		Path directory = file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+		try {
+			restrictPermissions(temp);
+			try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				for (AccessToken accessToken : tokens.values()) {
+					writer.write(savedRecord(accessToken));
+					writer.write('\n');
+				}
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		records = tokens.size();
+	}
+
+	private static String savedRecord(AccessToken accessToken) throws UnsupportedEncodingException {
+		return SAVED + SEPARATOR + encode(accessToken.getToken()) + SEPARATOR
+				+ encode(accessToken.getConsumerKey()) + SEPARATOR
+				+ encode(accessToken.getTokenSecret());
+	}
+
+	private static void restrictPermissions(Path path) throws IOException {
+		try {
+			Files.setPosixFilePermissions(path, PosixFilePermissions.fromString("rw-------"));
+		} catch (UnsupportedOperationException e) {
+			// Not a POSIX file system
+		}
+	}
+
+	private static String encode(String value) throws UnsupportedEncodingException {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+	}
+
+	private static String decode(String value) throws UnsupportedEncodingException {
+		return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+	}
+}
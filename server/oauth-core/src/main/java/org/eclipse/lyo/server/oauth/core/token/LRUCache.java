@@ -20,7 +20,9 @@ import java.util.Map;
  * Least recently used cache for storing OAuth tokens.
  * 
  * @author Samuel Padgett
+ * @deprecated not thread-safe; use {@link TokenCache}
  */
+@Deprecated
 public class LRUCache<K, V> extends LinkedHashMap<K, V> {
 	private static final long serialVersionUID = -3846345693980360667L;
 	private final int max;
@@ -14,8 +14,8 @@
 package org.eclipse.lyo.server.oauth.core.token;
 
 import java.io.IOException;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -27,17 +27,27 @@ import net.oauth.OAuthException;
 import net.oauth.OAuthMessage;
 import net.oauth.OAuthProblemException;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * A simple strategy for generating and validating tokens. Generates random
- * tokens and stores them in memory. Tokens are only good for the life of the
- * process. Least recently used tokens are invalidated when cached limits are
- * reached.
+ * tokens and stores them in memory. Least recently used tokens are invalidated
+ * when cached limits are reached, and tokens not used for a given time expire.
+ * Access tokens are only good for the life of the process, unless an
+ * {@link AccessTokenStore} is given to persist them.
+ * <p>
+ * Tokens are kept in {@link TokenCache}s, so concurrent requests do not wait
+ * for each other to validate their tokens.
  * 
  * @author Samuel Padgett
  */
 public class SimpleTokenStrategy implements TokenStrategy {
 	private final static int REQUEST_TOKEN_MAX_ENTIRES = 500;
 	private final static int ACCESS_TOKEN_MAX_ENTRIES = 5000;
+	private final static long REQUEST_TOKEN_TIME_TO_IDLE_MINUTES = 60;
+
+	private final static Logger log = LoggerFactory.getLogger(SimpleTokenStrategy.class);
 	
 	/**
 	 * Holds information associated with a request token such as the callback
@@ -46,10 +56,11 @@ public class SimpleTokenStrategy implements TokenStrategy {
 	 * @author Samuel Padgett
 	 */
 	protected class RequestTokenData {
-		private String consumerKey;
-		private boolean authorized;
-		private String callback;
-		private String verificationCode;
+		private volatile String consumerKey;
+		private volatile boolean authorized;
+		private volatile String callback;
+		private volatile String verificationCode;
+		private volatile String tokenSecret;
 		
 		public RequestTokenData(String consumerKey) {
 			this.consumerKey = consumerKey;
@@ -94,16 +105,23 @@ public class SimpleTokenStrategy implements TokenStrategy {
 		public void setVerificationCode(String verificationCode) {
 			this.verificationCode = verificationCode;
 		}
+
+		public String getTokenSecret() {
+			return tokenSecret;
+		}
+
+		public void setTokenSecret(String tokenSecret) {
+			this.tokenSecret = tokenSecret;
+		}
 	}
 	
 	// key is request token string, value is RequestTokenData
-	private Map<String, RequestTokenData> requestTokens;
+	private final TokenCache<String, RequestTokenData> requestTokens;
 
-	// key is access token, value is consumer key
-	private Map<String, String> accessTokens;
+	// key is access token string, value is the consumer key and token secret
+	private final TokenCache<String, AccessToken> accessTokens;
 
-	// key is token, value is token secret
-	private Map<String, String> tokenSecrets;
+	private final AccessTokenStore accessTokenStore;
 
 	/**
 	 * Constructs a SimpleTokenStrategy using the defaults for cache limits on request and access tokens.
@@ -117,7 +135,8 @@ public class SimpleTokenStrategy implements TokenStrategy {
 	/**
 	 * Constructs a SimpleTokenStrategy with cache limits on the number of
 	 * request and access tokens. Least recently used tokens are invalidated
-	 * when cache limits are reached.
+	 * when cache limits are reached. Request tokens expire when they have not
+	 * been used for an hour, access tokens do not expire.
 	 * 
 	 * @param requestTokenMaxCount
 	 *            the maximum number of request tokens to track
@@ -125,10 +144,48 @@ public class SimpleTokenStrategy implements TokenStrategy {
 	 *            the maximum number of access tokens to track
 	 */
 	public SimpleTokenStrategy(int requestTokenMaxCount, int accessTokenMaxCount) {
-		requestTokens = new LRUCache<String, RequestTokenData>(requestTokenMaxCount);
-		accessTokens = new LRUCache<String, String>(accessTokenMaxCount);
-		tokenSecrets = new LRUCache<String, String>(requestTokenMaxCount
-				+ accessTokenMaxCount);
+		requestTokens = new TokenCache<String, RequestTokenData>(requestTokenMaxCount,
+				REQUEST_TOKEN_TIME_TO_IDLE_MINUTES, TimeUnit.MINUTES, null);
+		accessTokens = new TokenCache<String, AccessToken>(accessTokenMaxCount);
+		accessTokenStore = null;
+	}
+
+	/**
+	 * Constructs a SimpleTokenStrategy with cache limits and expiry times for
+	 * request and access tokens, and loads the access tokens persisted in a
+	 * store.
+	 * 
+	 * @param requestTokenMaxCount
+	 *            the maximum number of request tokens to track
+	 * @param accessTokenMaxCount
+	 *            the maximum number of access tokens to track
+	 * @param requestTokenTimeToIdle
+	 *            how long a request token is valid after it was last used
+	 * @param accessTokenTimeToIdle
+	 *            how long an access token is valid after it was last used, or
+	 *            0 if access tokens do not expire
+	 * @param unit
+	 *            the unit of the times to idle
+	 * @param accessTokenStore
+	 *            the store persisting access tokens, or null to keep them in
+	 *            memory only
+	 * @throws IOException
+	 *             on errors loading the access tokens
+	 */
+	public SimpleTokenStrategy(int requestTokenMaxCount, int accessTokenMaxCount,
+			long requestTokenTimeToIdle, long accessTokenTimeToIdle, TimeUnit unit,
+			AccessTokenStore accessTokenStore) throws IOException {
+		this.requestTokens = new TokenCache<String, RequestTokenData>(requestTokenMaxCount,
+				requestTokenTimeToIdle, unit, null);
+		this.accessTokens = new TokenCache<String, AccessToken>(accessTokenMaxCount,
+				accessTokenTimeToIdle, unit, this::accessTokenRemoved);
+		this.accessTokenStore = accessTokenStore;
+
+		if (accessTokenStore != null) {
+			for (AccessToken accessToken : accessTokenStore.load()) {
+				accessTokens.put(accessToken.getToken(), accessToken);
+			}
+		}
 	}
 
 	@Override
@@ -139,13 +196,10 @@ public class SimpleTokenStrategy implements TokenStrategy {
 		accessor.tokenSecret = generateTokenString();
 		String callback = oAuthRequest.getMessage()
 				.getParameter(OAuth.OAUTH_CALLBACK);
-		synchronized (requestTokens) {
-			requestTokens.put(accessor.requestToken, new RequestTokenData(
-					accessor.consumer.consumerKey, callback));
-		}
-		synchronized (tokenSecrets) {
-			tokenSecrets.put(accessor.requestToken, accessor.tokenSecret);
-		}
+		RequestTokenData tokenData = new RequestTokenData(
+				accessor.consumer.consumerKey, callback);
+		tokenData.setTokenSecret(accessor.tokenSecret);
+		requestTokens.put(accessor.requestToken, tokenData);
 	}
 
 	@Override
@@ -204,29 +258,26 @@ public class SimpleTokenStrategy implements TokenStrategy {
 		// Remove the old request token.
 		OAuthAccessor accessor = oAuthRequest.getAccessor();
 		String requestToken = oAuthRequest.getMessage().getToken();
-		synchronized (requestTokens) {
-			if (!isRequestTokenAuthorized(oAuthRequest.getHttpRequest(),
-					requestToken)) {
-				throw new OAuthProblemException(
-						OAuth.Problems.ADDITIONAL_AUTHORIZATION_REQUIRED);
-			}
-
-			requestTokens.remove(requestToken);
+		RequestTokenData tokenData = getRequestTokenData(requestToken);
+		if (!isRequestTokenAuthorized(oAuthRequest.getHttpRequest(),
+				requestToken)) {
+			throw new OAuthProblemException(
+					OAuth.Problems.ADDITIONAL_AUTHORIZATION_REQUIRED);
 		}
 
-		// Generate a new access token.
-		accessor.accessToken = generateTokenString();
-		synchronized (accessTokens) {
-			accessTokens.put(accessor.accessToken,
-					accessor.consumer.consumerKey);
+		// Only one of concurrent exchanges of the same request token succeeds.
+		if (!requestTokens.remove(requestToken, tokenData)) {
+			throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
 		}
 
-		// Remove the old token secret and create a new one for this access
-		// token.
+		// Generate a new access token and a new token secret for it.
+		accessor.accessToken = generateTokenString();
 		accessor.tokenSecret = generateTokenString();
-		synchronized (tokenSecrets) {
-			tokenSecrets.remove(requestToken);
-			tokenSecrets.put(accessor.accessToken, accessor.tokenSecret);
+		AccessToken accessToken = new AccessToken(accessor.accessToken,
+				accessor.consumer.consumerKey, accessor.tokenSecret);
+		accessTokens.put(accessor.accessToken, accessToken);
+		if (accessTokenStore != null) {
+			accessTokenStore.save(accessToken);
 		}
 
 		accessor.requestToken = null;
@@ -235,28 +286,30 @@ public class SimpleTokenStrategy implements TokenStrategy {
 	@Override
 	public void validateAccessToken(OAuthRequest oAuthRequest)
 			throws OAuthException, IOException {
-		synchronized (accessTokens) {
-			String actualValue = accessTokens.get(oAuthRequest.getMessage()
-					.getToken());
-			if (!oAuthRequest.getConsumer().consumerKey.equals(actualValue)) {
-				throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
-			}
+		AccessToken accessToken = accessTokens.get(oAuthRequest.getMessage()
+				.getToken());
+		if (accessToken == null
+				|| !oAuthRequest.getConsumer().consumerKey.equals(accessToken.getConsumerKey())) {
+			throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
 		}
 	}
 
 	@Override
 	public String getTokenSecret(HttpServletRequest httpRequest, String token)
 			throws OAuthProblemException {
-		synchronized (tokenSecrets) {
-			String tokenSecret = tokenSecrets.get(token);
-			if (tokenSecret == null) {
-				// It's possible the token secret was purged from the LRU cache,
-				// or the token is just not recognized. Either way, we can
-				// consider the token rejected.
-				throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
-			}
-			return tokenSecret;
+		AccessToken accessToken = accessTokens.get(token);
+		if (accessToken != null) {
+			return accessToken.getTokenSecret();
+		}
+
+		RequestTokenData tokenData = requestTokens.get(token);
+		if (tokenData == null || tokenData.getTokenSecret() == null) {
+			// It's possible the token was purged from the cache or has
+			// expired, or the token is just not recognized. Either way, we can
+			// consider the token rejected.
+			throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
 		}
+		return tokenData.getTokenSecret();
 	}
 	
 	/**
@@ -295,12 +348,29 @@ public class SimpleTokenStrategy implements TokenStrategy {
 	 */
 	protected RequestTokenData getRequestTokenData(String requestToken)
 			throws OAuthProblemException {
-		synchronized (requestTokens) {
-			RequestTokenData tokenData = requestTokens.get(requestToken);
-			if (tokenData == null) {
-				throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
+		RequestTokenData tokenData = requestTokens.get(requestToken);
+		if (tokenData == null) {
+			throw new OAuthProblemException(OAuth.Problems.TOKEN_REJECTED);
+		}
+		return tokenData;
+	}
+
+	/**
+	 * Removes an access token that has expired or was evicted from the access
+	 * token store.
+	 * 
+	 * @param token
+	 *            the access token string
+	 * @param accessToken
+	 *            the access token
+	 */
+	private void accessTokenRemoved(String token, AccessToken accessToken) {
+		if (accessTokenStore != null) {
+			try {
+				accessTokenStore.remove(token);
+			} catch (IOException e) {
+				log.warn("Could not remove access token from the store", e);
 			}
-			return tokenData;
 		}
 	}
 }
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core.token;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Concurrent cache for storing OAuth tokens. Entries expire when they have not
+ * been used for a given time, and the least recently used entries are evicted
+ * when the cache grows beyond its maximum size.
+ * <p>
+ * Unlike {@link LRUCache}, reads and writes do not lock the cache. Expired
+ * entries are removed when they are read and when the cache is trimmed, which
+ * happens on writes once the cache is full. The cache counts hits, misses and
+ * evictions for monitoring.
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public class TokenCache<K, V> {
+	/**
+	 * Fraction of the maximum size evicted at once when the cache is full, so
+	 * that trimming is not repeated on every write.
+	 */
+	private static final int EVICTION_DIVISOR = 10;
+
+	private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+	private final AtomicBoolean trimming = new AtomicBoolean();
+	private final int maxSize;
+	private final long timeToIdleNanos;
+	private final BiConsumer<K, V> removalListener;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache whose entries never expire.
+	 *
+	 * @param maxSize
+	 *            the maximum number of entries
+	 */
+	public TokenCache(int maxSize) {
+		this(maxSize, 0, TimeUnit.MILLISECONDS, null);
+	}
+
+	/**
+	 * Creates a cache.
+	 *
+	 * @param maxSize
+	 *            the maximum number of entries
+	 * @param timeToIdle
+	 *            how long an entry is kept after it was last used, or 0 to
+	 *            keep entries until they are evicted
+	 * @param unit
+	 *            the unit of <code>timeToIdle</code>
+	 * @param removalListener
+	 *            called with the entries that expire or are evicted, but not
+	 *            with the ones removed explicitly; may be null
+	 */
+	public TokenCache(int maxSize, long timeToIdle, TimeUnit unit,
+			BiConsumer<K, V> removalListener) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("maxSize must be positive");
+		}
+		this.maxSize = maxSize;
+		this.timeToIdleNanos = unit.toNanos(timeToIdle);
+		this.removalListener = removalListener;
+	}
+
+	/**
+	 * Gets a value and marks it as recently used.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or null if there is none or it has expired
+	 */
+	public V get(K key) {
+		Entry<V> entry = entries.get(key);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+
+		long now = System.nanoTime();
+		if (isExpired(entry, now)) {
+			expire(key, entry);
+			misses.increment();
+			return null;
+		}
+
+		entry.lastAccess = now;
+		hits.increment();
+		return entry.value;
+	}
+
+	/**
+	 * Adds or replaces a value.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, or null if there was none
+	 */
+	public V put(K key, V value) {
+		Entry<V> previous = entries.put(key, new Entry<V>(value, System.nanoTime()));
+		if (entries.size() > maxSize) {
+			trim();
+		}
+		return previous == null ? null : previous.value;
+	}
+
+	/**
+	 * Removes a value.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the removed value, or null if there was none or it has expired
+	 */
+	public V remove(K key) {
+		Entry<V> entry = entries.remove(key);
+		if (entry == null) {
+			return null;
+		}
+		if (isExpired(entry, System.nanoTime())) {
+			evictions.increment();
+			notifyRemoval(key, entry.value);
+			return null;
+		}
+		return entry.value;
+	}
+
+	/**
+	 * Removes a key only if it is mapped to the given value. Of several
+	 * concurrent calls with the same key and value, exactly one succeeds.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the expected value
+	 * @return true if the value was removed
+	 */
+	public boolean remove(K key, V value) {
+		Entry<V> entry = entries.get(key);
+		return entry != null && entry.value == value && entries.remove(key, entry);
+	}
+
+	/**
+	 * @return the number of entries, including expired ones not removed yet
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * @return the number of {@link #get(Object)} calls that found a value
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of {@link #get(Object)} calls that found no value or
+	 *         an expired one
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of entries that expired or were evicted
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Removes all entries without notifying the removal listener.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Removes the expired entries, then the least recently used ones until the
+	 * cache is below its maximum size. Only one thread trims the cache at a
+	 * time; concurrent writers do not wait for it.
+	 */
+	void trim() {
+		if (!trimming.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			long now = System.nanoTime();
+			List<Map.Entry<K, Entry<V>>> live = new ArrayList<Map.Entry<K, Entry<V>>>(entries.size());
+			for (Iterator<Map.Entry<K, Entry<V>>> i = entries.entrySet().iterator(); i.hasNext();) {
+				Map.Entry<K, Entry<V>> mapEntry = i.next();
+				if (isExpired(mapEntry.getValue(), now)) {
+					expire(mapEntry.getKey(), mapEntry.getValue());
+				} else {
+					live.add(mapEntry);
+				}
+			}
+
+			int target = maxSize - maxSize / EVICTION_DIVISOR;
+			int excess = live.size() - target;
+			if (excess > 0 && entries.size() > maxSize) {
+				// Snapshot the access times, so that concurrent reads do not
+				// change the order while sorting.
+				List<Candidate<K, V>> candidates = new ArrayList<Candidate<K, V>>(live.size());
+				for (Map.Entry<K, Entry<V>> mapEntry : live) {
+					candidates.add(new Candidate<K, V>(mapEntry.getKey(), mapEntry.getValue()));
+				}
+				candidates.sort((a, b) -> Long.compare(a.lastAccess - now, b.lastAccess - now));
+				for (int i = 0; i < excess; i++) {
+					Candidate<K, V> candidate = candidates.get(i);
+					expire(candidate.key, candidate.entry);
+				}
+			}
+		} finally {
+			trimming.set(false);
+		}
+	}
+
+	private boolean isExpired(Entry<V> entry, long now) {
+		return timeToIdleNanos > 0 && now - entry.lastAccess > timeToIdleNanos;
+	}
+
+	private void expire(K key, Entry<V> entry) {
+		if (entries.remove(key, entry)) {
+			evictions.increment();
+			notifyRemoval(key, entry.value);
+		}
+	}
+
+	private void notifyRemoval(K key, V value) {
+		if (removalListener != null) {
+			removalListener.accept(key, value);
+		}
+	}
+
+	private static final class Entry<V> {
+		private final V value;
+		private volatile long lastAccess;
+
+		Entry(V value, long lastAccess) {
+			this.value = value;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private static final class Candidate<K, V> {
+		private final K key;
+		private final Entry<V> entry;
+		private final long lastAccess;
+
+		Candidate(K key, Entry<V> entry) {
+			this.key = key;
+			this.entry = entry;
+			this.lastAccess = entry.lastAccess;
+		}
+	}
+}
@@ -15,6 +15,7 @@ package org.eclipse.lyo.server.oauth.core.utils;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -43,8 +44,8 @@ import org.eclipse.lyo.server.oauth.core.OAuthConfiguration;
 import org.eclipse.lyo.server.oauth.core.OAuthRequest;
 import org.eclipse.lyo.server.oauth.core.consumer.ConsumerStore;
 import org.eclipse.lyo.server.oauth.core.consumer.LyoOAuthConsumer;
-import org.eclipse.lyo.server.oauth.core.token.LRUCache;
 import org.eclipse.lyo.server.oauth.core.token.SimpleTokenStrategy;
+import org.eclipse.lyo.server.oauth.core.token.TokenCache;
 
 /**
  * <h3>Overview</h3>
@@ -104,20 +105,40 @@ abstract public class AbstractAdapterCredentialsFilter<Credentials, Connection>
 	public static final String ADMIN_SESSION_ATTRIBUTE = ATTRIBUTE_BASE + "AdminSession";
 	public static final String JAZZ_INVALID_EXPIRED_TOKEN_OAUTH_PROBLEM = "invalid_expired_token";
 	public static final String OAUTH_EMPTY_TOKEN_KEY = new String("OAUTH_EMPTY_TOKEN_KEY");
-    
-    private final LRUCache<String, Connection> tokenToConnectionCache = new LRUCache<String, Connection>(200);
+	public static final int DEFAULT_CONNECTION_CACHE_SIZE = 1000;
+
+    private final TokenCache<String, Connection> tokenToConnectionCache;
     
     final private String displayName;
     final private String realm;
     
     /**
-     * Constructor
+     * Constructor. Up to {@link #DEFAULT_CONNECTION_CACHE_SIZE} connections are kept
+     * for OAuth tokens, and they do not expire.
      * @param displayName application name displayed on the login prompt
      * @param realm realm for this adapter
      */
     protected AbstractAdapterCredentialsFilter(String displayName, String realm) {
+    	this(displayName, realm, DEFAULT_CONNECTION_CACHE_SIZE, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Constructor
+     * @param displayName application name displayed on the login prompt
+     * @param realm realm for this adapter
+     * @param connectionCacheSize maximum number of connections kept for OAuth tokens;
+     *            the least recently used ones are evicted beyond it
+     * @param connectionTimeToIdle how long a connection is kept for an OAuth token after
+     *            it was last used, or 0 to keep it until it is evicted
+     * @param unit unit of <code>connectionTimeToIdle</code>
+     * @see #connectionEvicted(String, Object)
+     */
+    protected AbstractAdapterCredentialsFilter(String displayName, String realm,
+    		int connectionCacheSize, long connectionTimeToIdle, TimeUnit unit) {
     	this.displayName = displayName;
     	this.realm = realm;
+    	this.tokenToConnectionCache = new TokenCache<String, Connection>(connectionCacheSize,
+    			connectionTimeToIdle, unit, this::connectionEvicted);
     }
     
     /**
@@ -179,6 +200,24 @@ abstract public class AbstractAdapterCredentialsFilter<Credentials, Connection>
      * @throws Exception
      */
     abstract protected ConsumerStore createConsumerStore() throws Exception;
+
+    /**
+     * Invoked when the connection of an OAuth token expires or is evicted from the cache.
+     * The default implementation does nothing, since the connection may still be in use by
+     * an HTTP session. Subclasses may override this to release the connection, e.g. close it.
+     * @param token the OAuth token, or an empty string for two-legged OAuth requests
+     * @param connection the evicted connection
+     */
+    protected void connectionEvicted(String token, Connection connection) {
+    }
+
+    /**
+     * @return the cache of connections keyed by OAuth token, which provides hit, miss and
+     *         eviction counts
+     */
+    protected TokenCache<String, Connection> getTokenToConnectionCache() {
+    	return tokenToConnectionCache;
+    }
     
     /**
      * get Connector assigned to this request
@@ -288,7 +327,9 @@ abstract public class AbstractAdapterCredentialsFilter<Credentials, Connection>
 							if (connector == null) {
 								credentials = getCredentialsForOAuth(OAUTH_EMPTY_TOKEN_KEY, twoLeggedOAuthConsumerKey);
 								connector = login(credentials, request);
-								tokenToConnectionCache.put("", connector);
+								if (connector != null) {
+									tokenToConnectionCache.put("", connector);
+								}
 							}
 							credentials = null; // TODO; Do we need to keep the credentials for this path ??
 						} else {
@@ -450,8 +491,10 @@ abstract public class AbstractAdapterCredentialsFilter<Credentials, Connection>
 			public void markRequestTokenAuthorized(
 					HttpServletRequest httpRequest, String requestToken)
 					throws OAuthProblemException {
-				tokenToConnectionCache.put(requestToken,
-						(Connection) httpRequest.getAttribute(CONNECTOR_ATTRIBUTE));
+				Connection connection = (Connection) httpRequest.getAttribute(CONNECTOR_ATTRIBUTE);
+				if (connection != null) {
+					tokenToConnectionCache.put(requestToken, connection);
+				}
 				super.markRequestTokenAuthorized(httpRequest, requestToken);
 			}
 
@@ -461,7 +504,9 @@ abstract public class AbstractAdapterCredentialsFilter<Credentials, Connection>
 				String requestToken = oAuthRequest.getMessage().getToken();
 				Connection bc = tokenToConnectionCache.remove(requestToken);
 				super.generateAccessToken(oAuthRequest);
-				tokenToConnectionCache.put(oAuthRequest.getAccessor().accessToken, bc);
+				if (bc != null) {
+					tokenToConnectionCache.put(oAuthRequest.getAccessor().accessToken, bc);
+				}
 			}
 		});
 
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.Collections;
+
+import net.oauth.OAuth;
+import net.oauth.OAuthAccessor;
+import net.oauth.OAuthConsumer;
+import net.oauth.OAuthMessage;
+import net.oauth.OAuthProblemException;
+import net.oauth.signature.OAuthSignatureMethod;
+import net.oauth.signature.RSA_SHA1;
+
+import org.eclipse.lyo.server.oauth.core.consumer.AbstractConsumerStore;
+import org.eclipse.lyo.server.oauth.core.consumer.LyoOAuthConsumer;
+import org.junit.Test;
+
+public class CachingOAuthValidatorTest {
+	private static final String URL = "http://example.com/resources";
+
+	private final CachingOAuthValidator validator = new CachingOAuthValidator();
+
+	private static OAuthMessage signedMessage(OAuthAccessor accessor) throws Exception {
+		OAuthMessage message = new OAuthMessage(OAuthMessage.GET, URL,
+				Collections.<OAuth.Parameter> emptyList());
+		message.addRequiredParameters(accessor);
+		return message;
+	}
+
+	private static OAuthAccessor accessor(OAuthConsumer consumer) {
+		OAuthAccessor accessor = new OAuthAccessor(consumer);
+		accessor.accessToken = "token";
+		accessor.tokenSecret = "tokenSecret";
+		return accessor;
+	}
+
+	@Test
+	public void reusesSignersAndRejectsReplays() throws Exception {
+		OAuthAccessor accessor = accessor(new LyoOAuthConsumer("key", "secret"));
+
+		validator.validateMessage(signedMessage(accessor), accessor);
+		OAuthMessage message = signedMessage(accessor);
+		validator.validateMessage(message, accessor);
+		try {
+			validator.validateMessage(message, accessor);
+			fail("Replayed message was accepted");
+		} catch (OAuthProblemException e) {
+			assertEquals(OAuth.Problems.NONCE_USED, e.getProblem());
+		}
+
+		assertEquals(1, validator.getSignerCache().size());
+		assertEquals(1, validator.getSignerCache().getHitCount());
+		assertEquals(3, validator.getValidationCount());
+		assertEquals(1, validator.getFailureCount());
+		assertEquals(2, validator.getUsedNonceCount());
+	}
+
+	@Test
+	public void rejectsWrongSecretAfterConsumerChange() throws Exception {
+		OAuthAccessor accessor = accessor(new LyoOAuthConsumer("key", "secret"));
+		validator.validateMessage(signedMessage(accessor), accessor);
+
+		// The consumer store replaced the consumer with a new secret
+		OAuthAccessor changed = accessor(new LyoOAuthConsumer("key", "newSecret"));
+		try {
+			validator.validateMessage(signedMessage(accessor), changed);
+			fail("Message signed with the old secret was accepted");
+		} catch (OAuthProblemException e) {
+			assertEquals(OAuth.Problems.SIGNATURE_INVALID, e.getProblem());
+		}
+		validator.validateMessage(signedMessage(changed), changed);
+	}
+
+	@Test
+	public void parsesRsaKeysOnce() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keyPair = generator.generateKeyPair();
+
+		LyoOAuthConsumer consumer = new LyoOAuthConsumer("rsaKey", "");
+		consumer.setProperty(OAuth.OAUTH_SIGNATURE_METHOD, OAuth.RSA_SHA1);
+		consumer.setProperty(RSA_SHA1.PUBLIC_KEY,
+				OAuthSignatureMethod.base64Encode(keyPair.getPublic().getEncoded()));
+		new TestConsumerStore().addAll(Collections.singleton(consumer));
+		assertTrue(consumer.getProperty(RSA_SHA1.PUBLIC_KEY) instanceof PublicKey);
+
+		OAuthConsumer client = new OAuthConsumer(null, "rsaKey", "", null);
+		client.setProperty(OAuth.OAUTH_SIGNATURE_METHOD, OAuth.RSA_SHA1);
+		client.setProperty(RSA_SHA1.PRIVATE_KEY, keyPair.getPrivate());
+		OAuthAccessor clientAccessor = accessor(client);
+
+		validator.validateMessage(signedMessage(clientAccessor), accessor(consumer));
+		validator.validateMessage(signedMessage(clientAccessor), accessor(consumer));
+		assertEquals(1, validator.getSignerCache().getHitCount());
+	}
+
+	private static class TestConsumerStore extends AbstractConsumerStore {
+		@Override
+		public LyoOAuthConsumer addConsumer(LyoOAuthConsumer consumer) {
+			return add(consumer);
+		}
+
+		@Override
+		public LyoOAuthConsumer removeConsumer(String consumerKey) {
+			return remove(consumerKey);
+		}
+
+		@Override
+		public LyoOAuthConsumer updateConsumer(LyoOAuthConsumer consumer) {
+			return add(consumer);
+		}
+
+		@Override
+		public void closeConsumerStore() {
+		}
+	}
+}
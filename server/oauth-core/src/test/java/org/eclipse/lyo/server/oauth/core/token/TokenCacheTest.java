@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.server.oauth.core.token;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TokenCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void evictsLeastRecentlyUsed() throws Exception {
+		List<String> removed = new ArrayList<String>();
+		TokenCache<String, String> cache = new TokenCache<String, String>(10, 0,
+				TimeUnit.MILLISECONDS, (key, value) -> removed.add(key));
+
+		for (int i = 0; i < 10; i++) {
+			cache.put("token" + i, "secret" + i);
+			Thread.sleep(1);
+		}
+		assertEquals("secret0", cache.get("token0"));
+		cache.put("token10", "secret10");
+
+		assertEquals(9, cache.size());
+		assertEquals("[token1, token2]", removed.toString());
+		assertEquals("secret0", cache.get("token0"));
+		assertNull(cache.get("token1"));
+	}
+
+	@Test
+	public void expiresIdleEntries() throws Exception {
+		List<String> removed = new ArrayList<String>();
+		TokenCache<String, String> cache = new TokenCache<String, String>(10, 50,
+				TimeUnit.MILLISECONDS, (key, value) -> removed.add(key));
+
+		cache.put("token", "secret");
+		assertEquals("secret", cache.get("token"));
+		Thread.sleep(100);
+
+		assertNull(cache.get("token"));
+		assertEquals("[token]", removed.toString());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void countsHitsMissesAndEvictions() {
+		TokenCache<String, String> cache = new TokenCache<String, String>(1);
+		cache.put("a", "secretA");
+		cache.get("a");
+		cache.get("b");
+		cache.put("b", "secretB");
+
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void removesMatchingValueOnce() {
+		TokenCache<String, String> cache = new TokenCache<String, String>(10);
+		String value = new String("secret");
+		cache.put("token", value);
+
+		assertFalse(cache.remove("token", new String("secret")));
+		assertTrue(cache.remove("token", value));
+		assertFalse(cache.remove("token", value));
+	}
+
+	@Test
+	public void persistsAccessTokens() throws Exception {
+		Path file = folder.getRoot().toPath().resolve("tokens");
+
+		FileAccessTokenStore store = new FileAccessTokenStore(file);
+		assertTrue(store.load().isEmpty());
+		store.save(new AccessToken("a", "consumer\tkey", "secretA"));
+		store.save(new AccessToken("b", "consumer", "secretB"));
+		store.remove("a");
+		store.close();
+
+		// A record cut short by a crash is ignored
+		Files.write(file, "+\tc\tconsumer".getBytes("UTF-8"), StandardOpenOption.APPEND);
+
+		FileAccessTokenStore reloaded = new FileAccessTokenStore(file);
+		Collection<AccessToken> tokens = reloaded.load();
+		reloaded.close();
+
+		assertEquals(1, tokens.size());
+		AccessToken token = tokens.iterator().next();
+		assertEquals("b", token.getToken());
+		assertEquals("consumer", token.getConsumerKey());
+		assertEquals("secretB", token.getTokenSecret());
+		assertEquals(1, Files.readAllLines(file).size());
+	}
+}
@@ -13,10 +13,29 @@
  */
 package org.eclipse.lyo.oslc4j.core.resources;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
 
+import org.apache.wink.common.internal.MultivaluedMapImpl;
+import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcDialog;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcQueryCapability;
 import org.eclipse.lyo.oslc4j.core.annotation.OslcService;
@@ -30,6 +49,13 @@ import org.eclipse.lyo.oslc4j.core.servlet.ServiceProviderCatalogSingleton;
 @Path("catalog")
 public class ServiceProviderCatalogResource
 {
+	private static final Annotation[]  ANNOTATIONS_EMPTY_ARRAY = new Annotation[0];
+	private static final List<Variant> CATALOG_VARIANTS		   = Variant.mediaTypes(OslcMediaType.APPLICATION_RDF_XML_TYPE,
+																					OslcMediaType.APPLICATION_XML_TYPE,
+																					OslcMediaType.TEXT_XML_TYPE,
+																					OslcMediaType.APPLICATION_JSON_TYPE,
+																					OslcMediaType.TEXT_TURTLE_TYPE).add().build();
+
 	@OslcDialog
 	(
 		 title = "Service Provider Catalog Selection Dialog",
@@ -50,17 +76,21 @@ public class ServiceProviderCatalogResource
 	)
 	@GET
 	@Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.TEXT_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE})
-	public ServiceProviderCatalog[] getServiceProviderCatalogs()
+	public Response getServiceProviderCatalogs(@Context final HttpServletRequest httpServletRequest,
+											   @Context final Request			 request,
+											   @Context final Providers			 providers)
 	{
-		return new ServiceProviderCatalog[] {ServiceProviderCatalogSingleton.getServiceProviderCatalog()};
+		return getSerializedServiceProviderCatalog(httpServletRequest, request, providers, true);
 	}
 
 	@GET
 	@Path("{serviceProviderCatalogId}") // Required to distinguish from array result.  But, ignored.
 	@Produces({OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType.TEXT_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE})
-	public ServiceProviderCatalog getServiceProviderCatalog()
+	public Response getServiceProviderCatalog(@Context final HttpServletRequest httpServletRequest,
+											  @Context final Request			request,
+											  @Context final Providers			providers)
 	{
-		return ServiceProviderCatalogSingleton.getServiceProviderCatalog();
+		return getSerializedServiceProviderCatalog(httpServletRequest, request, providers, false);
 	}
 
 	@GET
@@ -80,4 +110,108 @@ public class ServiceProviderCatalogResource
 
 		return compact;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Responds with the catalog serialized by the registered providers. The
+	 * catalog only changes when service providers are registered, so each
+	 * representation is serialized once and reused until then. A property
+	 * selection changes the serialization, so it is not served from the cache.
+	 * Neither is the array of catalogs, which the providers write as a query
+	 * result referring to the request URI and paging attributes.
+	 */
+	private static Response getSerializedServiceProviderCatalog(final HttpServletRequest httpServletRequest,
+																final Request			 request,
+																final Providers			 providers,
+																final boolean			 array)
+	{
+		final Variant variant = request.selectVariant(CATALOG_VARIANTS);
+
+		if (variant == null)
+		{
+			return Response.notAcceptable(CATALOG_VARIANTS).build();
+		}
+
+		final MediaType mediaType = variant.getMediaType();
+
+		if (array || httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES) != null)
+		{
+			final ServiceProviderCatalog serviceProviderCatalog = ServiceProviderCatalogSingleton.getServiceProviderCatalog();
+
+			return Response.ok(array ? new ServiceProviderCatalog[] {serviceProviderCatalog} : serviceProviderCatalog,
+							   mediaType).build();
+		}
+
+		final Representation representation = ServiceProviderCatalogSingleton.getSerializedServiceProviderCatalog(mediaType.toString(),
+																												   serviceProviderCatalog -> serialize(providers,
+																																					   serviceProviderCatalog,
+																																					   mediaType));
+
+		final Response.ResponseBuilder builder = Response.ok(representation.entity,
+															 mediaType);
+
+		for (final Map.Entry<String, List<Object>> header : representation.headers.entrySet())
+		{
+			for (final Object value : header.getValue())
+			{
+				builder.header(header.getKey(),
+							   value);
+			}
+		}
+
+		return builder.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Representation serialize(final Providers providers,
+											final Object	entity,
+											final MediaType mediaType)
+	{
+		final Class<Object>				type   = (Class<Object>) entity.getClass();
+		final MessageBodyWriter<Object> writer = providers.getMessageBodyWriter(type,
+																				type,
+																				ANNOTATIONS_EMPTY_ARRAY,
+																				mediaType);
+
+		if (writer == null)
+		{
+			throw new WebApplicationException(Status.INTERNAL_SERVER_ERROR);
+		}
+
+		final ByteArrayOutputStream			 outputStream = new ByteArrayOutputStream();
+		final MultivaluedMap<String, Object> headers	  = new MultivaluedMapImpl<String, Object>();
+
+		try
+		{
+			writer.writeTo(entity,
+						   type,
+						   type,
+						   ANNOTATIONS_EMPTY_ARRAY,
+						   mediaType,
+						   headers,
+						   outputStream);
+		}
+		catch (final IOException exception)
+		{
+			throw new WebApplicationException(exception);
+		}
+
+		return new Representation(outputStream.toByteArray(),
+								  headers);
+	}
+
+	/**
+	 * A serialized catalog with the headers set by the provider that wrote it
+	 */
+	private static final class Representation
+	{
+		private final byte[]						 entity;
+		private final MultivaluedMap<String, Object> headers;
+
+		Representation(final byte[]							entity,
+					   final MultivaluedMap<String, Object> headers)
+		{
+			this.entity	 = entity;
+			this.headers = headers;
+		}
+	}
+}
@@ -15,11 +15,15 @@ package org.eclipse.lyo.oslc4j.core.servlet;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.WebApplicationException;
@@ -31,10 +35,18 @@ import org.eclipse.lyo.oslc4j.core.model.Service;
 import org.eclipse.lyo.oslc4j.core.model.ServiceProvider;
 import org.eclipse.lyo.oslc4j.core.model.ServiceProviderCatalog;
 
+/**
+ * Registry of the service providers in the catalog.
+ * <p>
+ * The registered service providers are published as an immutable snapshot,
+ * which is replaced on every registration change. Reads use the current
+ * snapshot without locking or copying; registrations are serialized.
+ */
 public class ServiceProviderCatalogSingleton
 {
 	private static final ServiceProviderCatalog				serviceProviderCatalog;
-	private static final SortedMap<String, ServiceProvider> serviceProviders = new TreeMap<String, ServiceProvider>();
+	private static final Object								registrationLock = new Object();
+	private static volatile Registry						registry		 = new Registry(new TreeMap<String, ServiceProvider>());
 
 	static
 	{
@@ -66,22 +78,37 @@ public class ServiceProviderCatalogSingleton
 		return serviceProviderCatalog;
 	}
 
+	/**
+	 * Gets the serialized catalog for a representation, serializing it only
+	 * once until the registered service providers change.
+	 *
+	 * @param representation
+	 *			  identifies the representation, such as the media type
+	 * @param serializer
+	 *			  serializes the catalog into the representation; the same
+	 *			  representation must always be serialized into the same type
+	 * @return the serialized catalog, which must not be modified
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getSerializedServiceProviderCatalog(final String							 representation,
+															final Function<ServiceProviderCatalog, T> serializer)
+	{
+		return (T) registry.serializedCatalogs.computeIfAbsent(representation,
+															   key -> serializer.apply(serviceProviderCatalog));
+	}
+
+	/**
+	 * @return the registered service providers, ordered by identifier. The
+	 *		   array is shared by all callers and must not be modified.
+	 */
 	public static ServiceProvider[] getServiceProviders()
 	{
-		synchronized(serviceProviders)
-		{
-			return serviceProviders.values().toArray(new ServiceProvider[serviceProviders.size()]);
-		}
+		return registry.serviceProviderArray;
 	}
 
 	public static ServiceProvider getServiceProvider(final String serviceProviderId)
 	{
-		final ServiceProvider serviceProvider;
-
-		synchronized(serviceProviders)
-		{
-			serviceProvider = serviceProviders.get(serviceProviderId);
-		}
+		final ServiceProvider serviceProvider = registry.serviceProviders.get(serviceProviderId);
 
 		if (serviceProvider != null)
 		{
@@ -95,7 +122,7 @@ public class ServiceProviderCatalogSingleton
 														  final ServiceProvider	   serviceProvider)
 		   throws URISyntaxException
 	{
-		synchronized(serviceProviders)
+		synchronized(registrationLock)
 		{
 			final URI serviceProviderURI = new URI(httpServletRequest.getScheme(),
 												   null,
@@ -115,7 +142,7 @@ public class ServiceProviderCatalogSingleton
 												   final ServiceProvider serviceProvider)
 		   throws URISyntaxException
 	{
-		synchronized(serviceProviders)
+		synchronized(registrationLock)
 		{
 			final URI serviceProviderURI = new URI(baseURI + "/serviceProviders/" + serviceProviderId);
 
@@ -136,9 +163,13 @@ public class ServiceProviderCatalogSingleton
 		serviceProviderCatalog.addServiceProvider(serviceProvider);
 		serviceProviderCatalog.addDomains(serviceProviderDomains);
 
+		final SortedMap<String, ServiceProvider> serviceProviders = new TreeMap<String, ServiceProvider>(registry.serviceProviders);
+
 		serviceProviders.put(String.valueOf(serviceProviderId),
 							 serviceProvider);
 
+		registry = new Registry(serviceProviders);
+
 		serviceProviderId++;
 
 		return serviceProvider;
@@ -146,8 +177,10 @@ public class ServiceProviderCatalogSingleton
 
 	public static void deregisterServiceProvider(final String serviceProviderId)
 	{
-		synchronized(serviceProviders)
+		synchronized(registrationLock)
 		{
+			final SortedMap<String, ServiceProvider> serviceProviders = new TreeMap<String, ServiceProvider>(registry.serviceProviders);
+
 			final ServiceProvider deregisteredServiceProvider = serviceProviders.remove(serviceProviderId);
 
 			if (deregisteredServiceProvider != null)
@@ -166,6 +199,8 @@ public class ServiceProviderCatalogSingleton
 				serviceProviderCatalog.removeDomains(removedServiceProviderDomains);
 
 				serviceProviderCatalog.removeServiceProvider(deregisteredServiceProvider);
+
+				registry = new Registry(serviceProviders);
 			}
 			else
 			{
@@ -189,4 +224,21 @@ public class ServiceProviderCatalogSingleton
 		}
 		return domains;
 	}
+
+	/**
+	 * Snapshot of the registered service providers, with the catalog
+	 * serialized for it.
+	 */
+	private static final class Registry
+	{
+		private final SortedMap<String, ServiceProvider> serviceProviders;
+		private final ServiceProvider[]					 serviceProviderArray;
+		private final ConcurrentMap<String, Object>		 serializedCatalogs = new ConcurrentHashMap<String, Object>();
+
+		Registry(final SortedMap<String, ServiceProvider> serviceProviders)
+		{
+			this.serviceProviders	  = Collections.unmodifiableSortedMap(serviceProviders);
+			this.serviceProviderArray = serviceProviders.values().toArray(new ServiceProvider[serviceProviders.size()]);
+		}
+	}
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.oslc4j.core.resources;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
+
+import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
+import org.junit.Test;
+
+public class ServiceProviderCatalogResourceTest
+{
+	private final ServiceProviderCatalogResource resource = new ServiceProviderCatalogResource();
+
+	@Test
+	public void catalogArrayIsWrittenForEachRequest() throws IOException
+	{
+		assertEquals("http://host1/oslc4j-registry/catalog", get("http://host1/oslc4j-registry/catalog", true));
+		assertEquals("http://host2/oslc4j-registry/catalog?oslc.pageSize=1",
+					 get("http://host2/oslc4j-registry/catalog?oslc.pageSize=1", true));
+	}
+
+	@Test
+	public void catalogIsSerializedOnce() throws IOException
+	{
+		assertEquals("http://host1/oslc4j-registry/catalog/1", get("http://host1/oslc4j-registry/catalog/1", false));
+		assertEquals("http://host1/oslc4j-registry/catalog/1", get("http://host2/oslc4j-registry/catalog/1", false));
+	}
+
+	/**
+	 * Gets the catalog and writes the response as the JAX-RS runtime would,
+	 * with a provider writing the URI of the request it is serving.
+	 *
+	 * @return the response body
+	 */
+	private String get(final String requestURI, final boolean array) throws IOException
+	{
+		final RequestURIWriter writer	 = new RequestURIWriter(requestURI);
+		final Providers		   providers = stub(Providers.class, "getMessageBodyWriter", writer);
+		final Request		   request	 = stub(Request.class, "selectVariant",
+											new Variant(OslcMediaType.APPLICATION_RDF_XML_TYPE, null, null));
+		final HttpServletRequest httpServletRequest = stub(HttpServletRequest.class, "getAttribute", null);
+
+		final Response response = array ? resource.getServiceProviderCatalogs(httpServletRequest, request, providers)
+										: resource.getServiceProviderCatalog(httpServletRequest, request, providers);
+
+		final Object entity = response.getEntity();
+		if (entity instanceof byte[])
+		{
+			return new String((byte[]) entity, StandardCharsets.UTF_8);
+		}
+
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		writer.writeTo(entity, entity.getClass(), entity.getClass(), new Annotation[0],
+					   OslcMediaType.APPLICATION_RDF_XML_TYPE, null, outputStream);
+		return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T stub(final Class<T> type, final String methodName, final Object result)
+	{
+		return (T) Proxy.newProxyInstance(type.getClassLoader(),
+										  new Class<?>[] {type},
+										  (proxy, method, args) -> {
+											  if (method.getName().equals(methodName))
+											  {
+												  return result;
+											  }
+											  throw new UnsupportedOperationException(method.getName());
+										  });
+	}
+
+	private static final class RequestURIWriter implements MessageBodyWriter<Object>
+	{
+		private final String requestURI;
+
+		RequestURIWriter(final String requestURI)
+		{
+			this.requestURI = requestURI;
+		}
+
+		@Override
+		public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+								   final MediaType mediaType)
+		{
+			return true;
+		}
+
+		@Override
+		public long getSize(final Object object, final Class<?> type, final Type genericType,
+							final Annotation[] annotations, final MediaType mediaType)
+		{
+			return -1;
+		}
+
+		@Override
+		public void writeTo(final Object object, final Class<?> type, final Type genericType,
+							final Annotation[] annotations, final MediaType mediaType,
+							final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream)
+			   throws IOException
+		{
+			entityStream.write(requestURI.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -13,7 +13,16 @@
  */
 package org.eclipse.lyo.oslc4j.application;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.GET;
@@ -22,8 +31,17 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Providers;
 import org.apache.wink.common.AbstractDynamicResource;
+import org.apache.wink.common.internal.MultivaluedMapImpl;
+import org.eclipse.lyo.oslc4j.core.OSLC4JConstants;
 import org.eclipse.lyo.oslc4j.core.OSLC4JUtils;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreApplicationException;
 import org.eclipse.lyo.oslc4j.core.model.OslcMediaType;
@@ -33,15 +51,44 @@ import org.eclipse.lyo.oslc4j.core.model.ResourceShapeFactory;
 /**
  * This class provides a generic JAX-RS resource to expose ResourceShapes for an OSLC Domain.  It is used internally
  * by {@link OslcWinkApplication}.
+ * <p>
+ * Shapes do not change at runtime, so each representation is serialized once and then served from memory with an
+ * ETag, letting clients revalidate with If-None-Match instead of downloading the shape again.
  */
 public class OslcResourceShapeResource
 	   extends AbstractDynamicResource
 {
 	private static final String BASE_URI = "http://localhost/validatingResourceShapes";
 
+	/**
+	 * Upper bound of the cached representations, the least recently used one is evicted first. The servlet URI comes
+	 * from the request, so the number of distinct keys is not under the control of the application.
+	 */
+	private static final int REPRESENTATION_CACHE_SIZE = 256;
+
+	private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+	private static final List<Variant> VARIANTS = Variant.mediaTypes(OslcMediaType.APPLICATION_RDF_XML_TYPE,
+																	 OslcMediaType.APPLICATION_XML_TYPE,
+																	 OslcMediaType.TEXT_XML_TYPE,
+																	 OslcMediaType.APPLICATION_JSON_TYPE,
+																	 OslcMediaType.TEXT_TURTLE_TYPE).add().build();
+
 	private final String				resourceShapesPath;
 	private final Map<String, Class<?>> resourcePathToResourceClassMap;
 
+	private final Map<List<Object>, Representation> representations = Collections.synchronizedMap(
+			new LinkedHashMap<List<Object>, Representation>(16, 0.75f, true)
+			{
+				private static final long serialVersionUID = 7264301943257318702L;
+
+				@Override
+				protected boolean removeEldestEntry(final Map.Entry<List<Object>, Representation> eldest)
+				{
+					return size() > REPRESENTATION_CACHE_SIZE;
+				}
+			});
+
 	public OslcResourceShapeResource(final String				 resourceShapesPath,
 									 final Map<String, Class<?>> resourcePathToResourceClassMap)
 		   throws OslcCoreApplicationException,
@@ -69,17 +116,104 @@ public class OslcResourceShapeResource
 	@Produces(
 			{OslcMediaType.APPLICATION_RDF_XML, OslcMediaType.APPLICATION_XML, OslcMediaType
 					.TEXT_XML, OslcMediaType.APPLICATION_JSON, OslcMediaType.TEXT_TURTLE})
-	public ResourceShape getResourceShape(@Context final HttpServletRequest httpServletRequest,
+	public Response getResourceShape(@Context final HttpServletRequest httpServletRequest,
+			@Context final Request request,
+			@Context final Providers providers,
 			@PathParam("resourceShapePath") final String resourceShapePath)
-			throws OslcCoreApplicationException, URISyntaxException {
+			throws OslcCoreApplicationException, URISyntaxException, IOException {
 		final Class<?> resourceClass = resourcePathToResourceClassMap.get(resourceShapePath);
 
-		if (resourceClass != null) {
-			final String servletUri = OSLC4JUtils.resolveServletUri(httpServletRequest);
-			return ResourceShapeFactory.createResourceShape(servletUri, resourceShapesPath,
-					resourceShapePath, resourceClass);
+		if (resourceClass == null) {
+			throw new WebApplicationException(Response.Status.NOT_FOUND);
+		}
+
+		final String servletUri = OSLC4JUtils.resolveServletUri(httpServletRequest);
+
+		final Variant variant = request.selectVariant(VARIANTS);
+		if (variant == null) {
+			return Response.notAcceptable(VARIANTS).build();
+		}
+		final MediaType mediaType = variant.getMediaType();
+
+		// A property selection changes the serialization, so it is not served from the cache
+		if (httpServletRequest.getAttribute(OSLC4JConstants.OSLC4J_SELECTED_PROPERTIES) != null) {
+			return Response.ok(ResourceShapeFactory.createResourceShape(servletUri, resourceShapesPath,
+					resourceShapePath, resourceClass), mediaType).build();
+		}
+
+		final List<Object> key = Arrays.<Object>asList(servletUri, resourceShapePath, mediaType);
+		Representation representation = representations.get(key);
+		if (representation == null) {
+			// The shape is only built to be serialized, so it is not kept once the representation is cached
+			final ResourceShape resourceShape = ResourceShapeFactory.createResourceShape(servletUri,
+					resourceShapesPath, resourceShapePath, resourceClass);
+			representation = serialize(providers, resourceShape, mediaType);
+			if (representation == null) {
+				return Response.ok(resourceShape, mediaType).build();
+			}
+
+			representations.putIfAbsent(key, representation);
+		}
+
+		final Response.ResponseBuilder notModified = request.evaluatePreconditions(representation.entityTag);
+		if (notModified != null) {
+			return notModified.build();
+		}
+
+		final Response.ResponseBuilder builder = Response.ok(representation.entity, mediaType)
+														 .tag(representation.entityTag);
+		for (final Map.Entry<String, List<Object>> header : representation.headers.entrySet()) {
+			for (final Object value : header.getValue()) {
+				builder.header(header.getKey(), value);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return the representation written by the provider registered for the media type, or null if there is none
+	 */
+	private static Representation serialize(final Providers providers,
+											final ResourceShape resourceShape,
+											final MediaType mediaType)
+			throws IOException {
+		final MessageBodyWriter<ResourceShape> writer = providers.getMessageBodyWriter(ResourceShape.class,
+				ResourceShape.class, NO_ANNOTATIONS, mediaType);
+
+		if (writer == null) {
+			return null;
 		}
 
-		throw new WebApplicationException(Response.Status.NOT_FOUND);
+		final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		final MultivaluedMap<String, Object> headers = new MultivaluedMapImpl<String, Object>();
+		writer.writeTo(resourceShape, ResourceShape.class, ResourceShape.class, NO_ANNOTATIONS, mediaType, headers,
+				outputStream);
+
+		return new Representation(outputStream.toByteArray(), headers);
+	}
+
+	private static final class Representation {
+		private final byte[] entity;
+		private final MultivaluedMap<String, Object> headers;
+		private final EntityTag entityTag;
+
+		Representation(final byte[] entity, final MultivaluedMap<String, Object> headers) {
+			this.entity = entity;
+			this.headers = headers;
+			this.entityTag = new EntityTag(digest(entity));
+		}
+
+		private static String digest(final byte[] entity) {
+			try {
+				final StringBuilder builder = new StringBuilder();
+				for (final byte b : MessageDigest.getInstance("SHA-256").digest(entity)) {
+					builder.append(String.format("%02x", b));
+				}
+				return builder.toString();
+			} catch (final NoSuchAlgorithmException e) {
+				// Every Java platform is required to support SHA-256
+				throw new IllegalStateException(e);
+			}
+		}
 	}
 }
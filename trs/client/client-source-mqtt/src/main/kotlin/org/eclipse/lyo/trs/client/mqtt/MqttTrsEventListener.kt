@@ -20,10 +20,13 @@ import org.apache.jena.rdf.model.Resource
 import org.apache.jena.rdf.model.ResourceFactory
 import org.apache.jena.riot.Lang
 import org.apache.jena.riot.RDFDataMgr
+import org.apache.jena.riot.RiotException
+import org.apache.jena.vocabulary.RDF
 import org.eclipse.lyo.core.trs.ChangeEvent
 import org.eclipse.lyo.core.trs.Creation
 import org.eclipse.lyo.core.trs.Deletion
 import org.eclipse.lyo.core.trs.Modification
+import org.eclipse.lyo.core.trs.TRSConstants
 import org.eclipse.lyo.oslc4j.core.exception.LyoModelException
 import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper
 import org.eclipse.lyo.trs.client.exceptions.RepresentationRetrievalException
@@ -35,82 +38,176 @@ import org.slf4j.LoggerFactory
 import java.io.ByteArrayInputStream
 import java.net.URI
 import java.nio.charset.StandardCharsets
-import java.util.concurrent.Executors
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.RejectedExecutionHandler
+import java.util.concurrent.ThreadPoolExecutor
+import java.util.concurrent.TimeUnit
 
 /**
  * Process an MQTT topic and unmarshall messages from it into an IPushProviderHandler instance.
+ *
+ * Messages are parsed on the MQTT callback thread and then dispatched to one of [partitions]
+ * single-threaded workers chosen by the URI of the changed resource. Events for the same resource
+ * are thus handled in the order they arrived, while events for different resources are handled in
+ * parallel. Each worker queue holds at most [queueCapacity] events; when it is full, the MQTT
+ * callback thread blocks until space is available instead of letting the backlog grow unbounded.
  */
-class MqttTrsEventListener(
+class MqttTrsEventListener @JvmOverloads constructor(
         private val providerHandler: IPushProviderHandler,
-        private val lang: Lang) : IMqttMessageListener {
+        private val lang: Lang,
+        private val partitions: Int = Runtime.getRuntime().availableProcessors(),
+        private val queueCapacity: Int = 1000) : IMqttMessageListener {
     private val log = LoggerFactory.getLogger(MqttTrsEventListener::class.java)
-    private val executorService = Executors.newSingleThreadScheduledExecutor()
+    private val workers: Array<ThreadPoolExecutor>
+
+    init {
+        require(partitions > 0) { "At least one partition is required" }
+        require(queueCapacity > 0) { "Queue capacity must be positive" }
+        workers = Array(partitions) {
+            ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    ArrayBlockingQueue(queueCapacity), BlockingSubmitPolicy)
+        }
+    }
 
     override fun messageArrived(topic: String, mqttMessage: MqttMessage) {
-        val payload = String(mqttMessage.payload)
-        log.trace("Message payload: $payload")
+        val payload = mqttMessage.payload
+        if (log.isTraceEnabled) {
+            log.trace("Message payload: ${String(payload, StandardCharsets.UTF_8)}")
+        }
         rejectLegacyPayloads(payload)
-        executorService.submit {
-            log.info("Processing Change Event")
+        val eventMessage = try {
+            unmarshalChangeEvent(payload)
+        } catch (e: LyoModelException) {
+            log.warn("Error processing Change Event", e)
+            return
+        } catch (e: RepresentationRetrievalException) {
+            log.warn("Error processing Change Event", e)
+            return
+        } catch (e: RiotException) {
+            log.warn("Malformed Change Event payload", e)
+            return
+        }
+        workerFor(eventMessage.changeEvent.changed).execute {
+            log.debug("Processing Change Event")
             try {
-                val eventMessage = unmarshalChangeEvent(payload)
                 providerHandler.handlePush(eventMessage, topic)
-            } catch (e: LyoModelException) {
-                log.warn("Error processing Change Event", e)
             } catch (e: Exception) {
                 log.error("Unexpected exception", e)
             }
         }
     }
 
-    private fun rejectLegacyPayloads(payload: String) {
-        if (payload.equals("NEW", ignoreCase = true)) {
+    /**
+     * Stops accepting new messages and waits for the already queued events to be handled.
+     */
+    fun shutdown(timeout: Long, unit: TimeUnit) {
+        workers.forEach { it.shutdown() }
+        val deadline = System.nanoTime() + unit.toNanos(timeout)
+        for (worker in workers) {
+            val remaining = deadline - System.nanoTime()
+            if (remaining <= 0 || !worker.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+                log.warn("Change Events are still being processed after the shutdown timeout")
+                workers.forEach { it.shutdownNow() }
+                return
+            }
+        }
+    }
+
+    private fun workerFor(changed: URI?): ThreadPoolExecutor {
+        val hash = changed?.hashCode() ?: 0
+        return workers[Math.floorMod(hash, partitions)]
+    }
+
+    private fun rejectLegacyPayloads(payload: ByteArray) {
+        if (payload.size == NEW_PING.size && String(payload, StandardCharsets.US_ASCII)
+                        .equals("NEW", ignoreCase = true)) {
             log.warn("Plain 'NEW' ping message received")
             throw IllegalArgumentException("'NEW' payload is no longer supported; send an RDF graph")
         }
-        if (payload.startsWith("<ModelCom")) {
+        if (startsWith(payload, MODEL_COM_PREFIX)) {
             throw IllegalArgumentException("Malformed RDF from the serialised Jena Model; use RDFDataMgr")
         }
     }
 
-    private fun unmarshalChangeEvent(payload: String): ChangeEventMessageTR {
-        var changeEvent: ChangeEvent
+    private fun unmarshalChangeEvent(payload: ByteArray): ChangeEventMessageTR {
         val payloadModel = ModelFactory.createDefaultModel()
-        val inputStream = ByteArrayInputStream(payload.toByteArray(StandardCharsets.UTF_8))
-        RDFDataMgr.read(payloadModel, inputStream, lang)
+        RDFDataMgr.read(payloadModel, ByteArrayInputStream(payload), lang)
+
+        val eventResource = payloadModel.listSubjectsWithProperty(RDF.type).toList()
+                .mapNotNull { subject -> eventClassOf(subject)?.let { subject to it } }
+        if (eventResource.size != 1) {
+            log.error("Can't unmarshal the payload: found {} Change Events", eventResource.size)
+            throw RepresentationRetrievalException(
+                    "Payload shall contain exactly one ChangeEvent, found ${eventResource.size}")
+        }
+        val (subject, eventClass) = eventResource[0]
+        val changeEvent: ChangeEvent = JenaModelHelper.unmarshal(subject, eventClass)
+        log.debug("Encountered a {} event", eventClass.simpleName)
+
+        removeResource(changeEvent.about, payloadModel)
+
+        return ChangeEventMessageTR(changeEvent, payloadModel)
+    }
 
-        // FIXME Andrew@2019-07-15: test the patch from Ricardo finally
+    private fun eventClassOf(subject: Resource): Class<out ChangeEvent>? {
+        val types = subject.listProperties(RDF.type)
         try {
-            changeEvent = JenaModelHelper.unmarshalSingle(payloadModel, Modification::class.java)
-            log.debug("Encountered a Modification event")
-        } catch (e: IllegalArgumentException) {
-            try {
-                changeEvent = JenaModelHelper.unmarshalSingle(payloadModel, Creation::class.java)
-                log.debug("Encountered a Creation event")
-            } catch (e1: IllegalArgumentException) {
-                try {
-                    changeEvent = JenaModelHelper.unmarshalSingle(payloadModel,
-                            Deletion::class.java)
-                    log.debug("Encountered a Deletion event")
-                } catch (e2: IllegalArgumentException) {
-                    log.error("Can't unmarshal the payload", e2)
-                    throw RepresentationRetrievalException("Payload does not contain a ChangeEvent",e2)
+            while (types.hasNext()) {
+                val type = types.next().getObject()
+                if (type.isURIResource) {
+                    EVENT_TYPES[type.asResource().uri]?.let { return it }
                 }
             }
+        } finally {
+            types.close()
         }
-
-        val trModel = ModelFactory.createDefaultModel()
-        trModel.add(payloadModel)
-        removeResource(changeEvent.about, trModel)
-
-        return ChangeEventMessageTR(changeEvent, trModel)
+        return null
     }
 
     private fun removeResource(subject: URI, model: Model) {
         model.removeAll(r(subject), null, null)
     }
 
+    /**
+     * Blocks the submitting thread until the worker queue has room, so that a slow handler
+     * applies back-pressure to the MQTT client instead of dropping events or reordering them.
+     */
+    private object BlockingSubmitPolicy : RejectedExecutionHandler {
+        override fun rejectedExecution(r: Runnable, executor: ThreadPoolExecutor) {
+            if (executor.isShutdown) {
+                throw RejectedExecutionException("Listener has been shut down")
+            }
+            try {
+                executor.queue.put(r)
+            } catch (e: InterruptedException) {
+                Thread.currentThread().interrupt()
+                throw RejectedExecutionException("Interrupted while waiting for queue space", e)
+            }
+        }
+    }
+
     companion object {
+        private val NEW_PING = "NEW".toByteArray(StandardCharsets.US_ASCII)
+        private val MODEL_COM_PREFIX = "<ModelCom".toByteArray(StandardCharsets.US_ASCII)
+
+        private val EVENT_TYPES: Map<String, Class<out ChangeEvent>> = mapOf(
+                TRSConstants.TRS_TYPE_CREATION to Creation::class.java,
+                TRSConstants.TRS_TYPE_MODIFICATION to Modification::class.java,
+                TRSConstants.TRS_TYPE_DELETION to Deletion::class.java)
+
+        private fun startsWith(payload: ByteArray, prefix: ByteArray): Boolean {
+            if (payload.size < prefix.size) {
+                return false
+            }
+            for (i in prefix.indices) {
+                if (payload[i] != prefix[i]) {
+                    return false
+                }
+            }
+            return true
+        }
+
         private fun r(resourceUri: URI): Resource {
             return ResourceFactory.createResource(resourceUri.toString())
         }
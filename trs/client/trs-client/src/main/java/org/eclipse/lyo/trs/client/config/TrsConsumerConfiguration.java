@@ -18,9 +18,10 @@ import com.google.common.base.Strings;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.ws.rs.client.ClientBuilder;
 import org.eclipse.lyo.client.OslcClient;
+import org.eclipse.lyo.trs.client.util.SparqlConnectionPool;
 import org.glassfish.jersey.client.authentication.HttpAuthenticationFeature;
 
-public class TrsConsumerConfiguration {
+public class TrsConsumerConfiguration implements AutoCloseable {
     private final String sparqlQueryUrl;
     private final String sparqlUpdateUrl;
     private final String sparqlUsername;
@@ -28,12 +29,53 @@ public class TrsConsumerConfiguration {
     private final ScheduledExecutorService scheduler;
     private final String basicUsername;
     private final String basicPassword;
+    private final int maxSparqlConnections;
+    private final long sparqlBorrowTimeoutMillis;
+    private final long appliedGraphCacheSize;
     private OslcClient httpClient;
+    private SparqlConnectionPool sparqlConnectionPool;
 
     public TrsConsumerConfiguration(final String sparqlQueryUrl, final String sparqlUpdateUrl,
             final String sparqlUsername, final String sparqlPassword,
             final ScheduledExecutorService scheduler, final String basicUsername,
             final String basicPassword) {
+        this(sparqlQueryUrl, sparqlUpdateUrl, sparqlUsername, sparqlPassword, scheduler,
+                basicUsername, basicPassword, 4, 30_000);
+    }
+
+    /**
+     * @param maxSparqlConnections      maximum number of concurrently open connections to the
+     *                                  triplestore, shared by all provider handlers
+     * @param sparqlBorrowTimeoutMillis how long a handler waits for a free connection
+     */
+    public TrsConsumerConfiguration(final String sparqlQueryUrl, final String sparqlUpdateUrl,
+            final String sparqlUsername, final String sparqlPassword,
+            final ScheduledExecutorService scheduler, final String basicUsername,
+            final String basicPassword, final int maxSparqlConnections,
+            final long sparqlBorrowTimeoutMillis) {
+        this(sparqlQueryUrl, sparqlUpdateUrl, sparqlUsername, sparqlPassword, scheduler,
+                basicUsername, basicPassword, maxSparqlConnections, sparqlBorrowTimeoutMillis, 0);
+    }
+
+    /**
+     * @param maxSparqlConnections      maximum number of concurrently open connections to the
+     *                                  triplestore, shared by all provider handlers
+     * @param sparqlBorrowTimeoutMillis how long a handler waits for a free connection
+     * @param appliedGraphCacheSize     number of resource representations each provider handler
+     *                                  keeps to write modifications as deltas, 0 to always replace
+     *                                  the named graph of a modified resource
+     */
+    public TrsConsumerConfiguration(final String sparqlQueryUrl, final String sparqlUpdateUrl,
+            final String sparqlUsername, final String sparqlPassword,
+            final ScheduledExecutorService scheduler, final String basicUsername,
+            final String basicPassword, final int maxSparqlConnections,
+            final long sparqlBorrowTimeoutMillis, final long appliedGraphCacheSize) {
+        if (appliedGraphCacheSize < 0) {
+            throw new IllegalArgumentException("appliedGraphCacheSize must not be negative");
+        }
+        this.appliedGraphCacheSize = appliedGraphCacheSize;
+        this.maxSparqlConnections = maxSparqlConnections;
+        this.sparqlBorrowTimeoutMillis = sparqlBorrowTimeoutMillis;
         this.sparqlQueryUrl = sparqlQueryUrl;
         this.sparqlUpdateUrl = sparqlUpdateUrl;
         this.sparqlUsername = sparqlUsername;
@@ -63,6 +105,14 @@ public class TrsConsumerConfiguration {
         return sparqlPassword;
     }
 
+    /**
+     * @return the number of resource representations each provider handler keeps to write
+     * modifications as deltas, 0 if modified resources always replace their named graph
+     */
+    public long getAppliedGraphCacheSize() {
+        return appliedGraphCacheSize;
+    }
+
     // TODO Andrew@2019-07-15: create a client factory per domain or something similar
     public OslcClient getHttpClient() {
         if (httpClient == null) {
@@ -74,4 +124,29 @@ public class TrsConsumerConfiguration {
         }
         return httpClient;
     }
+
+    /**
+     * @return the pool of triplestore connections shared by all handlers built from this
+     * configuration, authenticated with the configured SPARQL credentials
+     */
+    public synchronized SparqlConnectionPool getSparqlConnectionPool() {
+        if (sparqlConnectionPool == null) {
+            sparqlConnectionPool = new SparqlConnectionPool(sparqlQueryUrl, sparqlUpdateUrl,
+                    sparqlUsername, sparqlPassword, maxSparqlConnections,
+                    sparqlBorrowTimeoutMillis);
+        }
+        return sparqlConnectionPool;
+    }
+
+    /**
+     * Closes the triplestore connections shared by the handlers built from this configuration.
+     * A later call to {@link #getSparqlConnectionPool()} opens a new pool.
+     */
+    @Override
+    public synchronized void close() {
+        if (sparqlConnectionPool != null) {
+            sparqlConnectionPool.close();
+            sparqlConnectionPool = null;
+        }
+    }
 }
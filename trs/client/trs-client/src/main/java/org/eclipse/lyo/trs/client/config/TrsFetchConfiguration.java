@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.trs.client.config;
+
+/**
+ * Settings for fetching tracked resources from a single TRS provider.
+ */
+public class TrsFetchConfiguration {
+    private final int concurrency;
+    private final double requestsPerSecond;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+
+    /**
+     * @param concurrency          maximum number of resources fetched at the same time
+     * @param requestsPerSecond    sustained request rate allowed against the provider; zero or a
+     *                             negative value disables rate limiting
+     * @param maxRetries           number of retries after a 5xx or 429 response
+     * @param initialBackoffMillis delay before the first retry, doubled on every further retry
+     */
+    public TrsFetchConfiguration(final int concurrency, final double requestsPerSecond,
+            final int maxRetries, final long initialBackoffMillis) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        if (maxRetries < 0 || initialBackoffMillis < 0) {
+            throw new IllegalArgumentException("retry settings must not be negative");
+        }
+        this.concurrency = concurrency;
+        this.requestsPerSecond = requestsPerSecond;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    /**
+     * One request at a time, no rate limiting and no retries.
+     */
+    public static TrsFetchConfiguration sequential() {
+        return new TrsFetchConfiguration(1, 0, 0, 0);
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public boolean isRateLimited() {
+        return requestsPerSecond > 0;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+}
@@ -60,6 +60,14 @@ public class ConcurrentTrsProviderHandler implements IProviderHandler {
         this.handler = handler;
     }
 
+    /**
+     * Closes the event handler.
+     */
+    @Override
+    public void close() {
+        handler.close();
+    }
+
     @Override
     public void update() {
         try {
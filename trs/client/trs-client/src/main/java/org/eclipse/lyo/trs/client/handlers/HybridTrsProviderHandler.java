@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.handlers;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import org.apache.jena.rdf.model.Model;
+import org.eclipse.lyo.core.trs.Base;
+import org.eclipse.lyo.core.trs.ChangeEvent;
+import org.eclipse.lyo.core.trs.ChangeLog;
+import org.eclipse.lyo.core.trs.Deletion;
+import org.eclipse.lyo.core.trs.TrackedResourceSet;
+import org.eclipse.lyo.trs.client.exceptions.ServerRollBackException;
+import org.eclipse.lyo.trs.client.model.BaseMember;
+import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
+import org.eclipse.lyo.trs.client.util.ITrackedResourceClient;
+import org.eclipse.lyo.trs.client.util.ProviderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provider handler that combines pushed change events (e.g. from MQTT) with periodic polling of
+ * the change log.
+ * <p>
+ * Pushed events are applied as soon as they arrive if their {@code trs:order} directly follows
+ * the last processed event. Events that arrive ahead of a missing one are kept aside; once more
+ * than {@code gapTolerance} of them pile up, or on the next {@link #update()}, only the missing
+ * range is fetched from the change log pages and applied before the buffered events. If the
+ * change log does not contain the missing events yet, the pushed events stay buffered and the
+ * gap is filled again on the next {@link #update()}. A full rebase only happens when the change
+ * log no longer contains the last processed event.
+ * <p>
+ * Gap detection assumes the provider assigns consecutive {@code trs:order} values, as the Lyo
+ * TRS server does. With providers that skip values, gaps are filled from the change log on every
+ * {@link #update()} instead, which is still correct but loses some of the push latency.
+ */
+public class HybridTrsProviderHandler implements IProviderHandler, IPushProviderHandler {
+    private final static Logger log = LoggerFactory.getLogger(HybridTrsProviderHandler.class);
+
+    /**
+     * Marks a handler that has not yet processed the base of the provider.
+     */
+    private static final int NOT_INDEXED = Integer.MIN_VALUE;
+
+    private final URI trsUriBase;
+    private final ITrackedResourceClient trsClient;
+    private final IProviderEventHandler handler;
+    private final int gapTolerance;
+
+    /**
+     * Pushed events that arrived before all of their predecessors, keyed by order.
+     */
+    private final TreeMap<Integer, ChangeEventMessageTR> pendingPushes = new TreeMap<>();
+    private int lastProcessedOrder = NOT_INDEXED;
+    private int appliedInCycle = 0;
+    /**
+     * Set when the change log did not contain the events missing before the buffered pushes, so
+     * that they are only fetched again on the next poll rather than on every push.
+     */
+    private boolean gapFillDeferred = false;
+
+    public HybridTrsProviderHandler(URI trsUriBase, final ITrackedResourceClient trsClient,
+            final IProviderEventHandler handler) {
+        this(trsUriBase, trsClient, handler, 16);
+    }
+
+    /**
+     * @param gapTolerance number of out-of-order pushed events to buffer before the missing ones
+     *                     are fetched from the change log
+     */
+    public HybridTrsProviderHandler(URI trsUriBase, final ITrackedResourceClient trsClient,
+            final IProviderEventHandler handler, int gapTolerance) {
+        if (gapTolerance < 0) {
+            throw new IllegalArgumentException("gapTolerance must not be negative");
+        }
+        this.trsUriBase = trsUriBase;
+        this.trsClient = trsClient;
+        this.handler = handler;
+        this.gapTolerance = gapTolerance;
+    }
+
+    /**
+     * Closes the event handler.
+     */
+    @Override
+    public void close() {
+        handler.close();
+    }
+
+    @Override
+    public String toString() {
+        return "HybridTrsProviderHandler{" + "trsUriBase='" + trsUriBase + '\'' + '}';
+    }
+
+    /**
+     * Polls the change log for the events that were not pushed. Performs the initial indexing
+     * when the base has not been processed yet.
+     */
+    @Override
+    public synchronized void update() {
+        try {
+            if (lastProcessedOrder == NOT_INDEXED) {
+                index();
+            } else {
+                gapFillDeferred = false;
+                fillGap(Integer.MAX_VALUE);
+                drainPendingPushes();
+            }
+            finishCycle();
+        } catch (Exception e) {
+            forceRebase(e);
+        }
+    }
+
+    @Override
+    public synchronized void handlePush(final ChangeEventMessageTR eventMessage,
+            final String topic) {
+        final ChangeEvent changeEvent = eventMessage.getChangeEvent();
+        try {
+            if (lastProcessedOrder == NOT_INDEXED) {
+                log.debug("Push received from '{}' before indexing; indexing first", topic);
+                index();
+            }
+            final int order = changeEvent.getOrder();
+            if (order <= lastProcessedOrder) {
+                log.debug("Skipping {}: already processed", changeEvent);
+            } else if (order == lastProcessedOrder + 1) {
+                applyPushed(eventMessage);
+                drainPendingPushes();
+                gapFillDeferred = false;
+            } else {
+                log.debug("Event {} arrived ahead of order {}; buffering", changeEvent,
+                        lastProcessedOrder + 1);
+                pendingPushes.put(order, eventMessage);
+                if (pendingPushes.size() > gapTolerance && !gapFillDeferred) {
+                    if (fillGap(pendingPushes.firstKey())) {
+                        drainPendingPushes();
+                    } else {
+                        log.debug("Change log of {} does not contain the events before order {}"
+                                + " yet; retrying on the next poll", trsUriBase,
+                                pendingPushes.firstKey());
+                        gapFillDeferred = true;
+                    }
+                }
+            }
+            finishCycle();
+        } catch (Exception e) {
+            forceRebase(e);
+        }
+    }
+
+    /**
+     * Processes the base and the change log events that follow its cutoff event.
+     */
+    private void index() {
+        log.info("Indexing TRS Provider: " + trsUriBase);
+        TrackedResourceSet updatedTrs = trsClient.extractRemoteTrs(trsUriBase);
+        List<Base> bases = trsClient.updateBases(updatedTrs);
+        List<URI> baseMembers = new ArrayList<>();
+        for (Base base : bases) {
+            baseMembers.addAll(base.getMembers());
+        }
+        final URI cutoffEvent = bases.get(0).getCutoffEvent();
+
+        List<ChangeEvent> changes = new ArrayList<>();
+        ChangeEvent syncEvent;
+        if (ProviderUtil.isNilUri(cutoffEvent)) {
+            syncEvent = fetchChangesAfter(updatedTrs, e -> false, changes);
+        } else {
+            syncEvent = fetchChangesAfter(updatedTrs, e -> cutoffEvent.equals(e.getAbout()),
+                    changes);
+            if (syncEvent == null) {
+                throw new ServerRollBackException(
+                        "The cutoff event " + cutoffEvent + " can not be found in the change log" +
+                                " of " + trsUriBase);
+            }
+        }
+
+        baseMembers = ProviderUtil.baseChangeEventsOptimizationSafe(changes, baseMembers);
+        for (URI baseMemberUri : baseMembers) {
+            log.debug("Fetching TRS base from {}", baseMemberUri);
+            Model baseResourceModel = trsClient.fetchTRSRemoteResource(baseMemberUri);
+            handler.handleBaseMember(new BaseMember(baseMemberUri, baseResourceModel));
+            appliedInCycle++;
+        }
+
+        lastProcessedOrder = syncEvent != null ? syncEvent.getOrder() : 0;
+        pendingPushes.clear();
+        gapFillDeferred = false;
+        applyFromChangeLog(changes);
+    }
+
+    /**
+     * Fetches and applies the change log events with an order strictly between the last processed
+     * one and {@code upperOrder}. Only the change log pages that hold these events are retrieved.
+     *
+     * @param upperOrder exclusive upper bound of the orders to fetch
+     *
+     * @return true if all the events below {@code upperOrder} have been processed
+     */
+    private boolean fillGap(int upperOrder) {
+        final int fromOrder = lastProcessedOrder;
+        log.debug("Fetching change events after order {} from {}", fromOrder, trsUriBase);
+        TrackedResourceSet updatedTrs = trsClient.extractRemoteTrs(trsUriBase);
+        List<ChangeEvent> changes = new ArrayList<>();
+        ChangeEvent syncEvent = fetchChangesAfter(updatedTrs, e -> e.getOrder() <= fromOrder,
+                changes);
+        if (syncEvent == null && !changes.isEmpty()
+                && changes.get(0).getOrder() > fromOrder + 1) {
+            throw new ServerRollBackException(
+                    "The change log of " + trsUriBase + " no longer contains the events after " +
+                            "order " + fromOrder);
+        }
+        changes.removeIf(e -> e.getOrder() >= upperOrder);
+        applyFromChangeLog(changes);
+        pendingPushes.headMap(lastProcessedOrder, true).clear();
+        return lastProcessedOrder >= upperOrder - 1;
+    }
+
+    /**
+     * Walks the change log pages from the newest one until an event matching {@code isSyncPoint}
+     * is found, collecting all the newer events.
+     *
+     * @param changes list to be filled with the events following the sync point, sorted by order
+     *
+     * @return the sync point event or null if the whole change log was traversed
+     */
+    private ChangeEvent fetchChangesAfter(TrackedResourceSet updatedTrs,
+            Predicate<ChangeEvent> isSyncPoint, List<ChangeEvent> changes) {
+        ChangeEvent syncEvent = null;
+        ChangeLog changeLog = updatedTrs.getChangeLog();
+        while (changeLog != null) {
+            for (ChangeEvent changeEvent : changeLog.getChange()) {
+                if (isSyncPoint.test(changeEvent)) {
+                    if (syncEvent == null || changeEvent.getOrder() > syncEvent.getOrder()) {
+                        syncEvent = changeEvent;
+                    }
+                } else {
+                    changes.add(changeEvent);
+                }
+            }
+            if (syncEvent != null || ProviderUtil.isNilUri(changeLog.getPrevious())) {
+                break;
+            }
+            changeLog = trsClient.fetchRemoteChangeLog(changeLog.getPrevious());
+        }
+        if (syncEvent != null) {
+            final int syncOrder = syncEvent.getOrder();
+            changes.removeIf(e -> e.getOrder() <= syncOrder);
+        }
+        changes.sort(Comparator.comparing(ChangeEvent::getOrder));
+        return syncEvent;
+    }
+
+    private void applyFromChangeLog(List<ChangeEvent> changes) {
+        for (ChangeEvent changeEvent : changes) {
+            if (changeEvent.getOrder() <= lastProcessedOrder) {
+                continue;
+            }
+            Model trsResourceModel = null;
+            if (!(changeEvent instanceof Deletion)) {
+                trsResourceModel = trsClient.fetchTRSRemoteResource(changeEvent.getChanged());
+            }
+            apply(new ChangeEventMessageTR(changeEvent, trsResourceModel));
+        }
+    }
+
+    private void applyPushed(ChangeEventMessageTR eventMessage) {
+        final ChangeEvent changeEvent = eventMessage.getChangeEvent();
+        if (!(changeEvent instanceof Deletion) && eventMessage.getTrackedResourceModel() == null) {
+            Model trsResourceModel = trsClient.fetchTRSRemoteResource(changeEvent.getChanged());
+            eventMessage = new ChangeEventMessageTR(changeEvent, trsResourceModel);
+        }
+        apply(eventMessage);
+    }
+
+    private void drainPendingPushes() {
+        Iterator<Map.Entry<Integer, ChangeEventMessageTR>> iterator =
+                pendingPushes.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, ChangeEventMessageTR> pending = iterator.next();
+            if (pending.getKey() <= lastProcessedOrder) {
+                iterator.remove();
+            } else if (pending.getKey() == lastProcessedOrder + 1) {
+                iterator.remove();
+                applyPushed(pending.getValue());
+            } else {
+                break;
+            }
+        }
+    }
+
+    private void apply(ChangeEventMessageTR eventMessage) {
+        handler.handleChangeEvent(eventMessage);
+        lastProcessedOrder = eventMessage.getChangeEvent().getOrder();
+        appliedInCycle++;
+    }
+
+    private void finishCycle() {
+        if (appliedInCycle > 0) {
+            handler.finishCycle();
+            appliedInCycle = 0;
+        }
+    }
+
+    private void forceRebase(Exception e) {
+        log.warn("Force rebase of {}", trsUriBase, e);
+        lastProcessedOrder = NOT_INDEXED;
+        pendingPushes.clear();
+        gapFillDeferred = false;
+        appliedInCycle = 0;
+        handler.rebase();
+    }
+}
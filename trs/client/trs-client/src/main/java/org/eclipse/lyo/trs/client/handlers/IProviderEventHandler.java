@@ -17,7 +17,7 @@ package org.eclipse.lyo.trs.client.handlers;
 import org.eclipse.lyo.trs.client.model.BaseMember;
 import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
 
-public interface IProviderEventHandler {
+public interface IProviderEventHandler extends AutoCloseable {
     void finishCycle();
 
     void handleBaseMember(BaseMember baseMember);
@@ -25,4 +25,12 @@ public interface IProviderEventHandler {
     void handleChangeEvent(ChangeEventMessageTR eventMessageTR);
 
     void rebase();
+
+    /**
+     * Releases the triplestore connections opened by the handler. The handler must not be used
+     * afterwards.
+     */
+    @Override
+    default void close() {
+    }
 }
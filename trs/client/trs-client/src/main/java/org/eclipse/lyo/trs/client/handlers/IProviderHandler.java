@@ -16,6 +16,14 @@ package org.eclipse.lyo.trs.client.handlers;
 
 import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
 
-public interface IProviderHandler {
+public interface IProviderHandler extends AutoCloseable {
     void update();
+
+    /**
+     * Releases the resources held by the handler, such as fetcher threads. The handler must not
+     * be updated afterwards.
+     */
+    @Override
+    default void close() {
+    }
 }
@@ -23,11 +23,13 @@ import org.eclipse.lyo.core.trs.ChangeEvent;
 import org.eclipse.lyo.core.trs.ChangeLog;
 import org.eclipse.lyo.core.trs.Deletion;
 import org.eclipse.lyo.core.trs.TrackedResourceSet;
+import org.eclipse.lyo.trs.client.config.TrsFetchConfiguration;
 import org.eclipse.lyo.trs.client.exceptions.ServerRollBackException;
 import org.eclipse.lyo.trs.client.model.BaseMember;
 import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
 import org.eclipse.lyo.trs.client.util.ITrackedResourceClient;
 import org.eclipse.lyo.trs.client.util.ProviderUtil;
+import org.eclipse.lyo.trs.client.util.TrackedResourceFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,6 +47,7 @@ public class TrsProviderHandler implements IProviderHandler {
 
     private final ITrackedResourceClient trsClient;
     private final IProviderEventHandler handler;
+    private final TrackedResourceFetcher fetcher;
     /**
      * The URI of the last processed change event
      */
@@ -56,9 +59,29 @@ public class TrsProviderHandler implements IProviderHandler {
 
     public TrsProviderHandler(URI trsUriBase, final ITrackedResourceClient trsClient,
             final IProviderEventHandler handler) {
+        this(trsUriBase, trsClient, handler, TrsFetchConfiguration.sequential());
+    }
+
+    /**
+     * @param fetchConfig controls how many base members and changed resources are fetched in
+     *                    parallel and how fast requests may be sent to the provider
+     */
+    public TrsProviderHandler(URI trsUriBase, final ITrackedResourceClient trsClient,
+            final IProviderEventHandler handler, final TrsFetchConfiguration fetchConfig) {
         this.trsUriBase = trsUriBase;
         this.trsClient = trsClient;
         this.handler = handler;
+        this.fetcher = new TrackedResourceFetcher(trsClient, fetchConfig);
+    }
+
+    /**
+     * Stops the threads fetching tracked resources from the provider and closes the event
+     * handler.
+     */
+    @Override
+    public void close() {
+        fetcher.close();
+        handler.close();
     }
 
     @Override
@@ -89,17 +112,13 @@ public class TrsProviderHandler implements IProviderHandler {
      * Create the necessary sparql update for processing the change events and
      * send it to the sparql update service
      *
-     * @param changeEvent the change event to be processed
+     * @param changeEvent      the change event to be processed
+     * @param trsResourceModel the representation of the changed resource, null for deletions
      */
-    private void processChangeEvent(ChangeEvent changeEvent) {
+    private void processChangeEvent(ChangeEvent changeEvent, Model trsResourceModel) {
         URI changed = changeEvent.getChanged();
         log.info("processing resource " + changed.toString() + " change event ");
 
-        Model trsResourceModel = null;
-        if (!(changeEvent instanceof Deletion)) {
-            trsResourceModel = trsClient.fetchTRSRemoteResource(changed);
-        }
-
         final ChangeEventMessageTR eventMessageTR = new ChangeEventMessageTR(changeEvent,
                 trsResourceModel);
 
@@ -170,27 +189,27 @@ public class TrsProviderHandler implements IProviderHandler {
             baseMembers = ProviderUtil.baseChangeEventsOptimizationSafe(compressedChanges,
                     baseMembers);
 
-            for (URI baseMemberUri : baseMembers) {
-                log.debug("Fetching TRS base from {}", baseMemberUri);
-                Model baseResourceModel = trsClient.fetchTRSRemoteResource(baseMemberUri);
+            log.debug("Fetching {} TRS base members", baseMembers.size());
+            fetcher.fetchOrdered(baseMembers, uri -> uri, (baseMemberUri, baseResourceModel) -> {
                 log.debug("Processing base member '{}' creation event", baseMemberUri);
                 final BaseMember baseMember = new BaseMember(baseMemberUri, baseResourceModel);
                 handler.handleBaseMember(baseMember);
 
                 // actually it is possible to generate a Creation event per resource in base!
                 log.trace("Finished processing base member '{}' creation event", baseMemberUri);
-
-            }
+            });
         }
 
-        for (ChangeEvent changeEvent : compressedChanges) {
-            try {
-                processChangeEvent(changeEvent);
-                lastProcessedChangeEventUri = changeEvent.getAbout();
-            } catch (Exception e) {
-                log.error("Error processing {}: ", changeEvent, e);
-                return;
-            }
+        try {
+            fetcher.fetchOrdered(compressedChanges,
+                    changeEvent -> changeEvent instanceof Deletion ? null : changeEvent.getChanged(),
+                    (changeEvent, trsResourceModel) -> {
+                        processChangeEvent(changeEvent, trsResourceModel);
+                        lastProcessedChangeEventUri = changeEvent.getAbout();
+                    });
+        } catch (Exception e) {
+            log.error("Error processing change events after {}: ", lastProcessedChangeEventUri, e);
+            return;
         }
 
         handler.finishCycle();
@@ -1,12 +1,17 @@
 package org.eclipse.lyo.trs.client.handlers.sparql;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.jena.rdf.model.Model;
 import org.eclipse.lyo.core.trs.ChangeEvent;
 import org.eclipse.lyo.core.trs.Deletion;
 import org.eclipse.lyo.trs.client.handlers.IProviderEventHandler;
 import org.eclipse.lyo.trs.client.model.BaseMember;
 import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
+import org.eclipse.lyo.trs.client.util.AppliedGraphCache;
+import org.eclipse.lyo.trs.client.util.SparqlConnectionPool;
 import org.eclipse.lyo.trs.client.util.SparqlUtil;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -16,29 +21,95 @@ public class SparqlBatchingHandler implements IProviderEventHandler {
     private final static Logger log = LoggerFactory.getLogger(
             SparqlBatchingHandler.class);
 
+    private final static long BORROW_TIMEOUT_MILLIS = 30_000;
+
     private final List<String> queries = new ArrayList<>();
-    private final String sparqlUpdateService;
-    private final String sparql_baseAuth_userName;
-    private final String sparql_baseAuth_pwd;
+    /**
+     * Representations written by the queued queries, recorded in {@link #appliedGraphs} once the
+     * queries have been sent successfully. A null value stands for a deleted resource.
+     */
+    private final Map<String, Model> pendingGraphs = new LinkedHashMap<>();
+    private final AppliedGraphCache appliedGraphs;
+    private final SparqlConnectionPool connectionPool;
+    /**
+     * Whether {@link #connectionPool} was opened by this handler and is closed with it.
+     */
+    private final boolean ownsConnectionPool;
 
     public SparqlBatchingHandler(final String sparqlUpdateService,
             final String sparql_baseAuth_userName, final String sparql_baseAuth_pwd) {
-        this.sparqlUpdateService = sparqlUpdateService;
-        this.sparql_baseAuth_userName = sparql_baseAuth_userName;
-        this.sparql_baseAuth_pwd = sparql_baseAuth_pwd;
+        this(sparqlUpdateService, sparql_baseAuth_userName, sparql_baseAuth_pwd, null);
+    }
+
+    /**
+     * @param connectionPool pool the batched updates are sent through
+     * @param appliedGraphs  if not null, modifications of cached resources are written as deltas
+     *                       and unchanged resources are not written at all
+     */
+    public SparqlBatchingHandler(final SparqlConnectionPool connectionPool,
+            final AppliedGraphCache appliedGraphs) {
+        this(connectionPool, false, appliedGraphs);
+    }
+
+    /**
+     * Sends the batched updates through a connection opened by this handler and released by
+     * {@link #close()}.
+     *
+     * @param appliedGraphs if not null, modifications of cached resources are written as deltas
+     *                      and unchanged resources are not written at all
+     */
+    public SparqlBatchingHandler(final String sparqlUpdateService,
+            final String sparql_baseAuth_userName, final String sparql_baseAuth_pwd,
+            final AppliedGraphCache appliedGraphs) {
+        this(new SparqlConnectionPool(sparqlUpdateService, sparqlUpdateService,
+                sparql_baseAuth_userName, sparql_baseAuth_pwd, 1, BORROW_TIMEOUT_MILLIS), true,
+                appliedGraphs);
+    }
+
+    private SparqlBatchingHandler(final SparqlConnectionPool connectionPool,
+            final boolean ownsConnectionPool, final AppliedGraphCache appliedGraphs) {
+        this.appliedGraphs = appliedGraphs;
+        this.connectionPool = connectionPool;
+        this.ownsConnectionPool = ownsConnectionPool;
     }
 
     @Override
     public void finishCycle() {
         log.debug("number of processed queries: " + queries.size());
+        if (queries.isEmpty()) {
+            return;
+        }
         String finalQueryString = buildYugeQuery(queries);
         log.debug("sending Update SPARQL Query to server");
 
-        SparqlUtil.processQuery_sesame(finalQueryString, sparqlUpdateService,
-                sparql_baseAuth_userName, sparql_baseAuth_pwd);
+        try {
+            processQuery(finalQueryString);
+        } catch (RuntimeException e) {
+            // the graphs written by the batch are in an unknown state now
+            for (String namedGraphUrl : pendingGraphs.keySet()) {
+                appliedGraphs.removed(namedGraphUrl);
+            }
+            pendingGraphs.clear();
+            throw e;
+        }
         log.debug("Update SPARQL Queries successful!");
 
         queries.clear();
+        for (Map.Entry<String, Model> graph : pendingGraphs.entrySet()) {
+            if (graph.getValue() != null) {
+                appliedGraphs.applied(graph.getKey(), graph.getValue());
+            } else {
+                appliedGraphs.removed(graph.getKey());
+            }
+        }
+        pendingGraphs.clear();
+    }
+
+    /**
+     * Sends a sparql update to the triplestore.
+     */
+    void processQuery(final String query) {
+        connectionPool.update(query);
     }
 
     @Override
@@ -51,6 +122,9 @@ public class SparqlBatchingHandler implements IProviderEventHandler {
         query.append("; \n");
         query.append(addTriplesToGraphQuery);
         queries.add(query.toString());
+        if (appliedGraphs != null) {
+            pendingGraphs.put(baseMember.getUri().toString(), baseMember.getModel());
+        }
     }
 
     @Override
@@ -58,7 +132,18 @@ public class SparqlBatchingHandler implements IProviderEventHandler {
         final ChangeEvent event = eventMessageTR.getChangeEvent();
         log.debug(
                 "creating query for resource " + event.getChanged().toString() + " change event ");
-        if (event instanceof Deletion) {
+        if (appliedGraphs != null) {
+            final String target = event.getChanged().toString();
+            final Model model = eventMessageTR.getTrackedResourceModel();
+            // an earlier event of the same batch may not have been sent yet
+            final Model previous = pendingGraphs.containsKey(target) ? pendingGraphs.get(target)
+                    : appliedGraphs.getApplied(target);
+            String query = SparqlUtil.getChangeEventQuery(event, model, previous);
+            if (!query.isEmpty()) {
+                queries.add(query);
+            }
+            pendingGraphs.put(target, event instanceof Deletion ? null : model);
+        } else if (event instanceof Deletion) {
             String query = SparqlUtil.getChangeEventQuery(event, null);
             queries.add(query);
         } else {
@@ -71,6 +156,21 @@ public class SparqlBatchingHandler implements IProviderEventHandler {
     @Override
     public void rebase() {
         log.warn("Rebase");
+        if (appliedGraphs != null) {
+            pendingGraphs.clear();
+            appliedGraphs.clear();
+        }
+    }
+
+    /**
+     * Closes the connection pool if it was opened by this handler; a pool passed to the
+     * handler is left open for the other handlers sharing it.
+     */
+    @Override
+    public void close() {
+        if (ownsConnectionPool) {
+            connectionPool.close();
+        }
     }
 
     @NotNull
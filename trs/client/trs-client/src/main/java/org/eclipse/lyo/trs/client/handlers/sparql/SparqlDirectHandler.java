@@ -20,6 +20,8 @@ import org.eclipse.lyo.core.trs.Deletion;
 import org.eclipse.lyo.trs.client.handlers.IProviderEventHandler;
 import org.eclipse.lyo.trs.client.model.BaseMember;
 import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
+import org.eclipse.lyo.trs.client.util.AppliedGraphCache;
+import org.eclipse.lyo.trs.client.util.SparqlConnectionPool;
 import org.eclipse.lyo.trs.client.util.SparqlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,9 +30,34 @@ public class SparqlDirectHandler implements IProviderEventHandler {
 
     private final static Logger log = LoggerFactory.getLogger(SparqlDirectHandler.class);
     private final String sparqlUpdateService;
+    private final SparqlConnectionPool connectionPool;
+    private final AppliedGraphCache appliedGraphs;
 
     public SparqlDirectHandler(
-            final String sparqlUpdateService) {this.sparqlUpdateService = sparqlUpdateService;}
+            final String sparqlUpdateService) {this(sparqlUpdateService, null);}
+
+    /**
+     * @param appliedGraphs if not null, modifications of cached resources are written as deltas
+     *                      and unchanged resources are not written at all
+     */
+    public SparqlDirectHandler(final String sparqlUpdateService,
+            final AppliedGraphCache appliedGraphs) {
+        this.sparqlUpdateService = sparqlUpdateService;
+        this.connectionPool = null;
+        this.appliedGraphs = appliedGraphs;
+    }
+
+    /**
+     * @param connectionPool pool the updates are sent through
+     * @param appliedGraphs  if not null, modifications of cached resources are written as deltas
+     *                       and unchanged resources are not written at all
+     */
+    public SparqlDirectHandler(final SparqlConnectionPool connectionPool,
+            final AppliedGraphCache appliedGraphs) {
+        this.sparqlUpdateService = null;
+        this.connectionPool = connectionPool;
+        this.appliedGraphs = appliedGraphs;
+    }
 
     @Override
     public void finishCycle() {
@@ -39,27 +66,49 @@ public class SparqlDirectHandler implements IProviderEventHandler {
 
     @Override
     public void handleBaseMember(final BaseMember baseMember) {
-        SparqlUtil.createGraph(baseMember.getUri().toString(), sparqlUpdateService);
-        SparqlUtil.addTriplesToNamedGraph(baseMember.getModel(), baseMember.getUri().toString(),
-                sparqlUpdateService);
+        processQuery(SparqlUtil.createGraphQuery(baseMember.getUri()) + "; \n"
+                + SparqlUtil.addTriplesToGraphQuery(baseMember.getUri(), baseMember.getModel()));
+        if (appliedGraphs != null) {
+            appliedGraphs.applied(baseMember.getUri().toString(), baseMember.getModel());
+        }
     }
 
     @Override
     public void handleChangeEvent(final ChangeEventMessageTR eventMessageTR) {
         final ChangeEvent changeEvent = eventMessageTR.getChangeEvent();
         final Model trsResourceModel = eventMessageTR.getTrackedResourceModel();
-        if (changeEvent instanceof Deletion) {
-            SparqlUtil.processChangeEvent(changeEvent, null, sparqlUpdateService);
+        if (appliedGraphs != null && (changeEvent instanceof Deletion || trsResourceModel != null)) {
+            final String query = SparqlUtil.getChangeEventQuery(changeEvent, trsResourceModel,
+                    appliedGraphs);
+            if (!query.isEmpty()) {
+                processQuery(query);
+            }
+            appliedGraphs.applied(changeEvent, trsResourceModel);
+        } else if (changeEvent instanceof Deletion) {
+            processQuery(SparqlUtil.getChangeEventQuery(changeEvent, null));
         } else {
             if (trsResourceModel != null) {
-                SparqlUtil.processChangeEvent(changeEvent, trsResourceModel, sparqlUpdateService);
+                processQuery(SparqlUtil.getChangeEventQuery(changeEvent, trsResourceModel));
             }
         }
 
     }
 
+    /**
+     * Sends a sparql update to the update service.
+     */
+    void processQuery(final String query) {
+        if (connectionPool != null) {
+            connectionPool.update(query);
+        } else {
+            SparqlUtil.processQuery(query, sparqlUpdateService);
+        }
+    }
+
     @Override
     public void rebase() {
-
+        if (appliedGraphs != null) {
+            appliedGraphs.clear();
+        }
     }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.trs.client.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.eclipse.lyo.core.trs.ChangeEvent;
+import org.eclipse.lyo.core.trs.Deletion;
+
+/**
+ * Remembers the representation last written to each named graph of the triplestore so that a
+ * later modification of the same resource can be written as a delta instead of replacing the
+ * whole graph. Only the most recently used graphs are kept; a graph that is not in the cache is
+ * simply replaced in full.
+ * <p>
+ * The cache must only be used by a consumer that is the sole writer of the graphs and has to be
+ * cleared whenever the triplestore may have diverged from it, e.g. on a rebase.
+ */
+public class AppliedGraphCache {
+    private final Cache<String, Model> graphs;
+
+    /**
+     * @param maximumGraphs maximum number of graph representations to keep in memory
+     */
+    public AppliedGraphCache(final long maximumGraphs) {
+        this.graphs = CacheBuilder.newBuilder().maximumSize(maximumGraphs).build();
+    }
+
+    /**
+     * @return the representation last written to the graph or null if it is not known
+     */
+    public Model getApplied(final String namedGraphUrl) {
+        return graphs.getIfPresent(namedGraphUrl);
+    }
+
+    /**
+     * Records the representation written to the graph. The model is copied, so the caller may
+     * keep modifying it.
+     */
+    public void applied(final String namedGraphUrl, final Model model) {
+        final Model snapshot = ModelFactory.createDefaultModel();
+        snapshot.add(model);
+        graphs.put(namedGraphUrl, snapshot);
+    }
+
+    /**
+     * Records the result of a change event that has been written to the triplestore.
+     *
+     * @param model the updated representation of the changed resource, ignored for deletions
+     */
+    public void applied(final ChangeEvent changeEvent, final Model model) {
+        final String namedGraphUrl = changeEvent.getChanged().toString();
+        if (changeEvent instanceof Deletion) {
+            removed(namedGraphUrl);
+        } else {
+            applied(namedGraphUrl, model);
+        }
+    }
+
+    public void removed(final String namedGraphUrl) {
+        graphs.invalidate(namedGraphUrl);
+    }
+
+    public void clear() {
+        graphs.invalidateAll();
+    }
+}
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 class ClientUtil {
 
     private final static Logger log = LoggerFactory.getLogger(ClientUtil.class);
+    private final static int HTTP_TOO_MANY_REQUESTS = 429;
 
     /**
      * extract the change log projo from the rdf model of the change log
@@ -146,7 +147,10 @@ class ClientUtil {
             throws TrsEndpointConfigException, TrsEndpointErrorException, LyoModelException {
         final Response.StatusType responseInfo = response.getStatusInfo();
         final Response.Status.Family httpCodeType = responseInfo.getFamily();
-        if (httpCodeType.equals(Response.Status.Family.CLIENT_ERROR)) {
+        if (responseInfo.getStatusCode() == HTTP_TOO_MANY_REQUESTS) {
+            // the provider is throttling us, the request itself is fine and may be retried
+            throw new TrsEndpointErrorException("Error " + responseInfo.getReasonPhrase());
+        } else if (httpCodeType.equals(Response.Status.Family.CLIENT_ERROR)) {
 //            TODO these are not TRS exceptions but OSLC Client exceptions
             throw new TrsEndpointConfigException("Error " + responseInfo.getReasonPhrase());
         } else if (httpCodeType.equals(Response.Status.Family.SERVER_ERROR)) {
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.trs.client.util;
+
+import com.google.common.base.Strings;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sparql.SPARQLRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps one initialised {@link SPARQLRepository} per triplestore and reuses its connections
+ * across update cycles and provider handlers, instead of setting up a new repository for every
+ * batch of updates.
+ * <p>
+ * At most {@code maxConnections} connections are open at the same time; callers wait up to
+ * {@code borrowTimeoutMillis} for one to become available. Idle connections that were closed
+ * underneath the pool are discarded when borrowed.
+ */
+public class SparqlConnectionPool implements AutoCloseable {
+    private final static Logger log = LoggerFactory.getLogger(SparqlConnectionPool.class);
+
+    private final Repository repository;
+    private final BlockingQueue<RepositoryConnection> idle;
+    private final Semaphore permits;
+    private final long borrowTimeoutMillis;
+    private volatile boolean closed = false;
+
+    /**
+     * @param queryEndpoint  SPARQL query endpoint
+     * @param updateEndpoint SPARQL update endpoint
+     * @param user           username for basic authentication, ignored if null or empty
+     * @param pwd            password for basic authentication
+     */
+    public SparqlConnectionPool(final String queryEndpoint, final String updateEndpoint,
+            final String user, final String pwd, final int maxConnections,
+            final long borrowTimeoutMillis) {
+        this(sparqlRepository(queryEndpoint, updateEndpoint, user, pwd), maxConnections,
+                borrowTimeoutMillis);
+    }
+
+    /**
+     * @param repository initialised repository whose connections are pooled
+     */
+    SparqlConnectionPool(final Repository repository, final int maxConnections,
+            final long borrowTimeoutMillis) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be at least 1");
+        }
+        this.repository = repository;
+        this.idle = new LinkedBlockingQueue<>(maxConnections);
+        this.permits = new Semaphore(maxConnections, true);
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    private static Repository sparqlRepository(final String queryEndpoint,
+            final String updateEndpoint, final String user, final String pwd) {
+        final SPARQLRepository repository = new SPARQLRepository(queryEndpoint, updateEndpoint);
+        if (!Strings.isNullOrEmpty(user)) {
+            repository.setUsernameAndPassword(user, pwd);
+        }
+        repository.initialize();
+        return repository;
+    }
+
+    /**
+     * Runs {@code action} with a pooled connection and returns the connection to the pool
+     * afterwards. A connection on which the action failed is closed rather than reused.
+     */
+    public <T> T withConnection(final Function<RepositoryConnection, T> action) {
+        final RepositoryConnection conn = borrow();
+        boolean healthy = false;
+        try {
+            final T result = action.apply(conn);
+            healthy = true;
+            return result;
+        } finally {
+            release(conn, healthy);
+        }
+    }
+
+    /**
+     * Executes a SPARQL update on a pooled connection.
+     */
+    public void update(final String query) {
+        withConnection(conn -> {
+            conn.prepareUpdate(QueryLanguage.SPARQL, query).execute();
+            return null;
+        });
+    }
+
+    /**
+     * Checks that the query endpoint answers a trivial query.
+     *
+     * @return true if the triplestore is reachable with the configured credentials
+     */
+    public boolean isHealthy() {
+        try {
+            return withConnection(conn -> {
+                conn.prepareBooleanQuery(QueryLanguage.SPARQL, "ASK {}").evaluate();
+                return true;
+            });
+        } catch (RuntimeException e) {
+            log.warn("SPARQL endpoint health check failed", e);
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        RepositoryConnection conn;
+        while ((conn = idle.poll()) != null) {
+            closeQuietly(conn);
+        }
+        repository.shutDown();
+    }
+
+    private RepositoryConnection borrow() {
+        if (closed) {
+            throw new IllegalStateException("SPARQL connection pool is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RepositoryException(
+                        "No SPARQL connection became available within " + borrowTimeoutMillis +
+                                " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for a SPARQL connection", e);
+        }
+        try {
+            RepositoryConnection conn;
+            while ((conn = idle.poll()) != null) {
+                if (conn.isOpen()) {
+                    return conn;
+                }
+                log.debug("Discarding a closed SPARQL connection");
+            }
+            return repository.getConnection();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(final RepositoryConnection conn, final boolean healthy) {
+        try {
+            if (!healthy || closed || !conn.isOpen() || !idle.offer(conn)) {
+                closeQuietly(conn);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void closeQuietly(final RepositoryConnection conn) {
+        try {
+            conn.close();
+        } catch (RepositoryException e) {
+            log.debug("Error closing a SPARQL connection", e);
+        }
+    }
+}
@@ -16,6 +16,8 @@ package org.eclipse.lyo.trs.client.util;
 import java.io.IOException;
 import java.net.URI;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.update.UpdateExecutionFactory;
 import org.apache.jena.update.UpdateFactory;
 import org.apache.jena.update.UpdateProcessor;
@@ -166,6 +168,133 @@ public class SparqlUtil {
 
     }
 
+    /**
+     * For a change event return a sparql update relfecting the change event.
+     * Modifications of resources whose previous representation is in the
+     * cache are written as a delta. The cache is not modified; the caller
+     * records the change with {@link AppliedGraphCache#applied(ChangeEvent,
+     * Model)} once the update has been executed successfully.
+     *
+     * @param changeEvent
+     *            the change event for which the sparql update is created
+     * @param model
+     *            the rdf model corresponding to the updated representation of
+     *            the changed resource if applicable ( no rdf model is needed
+     *            for a deletion event)
+     * @param appliedGraphs
+     *            the representations last written to the triplestore
+     * @return the sparql update or an empty string if the triplestore is
+     *         already up to date
+     */
+    static public String getChangeEventQuery(ChangeEvent changeEvent, Model model,
+            AppliedGraphCache appliedGraphs) {
+        return getChangeEventQuery(changeEvent, model,
+                appliedGraphs.getApplied(changeEvent.getChanged().toString()));
+    }
+
+    /**
+     * For a change event return a sparql update relfecting the change event.
+     * Modifications of resources whose previous representation is known are
+     * written as a delta.
+     *
+     * @param changeEvent
+     *            the change event for which the sparql update is created
+     * @param model
+     *            the rdf model corresponding to the updated representation of
+     *            the changed resource if applicable ( no rdf model is needed
+     *            for a deletion event)
+     * @param previous
+     *            the representation currently stored in the named graph of
+     *            the changed resource or null if it is not known
+     * @return the sparql update or an empty string if the triplestore is
+     *         already up to date
+     */
+    static public String getChangeEventQuery(ChangeEvent changeEvent, Model model,
+            Model previous) {
+        if (changeEvent instanceof Modification && previous != null) {
+            return getModificationDeltaQuery(changeEvent.getChanged().toString(), previous,
+                    model);
+        }
+        return getChangeEventQuery(changeEvent, model);
+    }
+
+    /**
+     * Return a sparql update turning the previous representation of a
+     * resource stored in the named graph into the updated one by deleting and
+     * inserting only the statements that differ. Representations containing
+     * blank nodes cannot be compared statement by statement, for them the
+     * whole graph is replaced.
+     *
+     * @param namedGraphUrl
+     *            the named graph holding the representation of the resource
+     * @param previous
+     *            the representation currently stored in the named graph
+     * @param model
+     *            the updated representation
+     * @return the sparql update or an empty string if the representations
+     *         are equal
+     */
+    static public String getModificationDeltaQuery(String namedGraphUrl, Model previous,
+            Model model) {
+        if (hasBlankNodes(previous) || hasBlankNodes(model)) {
+            return getModificationEventQuery(namedGraphUrl, model);
+        }
+        Model removed = previous.difference(model);
+        Model added = model.difference(previous);
+        if (removed.isEmpty() && added.isEmpty()) {
+            logger.debug("representation stored in graph {} is up to date", namedGraphUrl);
+            return "";
+        }
+
+        String result = "";
+        if (!removed.isEmpty()) {
+            result = result.concat(removeTriplesFromGraphQuery(namedGraphUrl, removed));
+        }
+        if (!added.isEmpty()) {
+            result = appendSparqldQuery(result, addTriplesToGraphQuery(namedGraphUrl, added));
+        }
+        return result;
+    }
+
+    /**
+     * Gets an rdf model and a named graph as arguments and returns a sparql
+     * query for removing the statements of the rdf model from the named graph
+     *
+     * @param namedGraphUrl
+     *            named graph from which the statements shall be removed
+     * @param jenaModel
+     *            the statements to be removed, must not contain blank nodes
+     * @return the sparql update
+     */
+    static public String removeTriplesFromGraphQuery(String namedGraphUrl, Model jenaModel) {
+        try {
+            String triples = RdfUtil.modelToNTriple(jenaModel);
+            String query = "DELETE DATA" + "\n" + "{" + "\n" + "  GRAPH" + " " + "<" + namedGraphUrl + ">" + "\n"
+                    + "{" + "\n" + triples + "\n" + "}" + "\n" + "}";
+            logger.debug("query for removal of triples from graph: " + namedGraphUrl);
+            logger.debug(query);
+            return query;
+        } catch (IOException e) {
+            logger.error("Cannot append triples from the model to the query", e);
+            return null;
+        }
+    }
+
+    private static boolean hasBlankNodes(Model model) {
+        StmtIterator statements = model.listStatements();
+        try {
+            while (statements.hasNext()) {
+                Statement statement = statements.next();
+                if (statement.getSubject().isAnon() || statement.getObject().isAnon()) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            statements.close();
+        }
+    }
+
     /**
      * For a modification event return a sparql update relfecting the change
      * event.
@@ -178,8 +307,11 @@ public class SparqlUtil {
      * @return the sparql update
      */
     static public String getModificationEventQuery(ChangeEvent changeEvent, Model model) {
+        return getModificationEventQuery(changeEvent.getChanged().toString(), model);
+    }
+
+    private static String getModificationEventQuery(String changeEventTarget, Model model) {
         String result = "";
-        String changeEventTarget = changeEvent.getChanged().toString();
         String dropGraphQuery = dropGraphQuery(changeEventTarget);
         String addGraphQuery = createGraphQuery(changeEventTarget);
         String addTriplesToNamedGraphQuery = addTriplesToGraphQuery(changeEventTarget, model);
@@ -395,10 +527,35 @@ public class SparqlUtil {
      */
     static public void processQuery_sesame(String query, String serviceUrl, String user, String pwd) {
         SPARQLRepository repo = new SPARQLRepository(serviceUrl);
-        repo.setUsernameAndPassword(user, pwd);
+        if (user != null && !user.isEmpty()) {
+            repo.setUsernameAndPassword(user, pwd);
+        }
         repo.initialize();
-        RepositoryConnection rc = repo.getConnection();
-        processQuery_sesame(query, rc);
+        try {
+            RepositoryConnection rc = repo.getConnection();
+            try {
+                processQuery_sesame(query, rc);
+            } finally {
+                rc.close();
+            }
+        } finally {
+            repo.shutDown();
+        }
+    }
+
+    /**
+     * Send the given sparql update to the sparql update service through a
+     * pooled connection. Prefer this over
+     * {@link #processQuery_sesame(String, String, String, String)} when
+     * updates are sent repeatedly.
+     *
+     * @param query
+     *            sparql update to be processed
+     * @param pool
+     *            the connection pool of the triplestore
+     */
+    static public void processQuery_sesame(String query, SparqlConnectionPool pool) {
+        pool.update(query);
     }
 
     /**
@@ -431,7 +588,7 @@ public class SparqlUtil {
     public static RepositoryConnection getRepoConnection(String queryEndpoint, String user, String pwd) {
         SPARQLRepository repo = new SPARQLRepository(queryEndpoint);
         if (user != null && pwd != null && !user.isEmpty() && !pwd.isEmpty()) {
-            repo.setUsernameAndPassword("okacimi", "nohheis4ae");
+            repo.setUsernameAndPassword(user, pwd);
         }
         repo.initialize();
         try {
@@ -492,7 +649,7 @@ public class SparqlUtil {
      * @return the result of the querie's evaluation
      */
     public static TupleQueryResult evalQuery(String queryEndpoint, String user, String pwd, String query) {
-        RepositoryConnection conn = getRepoConnection(queryEndpoint, user, pwd, query);
+        RepositoryConnection conn = getRepoConnection(queryEndpoint, user, pwd);
         TupleQueryResult result = null;
         try {
 
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.trs.client.util;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import javax.ws.rs.ProcessingException;
+import org.apache.jena.rdf.model.Model;
+import org.eclipse.lyo.trs.client.config.TrsFetchConfiguration;
+import org.eclipse.lyo.trs.client.exceptions.RepresentationRetrievalException;
+import org.eclipse.lyo.trs.client.exceptions.TrsEndpointErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fetches tracked resources from one TRS provider in parallel while respecting the request rate
+ * allowed by the provider. Transient failures (5xx and 429 responses, I/O errors) are retried
+ * with exponential backoff. Fetched representations are handed off in the order the resources
+ * were requested.
+ */
+public class TrackedResourceFetcher implements AutoCloseable {
+    private final static Logger log = LoggerFactory.getLogger(TrackedResourceFetcher.class);
+    private final static AtomicInteger fetcherCount = new AtomicInteger();
+
+    private final ITrackedResourceClient trsClient;
+    private final TrsFetchConfiguration config;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final ExecutorService executor;
+
+    public TrackedResourceFetcher(final ITrackedResourceClient trsClient,
+            final TrsFetchConfiguration config) {
+        this.trsClient = trsClient;
+        this.config = config;
+        this.rateLimiter = config.isRateLimited() ? new TokenBucketRateLimiter(
+                config.getRequestsPerSecond(), config.getConcurrency()) : null;
+        if (config.getConcurrency() > 1) {
+            final int fetcherId = fetcherCount.incrementAndGet();
+            final AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(config.getConcurrency(), r -> {
+                Thread thread = new Thread(r,
+                        "trs-fetch-" + fetcherId + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+    }
+
+    /**
+     * Fetches a single resource, waiting for the rate limiter and retrying transient failures.
+     */
+    public Model fetch(final URI uri) throws RepresentationRetrievalException {
+        int attempt = 0;
+        while (true) {
+            try {
+                if (rateLimiter != null) {
+                    rateLimiter.acquire();
+                }
+                return trsClient.fetchTRSRemoteResource(uri);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RepresentationRetrievalException("Interrupted while fetching " + uri, e);
+            } catch (RuntimeException e) {
+                if (attempt >= config.getMaxRetries() || !isTransient(e)) {
+                    throw e;
+                }
+                final long backoff = backoffMillis(attempt++);
+                log.debug("Retrying {} in {} ms after a transient failure", uri, backoff);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new RepresentationRetrievalException("Interrupted while fetching " + uri,
+                            ie);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fetches the representations of {@code items} concurrently and passes each of them to
+     * {@code consumer} on the calling thread, in iteration order. At most twice the configured
+     * concurrency of representations are held in memory at any time.
+     *
+     * @param uriOf    maps an item to the URI to fetch, or to null if nothing shall be fetched
+     *                 (the consumer then receives a null model)
+     * @param consumer receives every item with its representation
+     *
+     * @throws RepresentationRetrievalException if a representation could not be fetched; items
+     *                                          following the failed one are not consumed
+     */
+    public <T> void fetchOrdered(final Iterable<T> items, final Function<T, URI> uriOf,
+            final BiConsumer<T, Model> consumer) throws RepresentationRetrievalException {
+        if (executor == null) {
+            for (T item : items) {
+                final URI uri = uriOf.apply(item);
+                consumer.accept(item, uri != null ? fetch(uri) : null);
+            }
+            return;
+        }
+
+        final int window = config.getConcurrency() * 2;
+        final Deque<T> pendingItems = new ArrayDeque<>(window);
+        final Deque<Future<Model>> pendingFetches = new ArrayDeque<>(window);
+        final Iterator<T> iterator = items.iterator();
+        try {
+            while (iterator.hasNext() || !pendingItems.isEmpty()) {
+                while (iterator.hasNext() && pendingItems.size() < window) {
+                    final T item = iterator.next();
+                    final URI uri = uriOf.apply(item);
+                    pendingItems.add(item);
+                    pendingFetches.add(uri != null ? executor.submit(() -> fetch(uri)) : null);
+                }
+                final T item = pendingItems.poll();
+                final Future<Model> fetch = pendingFetches.poll();
+                consumer.accept(item, fetch != null ? await(fetch) : null);
+            }
+        } finally {
+            for (Future<Model> fetch : pendingFetches) {
+                if (fetch != null) {
+                    fetch.cancel(true);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Model await(final Future<Model> fetch) {
+        try {
+            return fetch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepresentationRetrievalException("Interrupted while waiting for a fetch", e);
+        } catch (CancellationException e) {
+            throw new RepresentationRetrievalException("Fetch was cancelled", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RepresentationRetrievalException(cause);
+        }
+    }
+
+    private long backoffMillis(final int attempt) {
+        final long base = config.getInitialBackoffMillis() << Math.min(attempt, 16);
+        return base + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+    }
+
+    private static boolean isTransient(final Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof TrsEndpointErrorException || t instanceof ProcessingException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
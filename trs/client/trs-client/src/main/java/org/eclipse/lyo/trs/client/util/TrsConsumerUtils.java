@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.function.BiFunction;
 import org.eclipse.lyo.client.OslcClient;
 import org.eclipse.lyo.trs.client.config.TrsConsumerConfiguration;
+import org.eclipse.lyo.trs.client.config.TrsFetchConfiguration;
 import org.eclipse.lyo.trs.client.config.TrsProviderConfiguration;
 import org.eclipse.lyo.trs.client.handlers.ConcurrentTrsProviderHandler;
 import org.eclipse.lyo.trs.client.handlers.IProviderEventHandler;
@@ -41,6 +42,18 @@ public class TrsConsumerUtils {
         return buildHandlers(consumerConfig, providerConfigs, TrsConsumerUtils::providerFor);
     }
 
+    /**
+     * Builds sequential handlers that fetch base members and changed resources according to
+     * {@code fetchConfig}, e.g. in parallel and rate-limited per provider.
+     */
+    public static List<IProviderHandler> buildHandlersSequential(
+            final TrsConsumerConfiguration consumerConfig,
+            final Collection<TrsProviderConfiguration> providerConfigs,
+            final TrsFetchConfiguration fetchConfig) {
+        return buildHandlers(consumerConfig, providerConfigs,
+                (consumer, cfg) -> providerFor(consumer, cfg, fetchConfig));
+    }
+
     public static List<IProviderHandler> buildHandlersConcurrent(
             final TrsConsumerConfiguration consumerConfig,
             final Collection<TrsProviderConfiguration> providerConfigs) {
@@ -75,15 +88,20 @@ public class TrsConsumerUtils {
 
     private static IProviderHandler providerFor(final TrsConsumerConfiguration consumerConfig,
             final TrsProviderConfiguration cfg) {
+        return providerFor(consumerConfig, cfg, TrsFetchConfiguration.sequential());
+    }
+
+    private static IProviderHandler providerFor(final TrsConsumerConfiguration consumerConfig,
+            final TrsProviderConfiguration cfg, final TrsFetchConfiguration fetchConfig) {
 //        return new TrsProviderHandler(cfg.getTrsUri(), ,
 //                consumerConfig.getSparqlUpdateUrl(), consumerConfig.getSparqlQueryUrl(),
 //                consumerConfig.getSparqlUsername(), consumerConfig.getSparqlPassword(), cfg.getBasicAuthUsername(),
 //                cfg.getBasicAuthPassword(), trsClient);
         final ITrackedResourceClient trsClient = trsClientFactory(consumerConfig.getHttpClient());
         final IProviderEventHandler handler = new SparqlDirectHandler(
-                consumerConfig.getSparqlUpdateUrl());
+                consumerConfig.getSparqlConnectionPool(), appliedGraphCacheFor(consumerConfig));
         IProviderHandler providerHandler = new TrsProviderHandler(cfg.getTrsUri(), trsClient,
-                handler);
+                handler, fetchConfig);
         return providerHandler;
     }
 
@@ -91,13 +109,22 @@ public class TrsConsumerUtils {
             final TrsConsumerConfiguration consumerConfig, final TrsProviderConfiguration cfg) {
         final ITrackedResourceClient trsClient = trsClientFactory(consumerConfig.getHttpClient());
         final IProviderEventHandler handler = new SparqlBatchingHandler(
-                consumerConfig.getSparqlUpdateUrl(), consumerConfig.getSparqlUsername(),
-                consumerConfig.getSparqlPassword());
+                consumerConfig.getSparqlConnectionPool(), appliedGraphCacheFor(consumerConfig));
         final ConcurrentTrsProviderHandler providerHandler = new ConcurrentTrsProviderHandler(
                 cfg.getTrsUri(), trsClient, handler);
         return providerHandler;
     }
 
+    /**
+     * @return a cache of the representations written by one provider handler or null if the
+     * configuration disables it
+     */
+    static AppliedGraphCache appliedGraphCacheFor(
+            final TrsConsumerConfiguration consumerConfig) {
+        final long size = consumerConfig.getAppliedGraphCacheSize();
+        return size > 0 ? new AppliedGraphCache(size) : null;
+    }
+
     @NotNull
     private static ITrackedResourceClient trsClientFactory(final OslcClient httpClient) {
         return new TrackedResourceClient(httpClient);
@@ -18,17 +18,25 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
 import org.apache.commons.io.FileUtils;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.ReadWrite;
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.tdb.TDBFactory;
 import org.apache.jena.tdb.TDBLoader;
 import org.apache.jena.tdb.sys.TDBInternal;
 import org.apache.jena.update.UpdateAction;
 import org.apache.jena.update.UpdateFactory;
 import org.apache.jena.update.UpdateRequest;
+import org.eclipse.lyo.core.trs.Creation;
+import org.eclipse.lyo.core.trs.Modification;
+import org.eclipse.lyo.trs.client.util.AppliedGraphCache;
 import org.eclipse.lyo.trs.client.util.RdfUtil;
 import org.eclipse.lyo.trs.client.util.SparqlUtil;
 import org.junit.After;
@@ -228,6 +236,42 @@ public class SparqlUtilTest {
         dataset.end();
     }
 
+    @Test
+    public final void testModificationDeltaQuery() {
+        String graphName = "http://graph_whateveuuuur.com";
+        URI changed = URI.create(graphName);
+        Resource r = ResourceFactory.createResource(graphName);
+        Property title = ResourceFactory.createProperty("http://purl.org/dc/terms/title");
+        Property creator = ResourceFactory.createProperty("http://purl.org/dc/terms/creator");
+
+        Model original = ModelFactory.createDefaultModel();
+        original.add(r, title, "Original");
+        original.add(r, creator, "Elvis");
+        Model modified = ModelFactory.createDefaultModel();
+        modified.add(r, title, "Modified");
+        modified.add(r, creator, "Elvis");
+
+        AppliedGraphCache appliedGraphs = new AppliedGraphCache(10);
+        Creation creation = new Creation(URI.create("urn:ce:1"), changed, 1);
+        executeUpdate(SparqlUtil.getChangeEventQuery(creation, original, appliedGraphs));
+        appliedGraphs.applied(creation, original);
+
+        Modification modification = new Modification(URI.create("urn:ce:2"), changed, 2);
+        String delta = SparqlUtil.getChangeEventQuery(modification, modified, appliedGraphs);
+        assertFalse(delta.contains("DROP"));
+        assertFalse(delta.contains("Elvis"));
+        executeUpdate(delta);
+        appliedGraphs.applied(modification, modified);
+
+        dataset.begin(ReadWrite.READ);
+        assertTrue(dataset.getNamedModel(graphName).isIsomorphicWith(modified));
+        dataset.end();
+
+        String unchanged = SparqlUtil.getChangeEventQuery(
+                new Modification(URI.create("urn:ce:3"), changed, 3), modified, appliedGraphs);
+        assertTrue(unchanged.isEmpty());
+    }
+
     private void executeUpdate(String sparqlUpdate) {
         dataset.begin(ReadWrite.WRITE);
         UpdateRequest updateReq = UpdateFactory.create(sparqlUpdate);
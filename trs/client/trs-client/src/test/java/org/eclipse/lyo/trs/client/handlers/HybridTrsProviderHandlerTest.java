@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.handlers;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.eclipse.lyo.core.trs.Base;
+import org.eclipse.lyo.core.trs.ChangeEvent;
+import org.eclipse.lyo.core.trs.ChangeLog;
+import org.eclipse.lyo.core.trs.Modification;
+import org.eclipse.lyo.core.trs.TrackedResourceSet;
+import org.eclipse.lyo.trs.client.model.BaseMember;
+import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
+import org.eclipse.lyo.trs.client.util.ITrackedResourceClient;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HybridTrsProviderHandlerTest {
+    private static final URI TRS_URI = URI.create("https://host/trs");
+    private static final URI RDF_NIL = URI.create(RDF.nil.getURI());
+
+    private FakeTrsClient trsClient;
+    private RecordingHandler events;
+    private HybridTrsProviderHandler providerHandler;
+
+    @Before
+    public void setUp() {
+        trsClient = new FakeTrsClient();
+        events = new RecordingHandler();
+        providerHandler = new HybridTrsProviderHandler(TRS_URI, trsClient, events, 1);
+    }
+
+    @Test
+    public void pushInOrderIsAppliedWithoutPolling() {
+        trsClient.log(1, 2);
+        providerHandler.update();
+        Assert.assertEquals(Collections.singletonList(2), events.orders);
+
+        providerHandler.handlePush(push(3), "topic");
+        Assert.assertEquals(Arrays.asList(2, 3), events.orders);
+        Assert.assertEquals(0, trsClient.changeLogFetches);
+    }
+
+    @Test
+    public void gapIsFilledFromChangeLog() {
+        trsClient.log(1, 2);
+        providerHandler.update();
+
+        trsClient.log(1, 6);
+        providerHandler.handlePush(push(5), "topic");
+        Assert.assertEquals(Collections.singletonList(2), events.orders);
+
+        providerHandler.handlePush(push(6), "topic");
+        Assert.assertEquals(Arrays.asList(2, 3, 4, 5, 6), events.orders);
+        Assert.assertEquals(0, events.rebases);
+    }
+
+    @Test
+    public void pushesStayBufferedUntilChangeLogHasTheGap() {
+        trsClient.log(1, 2);
+        providerHandler.update();
+
+        // the change log lags behind the pushes
+        providerHandler.handlePush(push(5), "topic");
+        providerHandler.handlePush(push(6), "topic");
+        Assert.assertEquals(Collections.singletonList(2), events.orders);
+
+        trsClient.log(1, 4);
+        providerHandler.update();
+        Assert.assertEquals(Arrays.asList(2, 3, 4, 5, 6), events.orders);
+        Assert.assertEquals(0, events.rebases);
+    }
+
+    @Test
+    public void pollDrainsPushesThatBecomeContiguous() {
+        providerHandler = new HybridTrsProviderHandler(TRS_URI, trsClient, events, 16);
+        trsClient.log(1, 2);
+        providerHandler.update();
+
+        providerHandler.handlePush(push(4), "topic");
+        Assert.assertEquals(Collections.singletonList(2), events.orders);
+
+        trsClient.log(1, 3);
+        providerHandler.update();
+        Assert.assertEquals(Arrays.asList(2, 3, 4), events.orders);
+    }
+
+    @Test
+    public void pushAlreadyProcessedIsSkipped() {
+        trsClient.log(1, 4);
+        providerHandler.update();
+        providerHandler.handlePush(push(3), "topic");
+        Assert.assertEquals(Arrays.asList(2, 3, 4), events.orders);
+    }
+
+    private static ChangeEventMessageTR push(int order) {
+        return new ChangeEventMessageTR(event(order), ModelFactory.createDefaultModel());
+    }
+
+    private static ChangeEvent event(int order) {
+        return new Modification(URI.create("https://host/ce/" + order),
+                URI.create("https://host/r/" + order), order);
+    }
+
+    /**
+     * Serves a base cut off at the first event and a change log split into pages of two events.
+     */
+    private static class FakeTrsClient implements ITrackedResourceClient {
+        private final List<ChangeLog> pages = new ArrayList<>();
+        private int changeLogFetches = 0;
+
+        void log(int first, int last) {
+            pages.clear();
+            URI previous = RDF_NIL;
+            for (int i = first; i <= last; i += 2) {
+                ChangeLog page = new ChangeLog();
+                page.setAbout(URI.create("https://host/cl/" + i));
+                page.setPrevious(previous);
+                page.getChange().add(event(i));
+                if (i + 1 <= last) {
+                    page.getChange().add(event(i + 1));
+                }
+                pages.add(0, page);
+                previous = page.getAbout();
+            }
+        }
+
+        @Override
+        public Model fetchTRSRemoteResource(URI resource) {
+            return ModelFactory.createDefaultModel();
+        }
+
+        @Override
+        public List<Base> updateBases(TrackedResourceSet updatedTrs) {
+            Base base = new Base();
+            base.setCutoffEvent(event(1).getAbout());
+            return Collections.singletonList(base);
+        }
+
+        @Override
+        public TrackedResourceSet extractRemoteTrs(URI trsUri) {
+            try {
+                // the TRS resets the URI of its embedded change log, so hand it a copy
+                ChangeLog head = new ChangeLog();
+                head.setChange(pages.get(0).getChange());
+                head.setPrevious(pages.get(0).getPrevious());
+                TrackedResourceSet trs = new TrackedResourceSet();
+                trs.setChangeLog(head);
+                return trs;
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public ChangeLog fetchRemoteChangeLog(URI changeLogURl) {
+            changeLogFetches++;
+            for (ChangeLog page : pages) {
+                if (page.getAbout().equals(changeLogURl)) {
+                    return page;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public Base fetchRemoteBase(URI baseUrl) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class RecordingHandler implements IProviderEventHandler {
+        private final List<Integer> orders = new ArrayList<>();
+        private int rebases = 0;
+
+        @Override
+        public void finishCycle() {
+        }
+
+        @Override
+        public void handleBaseMember(BaseMember baseMember) {
+        }
+
+        @Override
+        public void handleChangeEvent(ChangeEventMessageTR eventMessageTR) {
+            orders.add(eventMessageTR.getChangeEvent().getOrder());
+        }
+
+        @Override
+        public void rebase() {
+            rebases++;
+        }
+    }
+}
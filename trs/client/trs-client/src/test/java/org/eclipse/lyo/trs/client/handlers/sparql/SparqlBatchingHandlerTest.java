@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.handlers.sparql;
+
+import static org.eclipse.lyo.trs.client.handlers.sparql.SparqlDirectHandlerTest.CHANGED;
+import static org.eclipse.lyo.trs.client.handlers.sparql.SparqlDirectHandlerTest.modification;
+import static org.eclipse.lyo.trs.client.handlers.sparql.SparqlDirectHandlerTest.representation;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.lyo.trs.client.model.BaseMember;
+import org.eclipse.lyo.trs.client.util.AppliedGraphCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparqlBatchingHandlerTest {
+
+    @Test
+    public void graphsAreRecordedOnlyAfterTheBatchIsSent() {
+        final AppliedGraphCache appliedGraphs = new AppliedGraphCache(10);
+        appliedGraphs.applied(CHANGED.toString(), representation("Original"));
+        final FailingOnceHandler handler = new FailingOnceHandler(appliedGraphs);
+
+        handler.handleChangeEvent(modification(2, representation("Modified")));
+        Assert.assertTrue(appliedGraphs.getApplied(CHANGED.toString())
+                .isIsomorphicWith(representation("Original")));
+        try {
+            handler.finishCycle();
+            Assert.fail("The update should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertNull(appliedGraphs.getApplied(CHANGED.toString()));
+
+        handler.rebase();
+        handler.handleChangeEvent(modification(2, representation("Modified")));
+        handler.finishCycle();
+        Assert.assertTrue(appliedGraphs.getApplied(CHANGED.toString())
+                .isIsomorphicWith(representation("Modified")));
+    }
+
+    @Test
+    public void laterEventsOfABatchAreDeltasAgainstEarlierOnes() {
+        final AppliedGraphCache appliedGraphs = new AppliedGraphCache(10);
+        appliedGraphs.applied(CHANGED.toString(), representation("Original"));
+        final RecordingHandler handler = new RecordingHandler(appliedGraphs);
+
+        handler.handleChangeEvent(modification(2, representation("Modified")));
+        handler.handleChangeEvent(modification(3, representation("Final")));
+        handler.finishCycle();
+
+        // "Modified" is inserted by the first delta and deleted by the second one
+        final String batch = handler.queries.get(0);
+        Assert.assertNotEquals(batch.indexOf("Modified"), batch.lastIndexOf("Modified"));
+        Assert.assertTrue(appliedGraphs.getApplied(CHANGED.toString())
+                .isIsomorphicWith(representation("Final")));
+    }
+
+    @Test
+    public void connectionOpenedByTheHandlerIsClosedWithIt() {
+        final SparqlBatchingHandler handler = new SparqlBatchingHandler("http://localhost/sparql",
+                null, null);
+        handler.handleBaseMember(new BaseMember(CHANGED, representation("Original")));
+        handler.close();
+        try {
+            handler.finishCycle();
+            Assert.fail("The update should not be sent after the handler is closed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static class RecordingHandler extends SparqlBatchingHandler {
+        final List<String> queries = new ArrayList<>();
+
+        RecordingHandler(final AppliedGraphCache appliedGraphs) {
+            super("http://localhost/sparql", null, null, appliedGraphs);
+        }
+
+        @Override
+        void processQuery(final String query) {
+            queries.add(query);
+        }
+    }
+
+    private static class FailingOnceHandler extends RecordingHandler {
+        FailingOnceHandler(final AppliedGraphCache appliedGraphs) {
+            super(appliedGraphs);
+        }
+
+        @Override
+        void processQuery(final String query) {
+            super.processQuery(query);
+            if (queries.size() == 1) {
+                throw new IllegalStateException("Triplestore is unavailable");
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.handlers.sparql;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.DCTerms;
+import org.eclipse.lyo.core.trs.Modification;
+import org.eclipse.lyo.trs.client.model.ChangeEventMessageTR;
+import org.eclipse.lyo.trs.client.util.AppliedGraphCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparqlDirectHandlerTest {
+    static final URI CHANGED = URI.create("https://host/resources/1");
+
+    @Test
+    public void failedUpdateIsNotRecordedAsApplied() {
+        final AppliedGraphCache appliedGraphs = new AppliedGraphCache(10);
+        appliedGraphs.applied(CHANGED.toString(), representation("Original"));
+        final FailingOnceHandler handler = new FailingOnceHandler(appliedGraphs);
+        final ChangeEventMessageTR modification = modification(2, representation("Modified"));
+
+        try {
+            handler.handleChangeEvent(modification);
+            Assert.fail("The update should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertTrue(appliedGraphs.getApplied(CHANGED.toString())
+                .isIsomorphicWith(representation("Original")));
+
+        // the retried event must still be written
+        handler.handleChangeEvent(modification);
+        Assert.assertEquals(2, handler.queries.size());
+        Assert.assertEquals(handler.queries.get(0), handler.queries.get(1));
+        Assert.assertTrue(appliedGraphs.getApplied(CHANGED.toString())
+                .isIsomorphicWith(representation("Modified")));
+    }
+
+    static Model representation(final String title) {
+        final Model model = ModelFactory.createDefaultModel();
+        final Resource resource = model.createResource(CHANGED.toString());
+        resource.addProperty(DCTerms.title, title);
+        return model;
+    }
+
+    static ChangeEventMessageTR modification(final int order, final Model model) {
+        return new ChangeEventMessageTR(
+                new Modification(URI.create("urn:ce:" + order), CHANGED, order), model);
+    }
+
+    private static class FailingOnceHandler extends SparqlDirectHandler {
+        private final List<String> queries = new ArrayList<>();
+
+        FailingOnceHandler(final AppliedGraphCache appliedGraphs) {
+            super("http://localhost/sparql", appliedGraphs);
+        }
+
+        @Override
+        void processQuery(final String query) {
+            queries.add(query);
+            if (queries.size() == 1) {
+                throw new IllegalStateException("Triplestore is unavailable");
+            }
+        }
+    }
+}
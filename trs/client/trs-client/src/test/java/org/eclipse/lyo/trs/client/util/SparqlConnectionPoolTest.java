@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.util;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.eclipse.lyo.trs.client.config.TrsConsumerConfiguration;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SparqlConnectionPoolTest {
+    private final StubRepository stub = new StubRepository();
+
+    @Test
+    public void releasedConnectionIsReused() {
+        final SparqlConnectionPool pool = new SparqlConnectionPool(stub.repository, 2, 100);
+
+        final RepositoryConnection first = pool.withConnection(conn -> conn);
+        final RepositoryConnection second = pool.withConnection(conn -> conn);
+
+        Assert.assertSame(first, second);
+        Assert.assertEquals(1, stub.connections.size());
+        Assert.assertTrue(first.isOpen());
+    }
+
+    @Test
+    public void borrowWaitsForAFreeConnection() {
+        final SparqlConnectionPool pool = new SparqlConnectionPool(stub.repository, 1, 50);
+
+        try {
+            pool.withConnection(outer -> pool.withConnection(inner -> inner));
+            Assert.fail("A second connection was handed out");
+        } catch (RepositoryException e) {
+            // expected
+        }
+        Assert.assertEquals(1, stub.connections.size());
+        // the permit of the outer connection has been returned
+        Assert.assertNotNull(pool.withConnection(conn -> conn));
+    }
+
+    @Test
+    public void failedConnectionIsNotReused() {
+        final SparqlConnectionPool pool = new SparqlConnectionPool(stub.repository, 1, 100);
+
+        try {
+            pool.withConnection(conn -> {
+                throw new RepositoryException("Update failed");
+            });
+            Assert.fail("The failure was swallowed");
+        } catch (RepositoryException e) {
+            // expected
+        }
+        Assert.assertFalse(stub.connections.get(0).isOpen());
+
+        final RepositoryConnection next = pool.withConnection(conn -> conn);
+        Assert.assertNotSame(stub.connections.get(0), next);
+    }
+
+    @Test
+    public void idleConnectionClosedUnderneathIsDiscarded() {
+        final SparqlConnectionPool pool = new SparqlConnectionPool(stub.repository, 1, 100);
+        final RepositoryConnection first = pool.withConnection(conn -> conn);
+        first.close();
+
+        final RepositoryConnection next = pool.withConnection(conn -> conn);
+        Assert.assertNotSame(first, next);
+        Assert.assertTrue(next.isOpen());
+    }
+
+    @Test
+    public void closeReleasesConnectionsAndRepository() {
+        final SparqlConnectionPool pool = new SparqlConnectionPool(stub.repository, 1, 100);
+        final RepositoryConnection conn = pool.withConnection(c -> c);
+
+        pool.close();
+        Assert.assertFalse(conn.isOpen());
+        Assert.assertTrue(stub.shutDown.get());
+        try {
+            pool.withConnection(c -> c);
+            Assert.fail("A connection was handed out by a closed pool");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void configurationClosesItsPool() {
+        final TrsConsumerConfiguration config = new TrsConsumerConfiguration(
+                "http://localhost/sparql/query", "http://localhost/sparql/update", null, null,
+                null, null, null);
+        final SparqlConnectionPool pool = config.getSparqlConnectionPool();
+        Assert.assertSame(pool, config.getSparqlConnectionPool());
+
+        config.close();
+        try {
+            pool.withConnection(c -> c);
+            Assert.fail("The pool is still open");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertNotSame(pool, config.getSparqlConnectionPool());
+        config.close();
+    }
+
+    /**
+     * Repository handing out connections that only track whether they are open.
+     */
+    private static class StubRepository {
+        final List<RepositoryConnection> connections = new ArrayList<>();
+        final AtomicBoolean shutDown = new AtomicBoolean();
+        final Repository repository = (Repository) Proxy.newProxyInstance(
+                Repository.class.getClassLoader(), new Class<?>[] {Repository.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getConnection":
+                        final RepositoryConnection conn = newConnection();
+                        connections.add(conn);
+                        return conn;
+                    case "shutDown":
+                        shutDown.set(true);
+                        return null;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+
+        private static RepositoryConnection newConnection() {
+            final AtomicBoolean open = new AtomicBoolean(true);
+            return (RepositoryConnection) Proxy.newProxyInstance(
+                    RepositoryConnection.class.getClassLoader(),
+                    new Class<?>[] {RepositoryConnection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                        case "isOpen":
+                            return open.get();
+                        case "close":
+                            open.set(false);
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "StubConnection";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.util;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.eclipse.lyo.core.trs.Base;
+import org.eclipse.lyo.core.trs.ChangeLog;
+import org.eclipse.lyo.core.trs.TrackedResourceSet;
+import org.eclipse.lyo.trs.client.config.TrsFetchConfiguration;
+import org.eclipse.lyo.trs.client.exceptions.RepresentationRetrievalException;
+import org.eclipse.lyo.trs.client.exceptions.TrsEndpointConfigException;
+import org.eclipse.lyo.trs.client.exceptions.TrsEndpointErrorException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TrackedResourceFetcherTest {
+
+    @Test
+    public void parallelFetchesAreHandedOffInOrder() {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            uris.add(URI.create("https://host/r/" + i));
+        }
+        List<URI> consumed = new ArrayList<>();
+        try (TrackedResourceFetcher fetcher = new TrackedResourceFetcher(new FlakyClient(0),
+                new TrsFetchConfiguration(8, 0, 0, 0))) {
+            fetcher.fetchOrdered(uris, uri -> uri, (uri, model) -> {
+                Assert.assertNotNull(model);
+                consumed.add(uri);
+            });
+        }
+        Assert.assertEquals(uris, consumed);
+    }
+
+    @Test
+    public void serverErrorsAreRetried() {
+        FlakyClient client = new FlakyClient(2);
+        try (TrackedResourceFetcher fetcher = new TrackedResourceFetcher(client,
+                new TrsFetchConfiguration(1, 0, 2, 1))) {
+            Assert.assertNotNull(fetcher.fetch(URI.create("https://host/r/1")));
+        }
+        Assert.assertEquals(3, client.attempts.get());
+    }
+
+    @Test(expected = RepresentationRetrievalException.class)
+    public void clientErrorsAreNotRetried() {
+        ITrackedResourceClient client = new FlakyClient(0) {
+            @Override
+            public Model fetchTRSRemoteResource(URI resource) {
+                attempts.incrementAndGet();
+                throw new RepresentationRetrievalException(
+                        new TrsEndpointConfigException("Error Not Found"));
+            }
+        };
+        try (TrackedResourceFetcher fetcher = new TrackedResourceFetcher(client,
+                new TrsFetchConfiguration(1, 0, 5, 1))) {
+            fetcher.fetch(URI.create("https://host/r/1"));
+        }
+    }
+
+    @Test
+    public void rateLimiterSpacesRequests() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 1);
+        long start = System.nanoTime();
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        Assert.assertTrue("10 permits at 100/s took " + elapsedMillis + " ms", elapsedMillis >= 90);
+    }
+
+    /**
+     * Fails every resource with a server error the given number of times before serving it.
+     */
+    private static class FlakyClient implements ITrackedResourceClient {
+        final AtomicInteger attempts = new AtomicInteger();
+        private final int failures;
+        private final Map<URI, AtomicInteger> failuresLeft = new ConcurrentHashMap<>();
+
+        FlakyClient(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public Model fetchTRSRemoteResource(URI resource) {
+            attempts.incrementAndGet();
+            if (failuresLeft.computeIfAbsent(resource, r -> new AtomicInteger(failures))
+                    .getAndDecrement() > 0) {
+                throw new RepresentationRetrievalException(
+                        new TrsEndpointErrorException("Error Service Unavailable"));
+            }
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ModelFactory.createDefaultModel();
+        }
+
+        @Override
+        public List<Base> updateBases(TrackedResourceSet updatedTrs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TrackedResourceSet extractRemoteTrs(URI trsUri) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ChangeLog fetchRemoteChangeLog(URI changeLogURl) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Base fetchRemoteBase(URI baseUrl) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.trs.client.util;
+
+import org.eclipse.lyo.trs.client.config.TrsConsumerConfiguration;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TrsConsumerUtilsTest {
+
+    @Test
+    public void appliedGraphCacheIsDisabledByDefault() {
+        final TrsConsumerConfiguration config = new TrsConsumerConfiguration(
+                "http://localhost/sparql/query", "http://localhost/sparql/update", null, null,
+                null, null, null);
+        Assert.assertEquals(0, config.getAppliedGraphCacheSize());
+        Assert.assertNull(TrsConsumerUtils.appliedGraphCacheFor(config));
+    }
+
+    @Test
+    public void eachHandlerGetsItsOwnAppliedGraphCache() {
+        final TrsConsumerConfiguration config = configuration(100);
+        final AppliedGraphCache cache = TrsConsumerUtils.appliedGraphCacheFor(config);
+        Assert.assertNotNull(cache);
+        // a rebase of one provider must not clear the graphs of the others
+        Assert.assertNotSame(cache, TrsConsumerUtils.appliedGraphCacheFor(config));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeAppliedGraphCacheSizeIsRejected() {
+        configuration(-1);
+    }
+
+    private static TrsConsumerConfiguration configuration(final long appliedGraphCacheSize) {
+        return new TrsConsumerConfiguration("http://localhost/sparql/query",
+                "http://localhost/sparql/update", null, null, null, null, null, 4, 30_000,
+                appliedGraphCacheSize);
+    }
+}
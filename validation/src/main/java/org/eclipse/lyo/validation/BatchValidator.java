@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.apache.jena.rdf.model.Model;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.shacl.ValidationReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validates many resources or models in parallel with a {@link Validator}.
+ * <p>
+ * Items are validated on the executor and their outcomes are handed to the consumer on the calling
+ * thread in completion order, so the consumer needs no synchronization. Only a bounded number of
+ * items are in flight at once, so a lazy {@link Stream} of models is never fully materialized.
+ *
+ * @since 4.1.0
+ */
+public class BatchValidator {
+
+    /**
+     * What to do once an item does not conform or cannot be validated.
+     */
+    public enum Mode {
+        /** Stop submitting items; the outcomes of the items already in flight are still reported. */
+        FAIL_FAST,
+        /** Validate every item. */
+        COLLECT_ALL
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(BatchValidator.class);
+
+    private final Validator validator;
+    private final Executor executor;
+    private final Mode mode;
+    private final int maxInFlight;
+
+    /**
+     * Validate on the common fork-join pool and collect all outcomes.
+     */
+    public BatchValidator(Validator validator) {
+        this(validator, ForkJoinPool.commonPool(), Mode.COLLECT_ALL);
+    }
+
+    public BatchValidator(Validator validator, Executor executor, Mode mode) {
+        this.validator = validator;
+        this.executor = executor;
+        this.mode = mode;
+        this.maxInFlight = 4 * Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Validate resources against the shapes of their classes. Resources are grouped by class and
+     * the validation of each class is prepared once with {@link Validator#warmUp(Collection)}.
+     *
+     * @param resources Resources to be validated
+     * @param consumer  Receives the outcome of each resource
+     */
+    public void validateAll(Collection<? extends AbstractResource> resources,
+            Consumer<? super ValidationOutcome<AbstractResource>> consumer) throws InterruptedException {
+        Map<Class<? extends AbstractResource>, List<AbstractResource>> resourcesByClass = new LinkedHashMap<>();
+        for (AbstractResource resource : resources) {
+            resourcesByClass.computeIfAbsent(resource.getClass(), key -> new ArrayList<>()).add(resource);
+        }
+
+        List<AbstractResource> groupedResources = new ArrayList<>(resources.size());
+        for (Map.Entry<Class<? extends AbstractResource>, List<AbstractResource>> entry : resourcesByClass.entrySet()) {
+            try {
+                validator.warmUp(Collections.<Class<? extends AbstractResource>>singleton(entry.getKey()));
+            } catch (Exception e) {
+                // The validation of each resource of the class reports the problem
+                log.debug("Could not prepare the validation of {}", entry.getKey(), e);
+            }
+            groupedResources.addAll(entry.getValue());
+        }
+
+        run(groupedResources.iterator(), validator::validate, consumer);
+    }
+
+    /**
+     * @return the outcomes of {@link #validateAll(Collection, Consumer)}, in completion order
+     */
+    public List<ValidationOutcome<AbstractResource>> validateAll(Collection<? extends AbstractResource> resources)
+            throws InterruptedException {
+        List<ValidationOutcome<AbstractResource>> outcomes = new ArrayList<>(resources.size());
+        validateAll(resources, outcomes::add);
+        return outcomes;
+    }
+
+    /**
+     * Validate each data model against the shape of a resource class.
+     *
+     * @param dataModels Data models to be validated; the stream is consumed lazily
+     * @param clazz      Resource class with shape annotations
+     * @param consumer   Receives the outcome of each model
+     */
+    public void validate(Stream<Model> dataModels, Class<? extends AbstractResource> clazz,
+            Consumer<? super ValidationOutcome<Model>> consumer) throws InterruptedException {
+        try {
+            validator.warmUp(Collections.<Class<? extends AbstractResource>>singleton(clazz));
+        } catch (Exception e) {
+            log.debug("Could not prepare the validation of {}", clazz, e);
+        }
+
+        run(dataModels.iterator(), dataModel -> validator.validate(dataModel, clazz), consumer);
+    }
+
+    /**
+     * @return the outcomes of {@link #validate(Stream, Class, Consumer)}, in completion order
+     */
+    public List<ValidationOutcome<Model>> validate(Stream<Model> dataModels, Class<? extends AbstractResource> clazz)
+            throws InterruptedException {
+        List<ValidationOutcome<Model>> outcomes = new ArrayList<>();
+        validate(dataModels, clazz, outcomes::add);
+        return outcomes;
+    }
+
+    private <T> void run(Iterator<? extends T> items, Validation<T> validation,
+            Consumer<? super ValidationOutcome<T>> consumer) throws InterruptedException {
+        CompletionService<ValidationOutcome<T>> completionService = new ExecutorCompletionService<>(executor);
+        int inFlight = 0;
+        boolean stopped = false;
+
+        while (true) {
+            while (!stopped && inFlight < maxInFlight && items.hasNext()) {
+                T item = items.next();
+                completionService.submit(() -> {
+                    try {
+                        return new ValidationOutcome<>(item, validation.validate(item), null);
+                    } catch (Exception e) {
+                        return new ValidationOutcome<>(item, null, e);
+                    }
+                });
+                inFlight++;
+            }
+
+            if (inFlight == 0) {
+                return;
+            }
+
+            ValidationOutcome<T> outcome;
+            try {
+                outcome = completionService.take().get();
+            } catch (ExecutionException e) {
+                // Exceptions are part of the outcome, only errors get here
+                throw (Error) e.getCause();
+            }
+            inFlight--;
+
+            consumer.accept(outcome);
+            if (mode == Mode.FAIL_FAST && !outcome.isConforming()) {
+                stopped = true;
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Validation<T> {
+        ValidationReport validate(T item) throws Exception;
+    }
+}
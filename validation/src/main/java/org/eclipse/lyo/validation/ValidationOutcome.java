@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.validation;
+
+import org.eclipse.lyo.shacl.ValidationReport;
+
+/**
+ * The outcome of validating one item of a batch, either a report or the exception that prevented
+ * the validation.
+ *
+ * @param <T> type of the validated items
+ * @see BatchValidator
+ */
+public final class ValidationOutcome<T> {
+
+    private final T subject;
+    private final ValidationReport report;
+    private final Exception exception;
+
+    ValidationOutcome(T subject, ValidationReport report, Exception exception) {
+        this.subject = subject;
+        this.report = report;
+        this.exception = exception;
+    }
+
+    /**
+     * @return the validated resource or model
+     */
+    public T getSubject() {
+        return subject;
+    }
+
+    /**
+     * @return the validation report, or null if the validation failed with an exception
+     */
+    public ValidationReport getReport() {
+        return report;
+    }
+
+    /**
+     * @return the exception that prevented the validation, or null
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    /**
+     * @return true if the item was validated and conforms to its shape
+     */
+    public boolean isConforming() {
+        return report != null && Boolean.TRUE.equals(report.isConforms());
+    }
+}
@@ -16,10 +16,14 @@ package org.eclipse.lyo.validation;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 import javax.xml.datatype.DatatypeConfigurationException;
 
 import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreApplicationException;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.shacl.ShaclShapeFactory;
@@ -99,4 +103,52 @@ public interface Validator {
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException,
             DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException,
             ParseException, InstantiationException, SecurityException, NoSuchMethodException;
+
+    /**
+     * Prepare the validation of the given resource classes, typically at startup, so that the first
+     * resources validated do not pay for building and compiling their shapes.
+     * <p>
+     * The default implementation validates an empty model against each class.
+     *
+     * @param classes Resource classes with shape annotations
+     */
+    default void warmUp(Collection<Class<? extends AbstractResource>> classes)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+            DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException,
+            ParseException, InstantiationException, SecurityException, NoSuchMethodException {
+        for (Class<? extends AbstractResource> clazz : classes) {
+            validate(ModelFactory.createDefaultModel(), clazz);
+        }
+    }
+
+    /**
+     * Validate many resources in parallel on the common fork-join pool, each against the shape of
+     * its class.
+     *
+     * @param resources Resources to be validated
+     *
+     * @return the outcome of each resource, in completion order
+     *
+     * @see BatchValidator for other executors, fail-fast validation and streamed outcomes
+     */
+    default List<ValidationOutcome<AbstractResource>> validateAll(Collection<? extends AbstractResource> resources)
+            throws InterruptedException {
+        return new BatchValidator(this).validateAll(resources);
+    }
+
+    /**
+     * Validate many data models in parallel on the common fork-join pool against the shape of a
+     * resource class.
+     *
+     * @param dataModels Data models to be validated
+     * @param clazz      Resource class with shape annotations
+     *
+     * @return the outcome of each model, in completion order
+     *
+     * @see BatchValidator for other executors, fail-fast validation and streamed outcomes
+     */
+    default List<ValidationOutcome<Model>> validate(Stream<Model> dataModels, Class<? extends AbstractResource> clazz)
+            throws InterruptedException {
+        return new BatchValidator(this).validate(dataModels, clazz);
+    }
 }
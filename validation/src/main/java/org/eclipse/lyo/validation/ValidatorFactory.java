@@ -1,5 +1,6 @@
 package org.eclipse.lyo.validation;
 
+import org.eclipse.lyo.validation.impl.NativeShaclValidatorImpl;
 import org.eclipse.lyo.validation.impl.ShaclExValidatorImpl;
 
 public final class ValidatorFactory {
@@ -7,4 +8,12 @@ public final class ValidatorFactory {
     public static final Validator createShaclExValidator() {
         return new ShaclExValidatorImpl();
     }
+
+    /**
+     * @return a validator that checks the common constraints of resources natively and falls back
+     *         to SHACLex for the others
+     */
+    public static final Validator createNativeValidator() {
+        return new NativeShaclValidatorImpl();
+    }
 }
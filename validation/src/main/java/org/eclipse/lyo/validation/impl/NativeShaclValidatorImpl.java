@@ -0,0 +1,479 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.validation.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.namespace.QName;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.eclipse.lyo.oslc4j.core.OSLC4JUtils;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcRdfCollectionType;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcValueType;
+import org.eclipse.lyo.oslc4j.core.exception.OslcCoreApplicationException;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.IReifiedResource;
+import org.eclipse.lyo.oslc4j.core.model.InheritedMethodAnnotationHelper;
+import org.eclipse.lyo.oslc4j.core.model.ResourceClassMetadata;
+import org.eclipse.lyo.oslc4j.core.model.ResourceClassMetadata.PropertyMetadata;
+import org.eclipse.lyo.oslc4j.core.model.TypeFactory;
+import org.eclipse.lyo.oslc4j.core.model.ValueType;
+import org.eclipse.lyo.shacl.Property;
+import org.eclipse.lyo.shacl.ShaclConstants;
+import org.eclipse.lyo.shacl.ShaclShapeFactory;
+import org.eclipse.lyo.shacl.Shape;
+import org.eclipse.lyo.shacl.ValidationReport;
+import org.eclipse.lyo.shacl.ValidationResult;
+import org.eclipse.lyo.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validator that checks resources directly against the shapes of their classes, without
+ * marshalling them to RDF.
+ * <p>
+ * The shape of each class is compiled once into checks of the cardinality ({@code sh:minCount},
+ * {@code sh:maxCount}), value type ({@code sh:datatype}, {@code sh:class}), string
+ * ({@code sh:pattern}, {@code sh:minLength}, {@code sh:maxLength}) and {@code sh:in} constraints.
+ * Resources of classes whose shape uses any other constraint, and values whose RDF form depends on
+ * the rest of the data graph, are validated by a fallback validator, by default the
+ * {@link ShaclExValidatorImpl SHACLex} one. Models are always validated by the fallback validator.
+ *
+ * @since 4.1.0
+ */
+public class NativeShaclValidatorImpl implements Validator {
+
+    private static final Logger log = LoggerFactory.getLogger(NativeShaclValidatorImpl.class);
+    private static final URI SEVERITY_VIOLATION = URI.create(ShaclConstants.SHACL_CORE_NAMESPACE + "Violation");
+    private static final String XSD_STRING = XSDDatatype.XSDstring.getURI();
+
+    private static final ConcurrentMap<Class<?>, ShapeChecker> checkers = new ConcurrentHashMap<>();
+
+    private final Validator fallback;
+
+    public NativeShaclValidatorImpl() {
+        this(new ShaclExValidatorImpl());
+    }
+
+    /**
+     * @param fallback validator of the resources and models that cannot be checked natively
+     */
+    public NativeShaclValidatorImpl(Validator fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public ValidationReport validate(AbstractResource resource) throws OslcCoreApplicationException, URISyntaxException,
+            ParseException, IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+            DatatypeConfigurationException, InstantiationException, SecurityException, NoSuchMethodException {
+        ShapeChecker checker = getChecker(resource.getClass());
+        if (checker.isSupported()) {
+            ValidationReport report = checker.check(resource);
+            if (report != null) {
+                return report;
+            }
+            log.debug("Values of {} cannot be checked natively", resource.getAbout());
+        }
+        return fallback.validate(resource);
+    }
+
+    @Override
+    public ValidationReport validate(Model dataModel, Model shapeModel) throws IllegalAccessException,
+            IllegalArgumentException, InstantiationException, InvocationTargetException, SecurityException,
+            NoSuchMethodException, DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException {
+        return fallback.validate(dataModel, shapeModel);
+    }
+
+    @Override
+    public ValidationReport validate(Model dataModel, Class<? extends AbstractResource> clazz)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+            DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException, ParseException,
+            InstantiationException, SecurityException, NoSuchMethodException {
+        return fallback.validate(dataModel, clazz);
+    }
+
+    @Override
+    public void warmUp(Collection<Class<? extends AbstractResource>> classes)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+            DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException, ParseException,
+            InstantiationException, SecurityException, NoSuchMethodException {
+        List<Class<? extends AbstractResource>> fallbackClasses = new ArrayList<>();
+        for (Class<? extends AbstractResource> clazz : classes) {
+            if (!getChecker(clazz).isSupported()) {
+                fallbackClasses.add(clazz);
+            }
+        }
+        if (!fallbackClasses.isEmpty()) {
+            fallback.warmUp(fallbackClasses);
+        }
+    }
+
+    /**
+     * @return the checks compiled from the shape built from the annotations of the class
+     */
+    ShapeChecker getChecker(Class<?> clazz) throws OslcCoreApplicationException, URISyntaxException, ParseException {
+        ShapeChecker checker = checkers.get(clazz);
+        if (checker == null) {
+            checker = ShapeChecker.compile(clazz, ShaclShapeFactory.createShaclShape(clazz));
+            if (!checker.isSupported()) {
+                log.debug("The shape of {} uses constraints that are not checked natively", clazz.getName());
+            }
+
+            ShapeChecker existing = checkers.putIfAbsent(clazz, checker);
+            if (existing != null) {
+                checker = existing;
+            }
+        }
+        return checker;
+    }
+
+    private static ValidationResult violation(URI focusNode, URI path, String message) throws URISyntaxException {
+        ValidationResult result = new ValidationResult();
+        result.setFocusNode(focusNode);
+        result.setResultPath(path);
+        result.setResultSeverity(SEVERITY_VIOLATION);
+        result.setMessage(message);
+        return result;
+    }
+
+    /**
+     * @return the RDF types a resource is marshalled with
+     */
+    private static Set<String> typesOf(Object resource) {
+        Set<String> types = new HashSet<>();
+        types.add(TypeFactory.getQualifiedName(resource.getClass()));
+        if (resource instanceof AbstractResource) {
+            for (URI type : ((AbstractResource) resource).getTypes()) {
+                types.add(type.toString());
+            }
+        }
+        return types;
+    }
+
+    /**
+     * The checks of all the property shapes of a resource class.
+     */
+    static final class ShapeChecker {
+
+        private static final ShapeChecker UNSUPPORTED = new ShapeChecker(null, Collections.emptyList());
+
+        private final String targetClass;
+        private final List<PropertyChecker> properties;
+
+        private ShapeChecker(String targetClass, List<PropertyChecker> properties) {
+            this.targetClass = targetClass;
+            this.properties = properties;
+        }
+
+        static ShapeChecker compile(Class<?> clazz, Shape shape) {
+            if (shape.getTargetClass() == null || shape.getTargetNode() != null
+                    || shape.getTargetSubjectsOf() != null || shape.getTargetObjectsOf() != null || shape.isClosed()) {
+                return UNSUPPORTED;
+            }
+
+            ResourceClassMetadata metadata = ResourceClassMetadata.forClass(clazz);
+            List<PropertyChecker> properties = new ArrayList<>();
+            if (shape.getShaclProperties() != null) {
+                for (Property property : shape.getShaclProperties()) {
+                    PropertyMetadata propertyMetadata = metadata.getProperty(property.getPath().toString());
+                    if (propertyMetadata == null || !isSupported(property, propertyMetadata.getGetter())) {
+                        return UNSUPPORTED;
+                    }
+
+                    Pattern pattern = null;
+                    if (property.getPattern() != null) {
+                        try {
+                            pattern = Pattern.compile(property.getPattern());
+                        } catch (PatternSyntaxException e) {
+                            return UNSUPPORTED;
+                        }
+                    }
+                    properties.add(new PropertyChecker(property, propertyMetadata.getGetter(), pattern));
+                }
+            }
+            return new ShapeChecker(shape.getTargetClass().toString(), Collections.unmodifiableList(properties));
+        }
+
+        private static boolean isSupported(Property property, Method getter) {
+            if (property.getMinExclusive() != null || property.getMaxExclusive() != null
+                    || property.getMinInclusive() != null || property.getMaxInclusive() != null
+                    || property.getLanguageIn() != null || Boolean.TRUE.equals(property.getUniqueLang())
+                    || property.getNodeKind() != null || property.getNode() != null || property.getEquals() != null
+                    || property.getDisjoint() != null || property.getLessThan() != null
+                    || property.getLessThanOrEquals() != null || property.getHasValue() != null
+                    || Boolean.TRUE.equals(property.isDeactivated())
+                    || (property.getSeverity() != null && !SEVERITY_VIOLATION.equals(property.getSeverity()))) {
+                return false;
+            }
+
+            // Values marshalled as XML literals or RDF collections are not the Java values
+            OslcValueType valueType = InheritedMethodAnnotationHelper.getAnnotation(getter, OslcValueType.class);
+            return (valueType == null || !ValueType.XMLLiteral.equals(valueType.value()))
+                    && InheritedMethodAnnotationHelper.getAnnotation(getter, OslcRdfCollectionType.class) == null;
+        }
+
+        boolean isSupported() {
+            return this != UNSUPPORTED;
+        }
+
+        /**
+         * @return the validation report, or null if the values of the resource cannot be checked
+         *         natively
+         */
+        ValidationReport check(AbstractResource resource) throws URISyntaxException, IllegalAccessException,
+                InvocationTargetException {
+            ValidationReport report = new ValidationReport();
+            if (typesOf(resource).contains(targetClass)) {
+                if (overridesProperties(resource)) {
+                    return null;
+                }
+                for (PropertyChecker property : properties) {
+                    if (!property.check(resource, targetClass, report)) {
+                        return null;
+                    }
+                }
+            }
+            report.setConforms(report.getResult().isEmpty());
+            return report;
+        }
+
+        /**
+         * @return whether an extended property of the resource adds values to a property shape
+         */
+        private boolean overridesProperties(AbstractResource resource) {
+            if (resource.getExtendedProperties().isEmpty()) {
+                return false;
+            }
+            for (QName name : resource.getExtendedProperties().keySet()) {
+                String path = name.getNamespaceURI() + name.getLocalPart();
+                for (PropertyChecker property : properties) {
+                    if (property.path.toString().equals(path)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The checks of a property shape, applied to the values returned by the getter of the property.
+     */
+    static final class PropertyChecker {
+
+        private final URI path;
+        private final Method getter;
+        private final BigInteger minCount;
+        private final BigInteger maxCount;
+        private final String dataType;
+        private final String classType;
+        private final Pattern pattern;
+        private final Set<String> in;
+        private final BigInteger minLength;
+        private final BigInteger maxLength;
+
+        PropertyChecker(Property property, Method getter, Pattern pattern) {
+            this.path = property.getPath();
+            this.getter = getter;
+            this.minCount = property.getMinCount();
+            this.maxCount = property.getMaxCount();
+            this.dataType = property.getDataType() == null ? null : property.getDataType().toString();
+            this.classType = property.getClassType() == null ? null : property.getClassType().toString();
+            this.pattern = pattern;
+            this.in = property.getIn() == null ? null : new HashSet<>(Arrays.asList((String[]) property.getIn()));
+            this.minLength = property.getMinLength();
+            this.maxLength = property.getMaxLength();
+        }
+
+        /**
+         * @return false if a value cannot be checked natively
+         */
+        boolean check(AbstractResource resource, String targetClass, ValidationReport report)
+                throws URISyntaxException, IllegalAccessException, InvocationTargetException {
+            URI focusNode = resource.getAbout();
+            List<Object> values = valuesOf(getter.invoke(resource));
+
+            BigInteger count = BigInteger.valueOf(values.size());
+            if (minCount != null && count.compareTo(minCount) < 0) {
+                report.addResult(violation(focusNode, path,
+                        "MinCount violation. Expected " + minCount + ", obtained: " + count));
+            }
+            if (maxCount != null && count.compareTo(maxCount) > 0) {
+                report.addResult(violation(focusNode, path,
+                        "MaxCount violation. Expected " + maxCount + ", obtained: " + count));
+            }
+
+            for (Object value : values) {
+                Term term = Term.of(value);
+                // Nested resources of the target class are validated too
+                if (term == null || (term.types != null && term.types.contains(targetClass))) {
+                    return false;
+                }
+
+                if (dataType != null && !dataType.equals(term.dataType)) {
+                    report.addResult(violation(focusNode, path,
+                            "Datatype violation. Expected " + term + " to have datatype " + dataType));
+                }
+                if (classType != null) {
+                    if (term.isResource() && term.types == null) {
+                        // The types of referenced resources are in the rest of the data graph
+                        return false;
+                    }
+                    if (!term.isResource() || !term.types.contains(classType)) {
+                        report.addResult(violation(focusNode, path,
+                                "Class violation. Expected " + term + " to be an instance of " + classType));
+                    }
+                }
+                if (in != null && !(XSD_STRING.equals(term.dataType) && in.contains(term.lexicalForm))) {
+                    report.addResult(violation(focusNode, path,
+                            "In violation. Expected " + term + " to be in " + in));
+                }
+                if (pattern != null && (term.isBlank() || !pattern.matcher(term.lexicalForm).find())) {
+                    report.addResult(violation(focusNode, path,
+                            "pattern violation. Expected " + term + " to match '" + pattern.pattern() + "'"));
+                }
+                if (minLength != null && (term.isBlank() || term.length().compareTo(minLength) < 0)) {
+                    report.addResult(violation(focusNode, path,
+                            "minLength violation. Expected length(" + term + ") >= " + minLength));
+                }
+                if (maxLength != null && (term.isBlank() || term.length().compareTo(maxLength) > 0)) {
+                    report.addResult(violation(focusNode, path,
+                            "maxLength violation. Expected length(" + term + ") <= " + maxLength));
+                }
+            }
+            return true;
+        }
+
+        private static List<Object> valuesOf(Object value) {
+            if (value == null) {
+                return Collections.emptyList();
+            }
+
+            List<Object> values = new ArrayList<>();
+            if (value instanceof Collection) {
+                for (Object element : (Collection<?>) value) {
+                    if (element != null) {
+                        values.add(element);
+                    }
+                }
+            } else if (value instanceof Object[]) {
+                for (Object element : (Object[]) value) {
+                    if (element != null) {
+                        values.add(element);
+                    }
+                }
+            } else {
+                values.add(value);
+            }
+            return values;
+        }
+    }
+
+    /**
+     * The RDF term a value is marshalled to.
+     */
+    static final class Term {
+
+        /** Lexical form of a literal or IRI, null for a blank node. */
+        private final String lexicalForm;
+        /** Datatype of a literal, null for a resource. */
+        private final String dataType;
+        /** Types of an inline resource, null for a literal or a referenced resource. */
+        private final Set<String> types;
+
+        private Term(String lexicalForm, String dataType, Set<String> types) {
+            this.lexicalForm = lexicalForm;
+            this.dataType = dataType;
+            this.types = types;
+        }
+
+        /**
+         * @return the term a value is marshalled to by the Jena provider, or null if it cannot be
+         *         known without marshalling the value
+         */
+        static Term of(Object object) {
+            Object value = object instanceof IReifiedResource ? ((IReifiedResource<?>) object).getValue() : object;
+
+            if (value instanceof String) {
+                return new Term((String) value, XSD_STRING, null);
+            } else if (value instanceof Float && ((Float) value).isInfinite()
+                    || value instanceof Double && ((Double) value).isInfinite()) {
+                return null;
+            } else if (value instanceof Boolean || value instanceof Number) {
+                return of(ResourceFactory.createTypedLiteral(value));
+            } else if (value instanceof URI) {
+                return new Term(value.toString(), null, null);
+            } else if (value instanceof Date) {
+                if (OSLC4JUtils.inferTypeFromShape()) {
+                    return null;
+                }
+                GregorianCalendar calendar = new GregorianCalendar();
+                calendar.setTime((Date) value);
+                return of(ResourceFactory.createTypedLiteral(calendar));
+            } else if (value != null && value.getClass().getAnnotation(OslcResourceShape.class) != null) {
+                URI about = value instanceof AbstractResource ? ((AbstractResource) value).getAbout() : null;
+                return new Term(about == null ? null : about.toString(), null, typesOf(value));
+            }
+            return null;
+        }
+
+        private static Term of(Literal literal) {
+            return new Term(literal.getLexicalForm(), literal.getDatatypeURI(), null);
+        }
+
+        boolean isResource() {
+            return dataType == null;
+        }
+
+        boolean isBlank() {
+            return lexicalForm == null;
+        }
+
+        BigInteger length() {
+            return BigInteger.valueOf(lexicalForm.codePointCount(0, lexicalForm.length()));
+        }
+
+        @Override
+        public String toString() {
+            if (isBlank()) {
+                return "_:";
+            }
+            return isResource() ? "<" + lexicalForm + ">" : "\"" + lexicalForm + "\"";
+        }
+    }
+}
@@ -14,18 +14,23 @@
 
 package org.eclipse.lyo.validation.impl;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URISyntaxException;
 import java.text.ParseException;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.datatype.DatatypeConfigurationException;
 
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.util.iterator.ExtendedIterator;
 import org.eclipse.lyo.oslc4j.core.exception.OslcCoreApplicationException;
 import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
 import org.eclipse.lyo.oslc4j.provider.jena.JenaModelHelper;
@@ -46,6 +51,12 @@ import scala.Option;
 import scala.util.Either;
 
 /**
+ * Validator based on the SHACLex engine.
+ * <p>
+ * Compiling a shape into a SHACLex {@link Schema} costs far more than validating a resource
+ * against it, so compiled schemas are cached per resource class and per shape model content.
+ * Schemas are immutable and shared by all threads and validator instances.
+ *
  * @since 2.3.0
  */
 public class ShaclExValidatorImpl implements Validator {
@@ -56,21 +67,29 @@ public class ShaclExValidatorImpl implements Validator {
     private static final Logger log = LoggerFactory.getLogger(ShaclExValidatorImpl.class);
     private static final String EMPTY_MAP = "";
 
+    /**
+     * Upper bound of the schemas cached for shape models, which may be built by the caller for
+     * every request.
+     */
+    private static final int SHAPE_MODEL_CACHE_SIZE = 64;
+
+    private static final ConcurrentMap<Class<?>, Schema> classSchemas = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Integer, ShapeModelSchema> shapeModelSchemas = new ConcurrentHashMap<>();
+
     @Override
     public ValidationReport validate(AbstractResource resource) throws OslcCoreApplicationException, URISyntaxException,
             ParseException, IllegalAccessException, IllegalArgumentException, InvocationTargetException,
             DatatypeConfigurationException, InstantiationException, SecurityException, NoSuchMethodException {
-        Shape shaclShape = ShaclShapeFactory.createShaclShape(resource.getClass());
-        Model shapeModel = JenaModelHelper.createJenaModel(new Object[] { shaclShape });
+        Schema schema = getSchema(resource.getClass());
         Model dataModel = JenaModelHelper.createJenaModel(new Object[] { resource });
-        return getValidationResults(dataModel, shapeModel);
+        return getValidationResults(dataModel, schema);
     }
 
     @Override
     public ValidationReport validate(Model dataModel, Model shapeModel) throws IllegalAccessException,
             IllegalArgumentException, InstantiationException, InvocationTargetException, SecurityException,
             NoSuchMethodException, DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException {
-        return getValidationResults(dataModel, shapeModel);
+        return getValidationResults(dataModel, getSchema(shapeModel));
     }
 
     @Override
@@ -78,80 +97,146 @@ public class ShaclExValidatorImpl implements Validator {
             throws IllegalAccessException, IllegalArgumentException, InvocationTargetException,
             DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException, ParseException,
             InstantiationException, SecurityException, NoSuchMethodException {
-        Shape shaclShape = ShaclShapeFactory.createShaclShape(clazz);
-        Model shapeModel = JenaModelHelper.createJenaModel(new Object[] { shaclShape });
-        return getValidationResults(dataModel, shapeModel);
+        return getValidationResults(dataModel, getSchema(clazz));
     }
 
-    private ValidationReport getValidationResults(Model dataModel, Model shapeModel) throws IllegalAccessException,
-            IllegalArgumentException, InstantiationException, InvocationTargetException, SecurityException,
-            NoSuchMethodException, DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException {
-        Model valResultJenaModel = ModelFactory.createDefaultModel();
-        if (log.isDebugEnabled()) {
-            log.debug("Data model: \n{}", dataModel.write(System.out, RDFLanguages.strLangTurtle));
-            log.debug("Shape model: \n{}", shapeModel.write(System.out, RDFLanguages.strLangTurtle));
+    @Override
+    public void warmUp(Collection<Class<? extends AbstractResource>> classes)
+            throws IllegalAccessException, IllegalArgumentException, InvocationTargetException,
+            DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException, ParseException,
+            InstantiationException, SecurityException, NoSuchMethodException {
+        for (Class<? extends AbstractResource> clazz : classes) {
+            getSchema(clazz);
         }
+    }
 
-        Result result = validateInternal(dataModel, shapeModel);
+    /**
+     * @return the compiled schema of the shape built from the annotations of the class
+     */
+    Schema getSchema(Class<?> clazz) throws IllegalAccessException, IllegalArgumentException,
+            InvocationTargetException, DatatypeConfigurationException, OslcCoreApplicationException,
+            URISyntaxException, ParseException {
+        Schema schema = classSchemas.get(clazz);
+        if (schema == null) {
+            Shape shaclShape = ShaclShapeFactory.createShaclShape(clazz);
+            Model shapeModel = JenaModelHelper.createJenaModel(new Object[] { shaclShape });
+            schema = compile(shapeModel);
 
-        final RDFReader valReport = result.validationReport().right().get();
-        Either<String, String> valReportAsTurtle = valReport.serialize(RDFLanguages.strLangTurtle);
+            Schema existing = classSchemas.putIfAbsent(clazz, schema);
+            if (existing != null) {
+                schema = existing;
+            }
+        }
+        return schema;
+    }
 
+    /**
+     * @return the compiled schema of a shape model, reused for any isomorphic shape model
+     */
+    Schema getSchema(Model shapeModel) {
+        Integer hash = contentHash(shapeModel);
+        ShapeModelSchema cached = shapeModelSchemas.get(hash);
+        if (cached != null && cached.shapeModel.isIsomorphicWith(shapeModel)) {
+            return cached.schema;
+        }
+
+        // Keep a copy, so later changes to the caller's model do not alter the cache
+        Model shapeModelCopy = ModelFactory.createDefaultModel().add(shapeModel);
+        Schema schema = compile(shapeModelCopy);
+
+        if (shapeModelSchemas.size() >= SHAPE_MODEL_CACHE_SIZE) {
+            shapeModelSchemas.clear();
+        }
+        shapeModelSchemas.put(hash, new ShapeModelSchema(shapeModelCopy, schema));
+        return schema;
+    }
+
+    private static Schema compile(Model shapeModel) {
         if (log.isDebugEnabled()) {
-            log.debug("Validation report: \n{}", valReportAsTurtle.right().get());
+            log.debug("Shape model: \n{}", toTurtle(shapeModel));
+        }
+
+        final Either<String, Schema> schemaTry = Schemas.fromRDF(new RDFAsJenaModel(shapeModel), SHACLEX);
+        if (schemaTry.isRight()) {
+            return schemaTry.right().get();
+        } else {
+            throw new IllegalArgumentException("A given Shape cannot be used to create a correct " + "Schema");
         }
+    }
 
+    /**
+     * Order-independent hash of the triples of a model that ignores blank node labels, so that
+     * isomorphic models have the same hash.
+     */
+    private static Integer contentHash(Model model) {
+        int hash = 0;
+        ExtendedIterator<Triple> triples = model.getGraph().find(Node.ANY, Node.ANY, Node.ANY);
         try {
-            final InputStream in = new ByteArrayInputStream(valReportAsTurtle.right().get().getBytes("UTF-8"));
-            valResultJenaModel.read(in, null, RDFLanguages.strLangTurtle);
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
+            while (triples.hasNext()) {
+                Triple triple = triples.next();
+                hash += (31 * 31 * nodeHash(triple.getSubject())) + (31 * nodeHash(triple.getPredicate()))
+                        + nodeHash(triple.getObject());
+            }
+        } finally {
+            triples.close();
         }
-        return populateValidationReport(result);
+        return 31 * hash + (int) model.size();
     }
 
-    private Result validateInternal(Model resourceAsModel, Model shapeAsModel) throws IllegalArgumentException {
-        RDFAsJenaModel resourceAsRDFReader = new RDFAsJenaModel(resourceAsModel);
-        RDFAsJenaModel shapeAsRDFReader = new RDFAsJenaModel(shapeAsModel);
-        return validate(resourceAsRDFReader, shapeAsRDFReader);
+    private static int nodeHash(Node node) {
+        return node.isBlank() ? 0 : node.hashCode();
     }
 
-    private Result validate(final RDFAsJenaModel rdf, final Schema schema) {
+    private ValidationReport getValidationResults(Model dataModel, Schema schema) throws IllegalAccessException,
+            IllegalArgumentException, InstantiationException, InvocationTargetException, SecurityException,
+            NoSuchMethodException, DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException {
+        if (log.isDebugEnabled()) {
+            log.debug("Data model: \n{}", toTurtle(dataModel));
+        }
+
+        Result result = validateWithSchema(new RDFAsJenaModel(dataModel), schema);
+        return populateValidationReport(result);
+    }
+
+    private Result validateWithSchema(final RDFAsJenaModel rdf, final Schema schema) {
         PrefixMap nodeMap = rdf.getPrefixMap();
         PrefixMap shapesMap = schema.pm();
         return schema.validate(rdf, TRIGGER_MODE_TARGET_DECLS, EMPTY_MAP, OPTION_NONE, OPTION_NONE, nodeMap, shapesMap);
     }
 
-    private Result validate(RDFAsJenaModel resourceAsRDFReader, RDFAsJenaModel shapeAsRDFReader) {
-        final Either<String, Schema> schemaTry = Schemas.fromRDF(shapeAsRDFReader, SHACLEX);
-        if (schemaTry.isRight()) {
-            Schema schema = schemaTry.right().get();
-            return validate(resourceAsRDFReader, schema);
-        } else {
-            throw new IllegalArgumentException("A given Shape cannot be used to create a correct " + "Schema");
-        }
-    }
-
     ValidationReport populateValidationReport(Result result) throws IllegalAccessException, IllegalArgumentException,
             InstantiationException, InvocationTargetException, SecurityException, NoSuchMethodException,
             DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException {
-        Model valReportJenaModel = ModelFactory.createDefaultModel();
-        final RDFReader valReport = result.validationReport().right().get();
-        Either<String, String> valReportAsTurtle = valReport.serialize(RDFLanguages.strLangTurtle);
+        Model valReportJenaModel = toJenaModel(result.validationReport().right().get());
 
         if (log.isDebugEnabled()) {
-            log.debug("Validation report: \n{}", valReportAsTurtle.right().get());
+            log.debug("Validation report: \n{}", toTurtle(valReportJenaModel));
         }
 
-        try {
-            final InputStream in = new ByteArrayInputStream(valReportAsTurtle.right().get().getBytes("UTF-8"));
-            valReportJenaModel.read(in, null, RDFLanguages.strLangTurtle);
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
-        }
         return desearializeJenaModelToJavaObject(valReportJenaModel);
     }
 
+    /**
+     * @return the triples of a SHACLex validation report. SHACLex builds its reports in a Jena
+     *         model, which is used as is; other readers are converted through Turtle.
+     */
+    private static Model toJenaModel(RDFReader valReport) {
+        if (valReport instanceof RDFAsJenaModel) {
+            return ((RDFAsJenaModel) valReport).model();
+        }
+
+        Model valReportJenaModel = ModelFactory.createDefaultModel();
+        Either<String, String> valReportAsTurtle = valReport.serialize(RDFLanguages.strLangTurtle);
+        valReportJenaModel.read(new StringReader(valReportAsTurtle.right().get()), null, RDFLanguages.strLangTurtle);
+        return valReportJenaModel;
+    }
+
+    private static String toTurtle(Model model) {
+        StringWriter writer = new StringWriter();
+        model.write(writer, RDFLanguages.strLangTurtle);
+        return writer.toString();
+    }
+
     ValidationReport desearializeJenaModelToJavaObject(Model valReportJenaModel) throws IllegalAccessException,
             IllegalArgumentException, InstantiationException, InvocationTargetException, SecurityException,
             NoSuchMethodException, DatatypeConfigurationException, OslcCoreApplicationException, URISyntaxException {
@@ -161,4 +246,14 @@ public class ShaclExValidatorImpl implements Validator {
         return (ValidationReport) fromJenaModel[0];
 
     }
+
+    private static final class ShapeModelSchema {
+        private final Model shapeModel;
+        private final Schema schema;
+
+        ShapeModelSchema(Model shapeModel, Schema schema) {
+            this.shapeModel = shapeModel;
+            this.schema = schema;
+        }
+    }
 }
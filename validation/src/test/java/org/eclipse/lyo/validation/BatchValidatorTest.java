@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+package org.eclipse.lyo.validation;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.oslc4j.core.model.AnyResource;
+import org.eclipse.lyo.shacl.ValidationReport;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link BatchValidator} with a validator that conforms resources whose URI ends in "ok".
+ */
+public class BatchValidatorTest {
+
+    static class OtherResource extends AnyResource {
+        OtherResource(URI about) {
+            super(about);
+        }
+    }
+
+    static class StubValidator implements Validator {
+        final Set<Class<?>> warmedUp = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public ValidationReport validate(AbstractResource resource) throws URISyntaxException {
+            return report(resource.getAbout().toString());
+        }
+
+        @Override
+        public ValidationReport validate(Model dataModel, Model shapeModel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ValidationReport validate(Model dataModel, Class<? extends AbstractResource> clazz)
+                throws URISyntaxException {
+            return report(dataModel.listSubjects().next().getURI());
+        }
+
+        @Override
+        public void warmUp(Collection<Class<? extends AbstractResource>> classes) {
+            for (Class<? extends AbstractResource> clazz : classes) {
+                Assert.assertTrue("Each class is prepared once", warmedUp.add(clazz));
+            }
+        }
+
+        private static ValidationReport report(String uri) throws URISyntaxException {
+            if (uri.endsWith("error")) {
+                throw new IllegalStateException(uri);
+            }
+            ValidationReport report = new ValidationReport();
+            report.setConforms(uri.endsWith("ok"));
+            return report;
+        }
+    }
+
+    @Test
+    public void collectAll() throws InterruptedException {
+        StubValidator validator = new StubValidator();
+        List<AbstractResource> resources = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            URI about = URI.create("urn:" + i + (i % 10 == 0 ? ":error" : i % 2 == 0 ? ":ok" : ":ko"));
+            resources.add(i % 3 == 0 ? new OtherResource(about) : new AnyResource(about));
+        }
+
+        List<ValidationOutcome<AbstractResource>> outcomes = validator.validateAll(resources);
+
+        Assert.assertEquals(1000, outcomes.size());
+        Assert.assertEquals(resources.stream().collect(Collectors.toSet()),
+                outcomes.stream().map(ValidationOutcome::getSubject).collect(Collectors.toSet()));
+        Assert.assertEquals(400, outcomes.stream().filter(ValidationOutcome::isConforming).count());
+        Assert.assertEquals(100, outcomes.stream().filter(outcome -> outcome.getException() != null).count());
+        Assert.assertEquals(2, validator.warmedUp.size());
+    }
+
+    @Test
+    public void failFastStopsConsumingModels() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            AtomicInteger consumed = new AtomicInteger();
+            BatchValidator batchValidator = new BatchValidator(new StubValidator(), executor,
+                    BatchValidator.Mode.FAIL_FAST);
+
+            List<ValidationOutcome<Model>> outcomes = batchValidator.validate(IntStream.range(0, 100000)
+                    .peek(i -> consumed.incrementAndGet())
+                    .mapToObj(i -> model("urn:" + i + (i == 0 ? ":ko" : ":ok"))), AnyResource.class);
+
+            Assert.assertTrue(outcomes.stream().anyMatch(outcome -> !outcome.isConforming()));
+            Assert.assertTrue(consumed.get() < 100000);
+            Assert.assertEquals(consumed.get(), outcomes.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Model model(String uri) {
+        Model model = ModelFactory.createDefaultModel();
+        model.createResource(uri).addProperty(model.createProperty("urn:p"), "v");
+        return model;
+    }
+}
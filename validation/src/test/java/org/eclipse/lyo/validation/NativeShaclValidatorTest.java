@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Eclipse Distribution License 1.0
+ * which is available at http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR BSD-3-Clause
+ */
+
+package org.eclipse.lyo.validation;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.jena.rdf.model.Model;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcName;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcNamespace;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcPropertyDefinition;
+import org.eclipse.lyo.oslc4j.core.annotation.OslcResourceShape;
+import org.eclipse.lyo.oslc4j.core.model.AbstractResource;
+import org.eclipse.lyo.shacl.DataType;
+import org.eclipse.lyo.shacl.ValidationReport;
+import org.eclipse.lyo.shacl.annotations.ShaclDataType;
+import org.eclipse.lyo.shacl.annotations.ShaclIn;
+import org.eclipse.lyo.shacl.annotations.ShaclMaxCount;
+import org.eclipse.lyo.shacl.annotations.ShaclMaxLength;
+import org.eclipse.lyo.shacl.annotations.ShaclMinCount;
+import org.eclipse.lyo.shacl.annotations.ShaclMinLength;
+import org.eclipse.lyo.shacl.annotations.ShaclPattern;
+import org.eclipse.lyo.shacl.annotations.ShaclTargetClass;
+import org.eclipse.lyo.validation.impl.NativeShaclValidatorImpl;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link NativeShaclValidatorImpl} with a fallback validator that counts its calls.
+ */
+public class NativeShaclValidatorTest {
+
+    private static final String NATIVE_RESOURCE = SampleAdaptorConstants.SAMPLEDOMAIN_NAMSPACE + "NativeResource";
+
+    @OslcNamespace(SampleAdaptorConstants.SAMPLEDOMAIN_NAMSPACE)
+    @OslcName("NativeResource")
+    @OslcResourceShape(title = "NativeResource Resource Shape", describes = NATIVE_RESOURCE)
+    @ShaclTargetClass(NATIVE_RESOURCE)
+    public static class NativeResource extends AbstractResource {
+        private String name;
+        private BigInteger size;
+        private String status;
+
+        public NativeResource() {
+            super();
+        }
+
+        public NativeResource(URI about) {
+            super(about);
+        }
+
+        @OslcName("name")
+        @OslcPropertyDefinition(SampleAdaptorConstants.SAMPLEDOMAIN_NAMSPACE + "name")
+        @ShaclMinCount(1)
+        @ShaclMaxCount(1)
+        @ShaclPattern("^B")
+        @ShaclMinLength(3)
+        @ShaclMaxLength(10)
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        @OslcName("size")
+        @OslcPropertyDefinition(SampleAdaptorConstants.SAMPLEDOMAIN_NAMSPACE + "size")
+        @ShaclMaxCount(1)
+        @ShaclDataType(DataType.Integer)
+        public BigInteger getSize() {
+            return size;
+        }
+
+        public void setSize(BigInteger size) {
+            this.size = size;
+        }
+
+        @OslcName("status")
+        @OslcPropertyDefinition(SampleAdaptorConstants.SAMPLEDOMAIN_NAMSPACE + "status")
+        @ShaclIn({ "Open", "Closed" })
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+    }
+
+    static class CountingValidator implements Validator {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public ValidationReport validate(AbstractResource resource) throws URISyntaxException {
+            calls.incrementAndGet();
+            ValidationReport report = new ValidationReport();
+            report.setConforms(true);
+            return report;
+        }
+
+        @Override
+        public ValidationReport validate(Model dataModel, Model shapeModel) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ValidationReport validate(Model dataModel, Class<? extends AbstractResource> clazz) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final CountingValidator fallback = new CountingValidator();
+    private final Validator validator = new NativeShaclValidatorImpl(fallback);
+
+    private static NativeResource nativeResource(String name) throws URISyntaxException {
+        NativeResource resource = new NativeResource(new URI("http://www.sampledomain.org/sam#NativeResource"));
+        resource.setName(name);
+        resource.setSize(BigInteger.TEN);
+        resource.setStatus("Open");
+        return resource;
+    }
+
+    @Test
+    public void conformingResource() throws Exception {
+        TestHelper.assertPositive(validator.validate(nativeResource("Between")));
+        Assert.assertEquals(0, fallback.calls.get());
+    }
+
+    @Test
+    public void minCountViolation() throws Exception {
+        TestHelper.assertNegative(validator.validate(nativeResource(null)), "MinCount violation. Expected 1, obtained: 0");
+        Assert.assertEquals(0, fallback.calls.get());
+    }
+
+    @Test
+    public void stringViolations() throws Exception {
+        TestHelper.assertNegative(validator.validate(nativeResource("Catalyzer")),
+                "pattern violation. Expected \"Catalyzer\" to match '^B'");
+        TestHelper.assertNegative(validator.validate(nativeResource("Be")), "minLength violation.");
+        TestHelper.assertNegative(validator.validate(nativeResource("Between two and four")), "maxLength violation.");
+    }
+
+    @Test
+    public void inViolation() throws Exception {
+        NativeResource resource = nativeResource("Between");
+        resource.setStatus("Pending");
+
+        ValidationReport report = validator.validate(resource);
+
+        TestHelper.assertNegative(report, "In violation. Expected \"Pending\"");
+        Assert.assertEquals(URI.create(SampleAdaptorConstants.SAMPLEDOMAIN_NAMSPACE + "status"),
+                report.getResult().iterator().next().getResultPath());
+    }
+
+    @Test
+    public void unsupportedConstraintsFallBack() throws Exception {
+        AResource aResource = new AResource(new URI("http://www.sampledomain.org/sam#AResource"));
+
+        // AResource has value range constraints, which are not checked natively
+        validator.validate(aResource);
+
+        Assert.assertEquals(1, fallback.calls.get());
+    }
+}